@@ -63,16 +63,14 @@ import java.util.Stack;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.bind.Binder;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.UnmarshalException;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.namespace.QName;
 
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.Node;
 
 import org.xml.sax.helpers.LocatorImpl;
 
@@ -106,6 +104,8 @@ import com.skynav.ttv.util.Annotations;
 import com.skynav.ttv.util.Base64;
 import com.skynav.ttv.util.ExternalParameters;
 import com.skynav.ttv.util.IOUtil;
+import com.skynav.ttv.util.JAXBContexts;
+import com.skynav.ttv.util.LineIndex;
 import com.skynav.ttv.util.Message;
 import com.skynav.ttv.util.NullReporter;
 import com.skynav.ttv.util.Reporter;
@@ -1689,32 +1689,6 @@ public class Converter implements ConverterContext {
         return newBuffer;
     }
 
-    private String[] parseLines(CharBuffer cb, Charset encoding) {
-        List<String> lines = new java.util.ArrayList<String>();
-        StringBuffer sb = new StringBuffer();
-        while (cb.hasRemaining()) {
-            while (cb.hasRemaining()) {
-                char c = cb.get();
-                if (c == '\n') {
-                    break;
-                } else if (c == '\r') {
-                    if (cb.hasRemaining()) {
-                        c = cb.charAt(0);
-                        if (c == '\n')
-                            cb.get();
-                    }
-                    break;
-                } else {
-                    sb.append(c);
-                }
-            }
-            lines.add(sb.toString());
-            sb.setLength(0);
-        }
-        cb.rewind();
-        return lines.toArray(new String[lines.size()]);
-    }
-
     private void resetResourceState() {
         // processing state
         resourceUriString = null;
@@ -1796,7 +1770,7 @@ public class Converter implements ConverterContext {
                         if (charsBuffer != null) {
                             setResourceBuffer(encoding, charsBuffer, bytesBuffer);
                             if (includeSource)
-                                reporter.setLines(parseLines(charsBuffer, encoding));
+                                reporter.setLines(new LineIndex(charsBuffer.duplicate()));
                             reporter.logInfo(reporter.message("i.009", "Resource length {0} bytes, decoded as {1} Java characters (char).",
                                 bytesBuffer.limit(), charsBuffer.limit()));
                         }
@@ -3496,9 +3470,14 @@ public class Converter implements ConverterContext {
 
     private Object unmarshall(Document d) {
         try {
-            JAXBContext context = JAXBContext.newInstance(getModel().getJAXBContextPath());
-            Binder<Node> binder = context.createBinder();
-            Object unmarshalled = binder.unmarshal(d);
+            String contextPath = getModel().getJAXBContextPath();
+            Unmarshaller unmarshaller = JAXBContexts.acquireUnmarshaller(contextPath);
+            Object unmarshalled;
+            try {
+                unmarshalled = unmarshaller.unmarshal(d);
+            } finally {
+                JAXBContexts.releaseUnmarshaller(contextPath, unmarshaller);
+            }
             if (unmarshalled instanceof JAXBElement<?>)
                 return ((JAXBElement<?>) unmarshalled).getValue();
         } catch (UnmarshalException e) {
@@ -41,7 +41,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
@@ -64,6 +63,7 @@ import com.skynav.cap2tt.converter.AbstractResourceConverter;
 
 import com.skynav.ttv.model.Model;
 import com.skynav.ttv.util.ComparableQName;
+import com.skynav.ttv.util.JAXBContexts;
 import com.skynav.ttv.util.Namespaces;
 import com.skynav.ttv.util.PreVisitor;
 import com.skynav.ttv.util.Reporter;
@@ -161,13 +161,16 @@ public abstract class AbstractResourceConverter implements ResourceConverter {
         boolean fail = false;
         Reporter reporter = context.getReporter();
         try {
-            JAXBContext jc = JAXBContext.newInstance(model.getJAXBContextPath());
-            Marshaller m = jc.createMarshaller();
             DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
             dbf.setNamespaceAware(true);
             DocumentBuilder db = dbf.newDocumentBuilder();
             Document d = db.newDocument();
-            m.marshal(tt, d);
+            Marshaller m = JAXBContexts.acquireMarshaller(model.getJAXBContextPath());
+            try {
+                m.marshal(tt, d);
+            } finally {
+                JAXBContexts.releaseMarshaller(model.getJAXBContextPath(), m);
+            }
             mergeConfiguration(d);
             elideInitials(d, getInitials(d, model));
             if (mergeStyles)
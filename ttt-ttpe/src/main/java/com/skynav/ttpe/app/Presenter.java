@@ -651,6 +651,7 @@ public class Presenter extends TimedTextTransformer {
             prePresentMemory = getUsedMemory();
             reporter.logInfo(reporter.message("*KEY*", "Pre-presentation memory usage: {0}", prePresentMemory));
         }
+        beginMetricsPhase("Presentation");
         LayoutProcessor lp = this.layout;
         assert lp != null;
         RenderProcessor rp = this.renderer;
@@ -3,11 +3,13 @@ package com.skynav.ttv.servlet;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.MalformedURLException;
@@ -16,6 +18,7 @@ import java.net.URI;
 import java.net.URL;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 
 import javax.servlet.ServletContext;
 import javax.servlet.ServletException;
@@ -37,6 +40,11 @@ import org.apache.commons.fileupload.util.Streams;
 
 import com.skynav.ttv.app.TimedTextVerifier;
 import com.skynav.ttv.app.TimedTextVerifier.Results;
+import com.skynav.ttv.app.UsageException;
+import com.skynav.ttv.app.VerificationEngine;
+import com.skynav.ttv.model.Models;
+import com.skynav.ttv.util.Schemas;
+import com.skynav.ttv.util.XMLReporter;
 
 public class CheckerServlet extends HttpServlet {
 
@@ -49,6 +57,34 @@ public class CheckerServlet extends HttpServlet {
     private static final String REPORT_DIRECTORY_NAME = "reports";
     private static final String REPORT_FILE_PREFIX = "rpt";
     private static final String REPORT_FILE_SUFFIX = ".xml";
+    private static final String PRELOAD_SCHEMAS_PARAMETER = "preloadSchemas";
+
+    // engines are shared by requests having the same option arguments, of which there are few distinct combinations
+    private transient ConcurrentMap<List<String>,VerificationEngine> engines = new java.util.concurrent.ConcurrentHashMap<List<String>,VerificationEngine>();
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        // optionally compile schemas in advance of first request, where parameter value is
+        // a whitespace separated list of model names, or 'all' to designate all models
+        String preloadSchemas = getInitParameter(PRELOAD_SCHEMAS_PARAMETER);
+        if ((preloadSchemas != null) && (preloadSchemas.trim().length() > 0)) {
+            String[] modelNames;
+            if (preloadSchemas.trim().equals("all"))
+                modelNames = Models.getModelNames().toArray(new String[0]);
+            else
+                modelNames = preloadSchemas.trim().split("\\s+");
+            new TimedTextVerifier().preloadSchemas(modelNames);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        engines.clear();
+        // release compiled schemas and pooled validators held by process wide schema registry
+        Schemas.clear();
+        super.destroy();
+    }
 
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         doCheck(new RequestState(request, response));
@@ -212,7 +248,6 @@ public class CheckerServlet extends HttpServlet {
     private void processCheck(RequestState state) throws IOException {
         File upload = state.uploadFile;
         if ((upload != null) && upload.exists()) {
-            TimedTextVerifier ttv = new TimedTextVerifier();
             List<String> args = new java.util.ArrayList<String>();
             if (state.getBooleanField("quiet"))
                 args.add("-q");
@@ -220,6 +255,8 @@ public class CheckerServlet extends HttpServlet {
                 args.add("-v");
             if (state.getBooleanField("treatWarningAsError"))
                 args.add("--treat-warning-as-error");
+            if (state.getBooleanField("failFast"))
+                args.add("--fail-fast");
             if (state.hasField("encoding")) {
                 String encoding = state.getFirstFieldValue("encoding");
                 if (!encoding.equals("(detect automatically)")) {
@@ -238,16 +275,25 @@ public class CheckerServlet extends HttpServlet {
                 }
             }
             args.add("--servlet");
-            args.add("--reporter");
-            args.add("xml");
-            args.add("--reporter-file");
-            args.add(createReporterFile(state));
             args.add("--reporter-include-source");
-            String urlString = upload.toURI().toString();
-            args.add(urlString);
             System.out.println(args);
-            ttv.run(args.toArray(new String[args.size()]));
-            state.results = ttv.getResults(urlString);
+            VerificationEngine engine;
+            try {
+                engine = getEngine(args);
+            } catch (UsageException e) {
+                engine = null;
+                state.setPreverifyException(e);
+            }
+            if (engine != null) {
+                VerificationEngine.Outcome outcome = engine.verify(upload.toURI());
+                String reportFilePath = createReporterFile(state);
+                if (reportFilePath != null)
+                    new ReportWriter().write(new File(reportFilePath), outcome.getMessages());
+                state.results = outcome.getResults();
+            } else {
+                state.results = new Results();
+                state.request.setAttribute("PreverifyExceptionMessage", state.preverifyException.getMessage());
+            }
         } else {
             state.results = new Results();
             if (state.preverifyException != null) {
@@ -256,6 +302,18 @@ public class CheckerServlet extends HttpServlet {
         }
     }
 
+    private VerificationEngine getEngine(List<String> args) {
+        VerificationEngine engine = engines.get(args);
+        if (engine == null) {
+            // option arguments are validated when an engine is constructed, so only valid combinations are retained
+            engine = new VerificationEngine(args);
+            VerificationEngine engineExisting = engines.putIfAbsent(args, engine);
+            if (engineExisting != null)
+                engine = engineExisting;
+        }
+        return engine;
+    }
+
     private void processResponse(RequestState state) throws ServletException, IOException {
         HttpServletRequest request = state.request;
         HttpServletResponse response = state.response;
@@ -385,6 +443,19 @@ public class CheckerServlet extends HttpServlet {
 
     }
 
+    static class ReportWriter extends XMLReporter {
+        void write(File reportFile, List<VerificationEngine.ReportedMessage> messages) throws IOException {
+            PrintWriter output = new PrintWriter(new BufferedWriter(new OutputStreamWriter(new FileOutputStream(reportFile), DEFAULT_ENCODING)));
+            open(null, output, null, DEFAULT_ENCODING, Boolean.TRUE);
+            try {
+                for (VerificationEngine.ReportedMessage m : messages)
+                    out(formatMessage(m.getType(), m.getMessage(), m.isHidingLocation(), m.isHidingPath()));
+            } finally {
+                close();
+            }
+        }
+    }
+
     static class StreamUtil {
         static void closeSafely(InputStream stream) {
             if (stream != null) {
@@ -272,6 +272,9 @@
         sb.append("<td><input id=\"treatWarningAsError\" name=\"treatWarningAsError\" type=\"checkbox\" value=\"1\" /><label title=\"Treat Warning as Error\" for=\"treatWarningAsError\">Treat Warning as Error</label></td>\n");
         sb.append("<td><input id=\"verbose\" name=\"verbose\" type=\"checkbox\" value=\"1\" /><label title=\"Verbose Output\" for=\"verbose\">Verbose Output</label></td>\n");
         sb.append("</tr>\n");
+        sb.append("<tr>\n");
+        sb.append("<td><input id=\"failFast\" name=\"failFast\" type=\"checkbox\" value=\"1\" /><label title=\"Stop at First Error\" for=\"failFast\">Stop at First Error</label></td>\n");
+        sb.append("</tr>\n");
         sb.append("</table>\n");
         sb.append("<div id=\"revalidate_button\" class=\"submit_button\">\n");
         sb.append("<input type=\"hidden\" value=\"W3C_TTML_Validator/1.0 http://validator.w3.org/services\" id=\"user-agent\" name=\"user-agent\" />\n");
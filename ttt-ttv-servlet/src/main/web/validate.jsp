@@ -121,6 +121,9 @@
                     <td><input id="treatWarningAsError" name="treatWarningAsError" type="checkbox" value="1" /><label title="Treat Warning as Error" for="treatWarningAsError">Treat Warning as Error</label></td>
                     <td><input id="uri-verbose" name="verbose" type="checkbox" value="1" /><label title="Verbose Output" for="uri-verbose">Verbose Output</label></td>
                   </tr>
+                  <tr>
+                    <td><input id="uri-failFast" name="failFast" type="checkbox" value="1" /><label title="Stop at First Error" for="uri-failFast">Stop at First Error</label></td>
+                  </tr>
                 </table>
               </div>
             </fieldset>
@@ -167,6 +170,9 @@
                     <td><input id="treatWarningAsError" name="treatWarningAsError" type="checkbox" value="1" /><label title="Treat Warning as Error" for="treatWarningAsError">Treat Warning as Error</label></td>
                     <td><input id="upload-verbose" name="verbose" type="checkbox" value="1" /><label title="Verbose Output" for="upload-verbose">Verbose Output</label></td>
                   </tr>
+                  <tr>
+                    <td><input id="upload-failFast" name="failFast" type="checkbox" value="1" /><label title="Stop at First Error" for="upload-failFast">Stop at First Error</label></td>
+                  </tr>
                 </table>
               </div>
             </fieldset><!-- invisible -->
@@ -200,6 +206,9 @@
                     <td><input id="treatWarningAsError" name="treatWarningAsError" type="checkbox" value="1" /><label title="Treat Warning as Error" for="treatWarningAsError">Treat Warning as Error</label></td>
                     <td><input id="direct-verbose" name="verbose" type="checkbox" value="1" /><label title="Verbose Output" for="direct-verbose">Verbose Output</label></td>
                   </tr>
+                  <tr>
+                    <td><input id="direct-failFast" name="failFast" type="checkbox" value="1" /><label title="Stop at First Error" for="direct-failFast">Stop at First Error</label></td>
+                  </tr>
                 </table>
               </div>
             </fieldset>
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import com.skynav.ttv.model.smpte.ST20522010TTML1;
+import com.skynav.ttv.model.smpte.ST20522013;
+import com.skynav.ttv.verifier.util.SpilledPayloads;
+
+/**
+ * A filter that diverts large Base64 encoded content of SMPTE image and data elements into spilled payloads,
+ * replacing the content seen by downstream handlers with a payload handle. Content at or below the spill
+ * threshold is passed through unchanged.
+ */
+class Base64SpillingFilter extends XMLFilterImpl {
+
+    private static final Set<QName> spillableElementNames;
+
+    static {
+        spillableElementNames = new java.util.HashSet<QName>();
+        for (String ns : new String[] { ST20522010TTML1.Constants.NAMESPACE_2010, ST20522013.Constants.NAMESPACE_2013 }) {
+            spillableElementNames.add(new QName(ns, "image"));
+            spillableElementNames.add(new QName(ns, "data"));
+        }
+    }
+
+    private SpilledPayloads payloads;
+    private int depth;
+    private StringBuilder content;
+    private SpilledPayloads.Payload payload;
+
+    Base64SpillingFilter(XMLReader reader, SpilledPayloads payloads) {
+        super(reader);
+        this.payloads = payloads;
+    }
+
+    @Override
+    public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
+        if (depth > 0) {
+            flush();
+            ++depth;
+        } else if ((payloads != null) && spillableElementNames.contains(new QName(nsUri, localName))) {
+            depth = 1;
+            content = new StringBuilder();
+        }
+        super.startElement(nsUri, localName, qualName, attrs);
+    }
+
+    @Override
+    public void endElement(String nsUri, String localName, String qualName) throws SAXException {
+        if (depth > 0) {
+            if (--depth == 0)
+                finish();
+            else
+                flush();
+        }
+        super.endElement(nsUri, localName, qualName);
+    }
+
+    @Override
+    public void characters(char[] chars, int start, int length) throws SAXException {
+        if (depth == 1) {
+            if (payload != null)
+                payload.append(chars, start, length);
+            else {
+                content.append(chars, start, length);
+                if ((content.length() > SpilledPayloads.SPILL_THRESHOLD))
+                    spill();
+            }
+        } else {
+            if (depth > 0)
+                flush();
+            super.characters(chars, start, length);
+        }
+    }
+
+    private void spill() {
+        payload = payloads.createPayload();
+        payload.append(content);
+        content.setLength(0);
+    }
+
+    private void flush() throws SAXException {
+        // mixed content is not spilled, since it is invalid and reported by validation
+        if (payload != null) {
+            payload.finish();
+            String handle = payload.getHandle();
+            payload = null;
+            super.characters(handle.toCharArray(), 0, handle.length());
+        } else if ((content != null) && (content.length() > 0)) {
+            char[] chars = new char[content.length()];
+            content.getChars(0, chars.length, chars, 0);
+            content.setLength(0);
+            super.characters(chars, 0, chars.length);
+        }
+    }
+
+    private void finish() throws SAXException {
+        flush();
+        content = null;
+    }
+
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+
+import com.skynav.ttv.app.TimedTextVerifier.Results;
+import com.skynav.ttv.util.IOUtil;
+
+/**
+ * An on-disk cache of verification results, keyed by a digest of a resource's content and URI and
+ * of a fingerprint of the verifier version, (effective) option arguments and configuration content.
+ * Each entry records the results of verifying a resource together with the reporter output produced
+ * while verifying it, so that the output may be replayed when the same resource is subsequently
+ * verified under the same options and configuration without parsing it again.
+ *
+ * Entries are written atomically as soon as each resource has been verified, so that an interrupted
+ * run over a collection of resources acts as a checkpoint: running again resumes with the first resource
+ * whose results were not cached, replaying the results of those that were.
+ *
+ * A cache instance may be shared by multiple (worker) verifiers.
+ */
+class ResultCache {
+
+    private static final String ENTRY_SUFFIX = ".result";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private File directory;
+    private volatile String fingerprint;
+    private AtomicInteger hits;
+    private AtomicInteger misses;
+
+    ResultCache(File directory) {
+        this.directory = directory;
+        this.hits = new AtomicInteger();
+        this.misses = new AtomicInteger();
+    }
+
+    File getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Establish fingerprint of verifier version, option arguments and configuration, which must be
+     * established prior to making any keys.
+     * @param version verifier version
+     * @param optionArgs (effective) option arguments
+     * @param configuration content of configuration file or null if no configuration file applies
+     */
+    void setFingerprint(String version, List<String> optionArgs, byte[] configuration) {
+        StringBuffer sb = new StringBuffer();
+        sb.append(version);
+        for (String arg : optionArgs) {
+            sb.append('\0');
+            sb.append(arg);
+        }
+        sb.append('\0');
+        if (configuration != null) {
+            MessageDigest md = getDigest();
+            md.update(configuration);
+            sb.append(toHexString(md.digest()));
+        }
+        this.fingerprint = sb.toString();
+    }
+
+    /**
+     * Make key for resource.
+     * @param uri resource URI
+     * @param bytes resource content
+     * @return key or null if no fingerprint has been established
+     */
+    String makeKey(String uri, ByteBuffer bytes) {
+        String fingerprint = this.fingerprint;
+        if (fingerprint == null)
+            return null;
+        MessageDigest md = getDigest();
+        md.update(fingerprint.getBytes(UTF8));
+        md.update((byte) 0);
+        md.update(uri.getBytes(UTF8));
+        md.update((byte) 0);
+        md.update(bytes.duplicate());
+        return toHexString(md.digest());
+    }
+
+    private static MessageDigest getDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHexString(byte[] digest) {
+        StringBuffer sb = new StringBuffer(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Obtain cached entry, recording a hit or miss.
+     * @param key entry key
+     * @return entry or null if not cached (or not readable)
+     */
+    Entry get(String key) {
+        File file = new File(directory, key + ENTRY_SUFFIX);
+        Entry entry = null;
+        if (file.isFile()) {
+            InputStream is = null;
+            try {
+                is = new FileInputStream(file);
+                Properties p = new Properties();
+                p.load(is);
+                entry = Entry.fromProperties(p);
+            } catch (IOException e) {
+                entry = null;
+            } catch (RuntimeException e) {
+                entry = null;
+            } finally {
+                IOUtil.closeSafely(is);
+            }
+        }
+        if (entry != null)
+            hits.incrementAndGet();
+        else
+            misses.incrementAndGet();
+        return entry;
+    }
+
+    /**
+     * Record entry, replacing any existing entry. Failure to record an entry is ignored,
+     * since it only affects subsequent performance.
+     * @param key entry key
+     * @param rv verification return value
+     * @param results verification results
+     * @param output reporter output
+     */
+    void put(String key, int rv, Results results, String output) {
+        if (results == null)
+            return;
+        File file = new File(directory, key + ENTRY_SUFFIX);
+        File temp = null;
+        OutputStream os = null;
+        try {
+            temp = File.createTempFile(key, ".tmp", directory);
+            os = new FileOutputStream(temp);
+            new Entry(rv, results, output).toProperties().store(os, null);
+            os.close();
+            os = null;
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException e) {
+        } finally {
+            IOUtil.closeSafely(os);
+            if (temp != null)
+                IOUtil.deleteSafely(temp);
+        }
+    }
+
+    int getHits() {
+        return hits.get();
+    }
+
+    int getMisses() {
+        return misses.get();
+    }
+
+    static class Entry {
+
+        private int rv;
+        private Results results;
+        private String output;
+
+        Entry(int rv, Results results, String output) {
+            this.rv = rv;
+            this.results = results;
+            this.output = output;
+        }
+
+        int getRv() {
+            return rv;
+        }
+
+        Results getResults() {
+            return results;
+        }
+
+        String getOutput() {
+            return output;
+        }
+
+        Properties toProperties() {
+            Properties p = new Properties();
+            p.setProperty("rv", Integer.toString(rv));
+            p.setProperty("uri", results.getURIString());
+            p.setProperty("errorsExpected", Integer.toString(results.getErrorsExpected()));
+            p.setProperty("errors", Integer.toString(results.getErrors()));
+            p.setProperty("warningsExpected", Integer.toString(results.getWarningsExpected()));
+            p.setProperty("warnings", Integer.toString(results.getWarnings()));
+            p.setProperty("model", results.getModelName());
+            p.setProperty("encoding", results.getEncodingName());
+            if (results.getRoot() != null)
+                p.setProperty("root", results.getRoot().toString());
+            p.setProperty("output", (output != null) ? output : "");
+            return p;
+        }
+
+        static Entry fromProperties(Properties p) {
+            int rv = Integer.parseInt(p.getProperty("rv"));
+            String uri = p.getProperty("uri");
+            int errorsExpected = Integer.parseInt(p.getProperty("errorsExpected"));
+            int errors = Integer.parseInt(p.getProperty("errors"));
+            int warningsExpected = Integer.parseInt(p.getProperty("warningsExpected"));
+            int warnings = Integer.parseInt(p.getProperty("warnings"));
+            String model = p.getProperty("model");
+            String encoding = p.getProperty("encoding");
+            String root = p.getProperty("root");
+            String output = p.getProperty("output");
+            if ((uri == null) || (model == null) || (encoding == null) || (output == null))
+                return null;
+            Results results = new Results(uri, rv, errorsExpected, errors, warningsExpected, warnings, model, encoding, (root != null) ? QName.valueOf(root) : null);
+            return new Entry(rv, results, output);
+        }
+
+    }
+
+}
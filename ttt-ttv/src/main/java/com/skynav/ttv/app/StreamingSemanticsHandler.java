@@ -0,0 +1,230 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.DefaultHandler;
+import org.xml.sax.helpers.LocatorImpl;
+
+import com.skynav.ttv.model.Model;
+import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.ParameterVerifier;
+import com.skynav.ttv.verifier.StyleVerifier;
+import com.skynav.ttv.verifier.TimingVerifier;
+import com.skynav.ttv.verifier.VerificationCancelledException;
+import com.skynav.ttv.verifier.VerificationParameters;
+import com.skynav.ttv.verifier.VerifierContext;
+import com.skynav.ttv.verifier.ttml.timing.StreamingTimingVerificationParameters;
+import com.skynav.xml.helpers.XML;
+
+/**
+ * A SAX content handler that performs the subset of semantics verification that requires only
+ * local or bounded context, so that a resource may be verified without materializing a document
+ * tree or binding an object graph, i.e., using memory that does not grow with document length
+ * apart from the set of identifiers defined by the document.
+ *
+ * The following are verified:
+ *
+ * (1) syntax of lexical style, timing, and parameter attribute values;
+ * (2) uniqueness of ID attributes;
+ * (3) IDREF attributes, where references to identifiers not yet defined are resolved upon reaching
+ *     the end of the document.
+ *
+ * Other semantic constraints require access to document context that is not retained when
+ * streaming; these are listed by {@link #getSkippedChecks()}.
+ */
+class StreamingSemanticsHandler extends DefaultHandler {
+
+    private static final String[] skippedChecks = new String[] {
+        "element content and ancestor constraints",
+        "IDREF permissible ancestor constraints",
+        "style resolution, inheritance, and applicability constraints",
+        "temporal interval and containment constraints",
+        "region, layout, and extent constraints",
+        "profile, feature, and extension constraints",
+        "embedded and referenced media constraints",
+        "model specific (profile) constraints",
+        "attribute values whose verification requires document context",
+    };
+
+    private Model model;
+    private VerifierContext context;
+    private Reporter reporter;
+    private StyleVerifier styleVerifier;
+    private TimingVerifier timingVerifier;
+    private ParameterVerifier parameterVerifier;
+    private Set<String> ttNamespaces;
+    private List<QName> idAttributes;
+    private Locator locator;
+    private boolean expectRootElement = true;
+    private VerificationParameters timingParameters;
+    private Map<QName,QName> elementNames = new java.util.HashMap<QName,QName>();
+    private Map<String,QName> ids = new java.util.HashMap<String,QName>();
+    private List<PendingReference> pendingReferences = new java.util.ArrayList<PendingReference>();
+
+    StreamingSemanticsHandler(Model model, VerifierContext context) {
+        this.model = model;
+        this.context = context;
+        this.reporter = context.getReporter();
+        this.styleVerifier = model.getStyleVerifier();
+        this.timingVerifier = model.getTimingVerifier();
+        this.parameterVerifier = model.getParameterVerifier();
+        this.ttNamespaces = new java.util.HashSet<String>();
+        for (URI uri : model.getTTNamespaceURIs())
+            this.ttNamespaces.add(uri.toString());
+        this.idAttributes = model.getIdAttributes();
+    }
+
+    static String[] getSkippedChecks() {
+        return skippedChecks;
+    }
+
+    @Override
+    public void setDocumentLocator(Locator locator) {
+        this.locator = locator;
+    }
+
+    @Override
+    public void startElement(String nsUri, String localName, String qName, Attributes attrs) {
+        QName elementName = getElementName(nsUri, localName);
+        if (expectRootElement) {
+            timingParameters = makeTimingParameters(attrs);
+            expectRootElement = false;
+        }
+        verifyIdentifier(elementName, attrs);
+        if (ttNamespaces.contains(elementName.getNamespaceURI()))
+            verifyAttributes(elementName, attrs);
+        if (context.isVerificationCancelled())
+            throw new VerificationCancelledException();
+    }
+
+    @Override
+    public void endDocument() {
+        for (PendingReference reference : pendingReferences)
+            verifyReference(reference.id, reference.attributeName, reference.targetName, reference.locator, true);
+        pendingReferences.clear();
+    }
+
+    private QName getElementName(String nsUri, String localName) {
+        QName name = new QName(nsUri != null ? nsUri : "", localName);
+        QName nameShared = elementNames.get(name);
+        if (nameShared == null) {
+            elementNames.put(name, name);
+            nameShared = name;
+        }
+        return nameShared;
+    }
+
+    private VerificationParameters makeTimingParameters(Attributes attrs) {
+        Map<QName,String> rootAttributes = new java.util.HashMap<QName,String>();
+        for (int i = 0, n = attrs.getLength(); i < n; ++i)
+            rootAttributes.put(getAttributeName(attrs, i), attrs.getValue(i));
+        return new StreamingTimingVerificationParameters(rootAttributes, context.getExternalParameters());
+    }
+
+    private void verifyIdentifier(QName elementName, Attributes attrs) {
+        for (QName idAttribute : idAttributes) {
+            String id = attrs.getValue(idAttribute.getNamespaceURI(), idAttribute.getLocalPart());
+            if (id != null) {
+                id = id.trim();
+                if (ids.containsKey(id)) {
+                    reporter.logError(reporter.message(locator, "*KEY*",
+                        "Duplicate ID ''{0}'' on ''{1}'', previously defined on ''{2}''.", id, elementName, ids.get(id)));
+                } else
+                    ids.put(id, elementName);
+                break;
+            }
+        }
+    }
+
+    private void verifyAttributes(QName elementName, Attributes attrs) {
+        for (int i = 0, n = attrs.getLength(); i < n; ++i) {
+            QName name = getAttributeName(attrs, i);
+            String value = attrs.getValue(i);
+            if (name.getNamespaceURI().equals(XML.xmlNamespace))
+                continue;
+            QName targetName = model.getIdReferenceTargetName(name);
+            if (targetName != null) {
+                for (String id : value.trim().split("\\s+")) {
+                    if (id.length() > 0)
+                        verifyReference(id, name, targetName, locator, false);
+                }
+            } else
+                verifyAttributeValue(elementName, name, value);
+        }
+    }
+
+    private void verifyAttributeValue(QName elementName, QName name, String value) {
+        styleVerifier.verifyStyleValue(elementName, name, value, locator, context);
+        timingVerifier.verifyTimingValue(elementName, name, value, locator, context, timingParameters);
+        parameterVerifier.verifyParameterValue(elementName, name, value, locator, context);
+    }
+
+    private void verifyReference(String id, QName attributeName, QName targetName, Locator locator, boolean atEnd) {
+        QName targetActual = ids.get(id);
+        if (targetActual == null) {
+            if (!atEnd)
+                pendingReferences.add(new PendingReference(id, attributeName, targetName, new LocatorImpl(locator)));
+            else {
+                reporter.logError(reporter.message(locator, "*KEY*",
+                    "Bad IDREF ''{0}'' in {1}, no element defines ID ''{0}''.", id, attributeName));
+            }
+        } else if (!targetActual.equals(targetName)) {
+            reporter.logError(reporter.message(locator, "*KEY*",
+                "Bad IDREF ''{0}'' in {1}, got reference to ''{2}'', expected reference to ''{3}''.", id, attributeName, targetActual, targetName));
+        }
+    }
+
+    private static QName getAttributeName(Attributes attrs, int index) {
+        String nsUri = attrs.getURI(index);
+        String localName = attrs.getLocalName(index);
+        if ((localName == null) || (localName.length() == 0))
+            localName = attrs.getQName(index);
+        return new QName(nsUri != null ? nsUri : "", localName);
+    }
+
+    private static class PendingReference {
+        String id;
+        QName attributeName;
+        QName targetName;
+        Locator locator;
+        PendingReference(String id, QName attributeName, QName targetName, Locator locator) {
+            this.id = id;
+            this.attributeName = attributeName;
+            this.targetName = targetName;
+            this.locator = locator;
+        }
+    }
+
+}
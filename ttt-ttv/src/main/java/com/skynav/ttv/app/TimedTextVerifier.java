@@ -26,39 +26,52 @@
 package com.skynav.ttv.app;
 
 import java.io.BufferedWriter;
-import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.CharArrayReader;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.io.OutputStreamWriter;
 import java.io.PrintWriter;
+import java.io.Reader;
+import java.io.StringWriter;
 import java.lang.reflect.InvocationTargetException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
 import java.nio.charset.CoderResult;
 import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.Enumeration;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.MissingResourceException;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.Binder;
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBElement;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.UnmarshalException;
@@ -73,14 +86,19 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
 import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
 
+import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
 import org.xml.sax.Attributes;
+import org.xml.sax.ContentHandler;
 import org.xml.sax.ErrorHandler;
 import org.xml.sax.InputSource;
 import org.xml.sax.Locator;
@@ -89,6 +107,7 @@ import org.xml.sax.SAXNotRecognizedException;
 import org.xml.sax.SAXNotSupportedException;
 import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
+import org.xml.sax.ext.LexicalHandler;
 import org.xml.sax.helpers.AttributesImpl;
 import org.xml.sax.helpers.DefaultHandler;
 import org.xml.sax.helpers.XMLFilterImpl;
@@ -108,16 +127,30 @@ import com.skynav.ttv.util.Annotations;
 import com.skynav.ttv.util.Condition;
 import com.skynav.ttv.util.Configuration;
 import com.skynav.ttv.util.ConfigurationDefaults;
+import com.skynav.ttv.util.DeferredReporter;
 import com.skynav.ttv.util.ExternalParameters;
 import com.skynav.ttv.util.IOUtil;
+import com.skynav.ttv.util.JAXBContexts;
+import com.skynav.ttv.util.LineIndex;
 import com.skynav.ttv.util.Location;
+import com.skynav.ttv.util.LocationTable;
 import com.skynav.ttv.util.Locators;
 import com.skynav.ttv.util.MediaQuery;
 import com.skynav.ttv.util.Message;
+import com.skynav.ttv.util.Metrics;
+import com.skynav.ttv.util.MetricsMessage;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.util.Reporters;
+import com.skynav.ttv.util.Schemas;
+import com.skynav.ttv.util.TextReporter;
+import com.skynav.ttv.verifier.SemanticsVerifier;
+import com.skynav.ttv.verifier.VerificationCancelledException;
 import com.skynav.ttv.verifier.VerifierContext;
 import com.skynav.ttv.verifier.util.Lengths;
+import com.skynav.ttv.verifier.util.MediaPrefetcher;
+import com.skynav.ttv.verifier.util.MediaVerificationCache;
+import com.skynav.ttv.verifier.util.SpilledPayloads;
+import com.skynav.ttv.verifier.util.SubtreeVerifier;
 import com.skynav.ttv.verifier.util.MixedUnitsTreatment;
 import com.skynav.ttv.verifier.util.NegativeTreatment;
 import com.skynav.ttv.verifier.util.Timing;
@@ -140,6 +173,8 @@ public class TimedTextVerifier implements VerifierContext {
     public static final int RV_FLAG_WARNING_UNEXPECTED          = 0x000010;
     public static final int RV_FLAG_WARNING_EXPECTED_MATCH      = 0x000020;
     public static final int RV_FLAG_WARNING_EXPECTED_MISMATCH   = 0x000040;
+    public static final int RV_FLAG_TRUNCATED                   = 0x000100;
+    public static final int RV_FLAG_STREAMED                    = 0x000200;
 
     public static final String DEFAULT_ENCODING                 = "UTF-8";
 
@@ -186,30 +221,40 @@ public class TimedTextVerifier implements VerifierContext {
         { "external-extent",            "EXTENT",   "specify root container region extent for document processing context" },
         { "external-frame-rate",        "RATE",     "specify frame rate for document processing context" },
         { "external-wallclock-begin",   "TIME",     "specify document wallclock begin time for document processing context" },
+        { "fail-fast",                  "",         "cease verifying resource upon reporting first error (same as --max-errors 1)" },
         { "force-encoding",             "NAME",     "force use of named character encoding, overriding default and resource specified encoding" },
         { "force-model",                "NAME",     "force use of named model, overriding default model and resource specified model" },
+        { "fused-parse",                "",         "perform well-formedness, validity, and semantics phases using a single parse of resource" },
         { "help",                       "",         "show usage help" },
         { "hide-warnings",              "",         "hide warnings (but count them)" },
         { "hide-resource-location",     "",         "hide resource location (default: show)" },
         { "hide-resource-path",         "",         "hide resource path (default: show)" },
+        { "max-errors",                 "COUNT",    "cease verifying resource upon reporting COUNT errors, or 0 meaning no maximum (default: 0)" },
         { "model",                      "NAME",     "specify model name (default: " + Models.getDefaultModelName() + ")" },
         { "no-warn-on",                 "TOKEN",    "disable warning specified by warning TOKEN, where multiple instances of this option may be specified" },
         { "no-verbose",                 "",         "disable verbose output (resets verbosity level to 0)" },
+        { "parallel",                   "COUNT",    "verify multiple resources in parallel using COUNT workers, reporting results in input order (default: 1)" },
+        { "parallel-media",             "COUNT",    "verify media resources referenced by a resource in parallel using COUNT threads, reporting results in document order (default: 1)" },
+        { "parallel-subtrees",          "COUNT",    "verify body subtrees of a resource in parallel using COUNT threads, reporting results in document order; ignored when an error limit applies (default: 1)" },
         { "quiet",                      "",         "don't show banner" },
         { "reporter",                   "REPORTER", "specify reporter, where REPORTER is " + Reporters.getReporterNamesJoined() + " (default: " +
              Reporters.getDefaultReporterName()+ ")" },
+        { "reporter-asynchronous",      "",         "format and write reporter output on a background thread" },
         { "reporter-file",              "FILE",     "specify path to file to which reporter output is to be written" },
         { "reporter-file-encoding",     "ENCODING", "specify character encoding of reporter output (default: utf-8)" },
         { "reporter-file-append",       "",         "if reporter file already exists, then append output to it" },
         { "reporter-include-source",    "",         "include source context in report messages" },
+        { "result-cache",               "DIR",      "cache verification results in directory DIR, replaying cached results of unchanged resources (and resuming an interrupted run), as well as outcomes of validating referenced media" },
         { "retain-reporter",            "",         "retain (rather than reset) reporter upon run completion" },
         { "servlet",                    "",         "configure defaults for servlet operation" },
+        { "show-metrics",               "",         "show per phase time, allocation, and throughput metrics of each resource and of all resources (use with --verbose)" },
         { "show-models",                "",         "show built-in verification models (use with --verbose to show more details)" },
         { "show-repository",            "",         "show source code repository information" },
         { "show-resource-location",     "",         "show resource location (default: show)" },
         { "show-resource-path",         "",         "show resource path (default: show)" },
         { "show-validator",             "",         "show platform validator information" },
         { "show-warning-tokens",        "",         "show warning tokens (use with --verbose to show more details)" },
+        { "streaming-semantics",        "",         "verify semantics using a single streaming pass over resource, performing only checks that need bounded context" },
         { "verbose",                    "",         "enable verbose output (may be specified multiple times to increase verbosity level)" },
         { "verbose-level",              "LEVEL",    "enable verbose output at specified level (default: 0)" },
         { "treat-foreign-as",           "TOKEN",    "specify treatment for foreign namespace vocabulary, where TOKEN is error|warning|info|allow (default: " +
@@ -311,16 +356,25 @@ public class TimedTextVerifier implements VerifierContext {
     private String externalFrameRate;
     private String externalWallClockBegin;
     private Map<String,String> extensionSchemas = new java.util.HashMap<String,String>();
+    private boolean failFast;
     private String forceEncodingName;
     private String forceModelName;
+    private boolean fusedParse;
     private boolean includeSource;
+    private String maxErrors;
     private String modelName;
+    private String parallel;
+    private String parallelMedia;
+    private String parallelSubtrees;
     private boolean quiet;
+    private String resultCacheDirectory;
     private boolean retainReporter;
+    private boolean showMetrics;
     private boolean showModels;
     private boolean showRepository;
     private boolean showValidator;
     private boolean showWarningTokens;
+    private boolean streamingSemantics;
     private String treatForeignAs;
     private String treatOptionalValidationAs;
     private String untilPhase;
@@ -332,11 +386,17 @@ public class TimedTextVerifier implements VerifierContext {
     private Model model;
     private ForeignTreatment foreignTreatment;
     private Phase lastPhase;
+    private int maxErrorCount;
     private ValidationMode optionalValidationTreatment;
+    private int parallelWorkers;
+    private MediaPrefetcher mediaPrefetcher;
+    private SubtreeVerifier subtreeVerifier;
     private double parsedExternalFrameRate;
     private double parsedExternalDuration;
     private double[] parsedExternalExtent;
     private WallClockTime parsedExternalWallClockBegin;
+    private ResultCache resultCache;
+    private MediaVerificationCache mediaVerificationCache;
     @SuppressWarnings("unused")
     private ValidationMode validationMode;
     @SuppressWarnings("unused")
@@ -349,8 +409,9 @@ public class TimedTextVerifier implements VerifierContext {
     private Reporter reporter;
     private SchemaFactory schemaFactory;
     private boolean nonPoolGrammarSupported;
-    private Map<List<URL>,Schema> schemas = new java.util.HashMap<List<URL>,Schema>();
     private Map<String,Results> results = new java.util.HashMap<String,Results>();
+    private StringWriter workerBuffer;
+    private ByteBuffer resourceBufferSupplied;
 
     // per-resource processing state
     private Phase currentPhase;
@@ -359,12 +420,17 @@ public class TimedTextVerifier implements VerifierContext {
     private Map<String,Object> resourceState;
     private URI resourceUri;
     private Charset resourceEncoding;
+    private CharBuffer resourceBuffer;
     private ByteBuffer resourceBufferRaw;
     private int resourceExpectedErrors = -1;
     private int resourceExpectedWarnings = -1;
+    private boolean resourceAnnotationsSniffed;
+    private boolean resourceTruncated;
+    private boolean resourceStreamed;
     private Binder<Node> binder;
     private Object rootBinding;
     private QName rootName;
+    private Map<Node,Object> bindingIndex;
 
     private enum ForeignTreatment {
         Error,          // error, don't apply foreign validation
@@ -482,15 +548,24 @@ public class TimedTextVerifier implements VerifierContext {
         externalExtent = null;
         externalFrameRate = null;
         extensionSchemas = new java.util.HashMap<String,String>();
+        failFast = false;
         forceEncodingName = null;
         forceModelName = null;
+        fusedParse = false;
         includeSource = false;
+        maxErrors = null;
         modelName = null;
+        parallel = null;
+        parallelMedia = null;
+        parallelSubtrees = null;
         quiet = false;
+        resultCacheDirectory = null;
+        showMetrics = false;
         showModels = false;
         showRepository = false;
         showValidator = false;
         showWarningTokens = false;
+        streamingSemantics = false;
         treatForeignAs = null;
         treatOptionalValidationAs = null;
         untilPhase = null;
@@ -503,11 +578,18 @@ public class TimedTextVerifier implements VerifierContext {
         // model = null;
         foreignTreatment = null;
         lastPhase = restart ? Phase.Restarted : Phase.None;
+        maxErrorCount = 0;
         optionalValidationTreatment = ValidationMode.Required;
+        parallelWorkers = 1;
+        // N.B. media prefetcher and subtree verifier may be shared with workers, so they are shut down by shutdownSharedExecutors() at end of run
+        mediaPrefetcher = null;
+        subtreeVerifier = null;
         parsedExternalFrameRate = 0;
         parsedExternalDuration = 0;
         parsedExternalExtent = null;
         parsedExternalWallClockBegin = null;
+        resultCache = null;
+        mediaVerificationCache = null;
         validationMode = null;
         validationAction = null;
     }
@@ -524,7 +606,6 @@ public class TimedTextVerifier implements VerifierContext {
         externalParameters = new ExternalParametersStore();
         schemaFactory = null;
         nonPoolGrammarSupported = false;
-        schemas = new java.util.HashMap<List<URL>,Schema>();
         results = new java.util.HashMap<String,Results>();
     }
 
@@ -539,12 +620,17 @@ public class TimedTextVerifier implements VerifierContext {
         resourceState = new java.util.HashMap<String,Object>();
         resourceUri = null;
         resourceEncoding = null;
+        resourceBuffer = null;
         resourceBufferRaw = null;
         resourceExpectedErrors = -1;
         resourceExpectedWarnings = -1;
+        resourceAnnotationsSniffed = false;
+        resourceTruncated = false;
+        resourceStreamed = false;
         binder = null;
         rootBinding = null;
         rootName = null;
+        bindingIndex = null;
         Reporter reporter = getReporter();
         if (reporter != null) {
             reporter.resetResourceState(restart);
@@ -693,13 +779,21 @@ public class TimedTextVerifier implements VerifierContext {
             Object parent = getBindingElement(parentNode);
             if (parent != null)
                 return parent;
-            else if (rootBinding != null) {
-                return getModel().getSemanticsVerifier().findBindingElement(rootBinding, parentNode);
+            else if (bindingIndex != null) {
+                return bindingIndex.get(parentNode);
             } else
                 return null;
         }
     }
 
+    private void indexBindings() {
+        // index all bindings by their associated infoset node, in order to serve parent lookups for nodes
+        // that are not associated with a binding by the binder (see getBindingElementParent)
+        Map<Node,Object> index = new java.util.IdentityHashMap<Node,Object>();
+        getModel().getSemanticsVerifier().indexBindingElements(rootBinding, index, this);
+        bindingIndex = index;
+    }
+
     @Override
     public Object getBindingElement(Node node) {
         return binder.getJAXBNode(node);
@@ -731,6 +825,14 @@ public class TimedTextVerifier implements VerifierContext {
         return state;
     }
 
+    public boolean isVerificationCancelled() {
+        return isMaxErrorCountReached(getReporter());
+    }
+
+    private boolean isMaxErrorCountReached(Reporter reporter) {
+        return (maxErrorCount > 0) && (reporter.getResourceErrors() >= maxErrorCount);
+    }
+
     private List<String> preProcessOptions(List<String> args, OptionProcessor optionProcessor) {
         args = processReporterOptions(args, optionProcessor);
         args = processConfigurationOptions(args, optionProcessor);
@@ -745,6 +847,7 @@ public class TimedTextVerifier implements VerifierContext {
         String reporterFileEncoding = null;
         boolean reporterFileAppend = false;
         boolean reporterIncludeSource = false;
+        boolean reporterAsynchronous = false;
         int reporterInitialVerbosity = 0;
         List<String> skippedArgs = new java.util.ArrayList<String>();
         for (int i = 0, n = args.size(); i < n; ++i) {
@@ -767,6 +870,8 @@ public class TimedTextVerifier implements VerifierContext {
                     reporterFileAppend = true;
                 } else if (option.equals("reporter-include-source")) {
                     reporterIncludeSource = true;
+                } else if (option.equals("reporter-asynchronous")) {
+                    reporterAsynchronous = true;
                 } else if (option.equals("retain-reporter")) {
                     retainReporter = true;
                 } else if (option.equals("verbose-level")) {
@@ -784,8 +889,11 @@ public class TimedTextVerifier implements VerifierContext {
             } else
                 skippedArgs.add(arg);
         }
-        if (reporterName != null)
+        // a parallel worker's reporter is established by its coordinating verifier
+        if ((reporterName != null) && (workerBuffer == null))
             setReporter(reporterName, reporterFileName, reporterFileEncoding, reporterFileAppend, reporterIncludeSource);
+        if (reporterAsynchronous && (workerBuffer == null) && (reporter instanceof TextReporter))
+            ((TextReporter) reporter).setAsynchronous(true);
         if (reporterInitialVerbosity > 0)
             reporter.setVerbosityLevel(reporterInitialVerbosity);
         return skippedArgs;
@@ -1014,6 +1122,8 @@ public class TimedTextVerifier implements VerifierContext {
             if (index + 1 > numArgs)
                 throw new MissingOptionArgumentException("--" + option);
             externalWallClockBegin = args.get(++index);
+        } else if (option.equals("fail-fast")) {
+            failFast = true;
         } else if (option.equals("force-encoding")) {
             if (index + 1 > numArgs)
                 throw new MissingOptionArgumentException("--" + option);
@@ -1022,6 +1132,8 @@ public class TimedTextVerifier implements VerifierContext {
             if (index + 1 > numArgs)
                 throw new MissingOptionArgumentException("--" + option);
             forceModelName = args.get(++index);
+        } else if (option.equals("fused-parse")) {
+            fusedParse = true;
         } else if (option.equals("help")) {
             throw new ShowUsageException();
         } else if (option.equals("hide-resource-location")) {
@@ -1030,6 +1142,10 @@ public class TimedTextVerifier implements VerifierContext {
             reporter.hidePath();
         } else if (option.equals("hide-warnings")) {
             reporter.hideWarnings();
+        } else if (option.equals("max-errors")) {
+            if (index + 1 > numArgs)
+                throw new MissingOptionArgumentException("--" + option);
+            maxErrors = args.get(++index);
         } else if (option.equals("model")) {
             if (index + 1 > numArgs)
                 throw new MissingOptionArgumentException("--" + option);
@@ -1045,10 +1161,28 @@ public class TimedTextVerifier implements VerifierContext {
             reporter.disableWarning(token);
         } else if (option.equals("no-verbose")) {
             reporter.setVerbosityLevel(0);
+        } else if (option.equals("parallel")) {
+            if (index + 1 > numArgs)
+                throw new MissingOptionArgumentException("--" + option);
+            parallel = args.get(++index);
+        } else if (option.equals("parallel-media")) {
+            if (index + 1 > numArgs)
+                throw new MissingOptionArgumentException("--" + option);
+            parallelMedia = args.get(++index);
+        } else if (option.equals("parallel-subtrees")) {
+            if (index + 1 > numArgs)
+                throw new MissingOptionArgumentException("--" + option);
+            parallelSubtrees = args.get(++index);
         } else if (option.equals("quiet")) {
             quiet = true;
+        } else if (option.equals("result-cache")) {
+            if (index + 1 > numArgs)
+                throw new MissingOptionArgumentException("--" + option);
+            resultCacheDirectory = args.get(++index);
         } else if (option.equals("servlet")) {
             reporter.hideLocation();
+        } else if (option.equals("show-metrics")) {
+            showMetrics = true;
         } else if (option.equals("show-models")) {
             showModels = true;
         } else if (option.equals("show-repository")) {
@@ -1061,6 +1195,8 @@ public class TimedTextVerifier implements VerifierContext {
             showValidator = true;
         } else if (option.equals("show-warning-tokens")) {
             showWarningTokens = true;
+        } else if (option.equals("streaming-semantics")) {
+            streamingSemantics = true;
         } else if (option.equals("treat-foreign-as")) {
             if (index + 1 > numArgs)
                 throw new MissingOptionArgumentException("--" + option);
@@ -1178,6 +1314,66 @@ public class TimedTextVerifier implements VerifierContext {
             }
         } else
             lastPhase = Phase.getDefault();
+        if (maxErrors != null) {
+            try {
+                maxErrorCount = Integer.parseInt(maxErrors);
+            } catch (NumberFormatException e) {
+                throw new InvalidOptionUsageException("max-errors", "invalid syntax, must be an integer: " + maxErrors);
+            }
+            if (maxErrorCount < 0)
+                throw new InvalidOptionUsageException("max-errors", "must be non-negative: " + maxErrors);
+        } else if (failFast)
+            maxErrorCount = 1;
+        else
+            maxErrorCount = 0;
+        if (parallel != null) {
+            try {
+                parallelWorkers = Integer.parseInt(parallel);
+            } catch (NumberFormatException e) {
+                throw new InvalidOptionUsageException("parallel", "invalid syntax, must be an integer: " + parallel);
+            }
+            if (parallelWorkers < 1)
+                throw new InvalidOptionUsageException("parallel", "must be greater than zero: " + parallel);
+        } else
+            parallelWorkers = 1;
+        if (parallelMedia != null) {
+            int threads;
+            try {
+                threads = Integer.parseInt(parallelMedia);
+            } catch (NumberFormatException e) {
+                throw new InvalidOptionUsageException("parallel-media", "invalid syntax, must be an integer: " + parallelMedia);
+            }
+            if (threads < 1)
+                throw new InvalidOptionUsageException("parallel-media", "must be greater than zero: " + parallelMedia);
+            mediaPrefetcher = (threads > 1) ? new MediaPrefetcher(threads) : null;
+        } else
+            mediaPrefetcher = null;
+        if (parallelSubtrees != null) {
+            int threads;
+            try {
+                threads = Integer.parseInt(parallelSubtrees);
+            } catch (NumberFormatException e) {
+                throw new InvalidOptionUsageException("parallel-subtrees", "invalid syntax, must be an integer: " + parallelSubtrees);
+            }
+            if (threads < 1)
+                throw new InvalidOptionUsageException("parallel-subtrees", "must be greater than zero: " + parallelSubtrees);
+            // subtrees are verified serially when an error limit applies, since a subtree's errors are not visible to
+            // its siblings until merged, and, therefore, would not cancel verification at the same point as when serial
+            subtreeVerifier = ((threads > 1) && (maxErrorCount == 0)) ? new SubtreeVerifier(threads) : null;
+        } else
+            subtreeVerifier = null;
+        if (resultCacheDirectory != null) {
+            File directory = new File(resultCacheDirectory);
+            if (!directory.isDirectory() && !directory.mkdirs())
+                throw new InvalidOptionUsageException("result-cache", "unable to create directory: " + resultCacheDirectory);
+            else if (!directory.canWrite())
+                throw new InvalidOptionUsageException("result-cache", "directory is not writable: " + resultCacheDirectory);
+            resultCache = new ResultCache(directory);
+            mediaVerificationCache = new MediaVerificationCache(new File(directory, "media"), Version.getVersion());
+        } else {
+            resultCache = null;
+            mediaVerificationCache = null;
+        }
         if (externalFrameRate != null) {
             try {
                 parsedExternalFrameRate = Double.parseDouble(externalFrameRate);
@@ -1423,6 +1619,43 @@ public class TimedTextVerifier implements VerifierContext {
     }
 
     private ByteBuffer readResource(URI uri) {
+        Path path = getResourcePath(uri);
+        if (path != null)
+            return mapResource(path);
+        else
+            return readResourceStream(uri);
+    }
+
+    private Path getResourcePath(URI uri) {
+        if (!"file".equals(uri.getScheme()))
+            return null;
+        try {
+            Path path = Paths.get(uri);
+            return Files.isRegularFile(path) ? path : null;
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private ByteBuffer mapResource(Path path) {
+        Reporter reporter = getReporter();
+        FileChannel fc = null;
+        try {
+            fc = FileChannel.open(path, StandardOpenOption.READ);
+            long size = fc.size();
+            if (size > Integer.MAX_VALUE)
+                throw new IOException("Resource size of " + size + " bytes exceeds maximum supported size");
+            // N.B. mapping remains valid after channel is closed
+            return fc.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        } catch (IOException e) {
+            reporter.logError(e);
+            return null;
+        } finally {
+            IOUtil.closeSafely(fc);
+        }
+    }
+
+    private ByteBuffer readResourceStream(URI uri) {
         Reporter reporter = getReporter();
         ByteArrayOutputStream os = new ByteArrayOutputStream();
         InputStream is = null;
@@ -1459,107 +1692,71 @@ public class TimedTextVerifier implements VerifierContext {
         }
     }
 
-    private CharBuffer decodeResource(ByteBuffer rawBuffer, Charset encoding, int bomLength) {
+    private CharBuffer decodeResource(ByteBuffer rawBuffer, Charset encoding) {
         Reporter reporter = getReporter();
         ByteBuffer bb = rawBuffer;
-        bb.position(bomLength);
-        List<CharBuffer> charBuffers = new java.util.ArrayList<CharBuffer>();
-        do {
-            CharsetDecoder cd = encoding.newDecoder();
-            boolean endOfInput = false;
-            CharBuffer cb = null;
-            CoderResult r;
+        bb.rewind();
+        CharsetDecoder cd = encoding.newDecoder();
+        // allocate for maximum expansion, so that decoding is performed into a single buffer
+        CharBuffer cb = CharBuffer.allocate(getMaximumDecodedLength(bb.remaining(), cd));
+        try {
             while (true) {
-                try {
-                    if (cb == null)
-                        cb = CharBuffer.allocate(65536);
+                CoderResult r;
+                if (bb != null)
+                    r = cd.decode(bb, cb, true);
+                else
+                    r = cd.flush(cb);
+                if (r.isOverflow()) {
+                    cb = growBuffer(cb);
+                } else if (r.isUnderflow()) {
                     if (bb != null)
-                        r = cd.decode(bb, cb, endOfInput);
+                        bb = null;
                     else
-                        r = cd.flush(cb);
-                    if (r.isOverflow()) {
-                        cb.flip();
-                        charBuffers.add(cb);
-                        cb = null;
-                    } else if (r.isUnderflow()) {
-                        if (endOfInput) {
-                            if (bb != null)
-                                bb = null;
-                            else {
-                                cb.flip();
-                                charBuffers.add(cb);
-                                cb = null;
-                                break;
-                            }
-                        } else {
-                            endOfInput = true;
-                        }
-                    } else if (r.isMalformed()) {
-                        Message message = reporter.message("*KEY*",
-                            "Malformed {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
-                            encoding.name(), bb.position(), r.length());
-                        reporter.logError(message);
-                        return null;
-                    } else if (r.isUnmappable()) {
-                        Message message = reporter.message("*KEY*",
-                            "Unmappable {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
-                            encoding.name(), bb.position(), r.length());
-                        reporter.logError(message);
-                        return null;
-                    } else if (r.isError()) {
-                        Message message = reporter.message("*KEY*",
-                            "Can''t decode as {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
-                            encoding.name(), bb.position(), r.length());
-                        reporter.logError(message);
-                        return null;
-                    }
-                } catch (Exception e) {
-                    reporter.logError(e);
+                        break;
+                } else if (r.isMalformed()) {
+                    Message message = reporter.message("*KEY*",
+                        "Malformed {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
+                        encoding.name(), bb.position(), r.length());
+                    reporter.logError(message);
+                    return null;
+                } else if (r.isUnmappable()) {
+                    Message message = reporter.message("*KEY*",
+                        "Unmappable {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
+                        encoding.name(), bb.position(), r.length());
+                    reporter.logError(message);
+                    return null;
+                } else if (r.isError()) {
+                    Message message = reporter.message("*KEY*",
+                        "Can''t decode as {0} at byte offset {1}{2,choice,0# of zero bytes|1# of one byte|1< of {2,number,integer} bytes}.",
+                        encoding.name(), bb.position(), r.length());
+                    reporter.logError(message);
                     return null;
                 }
             }
-        } while (false);
+        } catch (Exception e) {
+            reporter.logError(e);
+            return null;
+        }
         rawBuffer.rewind();
-        return concatenateBuffers(charBuffers);
+        cb.flip();
+        return cb;
     }
 
-    private static CharBuffer concatenateBuffers(List<CharBuffer> buffers) {
-        int length = 0;
-        for (CharBuffer cb : buffers) {
-            length += cb.limit();
-        }
-        CharBuffer newBuffer = CharBuffer.allocate(length);
-        for (CharBuffer cb : buffers) {
-            newBuffer.put(cb);
-        }
-        newBuffer.flip();
-        return newBuffer;
+    private static int getMaximumDecodedLength(int numBytes, CharsetDecoder cd) {
+        double length = Math.ceil((double) numBytes * (double) cd.maxCharsPerByte());
+        if (length < 16)
+            return 16;
+        else if (length > (Integer.MAX_VALUE - 8))
+            return Integer.MAX_VALUE - 8;
+        else
+            return (int) length;
     }
 
-    private String[] parseLines(CharBuffer cb, Charset encoding) {
-        List<String> lines = new java.util.ArrayList<String>();
-        StringBuffer sb = new StringBuffer();
-        while (cb.hasRemaining()) {
-            while (cb.hasRemaining()) {
-                char c = cb.get();
-                if (c == '\n') {
-                    break;
-                } else if (c == '\r') {
-                    if (cb.hasRemaining()) {
-                        c = cb.charAt(0);
-                        if (c == '\n')
-                            cb.get();
-                    }
-                    break;
-                } else {
-                    sb.append(c);
-                }
-            }
-            lines.add(sb.toString());
-            sb.setLength(0);
-        }
-        cb.rewind();
-        return lines.toArray(new String[lines.size()]);
+    private static CharBuffer growBuffer(CharBuffer cb) {
+        CharBuffer newBuffer = CharBuffer.allocate(cb.capacity() * 2);
+        cb.flip();
+        newBuffer.put(cb);
+        return newBuffer;
     }
 
     public Map<String,Object> getResourceState() {
@@ -1582,6 +1779,7 @@ public class TimedTextVerifier implements VerifierContext {
     private void setResourceBuffer(Charset encoding, CharBuffer buffer, ByteBuffer bufferRaw) {
         resourceEncoding = encoding;
         setResourceState("encoding", encoding);
+        resourceBuffer = buffer;
         resourceBufferRaw = bufferRaw;
         setResourceState("bufferRaw", bufferRaw);
         if (expectedErrors != null) {
@@ -1604,6 +1802,15 @@ public class TimedTextVerifier implements VerifierContext {
         setResourceState("internalWallClockBegin", WallClockTimeImpl.utc());
         setResourceState("internalWallClockOffsetFromUTC", Integer.valueOf(WallClockTimeImpl.utcOffset()));
         setResourceState("conditionEvaluatorState", makeConditionEvaluatorState());
+        if (mediaVerificationCache != null) {
+            setResourceState(MediaVerificationCache.RESOURCE_STATE_KEY, mediaVerificationCache);
+        }
+        if (mediaPrefetcher != null) {
+            setResourceState(MediaPrefetcher.RESOURCE_STATE_KEY, mediaPrefetcher);
+        }
+        if (subtreeVerifier != null) {
+            setResourceState(SubtreeVerifier.RESOURCE_STATE_KEY, subtreeVerifier);
+        }
     }
 
     private Condition.EvaluatorState makeConditionEvaluatorState() {
@@ -1650,11 +1857,13 @@ public class TimedTextVerifier implements VerifierContext {
         } else {
             reporter.logInfo(reporter.message("*KEY*", "Verifying resource presence and encoding phase {0}...", currentPhase.ordinal()));
         }
+        beginMetricsPhase(currentPhase);
         URI uri = resolve(resourceUriString);
         if (uri != null) {
             setResourceURI(uri);
-            ByteBuffer bytesBuffer = readResource(uri);
+            ByteBuffer bytesBuffer = (resourceBufferSupplied != null) ? resourceBufferSupplied : readResource(uri);
             if (bytesBuffer != null) {
+                addMetricsBytesRead(bytesBuffer.limit());
                 Object[] sniffOutputParameters = new Object[] { Integer.valueOf(0) };
                 Charset encoding;
                 if (this.forceEncoding != null)
@@ -1663,17 +1872,20 @@ public class TimedTextVerifier implements VerifierContext {
                     encoding = Sniffer.sniff(bytesBuffer, asciiEncoding, sniffOutputParameters);
                 if (isPermittedEncoding(encoding.name())) {
                     int bomLength = (Integer) sniffOutputParameters[0];
-                    CharBuffer charsBuffer = decodeResource(bytesBuffer, encoding, bomLength);
+                    // N.B. decoded buffer retains BOM (if present) as U+FEFF, which is subsequently skipped by the parser
+                    CharBuffer charsBuffer = decodeResource(bytesBuffer, encoding);
                     if (charsBuffer != null) {
+                        int bomChars = (bomLength > 0) ? 1 : 0;
                         setResourceBuffer(encoding, charsBuffer, bytesBuffer);
                         if (includeSource)
-                            reporter.setLines(parseLines(charsBuffer, encoding));
+                            reporter.setLines(new LineIndex(skipChars(charsBuffer, bomChars)));
                         if (this.forceEncoding != null)
                             reporter.logInfo(reporter.message("*KEY*", "Resource encoding forced to {0}.", encoding.name()));
                         else
                             reporter.logInfo(reporter.message("*KEY*", "Resource encoding sniffed as {0}.", encoding.name()));
                         reporter.logInfo(reporter.message("*KEY*", "Resource length {0} bytes, decoded as {1} Java characters (char).",
-                            bytesBuffer.limit(), charsBuffer.limit()));
+                            bytesBuffer.limit(), charsBuffer.limit() - bomChars));
+                        processSniffedAnnotations(Sniffer.sniffRootAttributes(charsBuffer));
                     }
                 } else {
                     reporter.logError(reporter.message("*KEY*", "Encoding {0} is not permitted", encoding.name()));
@@ -1683,14 +1895,56 @@ public class TimedTextVerifier implements VerifierContext {
         return reporter.getResourceErrors() == 0;
     }
 
-    private InputStream openStream(ByteBuffer bb) {
-        bb.rewind();
-        if (bb.hasArray()) {
-            return new ByteArrayInputStream(bb.array());
-        } else {
-            byte[] bytes = new byte[bb.limit()];
-            bb.get(bytes);
-            return new ByteArrayInputStream(bb.array());
+    private static CharBuffer skipChars(CharBuffer cb, int numChars) {
+        CharBuffer cbSkipped = cb.duplicate();
+        cbSkipped.position(numChars);
+        return cbSkipped.slice();
+    }
+
+    private Reader openReader() {
+        // each parse of the (decoded) resource is accounted as reading the resource's bytes
+        if (resourceBufferRaw != null)
+            addMetricsBytesRead(resourceBufferRaw.limit());
+        CharBuffer cb = resourceBuffer;
+        return new CharArrayReader(cb.array(), cb.arrayOffset(), cb.limit());
+    }
+
+    private void processSniffedAnnotations(Attributes attributes) {
+        // process model and processing options annotations found by a prefix scan of the root element's start tag,
+        // so that model specific state is configured and any required restart is determined before parsing
+        if (attributes != null) {
+            Reporter reporter = getReporter();
+            String annotationsNamespace = Annotations.getNamespace();
+            for (int i = 0, n = attributes.getLength(); i < n; ++i) {
+                if (attributes.getURI(i).equals(annotationsNamespace)) {
+                    String localName = attributes.getLocalName(i);
+                    String value = attributes.getValue(i);
+                    if (localName.equals("model")) {
+                        Model model = Models.getModel(value);
+                        if (model != null) {
+                            resourceModel = model;
+                            resourceModel.configureReporter(reporter);
+                            reporter.logInfo(reporter.message("*KEY*", "Resource model sniffed as {0}.", model.getName()));
+                        }
+                    } else if (localName.equals("processingOptions")) {
+                        processProcessingOptions(value);
+                    }
+                }
+            }
+            resourceAnnotationsSniffed = true;
+        }
+    }
+
+    private void processProcessingOptions(String value) {
+        Reporter reporter = getReporter();
+        if (!hasRestarted()) {
+            try {
+                setRestartOptions(RestartOptions.valueOf(value));
+                reporter.logInfo(reporter.message("*KEY*", "Found processing options, signalling restart: ''{0}''.", value));
+            } catch (RestartOptions.ParserException e) {
+                reporter.logError(reporter.message("*KEY*",
+                    "Invalid processing options syntax for value ''{0}'': {1}.", value, e.getMessage()));
+            }
         }
     }
 
@@ -1742,15 +1996,8 @@ public class TimedTextVerifier implements VerifierContext {
                     } else if (localName.equals("loc")) {
                         // no processing required here
                     } else if (localName.equals("processingOptions")) {
-                        if (!hasRestarted()) {
-                            try {
-                                setRestartOptions(RestartOptions.valueOf(value));
-                                reporter.logInfo(reporter.message("*KEY*", "Found processing options, signalling restart: ''{0}''.", value));
-                            } catch (RestartOptions.ParserException e) {
-                                reporter.logError(reporter.message("*KEY*",
-                                    "Invalid processing options syntax for value ''{0}'': {1}.", value, e.getMessage()));
-                            }
-                        }
+                        if (!resourceAnnotationsSniffed)
+                            processProcessingOptions(value);
                     } else {
                         throw new InvalidAnnotationException(localName, "unknown annotation");
                     }
@@ -1846,18 +2093,22 @@ public class TimedTextVerifier implements VerifierContext {
             return true;
         } else
             reporter.logInfo(reporter.message("*KEY*", "Verifying XML well-formedness phase {0}...", currentPhase.ordinal()));
+        beginMetricsPhase(currentPhase);
         try {
             SAXParserFactory pf = SAXParserFactory.newInstance();
             pf.setValidating(false);
             pf.setNamespaceAware(true);
             SAXParser p = pf.newSAXParser();
+            final Metrics metrics = getMetrics();
             Charset encoding = getEncoding();
-            InputSource is = new InputSource(new InputStreamReader(openStream(resourceBufferRaw), encoding));
+            InputSource is = new InputSource(openReader());
             is.setEncoding(encoding.name());
             is.setSystemId(resourceUri.toString());
             p.parse(is, new DefaultHandler() {
                 private boolean expectRootElement = true;
                 public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
+                    if (metrics != null)
+                        metrics.addElement(attrs.getLength());
                     if (expectRootElement) {
                         processAnnotations(attrs);
                         processValidationParameters(attrs);
@@ -1902,7 +2153,15 @@ public class TimedTextVerifier implements VerifierContext {
 
     private SchemaFactory getSchemaFactory() {
         if (schemaFactory == null) {
-            schemaFactory = SchemaFactory.newInstance(W3C_XML_SCHEMA_NS_URI);
+            SchemaFactory sf = SchemaFactory.newInstance(W3C_XML_SCHEMA_NS_URI);
+            try {
+                // attempt to enable non-pool grammars, i.e., use of xsi:schemaLocation pool extensions
+                sf.setFeature("http://apache.org/xml/features/internal/validation/schema/use-grammar-pool-only", false);
+                nonPoolGrammarSupported = true;
+            } catch (SAXException e) {
+                nonPoolGrammarSupported = false;
+            }
+            schemaFactory = sf;
         }
         return schemaFactory;
     }
@@ -1915,30 +2174,22 @@ public class TimedTextVerifier implements VerifierContext {
         return sources.toArray(new Source[sources.size()]);
     }
 
-    private Schema loadSchema(List<URL> components) throws SchemaValidationErrorException {
-        Reporter reporter = getReporter();
+    private Schema loadSchema(List<URL> components, final Reporter reporter) throws SchemaValidationErrorException {
         SchemaFactory sf = getSchemaFactory();
         sf.setErrorHandler(new ErrorHandler() {
             public void error(SAXParseException e) {
-                getReporter().logError(e);
+                reporter.logError(e);
                 throw new SchemaValidationErrorException(e);
             }
             public void fatalError(SAXParseException e) {
-                getReporter().logError(e);
+                reporter.logError(e);
                 throw new SchemaValidationErrorException(e);
             }
             public void warning(SAXParseException e) {
-                if (getReporter().logWarning(e))
+                if (reporter.logWarning(e))
                     throw new SchemaValidationErrorException(e);
             }
         });
-        try {
-            // attempt to enable non-pool grammars, i.e., use of xsi:schemaLocation pool extensions
-            sf.setFeature("http://apache.org/xml/features/internal/validation/schema/use-grammar-pool-only", false);
-            nonPoolGrammarSupported = true;
-        } catch (SAXException e) {
-            nonPoolGrammarSupported = false;
-        }
         try {
             reporter.logDebug(reporter.message("*KEY*", "Loading (and validating) schema components at '{'{0}'}'...", components));
             return sf.newSchema(getSources(components.toArray(new URL[components.size()])));
@@ -1948,15 +2199,7 @@ public class TimedTextVerifier implements VerifierContext {
         }
     }
 
-    private Schema getSchema(List<URL> components) throws SchemaValidationErrorException {
-        if (!schemas.containsKey(components)) {
-            schemas.put(components, loadSchema(components));
-        }
-        return schemas.get(components);
-    }
-
-    private URL getSchemaResource(String resourceName) throws SchemaValidationErrorException {
-        Reporter reporter = getReporter();
+    private URL getSchemaResource(String resourceName, Reporter reporter) throws SchemaValidationErrorException {
         reporter.logDebug(reporter.message("*KEY*", "Searching for built-in schema at '{'{0}'}'...", resourceName));
         try {
             URL urlSchema = null;
@@ -1983,21 +2226,77 @@ public class TimedTextVerifier implements VerifierContext {
     }
 
     private Schema getSchema() throws SchemaValidationErrorException {
-        Reporter reporter = getReporter();
-        List<URL> schemaComponents = new java.util.ArrayList<URL>();
-        for (String name : getModel().getSchemaResourceNames())
-            schemaComponents.add(getSchemaResource(name));
+        return getSchema(getReporter());
+    }
+
+    private Schema getSchema(Reporter reporter) throws SchemaValidationErrorException {
+        return getSchema(getModel(), reporter);
+    }
+
+    private Schema getSchema(final Model model, final Reporter reporter) throws SchemaValidationErrorException {
+        // N.B. compiled schemas are shared process wide, keyed by model name followed by resolved extension schema locations
+        final List<URI> extensionSchemaLocations = new java.util.ArrayList<URI>();
         for (String schemaResourceLocation : extensionSchemas.values()) {
             URI uri = resolve(schemaResourceLocation);
-            if (uri != null) {
-                try {
-                    schemaComponents.add(uri.toURL());
-                } catch (IOException e) {
-                    reporter.logError(e);
+            if (uri != null)
+                extensionSchemaLocations.add(uri);
+        }
+        List<String> key = new java.util.ArrayList<String>();
+        key.add(model.getName());
+        for (URI uri : extensionSchemaLocations)
+            key.add(uri.toString());
+        Schemas.Entry entry = Schemas.getSchemaEntry(key, new Schemas.Loader() {
+            public Schemas.Entry load() {
+                List<URL> schemaComponents = new java.util.ArrayList<URL>();
+                for (String name : model.getSchemaResourceNames())
+                    schemaComponents.add(getSchemaResource(name, reporter));
+                for (URI uri : extensionSchemaLocations) {
+                    try {
+                        schemaComponents.add(uri.toURL());
+                    } catch (IOException e) {
+                        reporter.logError(e);
+                    }
                 }
+                Schema schema = loadSchema(schemaComponents, reporter);
+                return new Schemas.Entry(schema, nonPoolGrammarSupported);
+            }
+        });
+        // N.B. a schema obtained from the shared registry may have been compiled by another verifier's schema factory
+        nonPoolGrammarSupported = entry.isNonPoolGrammarSupported();
+        return entry.getSchema();
+    }
+
+    /**
+     * Preload (compile) schemas for the specified models, taking into account any extension schemas
+     * specified by options, in order that subsequent verification need not wait for schema compilation,
+     * e.g., when verifying the first resource submitted to a long running service. Compiled schemas are
+     * shared by all verifier instances in a process.
+     * @param modelNames names of models, or current model if none specified
+     * @return number of schemas (pre)loaded
+     */
+    public int preloadSchemas(String... modelNames) {
+        Reporter reporter = getReporter();
+        List<Model> models = new java.util.ArrayList<Model>();
+        if (modelNames.length == 0)
+            models.add(getModel());
+        for (String name : modelNames) {
+            Model model = Models.getModel(name);
+            if (model != null)
+                models.add(model);
+            else
+                reporter.logInfo(reporter.message("*KEY*", "Unknown model ''{0}'', not preloading schema.", name));
+        }
+        int numLoaded = 0;
+        for (Model model : models) {
+            try {
+                reporter.logInfo(reporter.message("*KEY*", "Preloading schema for model {0}.", model.getName()));
+                getSchema(model, reporter);
+                ++numLoaded;
+            } catch (SchemaValidationErrorException e) {
+                reporter.logError(e);
             }
         }
-        return getSchema(schemaComponents);
+        return numLoaded;
     }
 
     private boolean verifyValidity() {
@@ -2008,26 +2307,35 @@ public class TimedTextVerifier implements VerifierContext {
             return true;
         } else
             reporter.logInfo(reporter.message("*KEY*", "Verifying XSD validity phase {0}...", currentPhase.ordinal()));
+        beginMetricsPhase(currentPhase);
+        Schema schema = null;
+        Validator v = null;
         try {
             SAXParserFactory pf = SAXParserFactory.newInstance();
             pf.setNamespaceAware(true);
             XMLReader reader = pf.newSAXParser().getXMLReader();
-            XMLReader filter = new ForeignVocabularyFilter(reader, getModel().getNamespaceURIs(), extensionSchemas.keySet(), foreignTreatment);
+            XMLReader filter0 = new ElementCountingFilter(reader, getMetrics());
+            XMLReader filter = new ForeignVocabularyFilter(filter0, getModel().getNamespaceURIs(), extensionSchemas.keySet(), foreignTreatment);
             Charset encoding = getEncoding();
-            InputSource is = new InputSource(new InputStreamReader(openStream(resourceBufferRaw), encoding));
+            InputSource is = new InputSource(openReader());
             is.setEncoding(encoding.name());
             is.setSystemId(resourceUri.toString());
             SAXSource source = new SAXSource(filter, is);
             source.setSystemId(resourceUri.toString());
-            Validator v = getSchema().newValidator();
+            schema = getSchema();
+            v = Schemas.acquireValidator(schema);
             v.setErrorHandler(new ErrorHandler() {
                 public void error(SAXParseException e) {
-                    // don't terminated validation on validation error
+                    // don't terminated validation on validation error, unless maximum error count is reached
                     getReporter().logError(e);
+                    if (isVerificationCancelled())
+                        throw new VerificationCancelledException();
                 }
                 public void fatalError(SAXParseException e) {
-                    // don't terminated validation on validation error
+                    // don't terminated validation on validation error, unless maximum error count is reached
                     getReporter().logError(e);
+                    if (isVerificationCancelled())
+                        throw new VerificationCancelledException();
                 }
                 public void warning(SAXParseException e) {
                     // don't terminated validation on validation warning treated as error
@@ -2035,6 +2343,8 @@ public class TimedTextVerifier implements VerifierContext {
                 }
             });
             v.validate(source);
+        } catch (VerificationCancelledException e) {
+            resourceTruncated = true;
         } catch (ParserConfigurationException e) {
             reporter.logError(e);
         } catch (SchemaValidationErrorException e) {
@@ -2047,6 +2357,8 @@ public class TimedTextVerifier implements VerifierContext {
             reporter.logError(e);
         } catch (IOException e) {
             reporter.logError(e);
+        } finally {
+            Schemas.releaseValidator(schema, v);
         }
         return reporter.getResourceErrors() == 0;
     }
@@ -2282,7 +2594,7 @@ public class TimedTextVerifier implements VerifierContext {
             if (rootClass.isInstance(contentObject))
                 return true;
         }
-        reporter.logError(reporter.message(Locators.getLocator(contentObject, resourceUriString), "*KEY*",
+        reporter.logError(reporter.message(Locators.getLocator(getXMLNode(contentObject), resourceUriString), "*KEY*",
             "Unexpected root element <{0}>, expected one of {1}.", root.getName(), getContentClassNames(rootClasses)));
         return false;
     }
@@ -2295,17 +2607,43 @@ public class TimedTextVerifier implements VerifierContext {
         }
     }
 
+    private SpilledPayloads getSpilledPayloads() {
+        Object payloads = getResourceState(SpilledPayloads.RESOURCE_STATE_KEY);
+        return (payloads instanceof SpilledPayloads) ? (SpilledPayloads) payloads : null;
+    }
+
+    private Metrics getMetrics() {
+        Object metrics = getResourceState(Metrics.RESOURCE_STATE_KEY);
+        return (metrics instanceof Metrics) ? (Metrics) metrics : null;
+    }
+
+    private void beginMetricsPhase(Phase phase) {
+        Metrics metrics = getMetrics();
+        if (metrics != null)
+            metrics.begin(phase.name());
+    }
+
+    private void addMetricsBytesRead(long bytes) {
+        Metrics metrics = getMetrics();
+        if (metrics != null)
+            metrics.addBytesRead(bytes);
+    }
+
     private boolean verifySemantics() {
         Reporter reporter = getReporter();
+        Node document = null;
+        // parsing into an annotated infoset is accounted to the semantics phase, which consumes it
+        beginMetricsPhase(Phase.Semantics);
         try {
             // construct source pipeline
             SAXParserFactory pf = SAXParserFactory.newInstance();
             pf.setNamespaceAware(true);
-            XMLReader reader = pf.newSAXParser().getXMLReader();
-            ForeignVocabularyFilter filter1 = new ForeignVocabularyFilter(reader, getModel().getNamespaceURIs(), extensionSchemas.keySet(), ForeignTreatment.Allow);
-            LocationAnnotatingFilter filter2 = new LocationAnnotatingFilter(filter1);
+            XMLReader reader = new ElementCountingFilter(pf.newSAXParser().getXMLReader(), getMetrics());
+            Base64SpillingFilter filter0 = new Base64SpillingFilter(reader, getSpilledPayloads());
+            ForeignVocabularyFilter filter1 = new ForeignVocabularyFilter(filter0, getModel().getNamespaceURIs(), extensionSchemas.keySet(), ForeignTreatment.Allow);
+            LocationRecordingFilter filter2 = new LocationRecordingFilter(filter1);
             Charset encoding = getEncoding();
-            InputSource is = new InputSource(new InputStreamReader(openStream(resourceBufferRaw), encoding));
+            InputSource is = new InputSource(openReader());
             is.setEncoding(encoding.name());
             is.setSystemId(resourceUri.toString());
             SAXSource source = new SAXSource(filter2, is);
@@ -2318,11 +2656,36 @@ public class TimedTextVerifier implements VerifierContext {
             // transform into annotated infoset
             TransformerFactory tf = TransformerFactory.newInstance();
             tf.newTransformer().transform(source, result);
+            document = result.getNode();
+            filter2.bindLocations(document);
+        } catch (TransformerFactoryConfigurationError e) {
+            reporter.logError(new Exception(e));
+        } catch (ParserConfigurationException e) {
+            reporter.logError(e);
+        } catch (TransformerConfigurationException e) {
+            reporter.logError(e);
+        } catch (TransformerException e) {
+            reporter.logError(e);
+        } catch (SAXException e) {
+            reporter.logError(e);
+        } catch (Exception e) {
+            reporter.logError(e, true);
+        } catch (Error e) {
+            reporter.logError(new RuntimeException(e), true);
+        }
+        if (document != null)
+            return verifySemantics(document);
+        else
+            return reporter.getResourceErrors() == 0;
+    }
 
+    private boolean verifySemantics(Node document) {
+        Reporter reporter = getReporter();
+        beginMetricsPhase(Phase.Semantics);
+        try {
             // unmarshall annotated infoset
-            JAXBContext context = JAXBContext.newInstance(getModel().getJAXBContextPath());
-            Binder<Node> binder = context.createBinder();
-            Object unmarshalled = binder.unmarshal(result.getNode());
+            Binder<Node> binder = JAXBContexts.createBinder(getModel().getJAXBContextPath());
+            Object unmarshalled = binder.unmarshal(document);
 
             // retain reference to binder at instance scope for error reporter utilities
             this.binder = binder;
@@ -2338,6 +2701,7 @@ public class TimedTextVerifier implements VerifierContext {
                 if (verifyRootElement(root, getModel().getRootClasses())) {
                     this.rootBinding = root.getValue();
                     this.rootName = root.getName();
+                    indexBindings();
                     setResourceDocumentContextState();
                     currentPhase = Phase.Semantics;
                     if (!lastPhase.isEnabled(Phase.Semantics)) {
@@ -2347,25 +2711,22 @@ public class TimedTextVerifier implements VerifierContext {
                     } else {
                         reporter.logInfo(reporter.message("*KEY*",
                             "Verifying semantics phase {0} using ''{1}'' model...", currentPhase.ordinal(), getModel().getName()));
-                        getModel().getSemanticsVerifier().verify(this.rootBinding, this);
+                        SemanticsVerifier sv = getModel().getSemanticsVerifier();
+                        try {
+                            sv.verify(this.rootBinding, this);
+                        } finally {
+                            sv.clearState();
+                        }
                     }
 
                 }
             }
+        } catch (VerificationCancelledException e) {
+            resourceTruncated = true;
         } catch (UnmarshalException e) {
             reporter.logError(e);
-        } catch (TransformerFactoryConfigurationError e) {
-            reporter.logError(new Exception(e));
-        } catch (ParserConfigurationException e) {
-            reporter.logError(e);
-        } catch (TransformerConfigurationException e) {
-            reporter.logError(e);
-        } catch (TransformerException e) {
-            reporter.logError(e);
         } catch (JAXBException e) {
             reporter.logError(e);
-        } catch (SAXException e) {
-            reporter.logError(e);
         } catch (Exception e) {
             reporter.logError(e, true);
         } catch (Error e) {
@@ -2374,69 +2735,337 @@ public class TimedTextVerifier implements VerifierContext {
         return reporter.getResourceErrors() == 0;
     }
 
-    private int verify(List<String> args, String uri, ResultProcessor resultProcessor) {
+    private boolean verifySemanticsStreaming() {
         Reporter reporter = getReporter();
-        if (!reporter.isHidingLocation())
-            reporter.logInfo(reporter.message("*KEY*", "Verifying '{'{0}'}'.", uri));
-        do {
-            resetResourceState();
-            setResourceURI(uri);
-            if (!verifyResource())
-                break;
-            if (!verifyWellFormedness())
-                break;
-            if (!verifyValidity())
-                break;
-            if (!verifySemantics())
-                break;
-            if (resultProcessor != null)
-                resultProcessor.processResult(args, resourceUri, rootBinding);
-        } while (false);
-        int rv = rvValue();
-        if (rvCode(rv) != RV_RESTART) {
-            reporter.logInfo(reporter.message("*KEY*", "Verification {0}{1}.", rvPassed(rv) ? "Passed" : "Failed", resultDetails()));
-            reporter.flush();
-            this.results.put(uri,
-                new Results(uri, rv, resourceExpectedErrors, reporter.getResourceErrors(), resourceExpectedWarnings,
-                    reporter.getResourceWarnings(), getModel(), getEncoding(), rootName));
+        currentPhase = Phase.Semantics;
+        if (!lastPhase.isEnabled(Phase.Semantics)) {
+            reporter.logInfo(reporter.message("*KEY*", "Skipping semantics verification phase ({0}).", currentPhase.ordinal()));
+            return true;
         }
-        return rv;
+        reporter.logInfo(reporter.message("*KEY*",
+            "Verifying semantics phase {0} using ''{1}'' model (streaming)...", currentPhase.ordinal(), getModel().getName()));
+        for (String check : StreamingSemanticsHandler.getSkippedChecks())
+            reporter.logInfo(reporter.message("*KEY*", "Skipping {0} when verifying semantics by streaming.", check));
+        resourceStreamed = true;
+        setResourceDocumentContextState();
+        beginMetricsPhase(currentPhase);
+        try {
+            SAXParserFactory pf = SAXParserFactory.newInstance();
+            pf.setValidating(false);
+            pf.setNamespaceAware(true);
+            XMLReader reader = new ElementCountingFilter(pf.newSAXParser().getXMLReader(), getMetrics());
+            StreamingSemanticsHandler handler = new StreamingSemanticsHandler(getModel(), this);
+            reader.setContentHandler(handler);
+            Charset encoding = getEncoding();
+            InputSource is = new InputSource(openReader());
+            is.setEncoding(encoding.name());
+            is.setSystemId(resourceUri.toString());
+            reader.parse(is);
+        } catch (VerificationCancelledException e) {
+            resourceTruncated = true;
+        } catch (ParserConfigurationException e) {
+            reporter.logError(e);
+        } catch (SAXException e) {
+            reporter.logError(e);
+        } catch (IOException e) {
+            reporter.logError(e);
+        } catch (Exception e) {
+            reporter.logError(e, true);
+        } catch (Error e) {
+            reporter.logError(new RuntimeException(e), true);
+        }
+        return reporter.getResourceErrors() == 0;
     }
 
-    private int rvValue() {
+    private boolean verifyFused() {
         Reporter reporter = getReporter();
-        int code = RV_PASS;
-        int flags = 0;
-        if (needsRestart())
-            return RV_RESTART;
-        if (resourceExpectedErrors < 0) {
-            if (reporter.getResourceErrors() > 0) {
-                code = RV_FAIL;
-                flags |= RV_FLAG_ERROR_UNEXPECTED;
+        currentPhase = Phase.WellFormedness;
+        FusedPhasesHandler handler = null;
+        try {
+            TransformerFactory tf = TransformerFactory.newInstance();
+            if (!tf.getFeature(SAXTransformerFactory.FEATURE)) {
+                reporter.logDebug(reporter.message("*KEY*", "Platform transformer factory does not support SAX input, using separate phase parses."));
+                return verifyWellFormedness() && verifyValidity() && verifySemantics();
             }
-        } else if (reporter.getResourceErrors() != resourceExpectedErrors) {
-            code = RV_FAIL;
-            flags |= RV_FLAG_ERROR_EXPECTED_MISMATCH;
-        } else {
-            code = RV_PASS;
-            if (reporter.getResourceErrors() > 0)
-                flags |= RV_FLAG_ERROR_EXPECTED_MATCH;
-        }
-        if (resourceExpectedWarnings < 0) {
-            if (reporter.getResourceWarnings() > 0)
-                flags |= RV_FLAG_WARNING_UNEXPECTED;
-        } else if (reporter.getResourceWarnings() != resourceExpectedWarnings) {
-            code = RV_FAIL;
-            flags |= RV_FLAG_WARNING_EXPECTED_MISMATCH;
-        } else {
-            if (reporter.getResourceWarnings() > 0)
-                flags |= RV_FLAG_WARNING_EXPECTED_MATCH;
-        }
-        return ((flags & 0x7FFFFF) << 8) | (code & 0xFF);
-    }
-
-    public static boolean rvPassed(int rv) {
-        return rvCode(rv) == RV_PASS;
+            reporter.logInfo(reporter.message("*KEY*", "Verifying XML well-formedness phase {0} (fused)...", currentPhase.ordinal()));
+            // the single fused parse is accounted to the well-formedness phase
+            beginMetricsPhase(currentPhase);
+            TransformerHandler documentBuilder = ((SAXTransformerFactory) tf).newTransformerHandler();
+            handler = new FusedPhasesHandler(reporter, documentBuilder);
+            SAXParserFactory pf = SAXParserFactory.newInstance();
+            pf.setValidating(false);
+            pf.setNamespaceAware(true);
+            XMLReader reader = pf.newSAXParser().getXMLReader();
+            reader.setContentHandler(handler);
+            reader.setErrorHandler(handler);
+            try {
+                reader.setProperty(saxPropertyPrefix + "lexical-handler", handler);
+            } catch (SAXNotRecognizedException e) {
+                reporter.logDebug(reporter.message("*KEY*", "Platform parser does not support lexical handler, comments will not be retained."));
+            } catch (SAXNotSupportedException e) {
+                reporter.logDebug(reporter.message("*KEY*", "Platform parser does not support lexical handler, comments will not be retained."));
+            }
+            Charset encoding = getEncoding();
+            InputSource is = new InputSource(openReader());
+            is.setEncoding(encoding.name());
+            is.setSystemId(resourceUri.toString());
+            reader.parse(is);
+        } catch (TransformerFactoryConfigurationError e) {
+            reporter.logError(new Exception(e));
+        } catch (TransformerConfigurationException e) {
+            reporter.logError(e);
+        } catch (ParserConfigurationException e) {
+            reporter.logError(e);
+        } catch (WellFormednessErrorException e) {
+            // Already logged error via fused handler overrides.
+        } catch (RestartSignalledException e) {
+            // Restart options found on root element, remainder of resource need not be parsed.
+        } catch (VerificationCancelledException e) {
+            // Maximum error count reached by (deferred) validity errors, which are reported below.
+            resourceTruncated = true;
+        } catch (SAXParseException e) {
+            // Already logged error via fused handler overrides.
+        } catch (SAXException e) {
+            reporter.logError(e);
+        } catch (InvalidAnnotationException e) {
+            reporter.logError(e);
+        } catch (IOException e) {
+            reporter.logError(e);
+        } catch (Exception e) {
+            reporter.logError(e, true);
+        } catch (Error e) {
+            reporter.logError(new RuntimeException(e), true);
+        } finally {
+            if (handler != null)
+                handler.releaseValidity();
+        }
+        if ((reporter.getResourceErrors() > 0) || needsRestart() || (handler == null))
+            return false;
+        currentPhase = Phase.Validity;
+        if (!lastPhase.isEnabled(Phase.Validity)) {
+            reporter.logInfo(reporter.message("*KEY*", "Skipping XSD validity verification phase ({0}).", currentPhase.ordinal()));
+        } else {
+            reporter.logInfo(reporter.message("*KEY*", "Verifying XSD validity phase {0} (fused)...", currentPhase.ordinal()));
+            beginMetricsPhase(currentPhase);
+            handler.getValidityReporter().replay();
+            if (reporter.getResourceErrors() > 0)
+                return false;
+        }
+        Node document = handler.getDocument();
+        if (document != null)
+            return verifySemantics(document);
+        else
+            return reporter.getResourceErrors() == 0;
+    }
+
+    private int verify(List<String> args, List<String> nonOptionArgs, String uri, ResultProcessor resultProcessor) {
+        ByteBuffer bytes = null;
+        String key = null;
+        if ((resultCache != null) && (resultProcessor == null)) {
+            // a buffer supplied by an engine's caller takes precedence over the content designated by its URI
+            bytes = (resourceBufferSupplied != null) ? resourceBufferSupplied : readCacheableResource(uri);
+            key = (bytes != null) ? resultCache.makeKey(uri, bytes) : null;
+        }
+        int rv;
+        if (key != null)
+            rv = verifyCached(args, nonOptionArgs, uri, bytes, key);
+        else
+            rv = verifyUncached(args, nonOptionArgs, uri, resultProcessor);
+        // metrics are shown outside of output captured by result cache, since they are specific to the current run
+        if (showMetrics && (rvCode(rv) != RV_RESTART))
+            showResourceMetrics(uri);
+        return rv;
+    }
+
+    private int verifyCached(List<String> args, List<String> nonOptionArgs, String uri, ByteBuffer bytes, String key) {
+        Reporter reporter = getReporter();
+        PrintWriter output = reporter.getOutput();
+        ResultCache.Entry entry = resultCache.get(key);
+        if (entry != null) {
+            output.print(entry.getOutput());
+            reporter.flush();
+            this.results.put(uri, entry.getResults());
+            return entry.getRv();
+        } else {
+            // capture reporter output in order to record it with results
+            StringWriter buffer = new StringWriter();
+            int rv;
+            reporter.setOutput(new PrintWriter(buffer));
+            resourceBufferSupplied = bytes;
+            try {
+                rv = verifyUncached(args, nonOptionArgs, uri, null);
+                reporter.flush();
+            } finally {
+                resourceBufferSupplied = null;
+                reporter.setOutput(output);
+            }
+            output.print(buffer.toString());
+            reporter.flush();
+            if (rvCode(rv) != RV_RESTART)
+                resultCache.put(key, rv, this.results.get(uri), buffer.toString());
+            return rv;
+        }
+    }
+
+    private ByteBuffer readCacheableResource(String uriString) {
+        // only (regular) file resources are cached, and failure to read them is reported when they are verified
+        Path path;
+        try {
+            path = getResourcePath(new URI(uriString));
+        } catch (URISyntaxException e) {
+            path = null;
+        } catch (IllegalArgumentException e) {
+            path = null;
+        }
+        if (path == null)
+            return null;
+        FileChannel fc = null;
+        try {
+            fc = FileChannel.open(path, StandardOpenOption.READ);
+            long size = fc.size();
+            return (size <= Integer.MAX_VALUE) ? fc.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+        } catch (IOException e) {
+            return null;
+        } finally {
+            IOUtil.closeSafely(fc);
+        }
+    }
+
+    private void setResultCacheFingerprint(List<String> args, List<String> nonOptionArgs) {
+        // configuration content is included in fingerprint, since its options and defaults affect results
+        URL locator = (configuration != null) ? configuration.getLocator() : null;
+        byte[] configurationContent = null;
+        if (locator != null) {
+            InputStream is = null;
+            try {
+                is = locator.openStream();
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                IOUtil.copy(is, bos);
+                configurationContent = bos.toByteArray();
+            } catch (IOException e) {
+                Reporter reporter = getReporter();
+                reporter.logWarning(reporter.message("*KEY*", "Unable to read configuration ''{0}'', results will not be cached: {1}", locator, e.getMessage()));
+                return;
+            } finally {
+                IOUtil.closeSafely(is);
+            }
+        }
+        resultCache.setFingerprint(Version.getVersion(), getResultCacheOptionArgs(args, nonOptionArgs), configurationContent);
+    }
+
+    private List<String> getResultCacheOptionArgs(List<String> args, List<String> nonOptionArgs) {
+        // options that do not affect the results (or output) of verifying a resource are excluded
+        List<String> optionArgs = new java.util.ArrayList<String>();
+        for (int i = 0, n = args.size(); i < n; ++i) {
+            String arg = args.get(i);
+            if (arg.equals("--result-cache") || arg.equals("--parallel") || arg.equals("--parallel-media") || arg.equals("--parallel-subtrees"))
+                ++i;
+            else if (!nonOptionArgs.contains(arg))
+                optionArgs.add(arg);
+        }
+        return optionArgs;
+    }
+
+    private int verifyUncached(List<String> args, List<String> nonOptionArgs, String uri, ResultProcessor resultProcessor) {
+        Reporter reporter = getReporter();
+        if (!reporter.isHidingLocation())
+            reporter.logInfo(reporter.message("*KEY*", "Verifying '{'{0}'}'.", uri));
+        Metrics metrics = null;
+        do {
+            resetResourceState();
+            setResourceURI(uri);
+            metrics = new Metrics();
+            setResourceState(Metrics.RESOURCE_STATE_KEY, metrics);
+            // large payloads are spilled only when no result processor consumes the bound root
+            if (resultProcessor == null)
+                setResourceState(SpilledPayloads.RESOURCE_STATE_KEY, new SpilledPayloads());
+            if (!verifyResource())
+                break;
+            if (needsRestart() && !cancelRestart(args, nonOptionArgs, resultProcessor))
+                break;
+            // streaming requires no bound root, so it is not used when a result processor consumes the root
+            boolean streaming = streamingSemantics && (resultProcessor == null);
+            if (fusedParse && !streaming && lastPhase.isEnabled(Phase.WellFormedness)) {
+                if (!verifyFused())
+                    break;
+            } else {
+                if (!verifyWellFormedness()) {
+                    // a restart signalled while parsing may still be cancelled, since the parse has completed
+                    if ((reporter.getResourceErrors() > 0) || !cancelRestart(args, nonOptionArgs, resultProcessor))
+                        break;
+                }
+                if (!verifyValidity())
+                    break;
+                if (!(streaming ? verifySemanticsStreaming() : verifySemantics()))
+                    break;
+            }
+            if (resultProcessor != null)
+                resultProcessor.processResult(args, resourceUri, rootBinding);
+        } while (false);
+        metrics.end();
+        int rv = rvValue();
+        if (rvCode(rv) != RV_RESTART) {
+            reporter.logInfo(reporter.message("*KEY*", "Verification {0}{1}.", rvPassed(rv) ? "Passed" : "Failed", resultDetails()));
+            reporter.flush();
+            this.results.put(uri,
+                new Results(uri, rv, resourceExpectedErrors, reporter.getResourceErrors(), resourceExpectedWarnings,
+                    reporter.getResourceWarnings(), getModel(), getEncoding(), rootName, metrics));
+        }
+        return rv;
+    }
+
+    private boolean cancelRestart(List<String> args, List<String> nonOptionArgs, ResultProcessor resultProcessor) {
+        // a restart that would not change option arguments would only process the same resources again
+        if (!needsRestart())
+            return false;
+        else if (!processRestartArguments(args, nonOptionArgs, resultProcessor).equals(args)) {
+            return false;
+        } else {
+            Reporter reporter = getReporter();
+            setResourceState("restartOptions", null);
+            reporter.logInfo(reporter.message("*KEY*", "Processing options do not change option arguments, continuing without restart."));
+            return true;
+        }
+    }
+
+    private int rvValue() {
+        Reporter reporter = getReporter();
+        int code = RV_PASS;
+        int flags = 0;
+        if (needsRestart())
+            return RV_RESTART;
+        if (resourceExpectedErrors < 0) {
+            if (reporter.getResourceErrors() > 0) {
+                code = RV_FAIL;
+                flags |= RV_FLAG_ERROR_UNEXPECTED;
+            }
+        } else if (reporter.getResourceErrors() != resourceExpectedErrors) {
+            code = RV_FAIL;
+            flags |= RV_FLAG_ERROR_EXPECTED_MISMATCH;
+        } else {
+            code = RV_PASS;
+            if (reporter.getResourceErrors() > 0)
+                flags |= RV_FLAG_ERROR_EXPECTED_MATCH;
+        }
+        if (resourceExpectedWarnings < 0) {
+            if (reporter.getResourceWarnings() > 0)
+                flags |= RV_FLAG_WARNING_UNEXPECTED;
+        } else if (reporter.getResourceWarnings() != resourceExpectedWarnings) {
+            code = RV_FAIL;
+            flags |= RV_FLAG_WARNING_EXPECTED_MISMATCH;
+        } else {
+            if (reporter.getResourceWarnings() > 0)
+                flags |= RV_FLAG_WARNING_EXPECTED_MATCH;
+        }
+        if (resourceTruncated)
+            flags |= RV_FLAG_TRUNCATED;
+        if (resourceStreamed)
+            flags |= RV_FLAG_STREAMED;
+        return ((flags & 0x7FFFFF) << 8) | (code & 0xFF);
+    }
+
+    public static boolean rvPassed(int rv) {
+        return rvCode(rv) == RV_PASS;
     }
 
     public static int rvCode(int rv) {
@@ -2500,6 +3129,18 @@ public class TimedTextVerifier implements VerifierContext {
             details.append(' ');
             details.append(plural("warning", resourceExpectedWarnings));
         }
+        if (resourceTruncated) {
+            details.append(", verification truncated upon reaching maximum of ");
+            details.append(maxErrorCount);
+            details.append(' ');
+            details.append(plural("error", maxErrorCount));
+        }
+        if (resourceStreamed) {
+            details.append(", semantics verified by streaming with ");
+            details.append(StreamingSemanticsHandler.getSkippedChecks().length);
+            details.append(" skipped ");
+            details.append(plural("check", StreamingSemanticsHandler.getSkippedChecks().length));
+        }
         return details.toString();
     }
 
@@ -2511,11 +3152,17 @@ public class TimedTextVerifier implements VerifierContext {
     }
 
     private int verify(List<String> args, List<String> nonOptionArgs, ResultProcessor resultProcessor) {
+        if (resultCache != null)
+            setResultCacheFingerprint(args, nonOptionArgs);
+        if ((parallelWorkers > 1) && (nonOptionArgs.size() > 1)) {
+            if (canVerifyParallel(resultProcessor))
+                return verifyParallel(args, nonOptionArgs);
+        }
         Reporter reporter = getReporter();
         int numFailure = 0;
         int numSuccess = 0;
         for (String uri : nonOptionArgs) {
-            switch (rvCode(verify(args, maybeConvertToFileURLString(uri), resultProcessor))) {
+            switch (rvCode(verify(args, nonOptionArgs, maybeConvertToFileURLString(uri), resultProcessor))) {
             case RV_PASS:
                 ++numSuccess;
                 break;
@@ -2529,30 +3176,216 @@ public class TimedTextVerifier implements VerifierContext {
             }
             reporter.flush();
         }
+        return verifySummary(numSuccess, numFailure);
+    }
+
+    private boolean canVerifyParallel(ResultProcessor resultProcessor) {
+        Reporter reporter = getReporter();
+        if (resultProcessor != null) {
+            reporter.logInfo(reporter.message("*KEY*", "Parallel verification not supported when processing results, verifying serially."));
+            return false;
+        } else if (Reporters.getReporter(reporter.getName()) == null) {
+            reporter.logInfo(reporter.message("*KEY*", "Parallel verification not supported by reporter ''{0}'', verifying serially.", reporter.getName()));
+            return false;
+        } else
+            return true;
+    }
+
+    private int verifyParallel(List<String> args, List<String> nonOptionArgs) {
+        Reporter reporter = getReporter();
+        int numWorkers = Math.min(parallelWorkers, nonOptionArgs.size());
+        BlockingQueue<TimedTextVerifier> workers = new java.util.concurrent.LinkedBlockingQueue<TimedTextVerifier>();
+        for (int i = 0; i < numWorkers; ++i)
+            workers.add(createWorker(args, Reporters.getReporter(reporter.getName())));
+        ExecutorService executor = Executors.newFixedThreadPool(numWorkers);
+        // bound number of pending (and therefore buffered) results
+        int maxPending = numWorkers * 4;
+        Deque<Future<WorkerResult>> pending = new java.util.ArrayDeque<Future<WorkerResult>>();
+        Iterator<String> uris = nonOptionArgs.iterator();
+        int numFailure = 0;
+        int numSuccess = 0;
+        try {
+            while (uris.hasNext() || !pending.isEmpty()) {
+                while (uris.hasNext() && (pending.size() < maxPending))
+                    pending.add(executor.submit(new WorkerTask(workers, args, maybeConvertToFileURLString(uris.next()))));
+                WorkerResult result = getWorkerResult(pending.remove());
+                reporter.getOutput().print(result.output);
+                reporter.flush();
+                if (result.results != null)
+                    this.results.put(result.uri, result.results);
+                switch (rvCode(result.rv)) {
+                case RV_PASS:
+                    ++numSuccess;
+                    break;
+                case RV_FAIL:
+                    ++numFailure;
+                    break;
+                case RV_RESTART:
+                    return RV_RESTART;
+                default:
+                    break;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return verifySummary(numSuccess, numFailure);
+    }
+
+    private void shutdownSharedExecutors() {
+        if (mediaPrefetcher != null)
+            mediaPrefetcher.shutdown();
+        if (subtreeVerifier != null)
+            subtreeVerifier.shutdown();
+    }
+
+    private TimedTextVerifier createWorker(List<String> args, Reporter reporter) {
+        StringWriter buffer = new StringWriter();
+        TimedTextVerifier worker = new TimedTextVerifier(reporter, new PrintWriter(buffer), null, includeSource, getShowOutput());
+        worker.workerBuffer = buffer;
+        worker.restarted = restarted;
+        worker.parseArgs(worker.preProcessOptions(args, null), null);
+        // share result cache (and its statistics) with workers
+        if (worker.resultCache != null)
+            worker.resultCache = resultCache;
+        // share media prefetcher with workers, so that its bound applies across workers
+        if (worker.mediaPrefetcher != null) {
+            worker.mediaPrefetcher.shutdown();
+            worker.mediaPrefetcher = mediaPrefetcher;
+        }
+        // share subtree verifier with workers, so that its bound applies across workers
+        if (worker.subtreeVerifier != null) {
+            worker.subtreeVerifier.shutdown();
+            worker.subtreeVerifier = subtreeVerifier;
+        }
+        // discard reporter prologue and any option processing output
+        buffer.getBuffer().setLength(0);
+        return worker;
+    }
+
+    private WorkerResult verifyWorker(List<String> args, String uri) {
+        int rv = verify(args, Collections.singletonList(uri), uri, null);
+        getReporter().flush();
+        StringBuffer sb = workerBuffer.getBuffer();
+        String output = sb.toString();
+        sb.setLength(0);
+        return new WorkerResult(uri, rv, results.remove(uri), output);
+    }
+
+    void prepareEngine(List<String> optionArgs) {
+        List<String> nonOptionArgs = parseArgs(preProcessOptions(optionArgs, null), null);
+        if (!nonOptionArgs.isEmpty())
+            throw new UsageException("engine options must not include resource arguments: " + nonOptionArgs);
+    }
+
+    synchronized TimedTextVerifier createEngineWorker(List<String> optionArgs, Reporter reporter) {
+        // N.B. an engine has no option processor, so a restart signalled by processing options is cancelled
+        // (and reported as such) in the same manner as when verifying from the command line
+        return createWorker(optionArgs, reporter);
+    }
+
+    Results verifyEngineResource(String uri, ByteBuffer bytes) {
+        resourceBufferSupplied = bytes;
+        try {
+            return verifyWorker(Collections.<String>emptyList(), uri).results;
+        } finally {
+            resourceBufferSupplied = null;
+        }
+    }
+
+    private static WorkerResult getWorkerResult(Future<WorkerResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException)
+                throw (RuntimeException) cause;
+            else if (cause instanceof Error)
+                throw (Error) cause;
+            else
+                throw new RuntimeException(cause);
+        }
+    }
+
+    private int verifySummary(int numSuccess, int numFailure) {
+        Reporter reporter = getReporter();
         if (reporter.getVerbosityLevel() > 0) {
             Message message;
+            String cacheDetails = resultCacheDetails();
             if (numSuccess > 0) {
                 if (numFailure > 0) {
                     message = reporter.message("*KEY*",
-                        "Passed {0} {0,choice,0#resources|1#resource|1<resources}, Failed {1} {1,choice,0#resources|1#resource|1<resources}.", numSuccess, numFailure);
+                        "Passed {0} {0,choice,0#resources|1#resource|1<resources}, Failed {1} {1,choice,0#resources|1#resource|1<resources}{2}.", numSuccess, numFailure,
+                        cacheDetails);
                 } else {
                     message = reporter.message("*KEY*",
-                        "Passed {0} {0,choice,0#resources|1#resource|1<resources}.", numSuccess);
+                        "Passed {0} {0,choice,0#resources|1#resource|1<resources}{1}.", numSuccess, cacheDetails);
                 }
             } else {
                 if (numFailure > 0) {
                     message = reporter.message("*KEY*",
-                        "Failed {0} {0,choice,0#resources|1#resource|1<resources}.", numFailure);
+                        "Failed {0} {0,choice,0#resources|1#resource|1<resources}{1}.", numFailure, cacheDetails);
                 } else {
                     message = null;
                 }
             }
             if (message != null)
                 reporter.logInfo(message);
+            if (showMetrics)
+                showMetrics(aggregateMetrics(), "Batch");
         }
         return numFailure > 0 ? 1 : 0;
     }
 
+    private void showResourceMetrics(String uri) {
+        Results r = results.get(uri);
+        Metrics metrics = (r != null) ? r.getMetrics() : null;
+        if (metrics != null)
+            showMetrics(metrics, "Resource");
+        else {
+            // results replayed from result cache do not retain metrics
+            Reporter reporter = getReporter();
+            reporter.logInfo(reporter.message("*KEY*", "Resource metrics unavailable, since results were obtained from result cache."));
+        }
+        getReporter().flush();
+    }
+
+    private void showMetrics(Metrics metrics, String scope) {
+        Reporter reporter = getReporter();
+        for (Metrics.Phase phase : metrics.getPhases())
+            reporter.logInfo(new MetricsMessage("*KEY*", scope, phase));
+    }
+
+    private Metrics aggregateMetrics() {
+        // results replayed from result cache do not retain metrics, and are not included
+        Metrics metrics = new Metrics();
+        for (Results r : results.values()) {
+            if (r.getMetrics() != null)
+                metrics.add(r.getMetrics());
+        }
+        return metrics;
+    }
+
+    private String resultCacheDetails() {
+        if (resultCache == null)
+            return "";
+        int hits = resultCache.getHits();
+        int misses = resultCache.getMisses();
+        StringBuffer details = new StringBuffer();
+        details.append(", with ");
+        details.append(hits);
+        details.append(" result cache ");
+        details.append(plural("hit", hits));
+        details.append(" and ");
+        details.append(misses);
+        details.append(' ');
+        details.append((misses == 1) ? "miss" : "misses");
+        return details.toString();
+    }
+
     public int run(String[] args) {
         return run(Arrays.asList(args), null);
     }
@@ -2592,7 +3425,11 @@ public class TimedTextVerifier implements VerifierContext {
             getShowOutput().flush();
             if (nonOptionArgs.size() > 0) {
                 showProcessingInfo();
-                rv = verify(args, nonOptionArgs, resultProcessor);
+                try {
+                    rv = verify(args, nonOptionArgs, resultProcessor);
+                } finally {
+                    shutdownSharedExecutors();
+                }
                 if (rv == RV_RESTART) {
                     assert !hasRestarted();
                     List<String> argsRestart = processRestartArguments(args, nonOptionArgs, resultProcessor);
@@ -2719,6 +3556,13 @@ public class TimedTextVerifier implements VerifierContext {
         }
     }
 
+    private static class RestartSignalledException extends RuntimeException {
+        static final long serialVersionUID = 0;
+        RestartSignalledException() {
+            super();
+        }
+    }
+
     private class ForeignVocabularyFilter extends XMLFilterImpl {
 
         private Set<String> standardNamespaces;
@@ -2727,16 +3571,28 @@ public class TimedTextVerifier implements VerifierContext {
         private Stack<QName> nameStack = new Stack<QName>();
         private boolean inForeign;
         private Locator currentLocator;
+        private Reporter reporter;
 
-        ForeignVocabularyFilter(XMLReader reader, String[] standardNamespaces, Set<String> extensionNamespaces, ForeignTreatment foreignTreatment) {
+        ForeignVocabularyFilter(XMLReader reader, String[] standardNamespaces, Set<String> extensionNamespaces, ForeignTreatment foreignTreatment,
+            Reporter reporter) {
             super(reader);
             this.standardNamespaces = new java.util.HashSet<String>(Arrays.asList(standardNamespaces));
             this.extensionNamespaces = new java.util.HashSet<String>(extensionNamespaces);
             this.foreignTreatment = foreignTreatment;
+            this.reporter = reporter;
         }
 
         ForeignVocabularyFilter(XMLReader reader, URI[] namespaceURIs, Set<String> extensionNamespaces, ForeignTreatment foreignTreatment) {
-            this(reader, externalRepresentations(namespaceURIs), extensionNamespaces, foreignTreatment);
+            this(reader, namespaceURIs, extensionNamespaces, foreignTreatment, TimedTextVerifier.this.getReporter());
+        }
+
+        ForeignVocabularyFilter(XMLReader reader, URI[] namespaceURIs, Set<String> extensionNamespaces, ForeignTreatment foreignTreatment,
+            Reporter reporter) {
+            this(reader, externalRepresentations(namespaceURIs), extensionNamespaces, foreignTreatment, reporter);
+        }
+
+        private Reporter getReporter() {
+            return reporter;
         }
 
         @Override
@@ -2916,11 +3772,320 @@ public class TimedTextVerifier implements VerifierContext {
         }
     }
 
-    private static class LocationAnnotatingFilter extends XMLFilterImpl {
+    /**
+     * Tees a single SAX event stream to the well-formedness checks, to an XSD validator handler,
+     * and to the (location annotated) document builder used for semantics verification. Messages
+     * produced by the validity branch are deferred so that they may be reported in the validity
+     * phase, and only if the well-formedness phase succeeds.
+     */
+    private class FusedPhasesHandler extends DefaultHandler implements LexicalHandler {
 
+        private DeferredReporter validityReporter;
         private Locator currentLocator;
+        private boolean expectRootElement = true;
+        private List<String[]> prefixMappings = new java.util.ArrayList<String[]>();
+        private ContentHandler validityHandler;
+        private Schema validatorSchema;
+        private ValidatorHandler validatorHandler;
+        private ContentHandler documentHandler;
+        private LexicalHandler documentLexicalHandler;
+        private DOMResult documentResult;
+        private LocationRecordingFilter locationRecorder;
+        private Metrics metrics;
+
+        FusedPhasesHandler(Reporter reporter, TransformerHandler documentBuilder) {
+            this.validityReporter = new DeferredReporter(reporter);
+            this.metrics = getMetrics();
+            Base64SpillingFilter filter0 = new Base64SpillingFilter(null, getSpilledPayloads());
+            ForeignVocabularyFilter filter1 = new ForeignVocabularyFilter(null, getModel().getNamespaceURIs(), extensionSchemas.keySet(), ForeignTreatment.Allow);
+            LocationRecordingFilter filter2 = new LocationRecordingFilter(null);
+            filter0.setContentHandler(filter1);
+            filter1.setContentHandler(filter2);
+            filter2.setContentHandler(documentBuilder);
+            DOMResult result = new DOMResult();
+            result.setSystemId(resourceUri.toString());
+            documentBuilder.setSystemId(resourceUri.toString());
+            documentBuilder.setResult(result);
+            this.documentHandler = filter0;
+            this.documentLexicalHandler = documentBuilder;
+            this.documentResult = result;
+            this.locationRecorder = filter2;
+        }
+
+        public DeferredReporter getValidityReporter() {
+            return validityReporter;
+        }
+
+        public Node getDocument() {
+            Node document = documentResult.getNode();
+            locationRecorder.bindLocations(document);
+            return document;
+        }
+
+        private void startValidity() {
+            if (!lastPhase.isEnabled(Phase.Validity))
+                return;
+            try {
+                validatorSchema = getSchema(validityReporter);
+                validatorHandler = Schemas.acquireValidatorHandler(validatorSchema);
+                ValidatorHandler vh = validatorHandler;
+                vh.setErrorHandler(new ErrorHandler() {
+                    public void error(SAXParseException e) {
+                        // don't terminated validation on validation error, unless maximum error count is reached
+                        validityReporter.logError(e);
+                        if (isMaxErrorCountReached(validityReporter))
+                            throw new VerificationCancelledException();
+                    }
+                    public void fatalError(SAXParseException e) {
+                        // don't terminated validation on validation error, unless maximum error count is reached
+                        validityReporter.logError(e);
+                        if (isMaxErrorCountReached(validityReporter))
+                            throw new VerificationCancelledException();
+                    }
+                    public void warning(SAXParseException e) {
+                        // don't terminated validation on validation warning treated as error
+                        validityReporter.logWarning(e);
+                    }
+                });
+                ForeignVocabularyFilter filter =
+                    new ForeignVocabularyFilter(null, getModel().getNamespaceURIs(), extensionSchemas.keySet(), foreignTreatment, validityReporter);
+                filter.setContentHandler(vh);
+                if (currentLocator != null)
+                    filter.setDocumentLocator(currentLocator);
+                filter.startDocument();
+                for (String[] mapping : prefixMappings)
+                    filter.startPrefixMapping(mapping[0], mapping[1]);
+                validityHandler = filter;
+            } catch (SchemaValidationErrorException e) {
+                validityReporter.logError(e);
+            } catch (SAXException e) {
+                abortValidity(e);
+            }
+        }
+
+        private void releaseValidity() {
+            if (validatorHandler != null) {
+                Schemas.releaseValidatorHandler(validatorSchema, validatorHandler);
+                validatorHandler = null;
+                validatorSchema = null;
+            }
+            validityHandler = null;
+        }
+
+        private void abortValidity(SAXException e) {
+            // terminate validity branch, but continue with well-formedness and document branches
+            if (!(e instanceof SAXParseException))
+                validityReporter.logError(e);
+            validityHandler = null;
+        }
+
+        @Override
+        public void setDocumentLocator(Locator locator) {
+            currentLocator = locator;
+            documentHandler.setDocumentLocator(locator);
+        }
+
+        @Override
+        public void startDocument() throws SAXException {
+            documentHandler.startDocument();
+        }
+
+        @Override
+        public void endDocument() throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.endDocument();
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.endDocument();
+        }
+
+        @Override
+        public void startPrefixMapping(String prefix, String uri) throws SAXException {
+            if (expectRootElement)
+                prefixMappings.add(new String[] { prefix, uri });
+            else if (validityHandler != null) {
+                try {
+                    validityHandler.startPrefixMapping(prefix, uri);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.startPrefixMapping(prefix, uri);
+        }
 
-        LocationAnnotatingFilter(XMLReader reader) {
+        @Override
+        public void endPrefixMapping(String prefix) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.endPrefixMapping(prefix);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.endPrefixMapping(prefix);
+        }
+
+        @Override
+        public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
+            if (metrics != null)
+                metrics.addElement(attrs.getLength());
+            if (expectRootElement) {
+                processAnnotations(attrs);
+                processValidationParameters(attrs);
+                expectRootElement = false;
+                if (needsRestart())
+                    throw new RestartSignalledException();
+                startValidity();
+                prefixMappings.clear();
+            }
+            if (validityHandler != null) {
+                try {
+                    validityHandler.startElement(nsUri, localName, qualName, attrs);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.startElement(nsUri, localName, qualName, attrs);
+        }
+
+        @Override
+        public void endElement(String nsUri, String localName, String qualName) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.endElement(nsUri, localName, qualName);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.endElement(nsUri, localName, qualName);
+        }
+
+        @Override
+        public void characters(char[] chars, int start, int length) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.characters(chars, start, length);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.characters(chars, start, length);
+        }
+
+        @Override
+        public void ignorableWhitespace(char[] chars, int start, int length) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.ignorableWhitespace(chars, start, length);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.ignorableWhitespace(chars, start, length);
+        }
+
+        @Override
+        public void processingInstruction(String target, String data) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.processingInstruction(target, data);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.processingInstruction(target, data);
+        }
+
+        @Override
+        public void skippedEntity(String name) throws SAXException {
+            if (validityHandler != null) {
+                try {
+                    validityHandler.skippedEntity(name);
+                } catch (SAXException e) {
+                    abortValidity(e);
+                }
+            }
+            documentHandler.skippedEntity(name);
+        }
+
+        @Override
+        public void error(SAXParseException e) {
+            // ensure parsing is terminated on well-formedness error
+            getReporter().logError(e);
+            throw new WellFormednessErrorException(e);
+        }
+
+        @Override
+        public void fatalError(SAXParseException e) {
+            // ensure parsing is terminated on well-formedness error
+            getReporter().logError(e);
+            throw new WellFormednessErrorException(e);
+        }
+
+        @Override
+        public void warning(SAXParseException e) {
+            // ensure parsing is terminated on well-formedness warning treated as error
+            if (getReporter().logWarning(e))
+                throw new WellFormednessErrorException(e);
+        }
+
+        public void startDTD(String name, String publicId, String systemId) throws SAXException {
+            documentLexicalHandler.startDTD(name, publicId, systemId);
+        }
+
+        public void endDTD() throws SAXException {
+            documentLexicalHandler.endDTD();
+        }
+
+        public void startEntity(String name) throws SAXException {
+            documentLexicalHandler.startEntity(name);
+        }
+
+        public void endEntity(String name) throws SAXException {
+            documentLexicalHandler.endEntity(name);
+        }
+
+        public void startCDATA() throws SAXException {
+            documentLexicalHandler.startCDATA();
+        }
+
+        public void endCDATA() throws SAXException {
+            documentLexicalHandler.endCDATA();
+        }
+
+        public void comment(char[] chars, int start, int length) throws SAXException {
+            documentLexicalHandler.comment(chars, start, length);
+        }
+
+    }
+
+    private static class ElementCountingFilter extends XMLFilterImpl {
+
+        private Metrics metrics;
+
+        ElementCountingFilter(XMLReader reader, Metrics metrics) {
+            super(reader);
+            this.metrics = metrics;
+        }
+
+        @Override
+        public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
+            if (metrics != null)
+                metrics.addElement(attrs.getLength());
+            super.startElement(nsUri, localName, qualName, attrs);
+        }
+
+    }
+
+    private static class LocationRecordingFilter extends XMLFilterImpl {
+
+        private Locator currentLocator;
+        private LocationTable locationTable;
+
+        LocationRecordingFilter(XMLReader reader) {
             super(reader);
         }
 
@@ -2932,35 +4097,57 @@ public class TimedTextVerifier implements VerifierContext {
 
         @Override
         public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
-            super.startElement(nsUri, localName, qualName, addLocationAttribute(attrs));
+            recordLocation();
+            super.startElement(nsUri, localName, qualName, attrs);
         }
 
-        private final QName qnLoc = Locators.getLocatorAttributeQName();
-        private String qnLocQualName = qnLoc.getPrefix() + ":" + qnLoc.getLocalPart();
-        private boolean rootElement = true;
-        private Attributes addLocationAttribute(Attributes attrs) {
+        private void recordLocation() {
             if (currentLocator != null) {
-                AttributesImpl attrsNew = new AttributesImpl(attrs);
-                StringBuilder sb = new StringBuilder();
-                if (rootElement) {
-                    sb.append('{');
-                    sb.append(currentLocator.getSystemId());
-                    sb.append('}');
-                    rootElement = false;
-                } else
-                    sb.append("{}");
-                sb.append(':');
-                sb.append(Integer.toString(currentLocator.getLineNumber()));
-                sb.append(':');
-                sb.append(Integer.toString(currentLocator.getColumnNumber()));
-                attrsNew.addAttribute(qnLoc.getNamespaceURI(), qnLoc.getLocalPart(), qnLocQualName, "CDATA", sb.toString());
-                return attrsNew;
-            } else
-                return attrs;
+                if (locationTable == null)
+                    locationTable = new LocationTable(currentLocator.getSystemId());
+                locationTable.add(currentLocator.getLineNumber(), currentLocator.getColumnNumber());
+            }
+        }
+
+        public void bindLocations(Node document) {
+            if ((locationTable != null) && (document instanceof Document))
+                locationTable.bind((Document) document);
         }
 
     }
 
+    private static class WorkerResult {
+        private String uri;
+        private int rv;
+        private Results results;
+        private String output;
+        WorkerResult(String uri, int rv, Results results, String output) {
+            this.uri = uri;
+            this.rv = rv;
+            this.results = results;
+            this.output = output;
+        }
+    }
+
+    private static class WorkerTask implements Callable<WorkerResult> {
+        private BlockingQueue<TimedTextVerifier> workers;
+        private List<String> args;
+        private String uri;
+        WorkerTask(BlockingQueue<TimedTextVerifier> workers, List<String> args, String uri) {
+            this.workers = workers;
+            this.args = args;
+            this.uri = uri;
+        }
+        public WorkerResult call() throws Exception {
+            TimedTextVerifier worker = workers.take();
+            try {
+                return worker.verifyWorker(args, uri);
+            } finally {
+                workers.put(worker);
+            }
+        }
+    }
+
     public static class Results {
 
         private static final String NOURI = "*URI NOT AVAILABLE*";
@@ -2978,6 +4165,7 @@ public class TimedTextVerifier implements VerifierContext {
         private String modelName;
         private String encodingName;
         private QName root;
+        private Metrics metrics;
 
         public Results() {
             this.uriString = NOURI;
@@ -2988,6 +4176,17 @@ public class TimedTextVerifier implements VerifierContext {
         }
 
         public Results(String uriString, int rv, int errorsExpected, int errors, int warningsExpected, int warnings, Model model, Charset encoding, QName root) {
+            this(uriString, rv, errorsExpected, errors, warningsExpected, warnings, model, encoding, root, null);
+        }
+
+        public Results(String uriString, int rv, int errorsExpected, int errors, int warningsExpected, int warnings, Model model, Charset encoding, QName root,
+            Metrics metrics) {
+            this(uriString, rv, errorsExpected, errors, warningsExpected, warnings,
+                (model != null) ? model.getName() : "unknown", (encoding != null) ? encoding.name() : "unknown", root);
+            this.metrics = metrics;
+        }
+
+        Results(String uriString, int rv, int errorsExpected, int errors, int warningsExpected, int warnings, String modelName, String encodingName, QName root) {
             this.uriString = uriString;
             this.succeeded = rvPassed(rv);
             this.code = rvCode(rv);
@@ -2996,14 +4195,8 @@ public class TimedTextVerifier implements VerifierContext {
             this.errors = errors;
             this.warningsExpected = warningsExpected;
             this.warnings = warnings;
-            if (model != null)
-                this.modelName = model.getName();
-            else
-                this.modelName = "unknown";
-            if (encoding != null)
-                this.encodingName = encoding.name();
-            else
-                this.encodingName = "unknown";
+            this.modelName = modelName;
+            this.encodingName = encodingName;
             this.root = root;
         }
 
@@ -3051,6 +4244,18 @@ public class TimedTextVerifier implements VerifierContext {
             return root;
         }
 
+        public boolean getTruncated() {
+            return (flags & RV_FLAG_TRUNCATED) != 0;
+        }
+
+        public boolean getStreamed() {
+            return (flags & RV_FLAG_STREAMED) != 0;
+        }
+
+        public Metrics getMetrics() {
+            return metrics;
+        }
+
     }
 
     public static class ExternalParametersStore implements ExternalParameters {
@@ -0,0 +1,252 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import com.skynav.ttv.app.TimedTextVerifier.Results;
+import com.skynav.ttv.util.Message;
+import com.skynav.ttv.util.NullReporter;
+import com.skynav.ttv.util.Reporter.ReportType;
+import com.skynav.ttv.util.Reporters;
+import com.skynav.ttv.util.TextReporter;
+
+/**
+ * A reusable verification engine, configured once from (non-resource) option arguments, that may be
+ * used to verify any number of resources, including concurrently from multiple threads.
+ *
+ * Option arguments are parsed and validated when the engine is constructed. Each concurrent verification
+ * is performed by a worker verifier that is configured from the same option arguments and that is
+ * subsequently reused; compiled schemas are shared by all workers (and all engines) in a process. Rather than being
+ * written to a reporter output, messages reported while verifying a resource are returned to the
+ * caller along with the results of verification.
+ */
+public class VerificationEngine {
+
+    public static final URI DEFAULT_BUFFER_URI = URI.create("urn:x-skynav-ttv:buffer");
+
+    private List<String> optionArgs;
+    private TimedTextVerifier coordinator;
+    private Queue<Worker> workers;
+
+    public VerificationEngine(String[] optionArgs) {
+        this(Arrays.asList(optionArgs));
+    }
+
+    public VerificationEngine(List<String> optionArgs) {
+        this.optionArgs = Collections.unmodifiableList(new java.util.ArrayList<String>(optionArgs));
+        // workers obtain source inclusion from coordinator, since their reporters are not established from option arguments
+        boolean includeSource = this.optionArgs.contains("--reporter-include-source");
+        this.coordinator = new TimedTextVerifier(Reporters.getReporter(NullReporter.NAME), null, null, includeSource, null);
+        this.coordinator.prepareEngine(this.optionArgs);
+        this.workers = new ConcurrentLinkedQueue<Worker>();
+        release(createWorker());
+    }
+
+    /**
+     * Obtain option arguments used to configure this engine.
+     * @return (unmodifiable) list of option arguments
+     */
+    public List<String> getOptionArgs() {
+        return optionArgs;
+    }
+
+    /**
+     * Preload (compile) schema for configured model and extension schemas, so that the first
+     * verification performed by this (or another) engine need not wait for schema compilation.
+     * @return this engine
+     */
+    public VerificationEngine warmUp() {
+        synchronized (coordinator) {
+            coordinator.preloadSchemas();
+        }
+        return this;
+    }
+
+    /**
+     * Verify resource designated by URI.
+     * @param uri resource locator
+     * @return verification outcome
+     */
+    public Outcome verify(URI uri) {
+        return verify(uri.toString(), null);
+    }
+
+    /**
+     * Verify resource designated by file system path.
+     * @param path resource path
+     * @return verification outcome
+     */
+    public Outcome verify(Path path) {
+        return verify(path.toAbsolutePath().toUri());
+    }
+
+    /**
+     * Verify resource bytes, identifying resource with {@link #DEFAULT_BUFFER_URI}.
+     * @param bytes resource bytes, from position to limit
+     * @return verification outcome
+     */
+    public Outcome verify(ByteBuffer bytes) {
+        return verify(bytes, DEFAULT_BUFFER_URI);
+    }
+
+    /**
+     * Verify resource bytes. The buffer's position, limit, and content are not modified, and its content is
+     * not copied, so the caller must not modify its content until verification completes.
+     * @param bytes resource bytes, from position to limit
+     * @param uri used to identify resource in results and messages, and to resolve relative references
+     * @return verification outcome
+     */
+    public Outcome verify(ByteBuffer bytes, URI uri) {
+        return verify(uri.toString(), bytes.slice().asReadOnlyBuffer());
+    }
+
+    private Outcome verify(String uri, ByteBuffer bytes) {
+        Worker worker = acquire();
+        try {
+            worker.reporter.extractMessages();
+            Results results = worker.verifier.verifyEngineResource(uri, bytes);
+            return new Outcome(results, worker.reporter.extractMessages());
+        } finally {
+            release(worker);
+        }
+    }
+
+    private Worker acquire() {
+        Worker worker = workers.poll();
+        if (worker == null)
+            worker = createWorker();
+        return worker;
+    }
+
+    private void release(Worker worker) {
+        workers.offer(worker);
+    }
+
+    private Worker createWorker() {
+        RecordingReporter reporter = new RecordingReporter();
+        return new Worker(coordinator.createEngineWorker(optionArgs, reporter), reporter);
+    }
+
+    public static class Outcome {
+
+        private Results results;
+        private List<ReportedMessage> messages;
+
+        Outcome(Results results, List<ReportedMessage> messages) {
+            this.results = results;
+            this.messages = Collections.unmodifiableList(messages);
+        }
+
+        public Results getResults() {
+            return results;
+        }
+
+        public List<ReportedMessage> getMessages() {
+            return messages;
+        }
+
+    }
+
+    public static class ReportedMessage {
+
+        private ReportType type;
+        private Message message;
+        private boolean hideLocation;
+        private boolean hidePath;
+
+        ReportedMessage(ReportType type, Message message, boolean hideLocation, boolean hidePath) {
+            this.type = type;
+            this.message = message;
+            this.hideLocation = hideLocation;
+            this.hidePath = hidePath;
+        }
+
+        public ReportType getType() {
+            return type;
+        }
+
+        public Message getMessage() {
+            return message;
+        }
+
+        /**
+         * Determine if resource location was hidden (by option) when message was reported.
+         * @return true if location is to be hidden when formatting message
+         */
+        public boolean isHidingLocation() {
+            return hideLocation;
+        }
+
+        /**
+         * Determine if resource path was hidden (by option) when message was reported.
+         * @return true if path is to be hidden when formatting message
+         */
+        public boolean isHidingPath() {
+            return hidePath;
+        }
+
+        @Override
+        public String toString() {
+            return "[" + type.name().charAt(0) + "]:" + message.toText(null, hideLocation, hidePath);
+        }
+
+    }
+
+    private static class Worker {
+        private TimedTextVerifier verifier;
+        private RecordingReporter reporter;
+        Worker(TimedTextVerifier verifier, RecordingReporter reporter) {
+            this.verifier = verifier;
+            this.reporter = reporter;
+        }
+    }
+
+    private static class RecordingReporter extends TextReporter {
+
+        private List<ReportedMessage> messages = new java.util.ArrayList<ReportedMessage>();
+
+        @Override
+        protected void out(ReportType type, Message message) {
+            messages.add(new ReportedMessage(type, message, isHidingLocation(), isHidingPath()));
+        }
+
+        List<ReportedMessage> extractMessages() {
+            List<ReportedMessage> extracted = messages;
+            messages = new java.util.ArrayList<ReportedMessage>();
+            return extracted;
+        }
+
+    }
+
+}
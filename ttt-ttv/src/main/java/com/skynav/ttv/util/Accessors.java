@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Per-class tables of property accessors, i.e., getter and setter methods of JAXB content classes,
+ * where each accessor is looked up once (per content class and method name) and retained as a method
+ * handle adapted to a generic (Object) signature, so that accessing a property does not require a
+ * reflective method lookup and invocation. Failed lookups are also retained, and reported by throwing
+ * NoSuchMethodException, in the same manner as Class.getMethod().
+ */
+public class Accessors {
+
+    private static final Object MISSING = new Object();
+    private static final MethodType GETTER_TYPE = MethodType.methodType(Object.class, Object.class);
+    private static final MethodType SETTER_TYPE = MethodType.methodType(void.class, Object.class, Object.class);
+
+    private static final ClassValue<ConcurrentMap<String,Object>> accessors = new ClassValue<ConcurrentMap<String,Object>>() {
+        @Override
+        protected ConcurrentMap<String,Object> computeValue(Class<?> contentClass) {
+            return new ConcurrentHashMap<String,Object>();
+        }
+    };
+
+    private Accessors() {
+    }
+
+    /**
+     * Obtain value of property by means of (public, no argument) getter method.
+     * @param content object whose property is obtained
+     * @param getterName name of getter method
+     * @return value returned by getter
+     * @throws NoSuchMethodException if getter is not defined by content's class
+     */
+    public static Object get(Object content, String getterName) throws NoSuchMethodException {
+        MethodHandle mh = getAccessor(content.getClass(), getterName, null);
+        try {
+            return mh.invokeExact(content);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Determine if content's class defines a (public, no argument) getter method.
+     * @param content object whose class is queried
+     * @param getterName name of getter method
+     * @return true if getter is defined
+     */
+    public static boolean hasGetter(Object content, String getterName) {
+        return lookup(content.getClass(), getterName, null) != MISSING;
+    }
+
+    /**
+     * Set value of property by means of (public, single argument) setter method.
+     * @param content object whose property is set
+     * @param setterName name of setter method
+     * @param valueClass parameter type of setter method
+     * @param value value to set
+     * @throws NoSuchMethodException if setter is not defined by content's class
+     */
+    public static void set(Object content, String setterName, Class<?> valueClass, Object value) throws NoSuchMethodException {
+        MethodHandle mh = getAccessor(content.getClass(), setterName, valueClass);
+        try {
+            mh.invokeExact(content, value);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static MethodHandle getAccessor(Class<?> contentClass, String methodName, Class<?> valueClass) throws NoSuchMethodException {
+        Object accessor = lookup(contentClass, methodName, valueClass);
+        if (accessor == MISSING)
+            throw new NoSuchMethodException(contentClass.getName() + "." + methodName);
+        else
+            return (MethodHandle) accessor;
+    }
+
+    private static Object lookup(Class<?> contentClass, String methodName, Class<?> valueClass) {
+        ConcurrentMap<String,Object> table = accessors.get(contentClass);
+        String key = (valueClass != null) ? methodName + "(" + valueClass.getName() + ")" : methodName;
+        Object accessor = table.get(key);
+        if (accessor == null) {
+            accessor = makeAccessor(contentClass, methodName, valueClass);
+            Object accessorExisting = table.putIfAbsent(key, accessor);
+            if (accessorExisting != null)
+                accessor = accessorExisting;
+        }
+        return accessor;
+    }
+
+    private static Object makeAccessor(Class<?> contentClass, String methodName, Class<?> valueClass) {
+        try {
+            if (valueClass != null)
+                return unreflect(contentClass.getMethod(methodName, new Class<?>[]{ valueClass })).asType(SETTER_TYPE);
+            else
+                return unreflect(contentClass.getMethod(methodName, new Class<?>[]{})).asType(GETTER_TYPE);
+        } catch (NoSuchMethodException e) {
+            return MISSING;
+        }
+    }
+
+    private static MethodHandle unreflect(java.lang.reflect.Method m) {
+        try {
+            // N.B. method is public, but may be declared by a non-public class (e.g., an enumeration's value() method)
+            if (!m.isAccessible())
+                m.setAccessible(true);
+            return MethodHandles.lookup().unreflect(m);
+        } catch (IllegalAccessException e) {
+            throw new RuntimeException(e);
+        } catch (SecurityException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+}
@@ -25,8 +25,6 @@
 
 package com.skynav.ttv.util;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
@@ -44,19 +42,9 @@ public class Annotations {
     @SuppressWarnings("unchecked")
     public static Map<QName,String> getOtherAttributes(Object content) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod("getOtherAttributes", new Class<?>[]{});
-            return (Map<QName,String>) m.invoke(content, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return (Map<QName,String>) Accessors.get(content, "getOtherAttributes");
         } catch (NoSuchMethodException e) {
             return null;
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -32,6 +32,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.Stack;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 import com.skynav.xml.helpers.XML;
 
@@ -51,15 +53,22 @@ public class Condition {
         Object evaluate(ExpressionEvaluator ee, Expression e);
     }
 
+    public static final int MAXIMUM_CACHED_CONDITIONS = 4096;
+
+    // process wide cache of parsed (and compiled) conditions, keyed by (trimmed) condition expression
+    private static final ConcurrentMap<String,Condition> conditions = new ConcurrentHashMap<String,Condition>();
+
     private Expression expression;
+    private CompiledExpression compiled;
 
     private Condition(Expression expression) {
         assert expression != null;
         this.expression = expression;
+        this.compiled = CompiledExpression.compile(expression);
     }
 
     public boolean evaluate(EvaluatorState state) {
-        Object o = new ExpressionEvaluator(state).evaluate(expression);
+        Object o = evaluateExpression(state, false);
         Class<?> operandClass = Boolean.class;
         if (checkCompatibleOperand(o, operandClass)) {
             o = convertCompatibleOperand(o, operandClass);
@@ -71,14 +80,32 @@ public class Condition {
             throw new EvaluatorException("condition expression evaluates to non-boolean compatible value " + o);
     }
 
+    // evaluate compiled form or, if interpreted is true, original expression tree, without boolean conversion
+    Object evaluateExpression(EvaluatorState state, boolean interpreted) {
+        if (interpreted)
+            return new ExpressionEvaluator(state).evaluate(expression);
+        else
+            return compiled.evaluate(state);
+    }
+
     @Override
     public String toString() {
         return expression.toString();
     }
 
     public static Condition valueOf(String condition) throws ParserException {
-        Parser p = new Parser();
-        return p.parse(CharBuffer.wrap(condition.trim()));
+        String key = condition.trim();
+        Condition c = conditions.get(key);
+        if (c == null) {
+            Parser p = new Parser();
+            c = p.parse(CharBuffer.wrap(key));
+            if (conditions.size() < MAXIMUM_CACHED_CONDITIONS) {
+                Condition cPrevious = conditions.putIfAbsent(key, c);
+                if (cPrevious != null)
+                    c = cPrevious;
+            }
+        }
+        return c;
     }
 
     public static EvaluatorState makeEvaluatorState(Map<String,Object> mediaParams, Map<String,Object> boundParams, Set<String> supportFeatures) {
@@ -1054,6 +1081,330 @@ public class Condition {
 
     }
 
+    /**
+     * Compiled form of an expression, in which operators are bound to specialized nodes and
+     * identifiers to direct binding lookups, so that evaluation need not dispatch on operator
+     * and operand type at each step. Evaluation semantics (including order of operand evaluation
+     * and exceptions thrown) are the same as those of {@link ExpressionEvaluator}, which is used as a
+     * fallback for any (sub) expression that does not have a well formed structure.
+     */
+    private static abstract class CompiledExpression {
+
+        abstract Object evaluate(EvaluatorState state);
+
+        static CompiledExpression compile(Object o) {
+            if (o instanceof Expression)
+                return compile((Expression) o);
+            else if ((o instanceof Number) || (o instanceof String) || (o instanceof Boolean))
+                return new CompiledConstant(o);
+            else
+                return new InterpretedExpression(o);
+        }
+
+        static CompiledExpression compile(Expression e) {
+            Operator operator = e.getOperator();
+            int numOperands = e.getOperandCount();
+            switch (operator) {
+            case LITERAL:
+                if ((numOperands == 1) && (e.getOperand(0) instanceof Token))
+                    return compileLiteral(e, (Token) e.getOperand(0));
+                break;
+            case APPLY:
+                if (numOperands == 2) {
+                    Object o1 = e.getOperand(1);
+                    if ((o1 instanceof Expression) && (((Expression) o1).getOperator() == Operator.GROUP)) {
+                        List<Object> arguments = ((Expression) o1).getOperands();
+                        CompiledExpression[] compiledArguments = new CompiledExpression[arguments.size()];
+                        for (int i = 0, n = compiledArguments.length; i < n; ++i)
+                            compiledArguments[i] = compile(arguments.get(i));
+                        return new CompiledApply(e, compile(e.getOperand(0)), compiledArguments);
+                    }
+                }
+                break;
+            case GROUP:
+                if (numOperands == 1)
+                    return compile(e.getOperand(0));
+                break;
+            case ADD:
+            case SUBTRACT:
+            case MULTIPLY:
+            case DIVIDE:
+            case MODULO:
+                if (numOperands == 2)
+                    return new CompiledBinaryArithmetic(e, compile(e.getOperand(0)), compile(e.getOperand(1)));
+                break;
+            case AND:
+            case OR:
+                if (numOperands == 2)
+                    return new CompiledBinaryLogic(e, compile(e.getOperand(0)), compile(e.getOperand(1)));
+                break;
+            case EQ:
+            case GEQ:
+            case GT:
+            case LEQ:
+            case LT:
+            case NEQ:
+                if (numOperands == 2)
+                    return new CompiledBinaryRelation(e, compile(e.getOperand(0)), compile(e.getOperand(1)));
+                break;
+            case MINUS:
+            case PLUS:
+                if (numOperands == 1)
+                    return new CompiledUnaryArithmetic(e, compile(e.getOperand(0)));
+                break;
+            case NOT:
+                if (numOperands == 1)
+                    return new CompiledUnaryLogic(e, compile(e.getOperand(0)));
+                break;
+            default:
+                break;
+            }
+            return new InterpretedExpression(e);
+        }
+
+        private static CompiledExpression compileLiteral(Expression e, Token t) {
+            Token.Type type = t.getType();
+            if (type == Token.Type.IDENT)
+                return new CompiledIdentifier(t.getValue());
+            else if (type == Token.Type.STRING)
+                return new CompiledConstant(t.getValue());
+            else if (type == Token.Type.BOOLEAN)
+                return new CompiledConstant(Boolean.valueOf(t.getValue()));
+            else if (type == Token.Type.NUMERIC) {
+                try {
+                    return new CompiledConstant(Double.valueOf(t.getValue()));
+                } catch (NumberFormatException x) {
+                }
+            }
+            return new InterpretedExpression(e);
+        }
+
+        static Object checkOperand(Expression e, Object o, Class<?> operandClass) {
+            if (!checkCompatibleOperand(o, operandClass))
+                throw new IncompatibleOperandException(e, o, operandClass);
+            else
+                return convertCompatibleOperand(o, operandClass);
+        }
+
+    }
+
+    private static class InterpretedExpression extends CompiledExpression {
+
+        private Object expression;
+
+        InterpretedExpression(Object expression) {
+            this.expression = expression;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            return new ExpressionEvaluator(state).evaluate(expression);
+        }
+
+    }
+
+    private static class CompiledConstant extends CompiledExpression {
+
+        private Object value;
+
+        CompiledConstant(Object value) {
+            this.value = value;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            return value;
+        }
+
+    }
+
+    private static class CompiledIdentifier extends CompiledExpression {
+
+        private String identifier;
+
+        CompiledIdentifier(String identifier) {
+            this.identifier = identifier;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            return state.getBinding(identifier);
+        }
+
+    }
+
+    private static class CompiledApply extends CompiledExpression {
+
+        private Expression expression;
+        private CompiledExpression function;
+        private CompiledExpression[] arguments;
+
+        CompiledApply(Expression expression, CompiledExpression function, CompiledExpression[] arguments) {
+            this.expression = expression;
+            this.function = function;
+            this.arguments = arguments;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            Object o0 = function.evaluate(state);
+            if (o0 instanceof EvaluatorFunction) {
+                List<Object> values = new java.util.ArrayList<Object>(arguments.length);
+                for (CompiledExpression argument : arguments)
+                    values.add(argument.evaluate(state));
+                return ((EvaluatorFunction) o0).apply(state, values);
+            } else
+                throw new IncompatibleOperandException(expression, o0, EvaluatorFunction.class);
+        }
+
+    }
+
+    private static class CompiledBinaryArithmetic extends CompiledExpression {
+
+        private Expression expression;
+        private Operator operator;
+        private CompiledExpression operand0;
+        private CompiledExpression operand1;
+
+        CompiledBinaryArithmetic(Expression expression, CompiledExpression operand0, CompiledExpression operand1) {
+            this.expression = expression;
+            this.operator = expression.getOperator();
+            this.operand0 = operand0;
+            this.operand1 = operand1;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            double d0 = ((Number) checkOperand(expression, operand0.evaluate(state), Number.class)).doubleValue();
+            double d1 = ((Number) checkOperand(expression, operand1.evaluate(state), Number.class)).doubleValue();
+            switch (operator) {
+            case ADD:
+                return (Double) (d0 + d1);
+            case SUBTRACT:
+                return (Double) (d0 - d1);
+            case MULTIPLY:
+                return (Double) (d0 * d1);
+            case DIVIDE:
+                return (Double) (d0 / d1);
+            case MODULO:
+                return (Double) (d0 % d1);
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    }
+
+    private static class CompiledBinaryLogic extends CompiledExpression {
+
+        private Expression expression;
+        private boolean conjunction;
+        private CompiledExpression operand0;
+        private CompiledExpression operand1;
+
+        CompiledBinaryLogic(Expression expression, CompiledExpression operand0, CompiledExpression operand1) {
+            this.expression = expression;
+            this.conjunction = expression.getOperator() == Operator.AND;
+            this.operand0 = operand0;
+            this.operand1 = operand1;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            // both operands are evaluated (and checked) in order to retain non-short-circuit semantics of interpreted evaluation
+            boolean b0 = ((Boolean) checkOperand(expression, operand0.evaluate(state), Boolean.class)).booleanValue();
+            boolean b1 = ((Boolean) checkOperand(expression, operand1.evaluate(state), Boolean.class)).booleanValue();
+            return (Boolean) (conjunction ? (b0 && b1) : (b0 || b1));
+        }
+
+    }
+
+    private static class CompiledBinaryRelation extends CompiledExpression {
+
+        private Expression expression;
+        private Operator operator;
+        private CompiledExpression operand0;
+        private CompiledExpression operand1;
+
+        CompiledBinaryRelation(Expression expression, CompiledExpression operand0, CompiledExpression operand1) {
+            this.expression = expression;
+            this.operator = expression.getOperator();
+            this.operand0 = operand0;
+            this.operand1 = operand1;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            Object o0 = operand0.evaluate(state);
+            Object o1 = operand1.evaluate(state);
+            if (o0 instanceof Number) {
+                Number n1 = (Number) ((o1 instanceof Number) ? o1 : checkOperand(expression, o1, Number.class));
+                return evaluate(Double.valueOf(((Number) o0).doubleValue()).compareTo(Double.valueOf(n1.doubleValue())));
+            } else if (o0 instanceof String) {
+                String s1 = (String) ((o1 instanceof String) ? o1 : checkOperand(expression, o1, String.class));
+                return evaluate(((String) o0).compareTo(s1));
+            } else if (o0 instanceof Boolean) {
+                Boolean b1 = (Boolean) ((o1 instanceof Boolean) ? o1 : checkOperand(expression, o1, Boolean.class));
+                if (operator == Operator.EQ)
+                    return (Boolean) o0.equals(b1);
+                else if (operator == Operator.NEQ)
+                    return (Boolean) !o0.equals(b1);
+                else
+                    throw new IncompatibleOperatorException(expression, operator, Boolean.class);
+            } else
+                throw new IllegalStateException();
+        }
+
+        private Object evaluate(int d) {
+            switch (operator) {
+            case EQ:
+                return (Boolean) (d == 0);
+            case GEQ:
+                return (Boolean) (d >= 0);
+            case GT:
+                return (Boolean) (d > 0);
+            case LEQ:
+                return (Boolean) (d <= 0);
+            case LT:
+                return (Boolean) (d < 0);
+            case NEQ:
+                return (Boolean) (d != 0);
+            default:
+                throw new IllegalStateException();
+            }
+        }
+
+    }
+
+    private static class CompiledUnaryArithmetic extends CompiledExpression {
+
+        private Expression expression;
+        private boolean negate;
+        private CompiledExpression operand0;
+
+        CompiledUnaryArithmetic(Expression expression, CompiledExpression operand0) {
+            this.expression = expression;
+            this.negate = expression.getOperator() == Operator.MINUS;
+            this.operand0 = operand0;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            double d0 = ((Number) checkOperand(expression, operand0.evaluate(state), Number.class)).doubleValue();
+            return (Double) (negate ? -d0 : +d0);
+        }
+
+    }
+
+    private static class CompiledUnaryLogic extends CompiledExpression {
+
+        private Expression expression;
+        private CompiledExpression operand0;
+
+        CompiledUnaryLogic(Expression expression, CompiledExpression operand0) {
+            this.expression = expression;
+            this.operand0 = operand0;
+        }
+
+        Object evaluate(EvaluatorState state) {
+            boolean b0 = ((Boolean) checkOperand(expression, operand0.evaluate(state), Boolean.class)).booleanValue();
+            return (Boolean) (!b0);
+        }
+
+    }
+
     private static class ApplyEvaluator implements Evaluator {
 
         public Object evaluate(ExpressionEvaluator ee, Expression e) {
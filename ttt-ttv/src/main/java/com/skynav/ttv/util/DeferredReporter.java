@@ -0,0 +1,365 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.net.URI;
+import java.util.List;
+import java.util.ResourceBundle;
+
+import org.xml.sax.Locator;
+
+/**
+ * A reporter that defers logging of errors, warnings, info, and debug messages
+ * until {@link #replay} is invoked, at which time deferred messages are logged,
+ * in their original order, to the underlying (delegate) reporter. All other
+ * reporter operations are performed directly on the delegate reporter.
+ */
+public class DeferredReporter implements Reporter {
+
+    private enum EntryType {
+        Error,
+        ErrorException,
+        Warning,
+        WarningException,
+        Info,
+        Debug;
+    }
+
+    private static class Entry {
+        private EntryType type;
+        private Message message;
+        private Exception exception;
+        Entry(EntryType type, Message message, Exception exception) {
+            this.type = type;
+            this.message = message;
+            this.exception = exception;
+        }
+    }
+
+    private Reporter reporter;
+    private List<Entry> entries;
+    private int deferredErrors;
+    private int deferredWarnings;
+
+    public DeferredReporter(Reporter reporter) {
+        assert reporter != null;
+        this.reporter = reporter;
+        this.entries = new java.util.ArrayList<Entry>();
+    }
+
+    /**
+     * Obtain delegate reporter.
+     * @return delegate reporter
+     */
+    public Reporter getDelegate() {
+        return reporter;
+    }
+
+    /**
+     * Determine if any message has been deferred.
+     * @return true if some message has been deferred
+     */
+    public boolean hasDeferred() {
+        return !entries.isEmpty();
+    }
+
+    /**
+     * Log deferred messages to delegate reporter, in order of deferral,
+     * then discard deferred messages.
+     */
+    public void replay() {
+        for (Entry e : entries) {
+            switch (e.type) {
+            case Error:
+                reporter.logError(e.message);
+                break;
+            case ErrorException:
+                reporter.logError(e.exception);
+                break;
+            case Warning:
+                reporter.logWarning(e.message);
+                break;
+            case WarningException:
+                reporter.logWarning(e.exception);
+                break;
+            case Info:
+                reporter.logInfo(e.message);
+                break;
+            case Debug:
+                reporter.logDebug(e.message);
+                break;
+            default:
+                break;
+            }
+        }
+        discard();
+    }
+
+    /**
+     * Discard deferred messages without logging them.
+     */
+    public void discard() {
+        entries.clear();
+        deferredErrors = 0;
+        deferredWarnings = 0;
+    }
+
+    private void defer(EntryType type, Message message, Exception exception) {
+        entries.add(new Entry(type, message, exception));
+    }
+
+    public String getName() {
+        return reporter.getName();
+    }
+
+    public boolean isOpen() {
+        return reporter.isOpen();
+    }
+
+    public void open(Object... arguments) throws IOException {
+    }
+
+    public void close() throws IOException {
+    }
+
+    public void resetResourceState(boolean restart) {
+        discard();
+    }
+
+    public void resetAllState(boolean restart) {
+        discard();
+    }
+
+    public void setResourceURI(String uri) {
+        reporter.setResourceURI(uri);
+    }
+
+    public void setResourceURI(URI uri) {
+        reporter.setResourceURI(uri);
+    }
+
+    public URI getResourceURI() {
+        return reporter.getResourceURI();
+    }
+
+    public void setLines(String[] lines) {
+        reporter.setLines(lines);
+    }
+
+    public void setLines(LineIndex lines) {
+        reporter.setLines(lines);
+    }
+
+    public void hidePath() {
+        reporter.hidePath();
+    }
+
+    public void showPath() {
+        reporter.showPath();
+    }
+
+    public boolean isHidingPath() {
+        return reporter.isHidingPath();
+    }
+
+    public void hideLocation() {
+        reporter.hideLocation();
+    }
+
+    public void showLocation() {
+        reporter.showLocation();
+    }
+
+    public boolean isHidingLocation() {
+        return reporter.isHidingLocation();
+    }
+
+    public int getResourceErrors() {
+        return reporter.getResourceErrors() + deferredErrors;
+    }
+
+    public int getResourceWarnings() {
+        return reporter.getResourceWarnings() + deferredWarnings;
+    }
+
+    public void setOutput(PrintWriter output) {
+        reporter.setOutput(output);
+    }
+
+    public PrintWriter getOutput() {
+        return reporter.getOutput();
+    }
+
+    public void flush() {
+    }
+
+    public void setBundle(ResourceBundle bundle) {
+        reporter.setBundle(bundle);
+    }
+
+    public ResourceBundle getBundle() {
+        return reporter.getBundle();
+    }
+
+    public void setVerbosityLevel(int level) {
+        reporter.setVerbosityLevel(level);
+    }
+
+    public void incrementVerbosityLevel() {
+        reporter.incrementVerbosityLevel();
+    }
+
+    public int getVerbosityLevel() {
+        return reporter.getVerbosityLevel();
+    }
+
+    public void setDebugLevel(int level) {
+        reporter.setDebugLevel(level);
+    }
+
+    public void incrementDebugLevel() {
+        reporter.incrementDebugLevel();
+    }
+
+    public int getDebugLevel() {
+        return reporter.getDebugLevel();
+    }
+
+    public Message message(String key, String format, Object... arguments) {
+        return reporter.message(key, format, arguments);
+    }
+
+    public Message message(Locator locator, String key, String format, Object... arguments) {
+        return reporter.message(locator, key, format, arguments);
+    }
+
+    public void setTreatErrorAsWarning(boolean treatErrorAsWarning) {
+        reporter.setTreatErrorAsWarning(treatErrorAsWarning);
+    }
+
+    public boolean isTreatingErrorAsWarning() {
+        return reporter.isTreatingErrorAsWarning();
+    }
+
+    public void logError(Message message) {
+        defer(EntryType.Error, message, null);
+        if (reporter.isTreatingErrorAsWarning())
+            ++deferredWarnings;
+        else
+            ++deferredErrors;
+    }
+
+    public void logError(Exception e) {
+        logError(e, false);
+    }
+
+    public void logError(Exception e, boolean rethrow) {
+        defer(EntryType.ErrorException, null, e);
+        if (reporter.isTreatingErrorAsWarning())
+            ++deferredWarnings;
+        else
+            ++deferredErrors;
+        if (rethrow)
+            throw new RuntimeException(e);
+    }
+
+    public boolean hasDefaultWarning(String token) {
+        return reporter.hasDefaultWarning(token);
+    }
+
+    public void addDefaultWarning(String token, boolean enabled) {
+        reporter.addDefaultWarning(token, enabled);
+    }
+
+    public void setTreatWarningAsError(boolean treatWarningAsError) {
+        reporter.setTreatWarningAsError(treatWarningAsError);
+    }
+
+    public boolean isTreatingWarningAsError() {
+        return reporter.isTreatingWarningAsError();
+    }
+
+    public boolean isWarningEnabled(String token) {
+        return reporter.isWarningEnabled(token);
+    }
+
+    public boolean hasEnabledWarning(String token) {
+        return reporter.hasEnabledWarning(token);
+    }
+
+    public void enableWarning(String token) {
+        reporter.enableWarning(token);
+    }
+
+    public boolean hasDisabledWarning(String token) {
+        return reporter.hasDisabledWarning(token);
+    }
+
+    public void disableWarning(String token) {
+        reporter.disableWarning(token);
+    }
+
+    public void disableWarnings() {
+        reporter.disableWarnings();
+    }
+
+    public boolean areWarningsDisabled() {
+        return reporter.areWarningsDisabled();
+    }
+
+    public void hideWarnings() {
+        reporter.hideWarnings();
+    }
+
+    public boolean  areWarningsHidden() {
+        return reporter.areWarningsHidden();
+    }
+
+    public boolean logWarning(Message message) {
+        defer(EntryType.Warning, message, null);
+        if (!reporter.areWarningsDisabled())
+            ++deferredWarnings;
+        return reporter.isTreatingWarningAsError();
+    }
+
+    public boolean logWarning(Exception e) {
+        defer(EntryType.WarningException, null, e);
+        if (!reporter.areWarningsDisabled())
+            ++deferredWarnings;
+        return reporter.isTreatingWarningAsError();
+    }
+
+    public void logInfo(Message message) {
+        defer(EntryType.Info, message, null);
+    }
+
+    public void logDebug(Message message) {
+        defer(EntryType.Debug, message, null);
+    }
+
+}
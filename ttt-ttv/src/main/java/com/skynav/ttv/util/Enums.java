@@ -25,26 +25,13 @@
 
 package com.skynav.ttv.util;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
-
 public class Enums {
 
     public static String getValue(Enum<?> enumItem) {
         try {
-            Class<?> enumClass = enumItem.getClass();
-            Method m = enumClass.getMethod("value", new Class<?>[]{});
-            return (String) m.invoke(enumItem, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return (String) Accessors.get(enumItem, "value");
         } catch (NoSuchMethodException e) {
             return enumItem.name();
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
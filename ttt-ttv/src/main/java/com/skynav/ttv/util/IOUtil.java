@@ -30,6 +30,7 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.Reader;
+import java.nio.channels.Channel;
 
 public class IOUtil {
 
@@ -57,6 +58,14 @@ public class IOUtil {
         }
     }
 
+    public static void closeSafely(Channel c) {
+        try {
+            if (c != null)
+                c.close();
+        } catch (Throwable e) {
+        }
+    }
+
     public static boolean deleteSafely(File file) {
         boolean deleted = false;
         try {
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.xml.bind.Binder;
+import javax.xml.bind.JAXBContext;
+import javax.xml.bind.JAXBException;
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
+
+import org.w3c.dom.Node;
+
+/**
+ * Process wide registry of JAXB contexts, keyed by JAXB context path (see Model.getJAXBContextPath()),
+ * where each context is created at most once, and from which (un)marshallers may be obtained from
+ * a per-context pool. Contexts are thread safe; marshallers and unmarshallers are not, and must be
+ * used by one thread at a time, i.e., between acquire and release. Binders maintain an association
+ * between a specific document and its bindings, which generally outlives a single verification or
+ * transformation step, so these are created anew (though inexpensively) from a shared context.
+ */
+public class JAXBContexts {
+
+    public static final int MAXIMUM_POOLED = 16;
+
+    private static final ConcurrentMap<String,JAXBContext> contexts = new ConcurrentHashMap<String,JAXBContext>();
+    private static final ConcurrentMap<String,Queue<Marshaller>> marshallers = new ConcurrentHashMap<String,Queue<Marshaller>>();
+    private static final ConcurrentMap<String,Queue<Unmarshaller>> unmarshallers = new ConcurrentHashMap<String,Queue<Unmarshaller>>();
+
+    private JAXBContexts() {
+    }
+
+    /**
+     * Obtain shared JAXB context for context path, creating it if necessary.
+     * @param contextPath JAXB context path
+     * @return JAXB context
+     * @throws JAXBException if context cannot be created
+     */
+    public static JAXBContext getContext(String contextPath) throws JAXBException {
+        JAXBContext context = contexts.get(contextPath);
+        if (context == null) {
+            synchronized (contexts) {
+                context = contexts.get(contextPath);
+                if (context == null) {
+                    context = JAXBContext.newInstance(contextPath);
+                    contexts.put(contextPath, context);
+                }
+            }
+        }
+        return context;
+    }
+
+    /**
+     * Create binder from shared JAXB context.
+     * @param contextPath JAXB context path
+     * @return new binder instance
+     * @throws JAXBException if context cannot be created
+     */
+    public static Binder<Node> createBinder(String contextPath) throws JAXBException {
+        return getContext(contextPath).createBinder();
+    }
+
+    /**
+     * Acquire marshaller from pool, creating one if pool is empty. The caller should
+     * return the marshaller to the pool by means of {@link #releaseMarshaller} after
+     * use, and should not modify its properties.
+     * @param contextPath JAXB context path
+     * @return marshaller instance
+     * @throws JAXBException if context or marshaller cannot be created
+     */
+    public static Marshaller acquireMarshaller(String contextPath) throws JAXBException {
+        Marshaller m = getPool(marshallers, contextPath).poll();
+        if (m == null)
+            m = getContext(contextPath).createMarshaller();
+        return m;
+    }
+
+    /**
+     * Release marshaller to pool.
+     * @param contextPath JAXB context path
+     * @param m marshaller previously acquired using same context path
+     */
+    public static void releaseMarshaller(String contextPath, Marshaller m) {
+        if (m != null)
+            release(getPool(marshallers, contextPath), m);
+    }
+
+    /**
+     * Acquire unmarshaller from pool, creating one if pool is empty. The caller should
+     * return the unmarshaller to the pool by means of {@link #releaseUnmarshaller} after
+     * use, and should not modify its properties.
+     * @param contextPath JAXB context path
+     * @return unmarshaller instance
+     * @throws JAXBException if context or unmarshaller cannot be created
+     */
+    public static Unmarshaller acquireUnmarshaller(String contextPath) throws JAXBException {
+        Unmarshaller u = getPool(unmarshallers, contextPath).poll();
+        if (u == null)
+            u = getContext(contextPath).createUnmarshaller();
+        return u;
+    }
+
+    /**
+     * Release unmarshaller to pool.
+     * @param contextPath JAXB context path
+     * @param u unmarshaller previously acquired using same context path
+     */
+    public static void releaseUnmarshaller(String contextPath, Unmarshaller u) {
+        if (u != null)
+            release(getPool(unmarshallers, contextPath), u);
+    }
+
+    private static <T> Queue<T> getPool(ConcurrentMap<String,Queue<T>> pools, String contextPath) {
+        Queue<T> pool = pools.get(contextPath);
+        if (pool == null) {
+            Queue<T> poolNew = new ConcurrentLinkedQueue<T>();
+            pool = pools.putIfAbsent(contextPath, poolNew);
+            if (pool == null)
+                pool = poolNew;
+        }
+        return pool;
+    }
+
+    private static <T> void release(Queue<T> pool, T instance) {
+        // N.B. size() is not constant time on a concurrent queue, but pools are kept small
+        if (pool.size() < MAXIMUM_POOLED)
+            pool.offer(instance);
+    }
+
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.Arrays;
+
+/**
+ * A compact index of the lines of a character sequence, consisting of the offsets at which lines start,
+ * from which the text of a line is extracted only when requested. Lines are terminated by LF, CR, or CR LF,
+ * where a terminator at the end of the sequence does not start an additional (empty) line.
+ */
+public class LineIndex {
+
+    private CharSequence chars;
+    private int[] starts;
+    private String[] lines;
+
+    public LineIndex(CharSequence chars) {
+        this.chars = chars;
+        this.starts = indexLines(chars);
+    }
+
+    public LineIndex(String[] lines) {
+        this.lines = lines;
+    }
+
+    /**
+     * Obtain number of lines.
+     * @return line count
+     */
+    public int getLineCount() {
+        if (lines != null)
+            return lines.length;
+        else
+            return starts.length;
+    }
+
+    /**
+     * Obtain text of line, excluding its terminator.
+     * @param index zero-based line index
+     * @return line text
+     * @throws IndexOutOfBoundsException if index is negative or not less than line count
+     */
+    public String getLine(int index) {
+        if (lines != null)
+            return lines[index];
+        int start = starts[index];
+        int end = (index + 1 < starts.length) ? starts[index + 1] : chars.length();
+        if ((end > start) && (chars.charAt(end - 1) == '\n'))
+            --end;
+        if ((end > start) && (chars.charAt(end - 1) == '\r'))
+            --end;
+        return chars.subSequence(start, end).toString();
+    }
+
+    private static int[] indexLines(CharSequence chars) {
+        int[] starts = new int[64];
+        int numLines = 0;
+        for (int i = 0, n = chars.length(); i < n;) {
+            if (numLines == starts.length)
+                starts = Arrays.copyOf(starts, numLines * 2);
+            starts[numLines++] = i;
+            while (i < n) {
+                char c = chars.charAt(i++);
+                if (c == '\n')
+                    break;
+                else if (c == '\r') {
+                    if ((i < n) && (chars.charAt(i) == '\n'))
+                        ++i;
+                    break;
+                }
+            }
+        }
+        return Arrays.copyOf(starts, numLines);
+    }
+
+}
@@ -36,24 +36,32 @@ public class LocatedMessage extends Message {
     private String uri;
     private int row = -1;
     private int col = -1;
+    private LineIndex resourceLines;
     private String[] lines;
     private int linesRowOffset = -1;
     public LocatedMessage(Locator locator, String key, String format, Object... arguments) {
-        this(locator.getSystemId(), locator.getLineNumber(), locator.getColumnNumber(), null, key, format, arguments);
+        this(locator.getSystemId(), locator.getLineNumber(), locator.getColumnNumber(), (LineIndex) null, key, format, arguments);
     }
     public LocatedMessage(String uri, int row, int col, String[] resourceLines, String key, String format, Object... arguments) {
+        this(uri, row, col, (resourceLines != null) ? new LineIndex(resourceLines) : null, key, format, arguments);
+    }
+    public LocatedMessage(String uri, int row, int col, LineIndex resourceLines, String key, String format, Object... arguments) {
         super(key, format, arguments);
         this.uri = uri;
         this.row = row;
         this.col = col;
+        // defer population of source lines until needed, i.e., until message is emitted as XML with source
         if ((resourceLines != null) && (row > 0))
-            populateLines(resourceLines, row, LINE_CONTEXT_COUNT);
+            this.resourceLines = resourceLines;
     }
-    private void populateLines(String[] resourceLines, int row, int lineContextCount) {
+    private void populateLines(LineIndex resourceLines, int row, int lineContextCount) {
         assert row > 0;
+        int resourceLineCount = resourceLines.getLineCount();
+        if (resourceLineCount == 0)
+            return;
         int lineNumber = row - 1;
-        if (lineNumber >= resourceLines.length)
-            lineNumber = resourceLines.length - 1;
+        if (lineNumber >= resourceLineCount)
+            lineNumber = resourceLineCount - 1;
         int lineBeforeCount = (lineContextCount - 1) / 2;
         int lineAfterCount = (lineContextCount - 1) / 2;
         if (lineBeforeCount < 1)
@@ -63,14 +71,14 @@ public class LocatedMessage extends Message {
         int lineBeforeCountAvailable = lineNumber;
         if (lineBeforeCountAvailable < lineBeforeCount)
             lineBeforeCount = lineBeforeCountAvailable;
-        int lineAfterCountAvailable = resourceLines.length - (lineNumber + 1);
+        int lineAfterCountAvailable = resourceLineCount - (lineNumber + 1);
         if (lineAfterCountAvailable < lineAfterCount)
             lineAfterCount = lineAfterCountAvailable;
         int lineCount = lineBeforeCount + 1 + lineAfterCount;
         String[] lines = new String[lineCount];
         int firstLineOffset = lineNumber - lineBeforeCount;
         for (int i = firstLineOffset, n = i + lineCount; i < n; ++i) {
-            lines[i - firstLineOffset] = resourceLines[i];
+            lines[i - firstLineOffset] = resourceLines.getLine(i);
         }
         this.lines = lines;
         this.linesRowOffset = firstLineOffset + 1;
@@ -145,6 +153,10 @@ public class LocatedMessage extends Message {
     }
     private String toXMLSource() {
         StringBuffer sb = new StringBuffer();
+        if ((lines == null) && (resourceLines != null)) {
+            populateLines(resourceLines, row, LINE_CONTEXT_COUNT);
+            resourceLines = null;
+        }
         if (lines != null) {
             sb.append("<source>\n");
             int i = linesRowOffset;
@@ -0,0 +1,151 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.Arrays;
+import java.util.Map;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.Node;
+
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.LocatorImpl;
+
+/**
+ * A side table that records the lexical location (line and column) of each element of a parsed
+ * document, in lieu of annotating each element with a location attribute. Locations are recorded
+ * while parsing in primitive arrays indexed by element ordinal, i.e., by the order in which the
+ * start tag of each element is reported; once the document tree is constructed, the table is bound
+ * to the tree, associating each element (by node identity) with its ordinal, and attached to the
+ * document node, from which it is obtained by {@link #getTable(Node)}.
+ */
+public class LocationTable {
+
+    private static final String USER_DATA_KEY = LocationTable.class.getName();
+    private static final int INITIAL_CAPACITY = 256;
+
+    private String systemId;
+    private int[] lines;
+    private int[] columns;
+    private int count;
+    private Map<Node,Integer> ordinals;
+
+    public LocationTable(String systemId) {
+        this.systemId = systemId;
+        this.lines = new int[INITIAL_CAPACITY];
+        this.columns = new int[INITIAL_CAPACITY];
+    }
+
+    public String getSystemId() {
+        return systemId;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    /**
+     * Record location of next element in document order.
+     * @param line line number of element's start tag
+     * @param column column number of element's start tag
+     * @return ordinal of element
+     */
+    public int add(int line, int column) {
+        if (count == lines.length) {
+            lines = Arrays.copyOf(lines, count * 2);
+            columns = Arrays.copyOf(columns, count * 2);
+        }
+        lines[count] = line;
+        columns[count] = column;
+        return count++;
+    }
+
+    /**
+     * Bind table to document tree constructed from the same sequence of elements for which locations
+     * were recorded, and attach table to document.
+     * @param document document node
+     */
+    public void bind(Document document) {
+        Map<Node,Integer> ordinals = new java.util.IdentityHashMap<Node,Integer>(count * 4 / 3 + 1);
+        int ordinal = 0;
+        Node n = document.getDocumentElement();
+        while ((n != null) && (ordinal < count)) {
+            if (n instanceof Element)
+                ordinals.put(n, Integer.valueOf(ordinal++));
+            n = nextElementInDocumentOrder(n);
+        }
+        this.ordinals = ordinals;
+        document.setUserData(USER_DATA_KEY, this, null);
+    }
+
+    private static Node nextElementInDocumentOrder(Node n) {
+        for (Node c = n.getFirstChild(); c != null; c = c.getNextSibling()) {
+            if (c instanceof Element)
+                return c;
+        }
+        for (Node a = n; (a != null) && !(a instanceof Document); a = a.getParentNode()) {
+            for (Node s = a.getNextSibling(); s != null; s = s.getNextSibling()) {
+                if (s instanceof Element)
+                    return s;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtain recorded location of node.
+     * @param node a node of the bound document
+     * @return a locator or null if no location is recorded for node
+     */
+    public Locator getLocator(Node node) {
+        if (ordinals != null) {
+            Integer ordinal = ordinals.get(node);
+            if (ordinal != null) {
+                LocatorImpl locator = new LocatorImpl();
+                locator.setSystemId(systemId);
+                locator.setLineNumber(lines[ordinal]);
+                locator.setColumnNumber(columns[ordinal]);
+                return locator;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Obtain table attached to document that owns node.
+     * @param node a node (or document node)
+     * @return location table or null if none is attached
+     */
+    public static LocationTable getTable(Node node) {
+        Document document = (node instanceof Document) ? (Document) node : node.getOwnerDocument();
+        if (document != null)
+            return (LocationTable) document.getUserData(USER_DATA_KEY);
+        else
+            return null;
+    }
+
+}
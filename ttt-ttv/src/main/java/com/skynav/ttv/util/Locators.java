@@ -56,8 +56,34 @@ public class Locators {
     public static Locator getLocator(Object content, String sysid) {
         if (content instanceof JAXBElement<?>)
             return getLocator(((JAXBElement<?>) content).getValue(), sysid);
+        else if (content instanceof Node) {
+            Locator locator = getLocationTableLocator((Node) content);
+            if (locator != null)
+                return locator;
+        }
+        // fall back to location attribute, e.g., as retained in serialized transformation output
+        return getLocatorAttributeAsLocator(content, sysid);
+    }
+
+    private static Locator getLocationTableLocator(Node node) {
+        LocationTable table = LocationTable.getTable(node);
+        if (table != null)
+            return table.getLocator(node);
         else
-            return getLocatorAttributeAsLocator(content, sysid);
+            return null;
+    }
+
+    public static String getLocatorAttributeValue(Locator locator) {
+        StringBuilder sb = new StringBuilder();
+        sb.append('{');
+        if (locator.getSystemId() != null)
+            sb.append(locator.getSystemId());
+        sb.append('}');
+        sb.append(':');
+        sb.append(Integer.toString(locator.getLineNumber()));
+        sb.append(':');
+        sb.append(Integer.toString(locator.getColumnNumber()));
+        return sb.toString();
     }
 
     private static final Pattern locPattern = Pattern.compile("\\{([^\\}]*)\\}:([-]?\\d+):([-]?\\d+)");
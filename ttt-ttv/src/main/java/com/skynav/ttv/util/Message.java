@@ -27,10 +27,15 @@ package com.skynav.ttv.util;
 
 import java.text.MessageFormat;
 import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
 public class Message {
+    public static final int MAXIMUM_CACHED_FORMATS = 4096;
+    // process wide cache of compiled message formats, keyed by pattern
+    private static final ConcurrentMap<String,MessageFormat> formats = new ConcurrentHashMap<String,MessageFormat>();
     private String key;
     private String format;
     private Object[] arguments;
@@ -58,7 +63,22 @@ public class Message {
         String format = ((bundle != null) && (this.key != null)) ? bundle.getString(this.key) : null;
         if (format == null)
             format = this.format;
-        return MessageFormat.format(format, this.arguments);
+        return format(format, this.arguments);
+    }
+    private static String format(String pattern, Object[] arguments) {
+        MessageFormat mf = formats.get(pattern);
+        if (mf == null) {
+            mf = new MessageFormat(pattern);
+            if (formats.size() < MAXIMUM_CACHED_FORMATS) {
+                MessageFormat mfPrevious = formats.putIfAbsent(pattern, mf);
+                if (mfPrevious != null)
+                    mf = mfPrevious;
+            }
+        }
+        // message formats are not thread safe, so serialize use of shared instance
+        synchronized (mf) {
+            return mf.format(arguments);
+        }
     }
     public String toXML() {
         return toXML(null, false, false, false);
@@ -0,0 +1,244 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Records per phase metrics of processing a resource, i.e., wall clock time, CPU time and bytes allocated by
+ * the processing thread, bytes read, and number of elements and attributes visited. A phase is begun by name,
+ * and ends when the next phase begins or when processing ends; a phase that is begun again (e.g., after a
+ * restart) accumulates into its existing record. CPU time and allocated bytes are measured on the thread that
+ * begins and ends a phase, so work performed on other threads is not included; either is recorded as -1, and is
+ * reported as unavailable, if the platform does not support (or has disabled) its measurement.
+ */
+public class Metrics {
+
+    public static final String RESOURCE_STATE_KEY = "metrics";
+
+    public static class Phase {
+
+        private String name;
+        private long wallTime;
+        private long cpuTime;
+        private long allocatedBytes;
+        private long bytesRead;
+        private long elements;
+        private long attributes;
+
+        public Phase(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * Obtain wall clock time.
+         * @return wall clock time in nanoseconds
+         */
+        public long getWallTime() {
+            return wallTime;
+        }
+
+        /**
+         * Obtain CPU time of processing thread.
+         * @return CPU time in nanoseconds or -1 if not available
+         */
+        public long getCpuTime() {
+            return cpuTime;
+        }
+
+        /**
+         * Obtain bytes allocated by processing thread.
+         * @return allocated bytes or -1 if not available
+         */
+        public long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        public long getBytesRead() {
+            return bytesRead;
+        }
+
+        public long getElements() {
+            return elements;
+        }
+
+        public long getAttributes() {
+            return attributes;
+        }
+
+        /**
+         * Obtain throughput, i.e., bytes read per second of wall clock time.
+         * @return throughput in bytes per second or zero if no bytes were read
+         */
+        public long getThroughput() {
+            if ((bytesRead > 0) && (wallTime > 0))
+                return (long) (bytesRead * 1e9 / wallTime);
+            else
+                return 0;
+        }
+
+        private void add(Phase phase) {
+            wallTime += phase.wallTime;
+            cpuTime = addMeasure(cpuTime, phase.cpuTime);
+            allocatedBytes = addMeasure(allocatedBytes, phase.allocatedBytes);
+            bytesRead += phase.bytesRead;
+            elements += phase.elements;
+            attributes += phase.attributes;
+        }
+
+        private static long addMeasure(long m1, long m2) {
+            if ((m1 < 0) || (m2 < 0))
+                return -1;
+            else
+                return m1 + m2;
+        }
+
+    }
+
+    private static final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+
+    private Map<String,Phase> phases = new java.util.LinkedHashMap<String,Phase>();
+    private Phase current;
+    private long beginWallTime;
+    private long beginCpuTime;
+    private long beginAllocatedBytes;
+
+    public Metrics() {
+    }
+
+    /**
+     * Begin phase, ending current phase (if any). If named phase is already current, then do nothing.
+     * @param name phase name
+     * @return phase record
+     */
+    public Phase begin(String name) {
+        if ((current != null) && current.name.equals(name))
+            return current;
+        end();
+        Phase phase = phases.get(name);
+        if (phase == null) {
+            phase = new Phase(name);
+            phases.put(name, phase);
+        }
+        current = phase;
+        beginWallTime = System.nanoTime();
+        beginCpuTime = getCurrentThreadCpuTime();
+        beginAllocatedBytes = getCurrentThreadAllocatedBytes();
+        return phase;
+    }
+
+    /**
+     * End current phase (if any).
+     */
+    public void end() {
+        Phase phase = current;
+        if (phase != null) {
+            phase.wallTime += System.nanoTime() - beginWallTime;
+            phase.cpuTime = Phase.addMeasure(phase.cpuTime, measureDelta(beginCpuTime, getCurrentThreadCpuTime()));
+            phase.allocatedBytes = Phase.addMeasure(phase.allocatedBytes, measureDelta(beginAllocatedBytes, getCurrentThreadAllocatedBytes()));
+            current = null;
+        }
+    }
+
+    /**
+     * Record bytes read in current phase.
+     * @param bytes number of bytes read
+     */
+    public void addBytesRead(long bytes) {
+        if (current != null)
+            current.bytesRead += bytes;
+    }
+
+    /**
+     * Record element visited in current phase.
+     * @param attributes number of attributes of element
+     */
+    public void addElement(int attributes) {
+        if (current != null) {
+            current.elements += 1;
+            current.attributes += attributes;
+        }
+    }
+
+    /**
+     * Add (completed) phases of other metrics into this metrics, accumulating phases having the same name.
+     * @param metrics other metrics
+     */
+    public void add(Metrics metrics) {
+        for (Phase p : metrics.phases.values()) {
+            Phase phase = phases.get(p.name);
+            if (phase == null) {
+                phase = new Phase(p.name);
+                phases.put(p.name, phase);
+            }
+            phase.add(p);
+        }
+    }
+
+    public List<Phase> getPhases() {
+        return new java.util.ArrayList<Phase>(phases.values());
+    }
+
+    public Phase getPhase(String name) {
+        return phases.get(name);
+    }
+
+    private static long measureDelta(long begin, long end) {
+        if ((begin < 0) || (end < 0))
+            return -1;
+        else
+            return end - begin;
+    }
+
+    private static long getCurrentThreadCpuTime() {
+        try {
+            if (threadBean.isCurrentThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled())
+                return threadBean.getCurrentThreadCpuTime();
+        } catch (UnsupportedOperationException e) {
+        }
+        return -1;
+    }
+
+    private static long getCurrentThreadAllocatedBytes() {
+        if (threadBean instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean tb = (com.sun.management.ThreadMXBean) threadBean;
+            try {
+                if (tb.isThreadAllocatedMemorySupported() && tb.isThreadAllocatedMemoryEnabled())
+                    return tb.getThreadAllocatedBytes(Thread.currentThread().getId());
+            } catch (UnsupportedOperationException e) {
+            }
+        }
+        return -1;
+    }
+
+}
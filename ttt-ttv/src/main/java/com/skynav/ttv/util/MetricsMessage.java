@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.ResourceBundle;
+
+public class MetricsMessage extends Message {
+    private static final String FORMAT_PREFIX = "{0} {1} phase metrics: {2,number,#.###} ms wall time, ";
+    private static final String FORMAT_CPU_TIME = "{3,number,#.###} ms CPU time, ";
+    private static final String FORMAT_CPU_TIME_UNAVAILABLE = "CPU time unavailable, ";
+    private static final String FORMAT_ALLOCATED_BYTES = "{4,number,#} bytes allocated, ";
+    private static final String FORMAT_ALLOCATED_BYTES_UNAVAILABLE = "bytes allocated unavailable, ";
+    private static final String FORMAT_SUFFIX = "{5,number,#} bytes read ({6,number,#} bytes/s), {7,number,#} elements, {8,number,#} attributes.";
+    private String scope;
+    private Metrics.Phase phase;
+    public MetricsMessage(String key, String scope, Metrics.Phase phase) {
+        super(key, getFormat(phase), scope, phase.getName(), toMillis(phase.getWallTime()), toMillis(phase.getCpuTime()), phase.getAllocatedBytes(),
+            phase.getBytesRead(), phase.getThroughput(), phase.getElements(), phase.getAttributes());
+        this.scope = scope;
+        this.phase = phase;
+    }
+    public String getScope() {
+        return scope;
+    }
+    public Metrics.Phase getPhase() {
+        return phase;
+    }
+    @Override
+    public String toXML(ResourceBundle bundle, boolean hideLocation, boolean hidePath, boolean showSource) {
+        StringBuffer sb = new StringBuffer();
+        sb.append("<message>\n");
+        sb.append(toXMLKey());
+        sb.append(toXMLText(bundle));
+        sb.append(toXMLMetrics());
+        sb.append("</message>\n");
+        return sb.toString();
+    }
+    private String toXMLMetrics() {
+        StringBuffer sb = new StringBuffer();
+        sb.append("<metrics scope=\"");
+        sb.append(escapeText(scope));
+        sb.append("\" phase=\"");
+        sb.append(escapeText(phase.getName()));
+        sb.append("\">\n");
+        appendXMLMetric(sb, "wallTime", phase.getWallTime());
+        appendXMLMetric(sb, "cpuTime", phase.getCpuTime());
+        appendXMLMetric(sb, "allocatedBytes", phase.getAllocatedBytes());
+        appendXMLMetric(sb, "bytesRead", phase.getBytesRead());
+        appendXMLMetric(sb, "throughput", phase.getThroughput());
+        appendXMLMetric(sb, "elements", phase.getElements());
+        appendXMLMetric(sb, "attributes", phase.getAttributes());
+        sb.append("</metrics>\n");
+        return sb.toString();
+    }
+    private static void appendXMLMetric(StringBuffer sb, String name, long value) {
+        if (value >= 0) {
+            sb.append('<');
+            sb.append(name);
+            sb.append('>');
+            sb.append(value);
+            sb.append('<');
+            sb.append('/');
+            sb.append(name);
+            sb.append('>');
+            sb.append('\n');
+        }
+    }
+    private static String getFormat(Metrics.Phase phase) {
+        StringBuffer sb = new StringBuffer(FORMAT_PREFIX);
+        sb.append((phase.getCpuTime() >= 0) ? FORMAT_CPU_TIME : FORMAT_CPU_TIME_UNAVAILABLE);
+        sb.append((phase.getAllocatedBytes() >= 0) ? FORMAT_ALLOCATED_BYTES : FORMAT_ALLOCATED_BYTES_UNAVAILABLE);
+        sb.append(FORMAT_SUFFIX);
+        return sb.toString();
+    }
+    private static double toMillis(long nanos) {
+        return (nanos >= 0) ? nanos / 1e6 : -1;
+    }
+}
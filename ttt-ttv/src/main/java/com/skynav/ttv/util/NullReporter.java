@@ -76,6 +76,9 @@ public class NullReporter implements Reporter {
     public void setLines(String[] lines) {
     }
 
+    public void setLines(LineIndex lines) {
+    }
+
     public void hidePath() {
     }
 
@@ -49,6 +49,7 @@ public interface Reporter {
     public void setResourceURI(URI uri);
     public URI getResourceURI();
     public void setLines(String[] lines);
+    public void setLines(LineIndex lines);
     public void hidePath();
     public void showPath();
     public boolean isHidingPath();
@@ -0,0 +1,237 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.validation.Schema;
+import javax.xml.validation.Validator;
+import javax.xml.validation.ValidatorHandler;
+
+/**
+ * Process wide registry of compiled schemas, keyed by a list of schema identifiers (typically a model name
+ * followed by the locations of any extension schemas), where each schema is compiled at most once. Compiled
+ * schemas are immutable and thread safe; validators and validator handlers are not, and are therefore pooled
+ * in bounded, process wide pools per schema, and must be used between acquire and release. Since pools are not
+ * thread local, pooled instances are not retained by (pooled or container) threads once the registry is cleared.
+ * Properties of the schema factory that compiled a schema, which affect how the schema is used, are recorded
+ * with the schema in its entry.
+ */
+public class Schemas {
+
+    public interface Loader {
+        /**
+         * Load (compile) schema.
+         * @return entry recording compiled schema
+         */
+        Entry load();
+    }
+
+    public static class Entry {
+        private Schema schema;
+        private boolean nonPoolGrammarSupported;
+        /**
+         * Construct schema entry.
+         * @param schema compiled schema
+         * @param nonPoolGrammarSupported true if schema factory that compiled schema supports
+         * non-pool grammars, i.e., use of xsi:schemaLocation pool extensions
+         */
+        public Entry(Schema schema, boolean nonPoolGrammarSupported) {
+            this.schema = schema;
+            this.nonPoolGrammarSupported = nonPoolGrammarSupported;
+        }
+        public Schema getSchema() {
+            return schema;
+        }
+        public boolean isNonPoolGrammarSupported() {
+            return nonPoolGrammarSupported;
+        }
+    }
+
+    private static final ConcurrentMap<List<String>,Entry> schemas = new ConcurrentHashMap<List<String>,Entry>();
+    private static final ConcurrentMap<List<String>,Object> locks = new ConcurrentHashMap<List<String>,Object>();
+    private static final ConcurrentMap<Schema,Pool<Validator>> validators = new ConcurrentHashMap<Schema,Pool<Validator>>();
+    private static final ConcurrentMap<Schema,Pool<ValidatorHandler>> validatorHandlers = new ConcurrentHashMap<Schema,Pool<ValidatorHandler>>();
+    private static final int MAX_POOLED = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private Schemas() {
+    }
+
+    /**
+     * Obtain shared compiled schema for key, loading it if necessary.
+     * @param key list of schema identifiers
+     * @param loader used to load schema if not already loaded
+     * @return compiled schema
+     */
+    public static Schema getSchema(List<String> key, Loader loader) {
+        return getSchemaEntry(key, loader).getSchema();
+    }
+
+    /**
+     * Obtain shared schema entry for key, loading its schema if necessary. Concurrent requests
+     * for the same key wait for a single load; requests for different keys do not block one
+     * another. If loading fails (by throwing a runtime exception), nothing is recorded, and
+     * a subsequent request will attempt to load the schema again.
+     * @param key list of schema identifiers
+     * @param loader used to load schema if not already loaded
+     * @return schema entry
+     */
+    public static Entry getSchemaEntry(List<String> key, Loader loader) {
+        Entry entry = schemas.get(key);
+        if (entry == null) {
+            synchronized (getLock(key)) {
+                entry = schemas.get(key);
+                if (entry == null) {
+                    entry = loader.load();
+                    schemas.put(key, entry);
+                }
+            }
+        }
+        return entry;
+    }
+
+    /**
+     * Determine if a compiled schema is present for key.
+     * @param key list of schema identifiers
+     * @return true if present
+     */
+    public static boolean hasSchema(List<String> key) {
+        return schemas.containsKey(key);
+    }
+
+    /**
+     * Clear registry, discarding compiled schemas and pooled validators and validator handlers,
+     * e.g., when a servlet that uses the registry is destroyed. Instances that are acquired when
+     * the registry is cleared may still be released, but are subsequently pooled anew.
+     */
+    public static void clear() {
+        schemas.clear();
+        locks.clear();
+        validators.clear();
+        validatorHandlers.clear();
+    }
+
+    /**
+     * Acquire validator for schema from pool, creating one if none is available.
+     * The caller should return the validator to the pool by means of {@link #releaseValidator} after use.
+     * @param schema compiled schema
+     * @return validator instance
+     */
+    public static Validator acquireValidator(Schema schema) {
+        Validator v = getPool(validators, schema).poll();
+        if (v == null)
+            v = schema.newValidator();
+        return v;
+    }
+
+    /**
+     * Release validator to pool, resetting its state and dropping its handlers. If pool is full, then
+     * validator is discarded.
+     * @param schema compiled schema from which validator was acquired
+     * @param v validator previously acquired using same schema
+     */
+    public static void releaseValidator(Schema schema, Validator v) {
+        if (v != null) {
+            v.reset();
+            v.setErrorHandler(null);
+            v.setResourceResolver(null);
+            getPool(validators, schema).offer(v);
+        }
+    }
+
+    /**
+     * Acquire validator handler for schema from pool, creating one if none is available.
+     * The caller should return the validator handler to the pool by means of {@link #releaseValidatorHandler} after use.
+     * @param schema compiled schema
+     * @return validator handler instance
+     */
+    public static ValidatorHandler acquireValidatorHandler(Schema schema) {
+        ValidatorHandler vh = getPool(validatorHandlers, schema).poll();
+        if (vh == null)
+            vh = schema.newValidatorHandler();
+        return vh;
+    }
+
+    /**
+     * Release validator handler to pool, dropping its handlers. If pool is full, then validator handler
+     * is discarded. N.B. validator handler state is reset when a subsequent document is started.
+     * @param schema compiled schema from which validator handler was acquired
+     * @param vh validator handler previously acquired using same schema
+     */
+    public static void releaseValidatorHandler(Schema schema, ValidatorHandler vh) {
+        if (vh != null) {
+            vh.setContentHandler(null);
+            vh.setErrorHandler(null);
+            vh.setResourceResolver(null);
+            getPool(validatorHandlers, schema).offer(vh);
+        }
+    }
+
+    private static <T> Pool<T> getPool(ConcurrentMap<Schema,Pool<T>> pools, Schema schema) {
+        Pool<T> pool = pools.get(schema);
+        if (pool == null) {
+            Pool<T> poolNew = new Pool<T>();
+            pool = pools.putIfAbsent(schema, poolNew);
+            if (pool == null)
+                pool = poolNew;
+        }
+        return pool;
+    }
+
+    private static Object getLock(List<String> key) {
+        Object lock = locks.get(key);
+        if (lock == null) {
+            Object lockNew = new Object();
+            lock = locks.putIfAbsent(key, lockNew);
+            if (lock == null)
+                lock = lockNew;
+        }
+        return lock;
+    }
+
+    private static class Pool<T> {
+        private Queue<T> instances = new ConcurrentLinkedQueue<T>();
+        private AtomicInteger size = new AtomicInteger();
+        T poll() {
+            T instance = instances.poll();
+            if (instance != null)
+                size.decrementAndGet();
+            return instance;
+        }
+        void offer(T instance) {
+            if (size.incrementAndGet() <= MAX_POOLED)
+                instances.offer(instance);
+            else
+                size.decrementAndGet();
+        }
+    }
+
+}
@@ -31,6 +31,7 @@ import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.URI;
 import java.nio.charset.Charset;
+import java.util.List;
 import java.util.Map;
 import java.util.ResourceBundle;
 import java.util.Set;
@@ -51,6 +52,7 @@ public class TextReporter implements Reporter {
     private PrintWriter output;
     private boolean outputDefaulted;
     private ResourceBundle bundle;
+    private AsynchronousWriter asynchronousWriter;
     /* options state */
     private int debug;
     private boolean treatErrorAsWarning;
@@ -65,7 +67,7 @@ public class TextReporter implements Reporter {
     /* per-resource state */
     private Set<String> resourceDisabledWarnings;
     private Set<String> resourceEnabledWarnings;
-    private String[] resourceLines;
+    private LineIndex resourceLines;
     private int resourceErrors;
     private URI resourceUri;
     private String resourceUriString;
@@ -114,12 +116,42 @@ public class TextReporter implements Reporter {
     }
 
     public void close() throws IOException {
+        setAsynchronous(false);
         PrintWriter output = getOutput();
         if (!outputDefaulted)
             output.close();
         this.output = null;
     }
 
+    /**
+     * Enable or disable asynchronous output. When enabled, messages that are to be
+     * emitted are queued (without formatting) and subsequently formatted and written
+     * to output by a background writer thread. Queued output is drained upon
+     * {@link #flush()}, {@link #getOutput()}, {@link #setOutput(PrintWriter)}, and
+     * {@link #close()}, so that output order is preserved with respect to direct
+     * writes to output. If the writer thread is interrupted, then it writes any queued
+     * output and exits, after which output is written synchronously.
+     * @param asynchronous true to enable asynchronous output
+     */
+    public void setAsynchronous(boolean asynchronous) {
+        if (asynchronous) {
+            if (asynchronousWriter == null)
+                asynchronousWriter = new AsynchronousWriter(this);
+        } else if (asynchronousWriter != null) {
+            asynchronousWriter.stop();
+            asynchronousWriter = null;
+        }
+    }
+
+    public boolean isAsynchronous() {
+        return asynchronousWriter != null;
+    }
+
+    // exposed to tests that interrupt this reporter's writer thread
+    Thread getAsynchronousWriterThread() {
+        return (asynchronousWriter != null) ? asynchronousWriter.getThread() : null;
+    }
+
     public void resetResourceState(boolean restart) {
         if (restart) {
             resourceDisabledWarnings = null;
@@ -184,7 +216,11 @@ public class TextReporter implements Reporter {
     public void setLines(String[] lines) {
         String[] sa = new String[lines.length];
         System.arraycopy(lines, 0, sa, 0, sa.length);
-        resourceLines = sa;
+        resourceLines = new LineIndex(sa);
+    }
+
+    public void setLines(LineIndex lines) {
+        resourceLines = lines;
     }
 
     public void hidePath() {
@@ -220,10 +256,16 @@ public class TextReporter implements Reporter {
     }
 
     public void setOutput(PrintWriter output) {
+        drain();
         this.output = output;
     }
 
     public PrintWriter getOutput() {
+        drain();
+        return getOutputUndrained();
+    }
+
+    private PrintWriter getOutputUndrained() {
         if (output == null) {
             Charset defaultEncoding;
             try {
@@ -246,10 +288,15 @@ public class TextReporter implements Reporter {
     }
 
     protected void out(String message) {
-        getOutput().print(message);
+        if ((asynchronousWriter == null) || !asynchronousWriter.enqueue(message))
+            getOutput().print(message);
     }
 
     protected void out(ReportType reportType, String message) {
+        out(formatMessage(reportType, message));
+    }
+
+    protected String formatMessage(ReportType reportType, String message) {
         char type;
         if (reportType == ReportType.Error)
             type = 'E';
@@ -268,11 +315,16 @@ public class TextReporter implements Reporter {
         sb.append(':');
         sb.append(message);
         sb.append('\n');
-        out(sb.toString());
+        return sb.toString();
     }
 
     protected void out(ReportType type, Message message) {
-        out(type, message.toText(bundle, isHidingLocation(), isHidingPath()));
+        if ((asynchronousWriter == null) || !asynchronousWriter.enqueue(new PendingMessage(type, message, isHidingLocation(), isHidingPath())))
+            out(formatMessage(type, message, isHidingLocation(), isHidingPath()));
+    }
+
+    protected String formatMessage(ReportType type, Message message, boolean hideLocation, boolean hidePath) {
+        return formatMessage(type, message.toText(bundle, hideLocation, hidePath));
     }
 
     public void flush() {
@@ -280,6 +332,121 @@ public class TextReporter implements Reporter {
         output.flush();
     }
 
+    private void drain() {
+        if (asynchronousWriter != null)
+            asynchronousWriter.drain();
+    }
+
+    private void write(Object pending) {
+        String text;
+        if (pending instanceof PendingMessage) {
+            PendingMessage pm = (PendingMessage) pending;
+            text = formatMessage(pm.type, pm.message, pm.hideLocation, pm.hidePath);
+        } else
+            text = (String) pending;
+        getOutputUndrained().print(text);
+    }
+
+    private static class PendingMessage {
+        private ReportType type;
+        private Message message;
+        private boolean hideLocation;
+        private boolean hidePath;
+        PendingMessage(ReportType type, Message message, boolean hideLocation, boolean hidePath) {
+            this.type = type;
+            this.message = message;
+            this.hideLocation = hideLocation;
+            this.hidePath = hidePath;
+        }
+    }
+
+    private static class AsynchronousWriter implements Runnable {
+        private TextReporter reporter;
+        private List<Object> pending;
+        private boolean writing;
+        private boolean stopped;
+        private boolean exited;
+        private Thread thread;
+        AsynchronousWriter(TextReporter reporter) {
+            this.reporter = reporter;
+            this.pending = new java.util.ArrayList<Object>();
+            this.thread = new Thread(this, "reporter-writer");
+            this.thread.setDaemon(true);
+            this.thread.start();
+        }
+        Thread getThread() {
+            return thread;
+        }
+        // returns false if writer thread has exited, in which case caller must write synchronously
+        synchronized boolean enqueue(Object o) {
+            if (exited)
+                return false;
+            pending.add(o);
+            if (pending.size() == 1)
+                notifyAll();
+            return true;
+        }
+        synchronized void drain() {
+            try {
+                while (!exited && (writing || !pending.isEmpty()))
+                    wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            // write anything left behind by a writer thread that exited abnormally
+            if (exited && !pending.isEmpty()) {
+                List<Object> batch = pending;
+                pending = new java.util.ArrayList<Object>();
+                for (Object o : batch)
+                    reporter.write(o);
+            }
+        }
+        synchronized void stop() {
+            drain();
+            stopped = true;
+            notifyAll();
+        }
+        public void run() {
+            try {
+                while (true) {
+                    List<Object> batch;
+                    synchronized (this) {
+                        try {
+                            while (pending.isEmpty() && !stopped)
+                                wait();
+                        } catch (InterruptedException e) {
+                            stopped = true;                                 // write what is pending, then exit
+                        }
+                        if (pending.isEmpty())
+                            return;
+                        batch = pending;
+                        pending = new java.util.ArrayList<Object>();
+                        writing = true;
+                    }
+                    try {
+                        for (Object o : batch) {
+                            try {
+                                reporter.write(o);
+                            } catch (RuntimeException e) {
+                                reporter.getOutputUndrained().print(reporter.formatMessage(ReportType.Error, e.toString()));
+                            }
+                        }
+                    } finally {
+                        synchronized (this) {
+                            writing = false;
+                            notifyAll();
+                        }
+                    }
+                }
+            } finally {
+                synchronized (this) {
+                    exited = true;
+                    notifyAll();
+                }
+            }
+        }
+    }
+
     public void setVerbosityLevel(int verbose) {
         this.verbose = verbose;
     }
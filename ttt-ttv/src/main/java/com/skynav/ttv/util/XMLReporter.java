@@ -69,7 +69,7 @@ public class XMLReporter extends TextReporter {
     }
 
     @Override
-    protected void out(ReportType reportType, Message message) {
+    protected String formatMessage(ReportType reportType, Message message, boolean hideLocation, boolean hidePath) {
         String type;
         if (reportType == ReportType.Error)
             type = "error";
@@ -86,13 +86,13 @@ public class XMLReporter extends TextReporter {
         sb.append(type);
         sb.append('>');
         sb.append('\n');
-        sb.append(message.toXML(getBundle(), isHidingLocation(), isHidingPath(), showSource));
+        sb.append(message.toXML(getBundle(), hideLocation, hidePath, showSource));
         sb.append('<');
         sb.append('/');
         sb.append(type);
         sb.append('>');
         sb.append('\n');
-        out(sb.toString());
+        return sb.toString();
     }
 
 }
@@ -38,11 +38,13 @@ import org.xml.sax.Locator;
 import com.skynav.ttv.model.Model;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Locators;
+import com.skynav.ttv.util.Reporter;
 
 public abstract class AbstractVerifier {
 
     private Model model;
-    private VerifierContext context;
+    // confined to thread, since a single verifier instance may verify distinct subtrees concurrently, each in its own context
+    private ThreadLocal<VerifierContext> context = new ThreadLocal<VerifierContext>();
 
     protected AbstractVerifier(Model model) {
         this.model = model;
@@ -53,11 +55,30 @@ public abstract class AbstractVerifier {
     }
 
     protected void setState(Object root, VerifierContext context) {
-        this.context = context;
+        this.context.set(context);
+    }
+
+    /**
+     * Re-establish context that was in effect prior to a (nested) verification, or, if none was, remove
+     * context from current thread so that it is not retained by a pooled or long lived thread.
+     * @param context prior context or null
+     */
+    protected void restoreState(VerifierContext context) {
+        if (context != null)
+            this.context.set(context);
+        else
+            this.context.remove();
+    }
+
+    /**
+     * Clear context of current thread, to be invoked once top-level verification completes.
+     */
+    public void clearState() {
+        this.context.remove();
     }
 
     public VerifierContext getContext() {
-        return context;
+        return context.get();
     }
 
     protected Location getLocation(Object content) {
@@ -72,6 +93,12 @@ public abstract class AbstractVerifier {
         return getLocator(content, getSysidDefault());
     }
 
+    protected void skipContentDependentValue(Location location, VerifierContext context) {
+        Reporter reporter = context.getReporter();
+        reporter.logDebug(reporter.message(location.getLocator(), "*KEY*",
+            "Skipping verification of {0} on ''{1}'', requires document context.", location.getAttributeName(), location.getElementName()));
+    }
+
     private String getSysidDefault() {
         Object uri = getContext().getResourceState("sysid");
         if (uri != null)
@@ -83,7 +110,7 @@ public abstract class AbstractVerifier {
     private Locator getLocator(Object content, String sysidDefault) {
         Locator locator = null;
         while (content != null) {
-            if ((locator = Locators.getLocator(content, sysidDefault)) != null)
+            if ((locator = Locators.getLocator(getLocatableNode(content), sysidDefault)) != null)
                 break;
             else
                 content = getLocatableParent(content);
@@ -91,7 +118,21 @@ public abstract class AbstractVerifier {
         return locator;
     }
 
+    private Object getLocatableNode(Object content) {
+        // locations are recorded by infoset node, so map binding to its associated node where possible
+        VerifierContext context = getContext();
+        if ((content instanceof Node) || (context == null))
+            return content;
+        else {
+            if (content instanceof JAXBElement<?>)
+                content = ((JAXBElement<?>)content).getValue();
+            Node node = context.getXMLNode(content);
+            return (node != null) ? node : content;
+        }
+    }
+
     private Object getLocatableParent(Object content) {
+        VerifierContext context = getContext();
         if (content instanceof Element) {
             Node n = ((Element) content).getParentNode();
             return (n instanceof Element) ? n : null;
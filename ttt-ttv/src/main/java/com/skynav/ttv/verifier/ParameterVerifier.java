@@ -27,6 +27,8 @@ package com.skynav.ttv.verifier;
 
 import javax.xml.namespace.QName;
 
+import org.xml.sax.Locator;
+
 public interface ParameterVerifier extends ItemVerifier {
 
     /**
@@ -36,4 +38,17 @@ public interface ParameterVerifier extends ItemVerifier {
      */
     QName getParameterAttributeName(String parameterName);
 
+    /**
+     * Verify lexical value of parameter attribute in the absence of a bound content object, e.g.,
+     * when verifying a streamed resource.
+     * @param elementName name of element on which attribute is specified
+     * @param parameterName name of parameter attribute
+     * @param value lexical value of attribute
+     * @param locator a locator that corresponds to the lexical location of the attribute
+     * @param context verifier context
+     * @return true if value is valid or if attribute is not a lexically verifiable parameter attribute, including an
+     * attribute whose value verifier is a {@link ContentDependentValueVerifier}
+     */
+    boolean verifyParameterValue(QName elementName, QName parameterName, String value, Locator locator, VerifierContext context);
+
 }
@@ -25,6 +25,8 @@
 
 package com.skynav.ttv.verifier;
 
+import java.util.Map;
+
 import org.w3c.dom.Node;
 
 import org.xml.sax.Locator;
@@ -40,6 +42,17 @@ public interface SemanticsVerifier {
      */
     Object findBindingElement(Object root, Node node);
 
+    /**
+     * Index binding content elements by their associated infoset
+     * nodes, starting at root binding content element, where the
+     * first binding content element visited for a node is indexed,
+     * consistent with {@link #findBindingElement}.
+     * @param root root binding content element
+     * @param index map to which binding content elements are added
+     * @param context verifier context
+     */
+    void indexBindingElements(Object root, Map<Node,Object> index, VerifierContext context);
+
     /**
      * Verify semantics of content object.
      * @param root the root JAXB content object
@@ -48,6 +61,12 @@ public interface SemanticsVerifier {
      */
     boolean verify(Object root, VerifierContext context);
 
+    /**
+     * Clear state retained by current thread from verification of semantics, to be invoked once
+     * (top-level) verification of a resource completes.
+     */
+    void clearState();
+
     /**
      * Verify semantics of other element.
      * @param content a JAXB content object
@@ -29,6 +29,8 @@ import java.util.Collection;
 
 import javax.xml.namespace.QName;
 
+import org.xml.sax.Locator;
+
 import com.skynav.ttv.model.value.Length;
 
 public interface StyleVerifier extends ItemVerifier {
@@ -117,4 +119,17 @@ public interface StyleVerifier extends ItemVerifier {
      */
     boolean isLengthUnitsRequired(QName eltName, QName styleName);
 
+    /**
+     * Verify lexical value of style attribute in the absence of a bound content object, e.g.,
+     * when verifying a streamed resource.
+     * @param elementName name of element on which attribute is specified
+     * @param styleName name of style attribute
+     * @param value lexical value of attribute
+     * @param locator a locator that corresponds to the lexical location of the attribute
+     * @param context verifier context
+     * @return true if value is valid or if attribute is not a lexically verifiable style attribute, including an
+     * attribute whose value verifier is a {@link ContentDependentValueVerifier}
+     */
+    boolean verifyStyleValue(QName elementName, QName styleName, String value, Locator locator, VerifierContext context);
+
 }
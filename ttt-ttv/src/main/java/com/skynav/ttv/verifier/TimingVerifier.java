@@ -25,4 +25,24 @@
 
 package com.skynav.ttv.verifier;
 
-public interface TimingVerifier extends ItemVerifier {}
+import javax.xml.namespace.QName;
+
+import org.xml.sax.Locator;
+
+public interface TimingVerifier extends ItemVerifier {
+
+    /**
+     * Verify lexical value of timing attribute in the absence of a bound content object, e.g.,
+     * when verifying a streamed resource.
+     * @param elementName name of element on which attribute is specified
+     * @param timingName name of timing attribute
+     * @param value lexical value of attribute
+     * @param locator a locator that corresponds to the lexical location of the attribute
+     * @param context verifier context
+     * @param parameters timing verification parameters that apply to the document
+     * @return true if value is valid or if attribute is not a lexically verifiable timing attribute, including an
+     * attribute whose value verifier is a {@link ContentDependentValueVerifier}
+     */
+    boolean verifyTimingValue(QName elementName, QName timingName, String value, Locator locator, VerifierContext context, VerificationParameters parameters);
+
+}
@@ -111,4 +111,12 @@ public interface VerifierContext {
      */
     public Object extractResourceState(String key);
 
+    /**
+     * Determine if verification of the current resource has been cancelled, e.g., because
+     * the maximum number of errors to report has been reached. A verifier that finds that
+     * verification has been cancelled should throw a {@link VerificationCancelledException}.
+     * @return true if verification has been cancelled
+     */
+    public boolean isVerificationCancelled();
+
 }
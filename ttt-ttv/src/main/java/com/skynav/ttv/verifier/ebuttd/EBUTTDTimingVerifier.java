@@ -55,17 +55,22 @@ public class EBUTTDTimingVerifier extends TTML1TimingVerifier {
 
     @Override
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Attributes) {
-            boolean failed = false;
-            if (content instanceof Paragraph) {
-                if (!verifyTimingSpecs((Paragraph) content, locator, context)) {
-                    failed = true;
+        try {
+            if (type == ItemType.Attributes) {
+                boolean failed = false;
+                if (content instanceof Paragraph) {
+                    if (!verifyTimingSpecs((Paragraph) content, locator, context)) {
+                        failed = true;
+                    }
                 }
+                return !failed && verifyAttributeItems(content, locator, context);
+            } else {
+                throw new IllegalArgumentException();
             }
-            return !failed && verifyAttributeItems(content, locator, context);
-        } else {
-            throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
         }
     }
 
@@ -26,8 +26,6 @@
 package com.skynav.ttv.verifier.imsc;
 
 import java.io.Serializable;
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigInteger;
 import java.net.URI;
 import java.net.URISyntaxException;
@@ -65,14 +63,12 @@ import com.skynav.ttv.model.value.Length;
 import com.skynav.ttv.model.value.TextOutline;
 import com.skynav.ttv.model.value.Time;
 import com.skynav.ttv.model.value.TimeParameters;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Message;
-import com.skynav.ttv.util.PreVisitor;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.util.StyleSet;
 import com.skynav.ttv.util.StyleSpecification;
-import com.skynav.ttv.util.Traverse;
-import com.skynav.ttv.util.Visitor;
 import com.skynav.ttv.verifier.VerificationParameters;
 import com.skynav.ttv.verifier.VerifierContext;
 import com.skynav.ttv.verifier.smpte.ST20522010TTML1SemanticsVerifier;
@@ -85,6 +81,9 @@ import com.skynav.ttv.verifier.util.MixedUnitsTreatment;
 import com.skynav.ttv.verifier.util.NegativeTreatment;
 import com.skynav.ttv.verifier.util.Outlines;
 import com.skynav.ttv.verifier.util.Timing;
+import com.skynav.ttv.verifier.util.TraversalRule;
+import com.skynav.ttv.verifier.util.TraversalRules;
+import com.skynav.ttv.verifier.util.TraversalState;
 import com.skynav.ttv.verifier.util.ZeroTreatment;
 import com.skynav.xml.helpers.Documents;
 
@@ -528,19 +527,9 @@ public class IMSC10SemanticsVerifier extends ST20522010TTML1SemanticsVerifier {
 
     private Object getTimingValue(Object content, QName timingAttributeName) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod(makeGetterName(timingAttributeName), new Class<?>[]{});
-            return m.invoke(content, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return Accessors.get(content, makeGetterName(timingAttributeName));
         } catch (NoSuchMethodException e) {
             return null;
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -898,36 +887,18 @@ public class IMSC10SemanticsVerifier extends ST20522010TTML1SemanticsVerifier {
     }
 
     @Override
-    protected boolean verifyPostTransform(Object root, Document isd, VerifierContext context) {
-        if (!super.verifyPostTransform(root, isd, context))
-            return false;
-        else {
-            boolean failed = false;
-            if (!verifyPostTransformStyleConstraints(root, isd, context))
-                failed = true;
-            if (!verifyMaximumRegionCount(root, isd, context))
-                failed = true;
-            return !failed;
-        }
-    }
-
-    private boolean verifyPostTransformStyleConstraints(final Object root, final Document isd, final VerifierContext context) {
-        final Map<String,StyleSet> styleSets = getISDStyleSets(isd);
-        try {
-            final boolean[] failed = new boolean[] { false };
-            Traverse.traverseElements(isd, new PreVisitor() {
-                public boolean visit(Object content, Object parent, Visitor.Order order) {
-                    assert content instanceof Element;
-                    Element elt = (Element) content;
-                    if (!verifyPostTransformStyleConstraints(root, isd, elt, styleSets, context))
-                        failed[0] = true;
-                    return true;
-                }
-            });
-            return !failed[0];
-        } catch (Exception e) {
-            return false;
-        }
+    protected void addPostTransformRules(TraversalRules rules, final Object root, final VerifierContext context) {
+        super.addPostTransformRules(rules, root, context);
+        rules.add(new TraversalRule(ttParagraphElementName, ttSpanElementName) {
+            public boolean verify(Element elt, TraversalState state) {
+                return verifyPostTransformStyleConstraints(root, state.getDocument(), elt, state.getStyleSets(), context);
+            }
+        });
+        rules.add(new TraversalRule(isdRegionElementName) {
+            public boolean finish(TraversalState state) {
+                return verifyMaximumRegionCount(root, state.getElementCount(isdRegionElementName), context);
+            }
+        });
     }
 
     private boolean verifyPostTransformStyleConstraints(Object root, Document isd, Element elt, Map<String,StyleSet> styleSets, VerifierContext context) {
@@ -1091,14 +1062,13 @@ public class IMSC10SemanticsVerifier extends ST20522010TTML1SemanticsVerifier {
         return 0;
     }
 
-    private boolean verifyMaximumRegionCount(final Object root, final Document isd, final VerifierContext context) {
+    private boolean verifyMaximumRegionCount(Object root, int numRegions, VerifierContext context) {
         boolean failed = false;
         int maxRegions = MAX_REGIONS_PER_ISD;
-        List<Element> regions = getISDRegionElements(isd);
-        if (regions.size() > maxRegions) {
+        if (numRegions > maxRegions) {
             Reporter reporter = context.getReporter();
             reporter.logError(reporter.message(getLocator(root),
-                "*KEY*", "Maximum number of regions exceeded in ISD instance, expected no more than {0}, got {1}.", maxRegions, regions.size()));
+                "*KEY*", "Maximum number of regions exceeded in ISD instance, expected no more than {0}, got {1}.", maxRegions, numRegions));
             failed = true;
         }
         return !failed;
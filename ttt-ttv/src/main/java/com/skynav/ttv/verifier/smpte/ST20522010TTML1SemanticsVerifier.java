@@ -54,6 +54,7 @@ import com.skynav.ttv.verifier.util.Keywords;
 import com.skynav.ttv.verifier.util.Lengths;
 import com.skynav.ttv.verifier.util.MixedUnitsTreatment;
 import com.skynav.ttv.verifier.util.NegativeTreatment;
+import com.skynav.ttv.verifier.util.SpilledPayloads;
 import com.skynav.xml.helpers.Nodes;
 
 import static com.skynav.ttv.model.smpte.ST20522010TTML1.Constants.*;
@@ -271,7 +272,11 @@ public class ST20522010TTML1SemanticsVerifier extends TTML1SemanticsVerifier {
         boolean failed = false;
         QName name = context.getBindingElementName(content);
         try {
-            Base64.decode(value);
+            SpilledPayloads.Payload payload = SpilledPayloads.getPayload(context, value);
+            if (payload != null)
+                payload.checkEncoding();
+            else
+                Base64.decode(value);
         } catch (IllegalArgumentException e) {
             Reporter reporter = context.getReporter();
             reporter.logError(reporter.message(locator, "*KEY*", "SMPTE element ''{0}'' content does not conform to Base64 encoding: {1}", name, e.getMessage()));
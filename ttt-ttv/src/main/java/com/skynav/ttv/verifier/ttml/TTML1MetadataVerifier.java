@@ -25,8 +25,6 @@
 
 package com.skynav.ttv.verifier.ttml;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -49,6 +47,7 @@ import com.skynav.ttv.model.ttml1.ttd.AgentType;
 import com.skynav.ttv.model.ttml1.ttm.Actor;
 import com.skynav.ttv.model.ttml1.ttm.Agent;
 import com.skynav.ttv.model.ttml1.ttm.Name;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Enums;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Message;
@@ -113,15 +112,20 @@ public class TTML1MetadataVerifier extends AbstractVerifier implements MetadataV
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Attributes)
-            return verifyAttributeItems(content, locator, context);
-        else if (type == ItemType.Element)
-            return verifyElementItem(content, locator, context);
-        else if (type == ItemType.Other)
-            return verifyOtherAttributes(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Attributes)
+                return verifyAttributeItems(content, locator, context);
+            else if (type == ItemType.Element)
+                return verifyElementItem(content, locator, context);
+            else if (type == ItemType.Other)
+                return verifyOtherAttributes(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyAttributeItems(Object content, Locator locator, VerifierContext context) {
@@ -352,19 +356,9 @@ public class TTML1MetadataVerifier extends AbstractVerifier implements MetadataV
 
         private Object getMetadataValue(Object content) {
             try {
-                Class<?> contentClass = content.getClass();
-                Method m = contentClass.getMethod(getterName, new Class<?>[]{});
-                return convertType(m.invoke(content, new Object[]{}), valueClass);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
+                return convertType(Accessors.get(content, getterName), valueClass);
             } catch (NoSuchMethodException e) {
                 return null;
-            } catch (SecurityException e) {
-                throw new RuntimeException(e);
             }
         }
 
@@ -25,8 +25,6 @@
 
 package com.skynav.ttv.verifier.ttml;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.math.BigInteger;
 import java.util.Map;
 import java.util.Set;
@@ -47,12 +45,14 @@ import com.skynav.ttv.model.ttml1.ttd.MarkerMode;
 import com.skynav.ttv.model.ttml1.ttd.TimeBase;
 import com.skynav.ttv.model.ttml1.ttp.Extensions;
 import com.skynav.ttv.model.ttml1.ttp.Features;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Annotations;
 import com.skynav.ttv.util.ComparableQName;
 import com.skynav.ttv.util.Enums;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.AbstractVerifier;
+import com.skynav.ttv.verifier.ContentDependentValueVerifier;
 import com.skynav.ttv.verifier.ParameterValueVerifier;
 import com.skynav.ttv.verifier.ParameterVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
@@ -221,14 +221,27 @@ public class TTML1ParameterVerifier extends AbstractVerifier implements Paramete
         return null;
     }
 
+    public boolean verifyParameterValue(QName elementName, QName parameterName, String value, Locator locator, VerifierContext context) {
+        ParameterAccessor pa = accessors.get(parameterName);
+        if (pa != null)
+            return pa.verify(elementName, value, locator, context);
+        else
+            return true;
+    }
+
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Attributes)
-            return verifyAttributeItems(content, locator, context);
-        else if (type == ItemType.Other)
-            return verifyOtherAttributes(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Attributes)
+                return verifyAttributeItems(content, locator, context);
+            else if (type == ItemType.Other)
+                return verifyOtherAttributes(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyAttributeItems(Object content, Locator locator, VerifierContext context) {
@@ -345,19 +358,9 @@ public class TTML1ParameterVerifier extends AbstractVerifier implements Paramete
 
     protected void setParameterValue(Object content, String setterName, Class<?> valueClass, Object value) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod(setterName, new Class<?>[]{ valueClass });
-            m.invoke(content, new Object[]{ value });
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            Accessors.set(content, setterName, valueClass, value);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -394,6 +397,23 @@ public class TTML1ParameterVerifier extends AbstractVerifier implements Paramete
             return success;
         }
 
+        public boolean verify(QName elementName, String value, Locator locator, VerifierContext context) {
+            boolean success = true;
+            if (valueClass == String.class) {
+                Location location = new Location(null, elementName, parameterName, locator);
+                if (verifier instanceof ContentDependentValueVerifier)
+                    skipContentDependentValue(location, context);
+                else
+                    success = verify(value, location, context);
+                if (!success) {
+                    Reporter reporter = context.getReporter();
+                    reporter.logError(reporter.message(locator,
+                        "*KEY*", "Invalid {0} value ''{1}''.", parameterName, value));
+                }
+            }
+            return success;
+        }
+
         private boolean verify(String value, Location location, VerifierContext context) {
             boolean success = false;
             Reporter reporter = context.getReporter();
@@ -434,19 +454,9 @@ public class TTML1ParameterVerifier extends AbstractVerifier implements Paramete
 
         private Object getParameterValue(Object content) {
             try {
-                Class<?> contentClass = content.getClass();
-                Method m = contentClass.getMethod(getterName, new Class<?>[]{});
-                return convertType(m.invoke(content, new Object[]{}), valueClass);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
+                return convertType(Accessors.get(content, getterName), valueClass);
             } catch (NoSuchMethodException e) {
                 return null;
-            } catch (SecurityException e) {
-                throw new RuntimeException(e);
             }
         }
 
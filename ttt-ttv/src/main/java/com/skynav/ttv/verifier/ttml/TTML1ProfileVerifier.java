@@ -56,11 +56,16 @@ public class TTML1ProfileVerifier extends AbstractVerifier implements ProfileVer
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Element)
-            return verifyElementItem(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Element)
+                return verifyElementItem(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyElementItem(Object content, Locator locator, VerifierContext context) {
@@ -75,11 +75,8 @@ import com.skynav.ttv.model.ttml1.ttp.Extensions;
 import com.skynav.ttv.model.ttml1.ttp.Features;
 import com.skynav.ttv.model.ttml1.ttp.Profile;
 import com.skynav.ttv.util.IOUtil;
-import com.skynav.ttv.util.PreVisitor;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.util.StyleSet;
-import com.skynav.ttv.util.Traverse;
-import com.skynav.ttv.util.Visitor;
 import com.skynav.ttv.verifier.AbstractVerifier;
 import com.skynav.ttv.verifier.ItemVerifier.ItemType;
 import com.skynav.ttv.verifier.MetadataVerifier;
@@ -88,13 +85,23 @@ import com.skynav.ttv.verifier.ProfileVerifier;
 import com.skynav.ttv.verifier.SemanticsVerifier;
 import com.skynav.ttv.verifier.StyleVerifier;
 import com.skynav.ttv.verifier.TimingVerifier;
+import com.skynav.ttv.verifier.VerificationCancelledException;
 import com.skynav.ttv.verifier.VerifierContext;
 import com.skynav.ttv.verifier.util.Strings;
+import com.skynav.ttv.verifier.util.SubtreeVerifier;
+import com.skynav.ttv.verifier.util.TraversalRule;
+import com.skynav.ttv.verifier.util.TraversalRules;
+import com.skynav.ttv.verifier.util.TraversalState;
 import com.skynav.xml.helpers.Documents;
 import com.skynav.xml.helpers.XML;
 
 public class TTML1SemanticsVerifier extends AbstractVerifier implements SemanticsVerifier {
 
+    protected static final QName isdRegionElementName = new QName(TTML1.Constants.NAMESPACE_TT_ISD, "region");
+    protected static final QName isdCSSElementName = new QName(TTML1.Constants.NAMESPACE_TT_ISD, "css");
+    protected static final QName ttParagraphElementName = new QName(TTML1.Constants.NAMESPACE_TT, "p");
+    protected static final QName ttSpanElementName = new QName(TTML1.Constants.NAMESPACE_TT, "span");
+
     protected MetadataVerifier metadataVerifier;
     protected ParameterVerifier parameterVerifier;
     protected ProfileVerifier profileVerifier;
@@ -105,11 +112,42 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         super(model);
     }
 
-    public Object findBindingElement(Object root, Node node) {
+    /**
+     * Visitor of binding content elements in binding tree order, as used when searching or indexing.
+     */
+    protected interface BindingVisitor {
+        /**
+         * Visit binding content element.
+         * @param content binding content element
+         * @return true if traversal is to end at content element
+         */
+        boolean visit(Object content);
+    }
+
+    public Object findBindingElement(Object root, final Node node) {
+        return findBindingElement(root, new BindingVisitor() {
+            public boolean visit(Object content) {
+                return getContext().getXMLNode(content) == node;
+            }
+        });
+    }
+
+    public void indexBindingElements(Object root, final Map<Node,Object> index, final VerifierContext context) {
+        findBindingElement(root, new BindingVisitor() {
+            public boolean visit(Object content) {
+                Node node = context.getXMLNode(content);
+                if ((node != null) && !index.containsKey(node))
+                    index.put(node, content);
+                return false;
+            }
+        });
+    }
+
+    protected Object findBindingElement(Object root, BindingVisitor visitor) {
         if (root instanceof TimedText)
-            return findTimedTextBindingElement(root, node);
+            return findTimedTextBindingElement(root, visitor);
         else if (root instanceof Profile)
-            return findProfileBindingElement(root, node);
+            return findProfileBindingElement(root, visitor);
         else
             return null;
     }
@@ -209,44 +247,28 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
     }
 
     protected boolean verifyPostTransform(Object root, Document isd, VerifierContext context) {
-        return true;
-    }
-
-    protected static List<Element> getISDRegionElements(Document doc) {
-        final List<Element> regions = new java.util.ArrayList<Element>();
-        try {
-            Traverse.traverseElements(doc, new PreVisitor() {
-                public boolean visit(Object content, Object parent, Visitor.Order order) {
-                    assert content instanceof Element;
-                    Element elt = (Element) content;
-                    if (isISDRegionElement(elt))
-                        regions.add(elt);
-                    return true;
-                }
-            });
-        } catch (Exception e) {
-        }
-        return regions;
+        TraversalRules rules = new TraversalRules();
+        addPostTransformRules(rules, root, context);
+        if (rules.isEmpty())
+            return true;
+        rules.add(new TraversalRule(isdCSSElementName) {
+            public void collect(Element elt, TraversalState state) {
+                StyleSet css = getISDStyleSet(elt);
+                if (css != null)
+                    state.putStyleSet(css);
+            }
+        });
+        return rules.verify(isd, context);
     }
 
-    protected static Map<String,StyleSet> getISDStyleSets(Document doc) {
-        final Map<String,StyleSet> styleSets = new java.util.HashMap<String,StyleSet>();
-        try {
-            Traverse.traverseElements(doc, new PreVisitor() {
-                public boolean visit(Object content, Object parent, Visitor.Order order) {
-                    assert content instanceof Element;
-                    Element elt = (Element) content;
-                    if (isISDCSSElement(elt)) {
-                        StyleSet css = getISDStyleSet(elt);
-                        if (css != null)
-                            styleSets.put(css.getId(), css);
-                    }
-                    return true;
-                }
-            });
-        } catch (Exception e) {
-        }
-        return styleSets;
+    /**
+     * Add rules to be verified against each ISD instance by a single fused traversal, where a rule that
+     * requires computed styles obtains them from the style sets collected into the traversal state.
+     * @param rules rule set to which rules are added
+     * @param root root of original document
+     * @param context verifier context
+     */
+    protected void addPostTransformRules(TraversalRules rules, Object root, VerifierContext context) {
     }
 
     private static StyleSet getISDStyleSet(Element elt) {
@@ -518,10 +540,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
             if (!verifyAnimation(a))
                 failed = true;
         }
-        for (Object d : getBodyDivisions(body)) {
-            if (!verifyDivision(d))
-                failed = true;
-        }
+        if (!verifySubtrees(getBodyDivisions(body), new SubtreeVerifier.Verifier() {
+            public boolean verify(Object d, VerifierContext context) {
+                VerifierContext savedContext = setSubtreeState(d, context);
+                try {
+                    return verifyDivision(d);
+                } finally {
+                    restoreState(savedContext);
+                }
+            }
+        }))
+            failed = true;
         return !failed;
     }
 
@@ -560,10 +589,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
             if (!verifyAnimation(a))
                 failed = true;
         }
-        for (Object b : getDivisionBlocks(division)) {
-            if (!verifyBlock(b))
-                failed = true;
-        }
+        if (!verifySubtrees(getDivisionBlocks(division), new SubtreeVerifier.Verifier() {
+            public boolean verify(Object b, VerifierContext context) {
+                VerifierContext savedContext = setSubtreeState(b, context);
+                try {
+                    return verifyBlock(b);
+                } finally {
+                    restoreState(savedContext);
+                }
+            }
+        }))
+            failed = true;
         return !failed;
     }
 
@@ -972,6 +1008,28 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
             return unexpectedContent(metadata);
     }
 
+    /**
+     * Verify sibling subtrees, which are verified concurrently if a subtree verifier is established in the current context.
+     * @param subtrees sibling subtrees in document order
+     * @param verifier subtree verifier, which must verify a subtree in the context it is passed
+     * @return true if verification of all subtrees succeeds
+     */
+    protected boolean verifySubtrees(Collection<? extends Object> subtrees, SubtreeVerifier.Verifier verifier) {
+        return SubtreeVerifier.verify(subtrees, getContext(), verifier);
+    }
+
+    /**
+     * Establish context in which a subtree is verified.
+     * @param subtree root of subtree
+     * @param context context in which to verify subtree
+     * @return prior context, which must be restored (see {@link #restoreState}) once subtree has been verified
+     */
+    protected VerifierContext setSubtreeState(Object subtree, VerifierContext context) {
+        VerifierContext savedContext = getContext();
+        setState(subtree, context);
+        return savedContext;
+    }
+
     protected boolean verifyBlock(Object block) {
         if (block instanceof Division)
             return verifyDivision(block);
@@ -1037,6 +1095,9 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
     }
 
     protected boolean verifyParameterAttributes(Object content) {
+        // N.B. parameter attributes are verified first on each element, so this is where traversal is cancelled
+        if (getContext().isVerificationCancelled())
+            throw new VerificationCancelledException();
         return this.parameterVerifier.verify(content, getLocator(content), getContext(), ItemType.Attributes);
     }
 
@@ -1080,19 +1141,19 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
             return true;
     }
 
-    protected Object findTimedTextBindingElement(Object tt, Node node) {
-        if (getContext().getXMLNode(tt) == node)
+    protected Object findTimedTextBindingElement(Object tt, BindingVisitor visitor) {
+        if (visitor.visit(tt))
             return tt;
         else {
             Object head = getTimedTextHead(tt);
             if (head != null) {
-                Object content = findHeadBindingElement(head, node);
+                Object content = findHeadBindingElement(head, visitor);
                 if (content != null)
                     return content;
             }
             Object body = getTimedTextBody(tt);
             if (body != null) {
-                Object content = findBodyBindingElement(body, node);
+                Object content = findBodyBindingElement(body, visitor);
                 if (content != null)
                     return content;
             }
@@ -1100,24 +1161,24 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findHeadBindingElement(Object head, Node node) {
-        if (getContext().getXMLNode(head) == node)
+    protected Object findHeadBindingElement(Object head, BindingVisitor visitor) {
+        if (visitor.visit(head))
             return head;
         else {
             for (Object m : getHeadMetadata(head)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             Object styling = getHeadStyling(head);
             if (styling != null) {
-                Object content = findStylingBindingElement(styling, node);
+                Object content = findStylingBindingElement(styling, visitor);
                 if (content != null)
                     return content;
             }
             Object layout = getHeadLayout(head);
             if (layout != null) {
-                Object content = findLayoutBindingElement(layout, node);
+                Object content = findLayoutBindingElement(layout, visitor);
                 if (content != null)
                     return content;
             }
@@ -1125,17 +1186,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findStylingBindingElement(Object styling, Node node) {
-        if (getContext().getXMLNode(styling) == node)
+    protected Object findStylingBindingElement(Object styling, BindingVisitor visitor) {
+        if (visitor.visit(styling))
             return styling;
         else {
             for (Object m : getStylingMetadata(styling)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object s : getStylingStyles(styling)) {
-                Object content = findStyleBindingElement(s, node);
+                Object content = findStyleBindingElement(s, visitor);
                 if (content != null)
                     return content;
             }
@@ -1143,24 +1204,24 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findStyleBindingElement(Object style, Node node) {
-        if (getContext().getXMLNode(style) == node)
+    protected Object findStyleBindingElement(Object style, BindingVisitor visitor) {
+        if (visitor.visit(style))
             return style;
         else
             return null;
     }
 
-    protected Object findLayoutBindingElement(Object layout, Node node) {
-        if (getContext().getXMLNode(layout) == node)
+    protected Object findLayoutBindingElement(Object layout, BindingVisitor visitor) {
+        if (visitor.visit(layout))
             return layout;
         else {
             for (Object m : getLayoutMetadata(layout)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object r : getLayoutRegions(layout)) {
-                Object content = findRegionBindingElement(r, node);
+                Object content = findRegionBindingElement(r, visitor);
                 if (content != null)
                     return content;
             }
@@ -1168,17 +1229,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findRegionBindingElement(Object region, Node node) {
-        if (getContext().getXMLNode(region) == node)
+    protected Object findRegionBindingElement(Object region, BindingVisitor visitor) {
+        if (visitor.visit(region))
             return region;
         else {
             for (Object m : getRegionMetadata(region)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object a : getRegionAnimations(region)) {
-                Object content = findAnimationBindingElement(a, node);
+                Object content = findAnimationBindingElement(a, visitor);
                 if (content != null)
                     return content;
             }
@@ -1186,22 +1247,22 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findBodyBindingElement(Object body, Node node) {
-        if (getContext().getXMLNode(body) == node)
+    protected Object findBodyBindingElement(Object body, BindingVisitor visitor) {
+        if (visitor.visit(body))
             return body;
         else {
             for (Object m : getBodyMetadata(body)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object a : getBodyAnimations(body)) {
-                Object content = findAnimationBindingElement(a, node);
+                Object content = findAnimationBindingElement(a, visitor);
                 if (content != null)
                     return content;
             }
             for (Object d : getBodyDivisions(body)) {
-                Object content = findDivisionBindingElement(d, node);
+                Object content = findDivisionBindingElement(d, visitor);
                 if (content != null)
                     return content;
             }
@@ -1209,22 +1270,22 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findDivisionBindingElement(Object division, Node node) {
-        if (getContext().getXMLNode(division) == node)
+    protected Object findDivisionBindingElement(Object division, BindingVisitor visitor) {
+        if (visitor.visit(division))
             return division;
         else {
             for (Object m : getDivisionMetadata(division)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object a : getDivisionAnimations(division)) {
-                Object content = findAnimationBindingElement(a, node);
+                Object content = findAnimationBindingElement(a, visitor);
                 if (content != null)
                     return content;
             }
             for (Object b : getDivisionBlocks(division)) {
-                Object content = findBlockBindingElement(b, node);
+                Object content = findBlockBindingElement(b, visitor);
                 if (content != null)
                     return content;
             }
@@ -1232,12 +1293,12 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findParagraphBindingElement(Object paragraph, Node node) {
-        if (getContext().getXMLNode(paragraph) == node)
+    protected Object findParagraphBindingElement(Object paragraph, BindingVisitor visitor) {
+        if (visitor.visit(paragraph))
             return paragraph;
         else {
             for (Serializable s : getParagraphContent(paragraph)) {
-                Object content = findContentBindingElement(s, node);
+                Object content = findContentBindingElement(s, visitor);
                 if (content != null)
                     return content;
             }
@@ -1245,12 +1306,12 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findSpanBindingElement(Object span, Node node) {
-        if (getContext().getXMLNode(span) == node)
+    protected Object findSpanBindingElement(Object span, BindingVisitor visitor) {
+        if (visitor.visit(span))
             return span;
         else {
             for (Serializable s : getSpanContent(span)) {
-                Object content = findContentBindingElement(s, node);
+                Object content = findContentBindingElement(s, visitor);
                 if (content != null)
                     return content;
             }
@@ -1258,17 +1319,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findBreakBindingElement(Object br, Node node) {
-        if (getContext().getXMLNode(br) == node)
+    protected Object findBreakBindingElement(Object br, BindingVisitor visitor) {
+        if (visitor.visit(br))
             return br;
         else {
             for (Object m : getBreakMetadata(br)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object a : getBreakAnimations(br)) {
-                Object content = findAnimationBindingElement(a, node);
+                Object content = findAnimationBindingElement(a, visitor);
                 if (content != null)
                     return content;
             }
@@ -1276,19 +1337,19 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findActorBindingElement(Object actor, Node node) {
-        if (getContext().getXMLNode(actor) == node)
+    protected Object findActorBindingElement(Object actor, BindingVisitor visitor) {
+        if (visitor.visit(actor))
             return actor;
         else
             return null;
     }
 
-    protected Object findAgentBindingElement(Object agent, Node node) {
-        if (getContext().getXMLNode(agent) == node)
+    protected Object findAgentBindingElement(Object agent, BindingVisitor visitor) {
+        if (visitor.visit(agent))
             return agent;
         else {
             for (Object name : getAgentNames(agent)) {
-                Object content = findNameBindingElement(name, node);
+                Object content = findNameBindingElement(name, visitor);
                 if (content != null)
                     return content;
             }
@@ -1296,29 +1357,29 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findCopyrightBindingElement(Object copyright, Node node) {
-        if (getContext().getXMLNode(copyright) == node)
+    protected Object findCopyrightBindingElement(Object copyright, BindingVisitor visitor) {
+        if (visitor.visit(copyright))
             return copyright;
         else
             return null;
     }
 
-    protected Object findDescriptionBindingElement(Object description, Node node) {
-        if (getContext().getXMLNode(description) == node)
+    protected Object findDescriptionBindingElement(Object description, BindingVisitor visitor) {
+        if (visitor.visit(description))
             return description;
         else
             return null;
     }
 
-    protected Object findMetadataBindingElement(Object metadata, Node node) {
-        if (getContext().getXMLNode(metadata) == node)
+    protected Object findMetadataBindingElement(Object metadata, BindingVisitor visitor) {
+        if (visitor.visit(metadata))
             return metadata;
         else {
             for (Object m : getMetadataAny(metadata)) {
                 if (m instanceof JAXBElement<?>)
                     m = ((JAXBElement<?>)m).getValue();
                 if (!isMetadataItem(m)) {
-                    Object content = findMetadataItemBindingElement(m, node);
+                    Object content = findMetadataItemBindingElement(m, visitor);
                     if (content != null)
                         return content;
                 }
@@ -1327,112 +1388,112 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findNameBindingElement(Object name, Node node) {
-        if (getContext().getXMLNode(name) == node)
+    protected Object findNameBindingElement(Object name, BindingVisitor visitor) {
+        if (visitor.visit(name))
             return name;
         else
             return null;
     }
 
-    protected Object findTitleBindingElement(Object title, Node node) {
-        if (getContext().getXMLNode(title) == node)
+    protected Object findTitleBindingElement(Object title, BindingVisitor visitor) {
+        if (visitor.visit(title))
             return title;
         else
             return null;
     }
 
-    protected Object findMetadataItemBindingElement(Object metadata, Node node) {
+    protected Object findMetadataItemBindingElement(Object metadata, BindingVisitor visitor) {
         if (metadata instanceof JAXBElement<?>)
-            return findMetadataItemBindingElement(((JAXBElement<?>)metadata).getValue(), node);
-        else if (getContext().getXMLNode(metadata) == node)
+            return findMetadataItemBindingElement(((JAXBElement<?>)metadata).getValue(), visitor);
+        else if (visitor.visit(metadata))
             return metadata;
         else if (metadata instanceof Actor)
-            return findActorBindingElement(metadata, node);
+            return findActorBindingElement(metadata, visitor);
         else if (metadata instanceof Agent)
-            return findAgentBindingElement(metadata, node);
+            return findAgentBindingElement(metadata, visitor);
         else if (metadata instanceof Copyright)
-            return findCopyrightBindingElement(metadata, node);
+            return findCopyrightBindingElement(metadata, visitor);
         else if (metadata instanceof Description)
-            return findDescriptionBindingElement(metadata, node);
+            return findDescriptionBindingElement(metadata, visitor);
         else if (metadata instanceof Metadata)
-            return findMetadataBindingElement(metadata, node);
+            return findMetadataBindingElement(metadata, visitor);
         else if (metadata instanceof Name)
-            return findNameBindingElement(metadata, node);
+            return findNameBindingElement(metadata, visitor);
         else if (metadata instanceof Title)
-            return findTitleBindingElement(metadata, node);
+            return findTitleBindingElement(metadata, visitor);
         else if (metadata instanceof Element)
-            return findForeignMetadataBindingElement((Element)metadata, node);
+            return findForeignMetadataBindingElement((Element)metadata, visitor);
         else
             return null;
     }
 
-    protected Object findForeignMetadataBindingElement(Element metadata, Node node) {
-        if (getContext().getXMLNode(metadata) == node)
+    protected Object findForeignMetadataBindingElement(Element metadata, BindingVisitor visitor) {
+        if (visitor.visit(metadata))
             return metadata;
         else
             return null;
     }
 
-    protected Object findBlockBindingElement(Object block, Node node) {
-        if (getContext().getXMLNode(block) == node)
+    protected Object findBlockBindingElement(Object block, BindingVisitor visitor) {
+        if (visitor.visit(block))
             return block;
         else if (block instanceof Division)
-            return findBindingElement((Division) block, node);
+            return findBindingElement((Division) block, visitor);
         else if (block instanceof Paragraph)
-            return findBindingElement((Paragraph) block, node);
+            return findBindingElement((Paragraph) block, visitor);
         else
             return null;
     }
 
-    protected Object findContentBindingElement(Serializable content, Node node) {
+    protected Object findContentBindingElement(Serializable content, BindingVisitor visitor) {
         if (content instanceof JAXBElement<?>) {
             Object element = ((JAXBElement<?>)content).getValue();
-            if (getContext().getXMLNode(element) == node)
+            if (visitor.visit(element))
                 return element;
             else if (isMetadataItem(element))
-                return findMetadataItemBindingElement(element, node);
+                return findMetadataItemBindingElement(element, visitor);
             else if (element instanceof Set)
-                return findBindingElement((Set) element, node);
+                return findBindingElement((Set) element, visitor);
             else if (element instanceof Span)
-                return findBindingElement((Span) element, node);
+                return findBindingElement((Span) element, visitor);
             else if (element instanceof Break)
-                return findBindingElement((Break) element, node);
+                return findBindingElement((Break) element, visitor);
             else
                 return null;
         } else
             return null;
     }
 
-    protected Object findAnimationBindingElement(Object animation, Node node) {
+    protected Object findAnimationBindingElement(Object animation, BindingVisitor visitor) {
         if (animation instanceof Set)
-            return findSetBindingElement(animation, node);
+            return findSetBindingElement(animation, visitor);
         else
             return null;
     }
 
-    protected Object findSetBindingElement(Object set, Node node) {
-        if (getContext().getXMLNode(set) == node)
+    protected Object findSetBindingElement(Object set, BindingVisitor visitor) {
+        if (visitor.visit(set))
             return set;
         else
-            return findBindingElement((Set) set, node);
+            return findBindingElement((Set) set, visitor);
     }
 
-    protected Object findProfileBindingElement(Object profile, Node node) {
-        if (getContext().getXMLNode(profile) == node)
+    protected Object findProfileBindingElement(Object profile, BindingVisitor visitor) {
+        if (visitor.visit(profile))
             return profile;
         else {
             for (Object m : getProfileMetadata(profile)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object features : getProfileFeatures(profile)) {
-                Object content = findFeaturesBindingElement(features, node);
+                Object content = findFeaturesBindingElement(features, visitor);
                 if (content != null)
                     return content;
             }
             for (Object extensions : getProfileExtensions(profile)) {
-                Object content = findExtensionsBindingElement(extensions, node);
+                Object content = findExtensionsBindingElement(extensions, visitor);
                 if (content != null)
                     return content;
             }
@@ -1440,17 +1501,17 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findFeaturesBindingElement(Object features, Node node) {
-        if (getContext().getXMLNode(features) == node)
+    protected Object findFeaturesBindingElement(Object features, BindingVisitor visitor) {
+        if (visitor.visit(features))
             return features;
         else {
             for (Object m : getFeaturesMetadata(features)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object feature : getFeaturesFeatures(features)) {
-                Object content = findFeatureBindingElement(feature, node);
+                Object content = findFeatureBindingElement(feature, visitor);
                 if (content != null)
                     return content;
             }
@@ -1458,24 +1519,24 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findFeatureBindingElement(Object feature, Node node) {
-        if (getContext().getXMLNode(feature) == node)
+    protected Object findFeatureBindingElement(Object feature, BindingVisitor visitor) {
+        if (visitor.visit(feature))
             return feature;
         else
             return null;
     }
 
-    protected Object findExtensionsBindingElement(Object extensions, Node node) {
-        if (getContext().getXMLNode(extensions) == node)
+    protected Object findExtensionsBindingElement(Object extensions, BindingVisitor visitor) {
+        if (visitor.visit(extensions))
             return extensions;
         else {
             for (Object m : getExtensionsMetadata(extensions)) {
-                Object content = findMetadataItemBindingElement(m, node);
+                Object content = findMetadataItemBindingElement(m, visitor);
                 if (content != null)
                     return content;
             }
             for (Object extension : getExtensionsExtensions(extensions)) {
-                Object content = findExtensionBindingElement(extension, node);
+                Object content = findExtensionBindingElement(extension, visitor);
                 if (content != null)
                     return content;
             }
@@ -1483,8 +1544,8 @@ public class TTML1SemanticsVerifier extends AbstractVerifier implements Semantic
         }
     }
 
-    protected Object findExtensionBindingElement(Object extension, Node node) {
-        if (getContext().getXMLNode(extension) == node)
+    protected Object findExtensionBindingElement(Object extension, BindingVisitor visitor) {
+        if (visitor.visit(extension))
             return extension;
         else
             return null;
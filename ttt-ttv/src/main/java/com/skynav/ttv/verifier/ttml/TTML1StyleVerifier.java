@@ -25,8 +25,6 @@
 
 package com.skynav.ttv.verifier.ttml;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
@@ -63,10 +61,12 @@ import com.skynav.ttv.model.ttml1.ttd.Visibility;
 import com.skynav.ttv.model.ttml1.ttd.WrapOption;
 import com.skynav.ttv.model.ttml1.ttd.WritingMode;
 import com.skynav.ttv.model.value.Length;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Enums;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.AbstractVerifier;
+import com.skynav.ttv.verifier.ContentDependentValueVerifier;
 import com.skynav.ttv.verifier.StyleValueVerifier;
 import com.skynav.ttv.verifier.StyleVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
@@ -527,15 +527,28 @@ public class TTML1StyleVerifier extends AbstractVerifier implements StyleVerifie
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Attributes)
-            return verifyAttributeItems(content, locator, context);
-        else if (type == ItemType.Element)
-            return verifyElementItem(content, locator, context);
-        else if (type == ItemType.Other)
-            return verifyOtherAttributes(content, locator, context);
+        try {
+            if (type == ItemType.Attributes)
+                return verifyAttributeItems(content, locator, context);
+            else if (type == ItemType.Element)
+                return verifyElementItem(content, locator, context);
+            else if (type == ItemType.Other)
+                return verifyOtherAttributes(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
+    }
+
+    public boolean verifyStyleValue(QName elementName, QName styleName, String value, Locator locator, VerifierContext context) {
+        StyleAccessor sa = accessors.get(styleName);
+        if ((sa != null) && !elementName.getLocalPart().equals("animate"))
+            return sa.verify(elementName, value, locator, context);
         else
-            throw new IllegalArgumentException();
+            return true;
     }
 
     public void addInitialOverrides(Object initial, VerifierContext context) {
@@ -714,19 +727,9 @@ public class TTML1StyleVerifier extends AbstractVerifier implements StyleVerifie
 
     protected void setStyleValue(Object content, String setterName, Class<?> valueClass, Object value) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod(setterName, new Class<?>[]{ valueClass });
-            m.invoke(content, new Object[]{ value });
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            Accessors.set(content, setterName, valueClass, value);
         } catch (NoSuchMethodException e) {
             throw new RuntimeException(e);
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -828,6 +831,18 @@ public class TTML1StyleVerifier extends AbstractVerifier implements StyleVerifie
             return success;
         }
 
+        protected boolean verify(QName elementName, String value, Locator locator, VerifierContext context) {
+            if (valueClass == String.class) {
+                Location location = new Location(null, elementName, styleName, locator);
+                if (verifier instanceof ContentDependentValueVerifier) {
+                    skipContentDependentValue(location, context);
+                    return true;
+                } else
+                    return verifySingle(value, location, context);
+            } else
+                return true;
+        }
+
         protected boolean verifyMultiple(Collection<?> values, Location location, VerifierContext context) {
             boolean success = true;
             for (Object value : values) {
@@ -905,23 +920,13 @@ public class TTML1StyleVerifier extends AbstractVerifier implements StyleVerifie
 
         public Object getStyleValue(Object content) {
             try {
-                Class<?> contentClass = content.getClass();
-                Method m = contentClass.getMethod(getterName, new Class<?>[]{});
-                Object v = m.invoke(content, new Object[]{});
+                Object v = Accessors.get(content, getterName);
                 if (isAnimationValueList(content, v)) {
                     return convertValueListType(v, valueClass);
                 } else
                     return convertType(v, valueClass);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
             } catch (NoSuchMethodException e) {
                 return null;
-            } catch (SecurityException e) {
-                throw new RuntimeException(e);
             }
         }
 
@@ -25,8 +25,6 @@
 
 package com.skynav.ttv.verifier.ttml;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
@@ -36,9 +34,11 @@ import org.xml.sax.Locator;
 import com.skynav.ttv.model.Model;
 import com.skynav.ttv.model.ttml1.tt.TimedText;
 import com.skynav.ttv.model.ttml1.ttd.TimeContainer;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.AbstractVerifier;
+import com.skynav.ttv.verifier.ContentDependentValueVerifier;
 import com.skynav.ttv.verifier.TimingValueVerifier;
 import com.skynav.ttv.verifier.TimingVerifier;
 import com.skynav.ttv.verifier.VerificationParameters;
@@ -101,11 +101,24 @@ public class TTML1TimingVerifier extends AbstractVerifier implements TimingVerif
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Attributes)
-            return verifyAttributeItems(content, locator, context);
+        try {
+            if (type == ItemType.Attributes)
+                return verifyAttributeItems(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
+    }
+
+    public boolean verifyTimingValue(QName elementName, QName timingName, String value, Locator locator, VerifierContext context, VerificationParameters parameters) {
+        TimingAccessor ta = accessors.get(timingName);
+        if (ta != null)
+            return ta.verify(elementName, value, locator, context, parameters);
         else
-            throw new IllegalArgumentException();
+            return true;
     }
 
     protected boolean verifyAttributeItems(Object content, Locator locator, VerifierContext context) {
@@ -186,7 +199,7 @@ public class TTML1TimingVerifier extends AbstractVerifier implements TimingVerif
             if (value != null) {
                 Location location = new Location(content, context.getBindingElementName(content), timingName, locator);
                 if (value instanceof String)
-                    success = verify((String) value, location, context);
+                    success = verify((String) value, location, context, verificationParameters);
                 else
                     success = verifier.verify(value, location, context, verificationParameters);
             }
@@ -200,7 +213,24 @@ public class TTML1TimingVerifier extends AbstractVerifier implements TimingVerif
             return success;
         }
 
-        private boolean verify(String value, Location location, VerifierContext context) {
+        public boolean verify(QName elementName, String value, Locator locator, VerifierContext context, VerificationParameters parameters) {
+            boolean success = true;
+            if (valueClass == String.class) {
+                Location location = new Location(null, elementName, timingName, locator);
+                if (verifier instanceof ContentDependentValueVerifier)
+                    skipContentDependentValue(location, context);
+                else
+                    success = verify(value, location, context, parameters);
+                if (!success) {
+                    Reporter reporter = context.getReporter();
+                    reporter.logError(reporter.message(locator,
+                        "*KEY*", "Invalid {0} value ''{1}''.", timingName, value));
+                }
+            }
+            return success;
+        }
+
+        private boolean verify(String value, Location location, VerifierContext context, VerificationParameters parameters) {
             boolean success = false;
             Reporter reporter = context.getReporter();
             Locator locator = location.getLocator();
@@ -214,7 +244,7 @@ public class TTML1TimingVerifier extends AbstractVerifier implements TimingVerif
                 reporter.logInfo(reporter.message(locator,
                     "*KEY*", "XML space padding of {0} not permitted on {1}, got ''{2}''.", timingName, location.getElementName(), value));
             } else
-                success = verifier.verify(value, location, context, verificationParameters);
+                success = verifier.verify(value, location, context, parameters);
             return success;
         }
 
@@ -239,22 +269,12 @@ public class TTML1TimingVerifier extends AbstractVerifier implements TimingVerif
 
         protected Object getTimingValue(Object content) {
             try {
-                Class<?> contentClass = content.getClass();
-                Method m = contentClass.getMethod(getterName, new Class<?>[]{});
-                return convertType(m.invoke(content, new Object[]{}), valueClass);
-            } catch (IllegalAccessException e) {
-                throw new RuntimeException(e);
-            } catch (IllegalArgumentException e) {
-                throw new RuntimeException(e);
-            } catch (InvocationTargetException e) {
-                throw new RuntimeException(e);
+                return convertType(Accessors.get(content, getterName), valueClass);
             } catch (NoSuchMethodException e) {
                 if (isTimedText(content))
                     return convertType(getTimingValueAsString(content, timingName), valueClass);
                 else
                     return null;
-            } catch (SecurityException e) {
-                throw new RuntimeException(e);
             }
         }
 
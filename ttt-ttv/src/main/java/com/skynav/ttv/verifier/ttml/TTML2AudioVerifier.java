@@ -27,8 +27,11 @@ package com.skynav.ttv.verifier.ttml;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.xml.sax.Locator;
 
@@ -41,10 +44,10 @@ import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.AbstractVerifier;
 import com.skynav.ttv.verifier.AudioVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
+import com.skynav.ttv.verifier.util.MediaVerificationCache;
 
 import com.xfsi.xav.test.Test;
 import com.xfsi.xav.test.TestInfo;
-import com.xfsi.xav.test.TestManager;
 import com.xfsi.xav.util.Error;
 import com.xfsi.xav.util.MimeType;
 import com.xfsi.xav.util.Progress;
@@ -61,11 +64,16 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Other)
-            return verifyOtherItem(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Other)
+                return verifyOtherItem(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyOtherItem(Object content, Locator locator, VerifierContext context) {
@@ -83,18 +91,32 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
         boolean failed = false;
         Reporter reporter = context.getReporter();
         Location location = new Location(content, null, null, locator);
-        MimeType[] mimeType = new MimeType[1];
-        if (!sniffAudio(content, mimeType, location, context)) {
+        MediaVerificationCache cache = MediaVerificationCache.getCache(context);
+        // read and sniff audio content only upon first reference from document
+        MediaVerificationCache.Content audioContent = null;
+        if (!content.isBuiltin())
+            audioContent = cache.getContent(context, content.getURI());
+        String[] digest = new String[1];
+        MimeType mt = null;
+        if (audioContent != null)
+            mt = audioContent.getType();
+        else {
+            MimeType[] mimeType = new MimeType[1];
+            if (sniffAudio(content, mimeType, digest, location, context)) {
+                mt = mimeType[0];
+                if ((mt != null) && (digest[0] != null))
+                    audioContent = cache.putContent(context, content.getURI(), digest[0], mt);
+            }
+        }
+        if (mt == null) {
             reporter.logError(reporter.message(locator, "*KEY*", "Unable to determine audio type."));
             failed = true;
         } else {
-            MimeType mt = mimeType[0];
-            assert mt != null;
             if (!isSupportedMimeType(mt)) {
                 reporter.logError(reporter.message(locator, "*KEY*", "Audio type ''{0}'' is not supported.", mt.getType()));
                 failed = true;
             }
-            if (!failed && !verifyAudio(content, mt, location, context))
+            if (!failed && !verifyAudio(content, mt, audioContent, location, context))
                 failed = true;
         }
         return !failed;
@@ -138,18 +160,19 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
         signatureLengthMaximum = saLenMax;
     }
 
-    private boolean sniffAudio(Audio audio, MimeType[] outputType, Location location, VerifierContext context) {
+    private boolean sniffAudio(Audio audio, MimeType[] outputType, String[] outputDigest, Location location, VerifierContext context) {
         boolean failed = false;
         Reporter reporter = context.getReporter();
         MimeType mt = null;
         if (!audio.isBuiltin()) {
-            BufferedInputStream bis = null;
             try {
-                bis = new BufferedInputStream(audio.getURI().toURL().openStream());
                 byte[] buf = new byte[signatureLengthMaximum];
-                int nb = IOUtil.readCompletely(bis, buf);
+                int[] nb = new int[1];
+                String digest = MediaVerificationCache.readDigest(audio.getURI(), buf, nb);
+                if ((outputDigest != null) && (outputDigest.length > 0))
+                    outputDigest[0] = digest;
                 for (Signature s : signatures) {
-                    MimeType mtSniffed = sniffAudio(buf, nb, s.getSignature(), s.getType());
+                    MimeType mtSniffed = sniffAudio(buf, nb[0], s.getSignature(), s.getType());
                     if (mtSniffed != null) {
                         mt = mtSniffed;
                         break;
@@ -161,8 +184,6 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
             } catch (IOException e) {
                 reporter.logError(e);
                 failed = true;
-            } finally {
-                IOUtil.closeSafely(bis);
             }
         } else if (BuiltinAudioImpl.isSpeechAudio(audio)) {
             mt = speechType;
@@ -214,32 +235,49 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
         return getModel().isSupportedResourceType(t, p);
     }
 
-    private boolean verifyAudio(Audio audio, MimeType mimeType, Location location, VerifierContext context) {
+    private boolean verifyAudio(Audio audio, MimeType mimeType, MediaVerificationCache.Content audioContent, Location location, VerifierContext context) {
         Reporter reporter = context.getReporter();
         Locator locator = location.getLocator();
         Test t = getAudioValidator(mimeType);
         if (t != null) {
-            BufferedInputStream bis = null;
-            try {
-                TestInfo ti = new TestInfoAdapter(audio, mimeType, location);
-                TestManager tm = new TestManagerAdapter(context);
-                URI uri = audio.getURI();
-                bis = new BufferedInputStream(uri.toURL().openStream());
-                ti.setResourceStream(bis);
-                reporter.logInfo(reporter.message("*KEY*", "Verifying audio ''{0}'' as ''{1}''.", getAudioName(uri), mimeType.toString()));
-                Result r = t.run(tm, ti);
-                if (r.isFailure())
+            MediaVerificationCache cache = MediaVerificationCache.getCache(context);
+            String validator = t.getClass().getName();
+            URI uri = audio.getURI();
+            MediaVerificationCache.Outcome outcome = cache.getOutcome(audioContent, validator);
+            if (outcome != null) {
+                // same content previously validated, so replay validator's errors at this reference
+                reporter.logInfo(reporter.message("*KEY*", "Using cached verification of audio ''{0}'' as ''{1}''.", getAudioName(uri), mimeType.toString()));
+                for (String error : outcome.getErrors())
+                    reporter.logError(reporter.message(locator, "*KEY*", error));
+            } else {
+                InputStream is = null;
+                try {
+                    TestInfo ti = new TestInfoAdapter(audio, mimeType, location);
+                    TestManagerAdapter tm = new TestManagerAdapter(context);
+                    ByteBuffer bb = MediaVerificationCache.mapContent(uri);
+                    if (bb != null)
+                        ti.setResourceBuffer(bb);
+                    else {
+                        is = new BufferedInputStream(uri.toURL().openStream());
+                        ti.setResourceStream(is);
+                    }
+                    reporter.logInfo(reporter.message("*KEY*", "Verifying audio ''{0}'' as ''{1}''.", getAudioName(uri), mimeType.toString()));
+                    Result r = t.run(tm, ti);
+                    outcome = new MediaVerificationCache.Outcome(r.isFailure(), tm.getErrors());
+                    cache.putOutcome(audioContent, validator, outcome);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    reporter.logError(e);
                     return false;
-                else
-                    return true;
-            } catch (RuntimeException e) {
-                throw e;
-            } catch (Exception e) {
-                reporter.logError(e);
-                return false;
-            } finally {
-                IOUtil.closeSafely(bis);
+                } finally {
+                    IOUtil.closeSafely(is);
+                }
             }
+            if (outcome.isFailure())
+                return false;
+            else
+                return true;
         } else if (mimeType == speechType) {
             return true;
         } else {
@@ -303,12 +341,18 @@ public class TTML2AudioVerifier extends AbstractVerifier implements AudioVerifie
 
     private static class TestManagerAdapter extends AbstractTestManager {
         private VerifierContext context;
+        private List<String> errors;
         TestManagerAdapter(VerifierContext context) {
             this.context = context;
+            this.errors = new java.util.ArrayList<String>();
+        }
+        List<String> getErrors() {
+            return errors;
         }
         public void reportError(TestInfo ti, Error error) {
             Error.Severity s = error.getSeverity();
             if (s.isSevereAs(Error.Severity.ERROR_SEVERITY)) {
+                errors.add(error.getMessage());
                 Reporter reporter = context.getReporter();
                 reporter.logError(reporter.message(getLocation(ti).getLocator(), "*KEY*", error.getMessage()));
             }
@@ -41,11 +41,16 @@ public class TTML2DataVerifier extends AbstractVerifier implements DataVerifier
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Other)
-            return verifyOtherItem(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Other)
+                return verifyOtherItem(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyOtherItem(Object content, Locator locator, VerifierContext context) {
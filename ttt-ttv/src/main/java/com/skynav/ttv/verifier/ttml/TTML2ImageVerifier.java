@@ -27,8 +27,11 @@ package com.skynav.ttv.verifier.ttml;
 
 import java.io.BufferedInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.MalformedURLException;
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.List;
 
 import org.xml.sax.Locator;
 
@@ -40,10 +43,10 @@ import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.AbstractVerifier;
 import com.skynav.ttv.verifier.ImageVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
+import com.skynav.ttv.verifier.util.MediaVerificationCache;
 
 import com.xfsi.xav.test.Test;
 import com.xfsi.xav.test.TestInfo;
-import com.xfsi.xav.test.TestManager;
 import com.xfsi.xav.util.Error;
 import com.xfsi.xav.util.MimeType;
 import com.xfsi.xav.util.Progress;
@@ -60,11 +63,16 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
     }
 
     public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+        VerifierContext savedContext = getContext();
         setState(content, context);
-        if (type == ItemType.Other)
-            return verifyOtherItem(content, locator, context);
-        else
-            throw new IllegalArgumentException();
+        try {
+            if (type == ItemType.Other)
+                return verifyOtherItem(content, locator, context);
+            else
+                throw new IllegalArgumentException();
+        } finally {
+            restoreState(savedContext);
+        }
     }
 
     protected boolean verifyOtherItem(Object content, Locator locator, VerifierContext context) {
@@ -82,18 +90,29 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
         boolean failed = false;
         Reporter reporter = context.getReporter();
         Location location = new Location(content, null, null, locator);
-        MimeType[] mimeType = new MimeType[1];
-        if (!sniffImage(content, mimeType, location, context)) {
+        MediaVerificationCache cache = MediaVerificationCache.getCache(context);
+        // read and sniff image content only upon first reference from document
+        MediaVerificationCache.Content imageContent = cache.getContent(context, content.getURI());
+        String[] digest = new String[1];
+        MimeType mt = null;
+        if (imageContent != null)
+            mt = imageContent.getType();
+        else {
+            MimeType[] mimeType = new MimeType[1];
+            if (sniffImage(content, mimeType, digest, location, context)) {
+                mt = mimeType[0];
+                imageContent = cache.putContent(context, content.getURI(), digest[0], mt);
+            }
+        }
+        if (mt == null) {
             reporter.logError(reporter.message(locator, "*KEY*", "Unable to determine image type."));
             failed = true;
         } else {
-            MimeType mt = mimeType[0];
-            assert mt != null;
             if (!isSupportedMimeType(mt)) {
                 reporter.logError(reporter.message(locator, "*KEY*", "Image type ''{0}'' is not supported.", mt.getType()));
                 failed = true;
             }
-            if (!failed && !verifyImage(content, mt, location, context))
+            if (!failed && !verifyImage(content, mt, imageContent, location, context))
                 failed = true;
         }
         return !failed;
@@ -127,17 +146,18 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
         signatureLengthMaximum = saLenMax;
     }
 
-    private boolean sniffImage(Image image, MimeType[] outputType, Location location, VerifierContext context) {
+    private boolean sniffImage(Image image, MimeType[] outputType, String[] outputDigest, Location location, VerifierContext context) {
         boolean failed = false;
         Reporter reporter = context.getReporter();
         MimeType mt = unknownType;
-        BufferedInputStream bis = null;
         try {
-            bis = new BufferedInputStream(image.getURI().toURL().openStream());
             byte[] buf = new byte[signatureLengthMaximum];
-            int nb = IOUtil.readCompletely(bis, buf);
+            int[] nb = new int[1];
+            String digest = MediaVerificationCache.readDigest(image.getURI(), buf, nb);
+            if ((outputDigest != null) && (outputDigest.length > 0))
+                outputDigest[0] = digest;
             for (Signature s : signatures) {
-                MimeType mtSniffed = sniffImage(buf, nb, s.getSignature(), s.getType());
+                MimeType mtSniffed = sniffImage(buf, nb[0], s.getSignature(), s.getType());
                 if (mtSniffed != null) {
                     mt = mtSniffed;
                     break;
@@ -149,8 +169,6 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
         } catch (IOException e) {
             reporter.logError(e);
             failed = true;
-        } finally {
-            IOUtil.closeSafely(bis);
         }
         if (mt != null) {
             if ((outputType != null) && (outputType.length > 0))
@@ -197,35 +215,56 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
         return getModel().isSupportedResourceType(t, p);
     }
 
-    private boolean verifyImage(Image image, MimeType mimeType, Location location, VerifierContext context) {
+    private boolean verifyImage(Image image, MimeType mimeType, MediaVerificationCache.Content imageContent, Location location, VerifierContext context) {
         Reporter reporter = context.getReporter();
         Locator locator = location.getLocator();
         Test t = getImageValidator(mimeType);
         if (t != null) {
-            BufferedInputStream bis = null;
-            try {
-                TestInfo ti = new TestInfoAdapter(image, mimeType, location);
-                TestManager tm = new TestManagerAdapter(context);
-                URI uri = image.getURI();
-                bis = new BufferedInputStream(uri.toURL().openStream());
-                ti.setResourceStream(bis);
-                reporter.logInfo(reporter.message("*KEY*", "Verifying image ''{0}'' as ''{1}''.", getImageName(uri), mimeType.toString()));
-                Result r = t.run(tm, ti);
-                if (r.isFailure())
+            MediaVerificationCache cache = MediaVerificationCache.getCache(context);
+            String validator = t.getClass().getName();
+            URI uri = image.getURI();
+            MediaVerificationCache.Outcome outcome = cache.getOutcome(imageContent, validator);
+            if (outcome != null) {
+                // same content previously validated, so replay validator's errors at this reference
+                reporter.logInfo(reporter.message("*KEY*", "Using cached verification of image ''{0}'' as ''{1}''.", getImageName(uri), mimeType.toString()));
+                for (String error : outcome.getErrors())
+                    reporter.logError(reporter.message(locator, "*KEY*", error));
+            } else {
+                InputStream is = null;
+                try {
+                    TestInfo ti = new TestInfoAdapter(image, mimeType, location);
+                    TestManagerAdapter tm = new TestManagerAdapter(context);
+                    ByteBuffer bb = MediaVerificationCache.mapContent(uri);
+                    if (bb != null)
+                        ti.setResourceBuffer(bb);
+                    else {
+                        is = new BufferedInputStream(uri.toURL().openStream());
+                        ti.setResourceStream(is);
+                    }
+                    reporter.logInfo(reporter.message("*KEY*", "Verifying image ''{0}'' as ''{1}''.", getImageName(uri), mimeType.toString()));
+                    Result r = t.run(tm, ti);
+                    outcome = new MediaVerificationCache.Outcome(r.isFailure(), tm.getErrors());
+                    if (!r.isFailure()) {
+                        outcome.setState("width", (Integer) r.getState("width"));
+                        outcome.setState("height", (Integer) r.getState("height"));
+                    }
+                    cache.putOutcome(imageContent, validator, outcome);
+                } catch (RuntimeException e) {
+                    throw e;
+                } catch (Exception e) {
+                    reporter.logError(e);
                     return false;
-                else {
-                    int w = (Integer) r.getState("width");
-                    int h = (Integer) r.getState("height");
-                    image.setExtent(w, h);
-                    return true;
+                } finally {
+                    IOUtil.closeSafely(is);
                 }
-            } catch (RuntimeException e) {
-                throw e;
-            } catch (Exception e) {
-                reporter.logError(e);
+            }
+            if (outcome.isFailure())
                 return false;
-            } finally {
-                IOUtil.closeSafely(bis);
+            else {
+                int w = outcome.getState("width");
+                int h = outcome.getState("height");
+                image.setExtent(w, h);
+                return true;
             }
         } else {
             reporter.logError(reporter.message(locator, "*KEY*", "No image validator for ''{0}''.", mimeType.toString()));
@@ -288,12 +327,18 @@ public class TTML2ImageVerifier extends AbstractVerifier implements ImageVerifie
 
     private static class TestManagerAdapter extends AbstractTestManager {
         private VerifierContext context;
+        private List<String> errors;
         TestManagerAdapter(VerifierContext context) {
             this.context = context;
+            this.errors = new java.util.ArrayList<String>();
+        }
+        List<String> getErrors() {
+            return errors;
         }
         public void reportError(TestInfo ti, Error error) {
             Error.Severity s = error.getSeverity();
             if (s.isSevereAs(Error.Severity.ERROR_SEVERITY)) {
+                errors.add(error.getMessage());
                 Reporter reporter = context.getReporter();
                 reporter.logError(reporter.message(getLocation(ti).getLocator(), "*KEY*", error.getMessage()));
             }
@@ -27,6 +27,7 @@ package com.skynav.ttv.verifier.ttml;
 
 import java.io.Serializable;
 import java.math.BigInteger;
+import java.net.URI;
 import java.util.Collection;
 import java.util.List;
 
@@ -77,9 +78,14 @@ import com.skynav.ttv.model.ttml2.ttp.Extensions;
 import com.skynav.ttv.model.ttml2.ttp.Features;
 import com.skynav.ttv.model.ttml2.ttp.Profile;
 import com.skynav.ttv.model.value.FontFamily;
+import com.skynav.ttv.model.value.impl.BuiltinAudioImpl;
+import com.skynav.ttv.model.value.impl.ExternalAudioImpl;
+import com.skynav.ttv.model.value.impl.ExternalFontImpl;
+import com.skynav.ttv.model.value.impl.ExternalImageImpl;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Message;
 import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.util.URIs;
 import com.skynav.ttv.verifier.VerifierContext;
 import com.skynav.ttv.verifier.util.Audios;
 import com.skynav.ttv.verifier.util.Base64;
@@ -87,10 +93,13 @@ import com.skynav.ttv.verifier.util.Characters;
 import com.skynav.ttv.verifier.util.Datas;
 import com.skynav.ttv.verifier.util.Fonts;
 import com.skynav.ttv.verifier.util.Images;
+import com.skynav.ttv.verifier.util.Keywords;
+import com.skynav.ttv.verifier.util.MediaPrefetcher;
 import com.skynav.ttv.verifier.util.QuotedGenericFontFamilyTreatment;
 import com.skynav.ttv.verifier.util.RepeatCount;
 import com.skynav.ttv.verifier.util.ResourceFormats;
 import com.skynav.ttv.verifier.util.ResourceTypes;
+import com.skynav.ttv.verifier.util.SubtreeVerifier;
 
 public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
 
@@ -109,6 +118,7 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
     public static final QName resourceTypeAttributeName         = new QName("", "type");
 
     public static final QName audioElementName                  = new QName(NAMESPACE, "audio");
+    public static final QName fontElementName                   = new QName(NAMESPACE, "font");
     public static final QName imageElementName                  = new QName(NAMESPACE, "image");
     public static final QName sourceElementName                 = new QName(NAMESPACE, "source");
 
@@ -120,8 +130,10 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
 
     @Override
     protected boolean verifyRoot(Object root) {
-        if (root instanceof TimedText)
+        if (root instanceof TimedText) {
+            prefetchMediaResources(root);
             return verifyTimedText(root);
+        }
         else if (root instanceof Profile)
             return verifyProfile(root);
         else if (root instanceof ISDSequence)
@@ -132,6 +144,65 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
             return unexpectedContent(root);
     }
 
+    protected void prefetchMediaResources(Object root) {
+        VerifierContext context = getContext();
+        MediaPrefetcher prefetcher = MediaPrefetcher.getPrefetcher(context);
+        if (prefetcher == null)
+            return;
+        Node node = context.getXMLNode(root);
+        if (!(node instanceof Element))
+            return;
+        Object sysid = context.getResourceState("sysid");
+        URI base = (sysid instanceof URI) ? (URI) sysid : null;
+        Model model = getModel();
+        // prefetch external resources referenced by image, audio, and font elements and by tts:backgroundImage, in document order
+        List<Element> elements = new java.util.ArrayList<Element>();
+        elements.add((Element) node);
+        while (!elements.isEmpty()) {
+            Element e = elements.remove(elements.size() - 1);
+            String ns = e.getNamespaceURI();
+            String ln = e.getLocalName();
+            if (NAMESPACE.equals(ns) && (ln != null)) {
+                String src = e.hasAttributeNS(null, resourceSourceAttributeName.getLocalPart()) ? e.getAttributeNS(null, resourceSourceAttributeName.getLocalPart()) : null;
+                URI uri = getPrefetchableURI(src, base);
+                if (uri != null) {
+                    if (ln.equals(imageElementName.getLocalPart()))
+                        prefetcher.prefetch(context, uri, new ExternalImageImpl(uri), model.getImageVerifier());
+                    else if (ln.equals(audioElementName.getLocalPart()) && !BuiltinAudioImpl.isSpeechDataResourceUri(uri.toString()))
+                        prefetcher.prefetch(context, uri, new ExternalAudioImpl(uri), model.getAudioVerifier());
+                    else if (ln.equals(fontElementName.getLocalPart()))
+                        prefetcher.prefetch(context, uri, new ExternalFontImpl(uri), model.getFontVerifier());
+                }
+            }
+            if (e.hasAttributeNS(TTML2.Constants.NAMESPACE_TT_STYLE, "backgroundImage")) {
+                URI uri = getPrefetchableURI(e.getAttributeNS(TTML2.Constants.NAMESPACE_TT_STYLE, "backgroundImage"), base);
+                if (uri != null)
+                    prefetcher.prefetch(context, uri, new ExternalImageImpl(uri), model.getImageVerifier());
+            }
+            List<Element> children = new java.util.ArrayList<Element>();
+            for (Node n = e.getFirstChild(); n != null; n = n.getNextSibling()) {
+                if (n instanceof Element)
+                    children.add((Element) n);
+            }
+            for (int i = children.size(); i > 0; --i)
+                elements.add(children.get(i - 1));
+        }
+    }
+
+    private static URI getPrefetchableURI(String value, URI base) {
+        if ((value == null) || (value.length() == 0) || (value.trim().length() != value.length()))
+            return null;
+        else if (URIs.isLocalFragment(value) || Keywords.isNone(value))
+            return null;
+        else {
+            URI uri = URIs.makeURISafely(value, base);
+            if ((uri == null) || !uri.isAbsolute())
+                return null;
+            else
+                return uri;
+        }
+    }
+
     @Override
     public boolean verifyOtherElement(Object content, Locator locator, VerifierContext context) {
         if (content instanceof Data)
@@ -387,10 +458,17 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
             if (!verifyAnimation(a))
                 failed = true;
         }
-        for (Object d : getBodyDivisionsAndEmbeddings(body)) {
-            if (!verifyDivisionOrEmbedding(d))
-                failed = true;
-        }
+        if (!verifySubtrees(getBodyDivisionsAndEmbeddings(body), new SubtreeVerifier.Verifier() {
+            public boolean verify(Object d, VerifierContext context) {
+                VerifierContext savedContext = setSubtreeState(d, context);
+                try {
+                    return verifyDivisionOrEmbedding(d);
+                } finally {
+                    restoreState(savedContext);
+                }
+            }
+        }))
+            failed = true;
         return !failed;
     }
 
@@ -476,31 +554,31 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
     }
 
     @Override
-    protected Object findBlockBindingElement(Object block, Node node) {
-        if (getContext().getXMLNode(block) == node)
+    protected Object findBlockBindingElement(Object block, BindingVisitor visitor) {
+        if (visitor.visit(block))
             return block;
         else if (block instanceof Image)
-            return findBindingElement((Image) block, node);
+            return findBindingElement((Image) block, visitor);
         else if (block instanceof Audio)
-            return findBindingElement((Audio) block, node);
+            return findBindingElement((Audio) block, visitor);
         else
-            return super.findBlockBindingElement(block, node);
+            return super.findBlockBindingElement(block, visitor);
     }
 
     @Override
-    protected Object findContentBindingElement(Serializable content, Node node) {
+    protected Object findContentBindingElement(Serializable content, BindingVisitor visitor) {
         if (content instanceof JAXBElement<?>) {
             Object element = ((JAXBElement<?>)content).getValue();
-            if (getContext().getXMLNode(element) == node)
+            if (visitor.visit(element))
                 return element;
             else if (element instanceof Animate)
-                return findBindingElement((Animate) element, node);
+                return findBindingElement((Animate) element, visitor);
             else if (element instanceof Image)
-                return findBindingElement((Image) element, node);
+                return findBindingElement((Image) element, visitor);
             else if (element instanceof Audio)
-                return findBindingElement((Audio) element, node);
+                return findBindingElement((Audio) element, visitor);
         }
-        return super.findContentBindingElement(content, node);
+        return super.findContentBindingElement(content, visitor);
     }
 
     // metadata overrides
@@ -550,39 +628,39 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
     }
 
     @Override
-    protected Object findMetadataItemBindingElement(Object metadata, Node node) {
+    protected Object findMetadataItemBindingElement(Object metadata, BindingVisitor visitor) {
         if (metadata instanceof JAXBElement<?>)
-            return findMetadataItemBindingElement(((JAXBElement<?>)metadata).getValue(), node);
-        else if (getContext().getXMLNode(metadata) == node)
+            return findMetadataItemBindingElement(((JAXBElement<?>)metadata).getValue(), visitor);
+        else if (visitor.visit(metadata))
             return metadata;
         else if (metadata instanceof Actor)
-            return findActorBindingElement(metadata, node);
+            return findActorBindingElement(metadata, visitor);
         else if (metadata instanceof Agent)
-            return findAgentBindingElement(metadata, node);
+            return findAgentBindingElement(metadata, visitor);
         else if (metadata instanceof Copyright)
-            return findCopyrightBindingElement(metadata, node);
+            return findCopyrightBindingElement(metadata, visitor);
         else if (metadata instanceof Description)
-            return findDescriptionBindingElement(metadata, node);
+            return findDescriptionBindingElement(metadata, visitor);
         else if (metadata instanceof Item)
-            return findDescriptionBindingElement(metadata, node);
+            return findDescriptionBindingElement(metadata, visitor);
         else if (metadata instanceof Metadata)
-            return findMetadataBindingElement(metadata, node);
+            return findMetadataBindingElement(metadata, visitor);
         else if (metadata instanceof Name)
-            return findNameBindingElement(metadata, node);
+            return findNameBindingElement(metadata, visitor);
         else if (metadata instanceof Title)
-            return findTitleBindingElement(metadata, node);
+            return findTitleBindingElement(metadata, visitor);
         else if (metadata instanceof Element)
-            return findForeignMetadataBindingElement((Element)metadata, node);
+            return findForeignMetadataBindingElement((Element)metadata, visitor);
         else
             return null;
     }
 
     @Override
-    protected Object findAnimationBindingElement(Object animation, Node node) {
+    protected Object findAnimationBindingElement(Object animation, BindingVisitor visitor) {
         if (animation instanceof Animate)
-            return findAnimateBindingElement(animation, node);
+            return findAnimateBindingElement(animation, visitor);
         else if (animation instanceof Set)
-            return findSetBindingElement(animation, node);
+            return findSetBindingElement(animation, visitor);
         else
             return null;
     }
@@ -923,11 +1001,11 @@ public class TTML2SemanticsVerifier extends TTML1SemanticsVerifier {
         return ((Animate) animate).getMetadataClass();
     }
 
-    protected Object findAnimateBindingElement(Object animate, Node node) {
-        if (getContext().getXMLNode(animate) == node)
+    protected Object findAnimateBindingElement(Object animate, BindingVisitor visitor) {
+        if (visitor.visit(animate))
             return animate;
         else
-            return findBindingElement((Animate) animate, node);
+            return findBindingElement((Animate) animate, visitor);
     }
 
     protected boolean verifyAnimateAttributes(Object animate) {
@@ -34,10 +34,11 @@ import com.skynav.ttv.model.ttml1.ttp.Extensions;
 import com.skynav.ttv.model.ttml1.ttp.Features;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.ContentDependentValueVerifier;
 import com.skynav.ttv.verifier.ParameterValueVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
 
-public class BaseVerifier implements ParameterValueVerifier {
+public class BaseVerifier implements ParameterValueVerifier, ContentDependentValueVerifier {
 
     public boolean verify(Object value, Location location, VerifierContext context) {
         boolean failed = false;
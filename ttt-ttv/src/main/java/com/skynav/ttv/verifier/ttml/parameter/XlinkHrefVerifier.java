@@ -33,10 +33,11 @@ import javax.xml.bind.JAXBElement;
 import com.skynav.ttv.model.ttml2.tt.Span;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.ContentDependentValueVerifier;
 import com.skynav.ttv.verifier.ParameterValueVerifier;
 import com.skynav.ttv.verifier.VerifierContext;
 
-public class XlinkHrefVerifier implements ParameterValueVerifier {
+public class XlinkHrefVerifier implements ParameterValueVerifier, ContentDependentValueVerifier {
 
     public boolean verify(Object value, Location location, VerifierContext context) {
         boolean failed = false;
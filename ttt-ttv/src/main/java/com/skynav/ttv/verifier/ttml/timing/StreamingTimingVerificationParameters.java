@@ -0,0 +1,83 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.ttml.timing;
+
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import com.skynav.ttv.util.ExternalParameters;
+
+import static com.skynav.ttv.model.ttml.TTML1.Constants.*;
+
+/**
+ * Timing verification parameters populated from the lexical parameter attributes of a root element,
+ * as used when verifying a streamed resource for which no bound root content object exists.
+ */
+public class StreamingTimingVerificationParameters extends TimingVerificationParameters {
+
+    public StreamingTimingVerificationParameters(Map<QName,String> rootAttributes, ExternalParameters externalParameters) {
+        super(rootAttributes, externalParameters);
+    }
+
+    @Override
+    protected void populate(Object content, ExternalParameters externalParameters) {
+        assert content instanceof Map<?,?>;
+        @SuppressWarnings("unchecked")
+        Map<QName,String> attributes = (Map<QName,String>) content;
+        populate(
+            getConstantName(attributes, "timeBase"),
+            getConstantName(attributes, "clockMode"),
+            getConstantName(attributes, "dropMode"),
+            getConstantName(attributes, "markerMode"),
+            parseInteger(getParameter(attributes, "frameRate")),
+            parseInteger(getParameter(attributes, "subFrameRate")),
+            getParameter(attributes, "frameRateMultiplier"),
+            parseInteger(getParameter(attributes, "tickRate")),
+            externalParameters);
+    }
+
+    private static String getParameter(Map<QName,String> attributes, String parameterName) {
+        String value = attributes.get(new QName(NAMESPACE_TT_PARAMETER, parameterName));
+        return (value != null) ? value.trim() : null;
+    }
+
+    // map lexical value to enumeration constant name, e.g., 'dropNTSC' to 'DROP_NTSC'
+    private static String getConstantName(Map<QName,String> attributes, String parameterName) {
+        String value = getParameter(attributes, parameterName);
+        if (value == null)
+            return null;
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0, n = value.length(); i < n; ++i) {
+            char c = value.charAt(i);
+            if (Character.isUpperCase(c) && (i > 0) && Character.isLowerCase(value.charAt(i - 1)))
+                sb.append('_');
+            sb.append(Character.toUpperCase(c));
+        }
+        return sb.toString();
+    }
+
+}
@@ -111,6 +111,69 @@ public class TimingVerificationParameters implements VerificationParameters {
     protected void populate(Object content, ExternalParameters externalParameters) {
     }
 
+    /**
+     * Populate parameters from (possibly absent) root parameter values, where enumerated parameter values are
+     * expressed as the names of the corresponding enumeration constants, e.g., 'DROP_NTSC'. Unrecognized enumerated
+     * values are ignored, in which case the schema validation phase (3) reports the value as invalid.
+     */
+    protected void populate(String timeBase, String clockMode, String dropMode, String markerMode,
+        BigInteger frameRate, BigInteger subFrameRate, String frameRateMultiplier, BigInteger tickRate, ExternalParameters externalParameters) {
+        if (timeBase != null) {
+            try {
+                this.timeBase = TimeBase.valueOf(timeBase);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        if (clockMode != null) {
+            try {
+                this.clockMode = ClockMode.valueOf(clockMode);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        if (dropMode != null) {
+            try {
+                this.dropMode = DropMode.valueOf(dropMode);
+            } catch (IllegalArgumentException e) {
+            }
+        }
+        if (markerMode == null)
+            markerMode = "CONTINUOUS";
+        this.allowDuration = (this.timeBase != TimeBase.SMPTE) || !markerMode.equals("DISCONTINUOUS");
+        if (frameRate != null)
+            this.frameRate = frameRate.intValue();
+        if (subFrameRate != null)
+            this.subFrameRate = subFrameRate.intValue();
+        if (frameRateMultiplier == null)
+            frameRateMultiplier = "1 1";
+        BigDecimal multiplier;
+        try {
+            multiplier = parseFrameRateMultiplier(frameRateMultiplier.trim());
+        } catch (NumberFormatException e) {
+            multiplier = BigDecimal.ONE;
+        }
+        this.frameRateMultiplier = multiplier.doubleValue();
+        this.effectiveFrameRate = new BigDecimal(BigInteger.valueOf(this.frameRate)).multiply(multiplier).doubleValue();
+        if (tickRate != null)
+            this.tickRate = tickRate.intValue();
+        if (externalParameters != null) {
+            Double externalDuration = (Double) externalParameters.getParameter("externalDuration");
+            if (externalDuration != null)
+                this.externalDuration = externalDuration.doubleValue();
+            else
+                this.externalDuration = Double.NaN;
+        }
+    }
+
+    protected static BigInteger parseInteger(String value) {
+        if (value == null)
+            return null;
+        try {
+            return new BigInteger(value.trim());
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
     protected BigDecimal parseFrameRateMultiplier(String value) {
         String[] components = value.split("\\s+");
         if (components.length == 2) {
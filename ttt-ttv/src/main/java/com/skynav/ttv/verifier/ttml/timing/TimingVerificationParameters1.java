@@ -25,9 +25,6 @@
 
 package com.skynav.ttv.verifier.ttml.timing;
 
-import java.math.BigDecimal;
-import java.math.BigInteger;
-
 import com.skynav.ttv.model.ttml1.tt.TimedText;
 import com.skynav.ttv.model.ttml1.ttd.ClockMode;
 import com.skynav.ttv.model.ttml1.ttd.DropMode;
@@ -46,40 +43,19 @@ public class TimingVerificationParameters1 extends TimingVerificationParameters
         assert content instanceof TimedText;
         TimedText tt = (TimedText) content;
         TimeBase timeBase = tt.getTimeBase();
-        if (timeBase != null)
-            this.timeBase = com.skynav.ttv.model.value.TimeBase.valueOf(timeBase.name());
         ClockMode clockMode = tt.getClockMode();
-        if (clockMode != null)
-            this.clockMode = com.skynav.ttv.model.value.ClockMode.valueOf(clockMode.name());
         DropMode dropMode = tt.getDropMode();
-        if (dropMode != null)
-            this.dropMode = com.skynav.ttv.model.value.DropMode.valueOf(dropMode.name());
         MarkerMode markerMode = tt.getMarkerMode();
-        if (markerMode == null)
-            markerMode = MarkerMode.CONTINUOUS;
-        this.allowDuration = (this.timeBase != com.skynav.ttv.model.value.TimeBase.SMPTE) || !markerMode.name().equals("DISCONTINUOUS");
-        BigInteger frameRate = tt.getFrameRate();
-        if (frameRate != null)
-            this.frameRate = frameRate.intValue();
-        BigInteger subFrameRate = tt.getSubFrameRate();
-        if (subFrameRate != null)
-            this.subFrameRate = tt.getSubFrameRate().intValue();
-        String frameRateMultiplier = tt.getFrameRateMultiplier();
-        if (frameRateMultiplier == null)
-            frameRateMultiplier = "1 1";
-        BigDecimal multiplier = parseFrameRateMultiplier(frameRateMultiplier);
-        this.frameRateMultiplier = multiplier.doubleValue();
-        this.effectiveFrameRate = new BigDecimal(BigInteger.valueOf(this.frameRate)).multiply(multiplier).doubleValue();
-        BigInteger tickRate = tt.getTickRate();
-        if (tickRate != null)
-            this.tickRate = tickRate.intValue();
-        if (externalParameters != null) {
-            Double externalDuration = (Double) externalParameters.getParameter("externalDuration");
-            if (externalDuration != null)
-                this.externalDuration = externalDuration.doubleValue();
-            else
-                this.externalDuration = Double.NaN;
-        }
+        populate(
+            (timeBase != null) ? timeBase.name() : null,
+            (clockMode != null) ? clockMode.name() : null,
+            (dropMode != null) ? dropMode.name() : null,
+            (markerMode != null) ? markerMode.name() : null,
+            tt.getFrameRate(),
+            tt.getSubFrameRate(),
+            tt.getFrameRateMultiplier(),
+            tt.getTickRate(),
+            externalParameters);
     }
 
 }
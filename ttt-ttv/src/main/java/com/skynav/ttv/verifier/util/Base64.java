@@ -25,7 +25,9 @@
 
 package com.skynav.ttv.verifier.util;
 
-import java.nio.ByteBuffer;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 
 public class Base64 {
 
@@ -56,48 +58,15 @@ public class Base64 {
     }
 
     public static byte[] decode(String data) {
-        final ByteBuffer bb = ByteBuffer.allocate(data.length());
-        final byte[] map = getDecodeMap();
-        final byte[] grp = new byte[4];
-        for (int i = 0, n = data.length(); i < n; ) {
-            int k = 0;
-            while (k < 4) {
-                if (i < n) {
-                    char c = data.charAt(i++);
-                    if (Characters.isXMLSpace(c))
-                        continue;
-                    else if (c < 128) {
-                        byte bits = map[c];
-                        if (bits == -1) {
-                            throw new IllegalArgumentException("Character '" + Characters.maybeEscapeAsNCRef(c) + "' is not in Base64 alphabet.");
-                        } else if ((bits == PAD) && (k == 0)) {
-                            throw new IllegalArgumentException("Padding not permitted in first position of group.");
-                        } else if ((bits == PAD) && (k == 1)) {
-                            throw new IllegalArgumentException("Padding not permitted in second position of group.");
-                        } else {
-                            grp[k++] = bits;
-                        }
-                    } else {
-                        throw new IllegalArgumentException("Character '" + Characters.maybeEscapeAsNCRef(c) + "' is not in Base64 alphabet.");
-                    }
-                } else if (k > 0) {
-                    throw new IllegalArgumentException("Input data underflow, got " + k + " of four (4) Base64 alphabet characters.");
-                } else {
-                    break;
-                }
-            }
-            if (k == 4) {
-                bb.put((byte)((grp[0] << 2) | (grp[1] >> 4)));
-                if (grp[2] != PAD)
-                    bb.put((byte)((grp[1] << 4) | (grp[2] >> 2)));
-                if (grp[3] != PAD)
-                    bb.put((byte)((grp[2] << 6) | grp[3]));
-            }
+        ByteArrayOutputStream bas = new ByteArrayOutputStream(data.length());
+        Decoder decoder = new Decoder(bas);
+        try {
+            decoder.decode(data);
+            decoder.finish();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
         }
-        byte[] out = new byte[bb.position()];
-        bb.rewind();
-        bb.get(out);
-        return out;
+        return bas.toByteArray();
     }
 
     public static boolean isBase64(String data) {
@@ -109,4 +78,66 @@ public class Base64 {
         }
     }
 
+    /**
+     * An incremental decoder, to which encoded data may be supplied in arbitrarily sized pieces,
+     * writing decoded data to an output stream as each group of four Base64 alphabet characters
+     * is completed.
+     */
+    public static class Decoder {
+
+        private final OutputStream out;
+        private final byte[] map;
+        private final byte[] grp;
+        private int k;
+
+        public Decoder(OutputStream out) {
+            this.out = out;
+            this.map = getDecodeMap();
+            this.grp = new byte[4];
+        }
+
+        public void decode(CharSequence data) throws IOException {
+            for (int i = 0, n = data.length(); i < n; ++i)
+                decode(data.charAt(i));
+        }
+
+        public void decode(char[] data, int offset, int length) throws IOException {
+            for (int i = offset, n = offset + length; i < n; ++i)
+                decode(data[i]);
+        }
+
+        public void finish() {
+            if (k > 0)
+                throw new IllegalArgumentException("Input data underflow, got " + k + " of four (4) Base64 alphabet characters.");
+        }
+
+        private void decode(char c) throws IOException {
+            if (Characters.isXMLSpace(c))
+                return;
+            else if (c < 128) {
+                byte bits = map[c];
+                if (bits == -1) {
+                    throw new IllegalArgumentException("Character '" + Characters.maybeEscapeAsNCRef(c) + "' is not in Base64 alphabet.");
+                } else if ((bits == PAD) && (k == 0)) {
+                    throw new IllegalArgumentException("Padding not permitted in first position of group.");
+                } else if ((bits == PAD) && (k == 1)) {
+                    throw new IllegalArgumentException("Padding not permitted in second position of group.");
+                } else {
+                    grp[k++] = bits;
+                }
+            } else {
+                throw new IllegalArgumentException("Character '" + Characters.maybeEscapeAsNCRef(c) + "' is not in Base64 alphabet.");
+            }
+            if (k == 4) {
+                out.write((byte)((grp[0] << 2) | (grp[1] >> 4)));
+                if (grp[2] != PAD)
+                    out.write((byte)((grp[1] << 4) | (grp[2] >> 2)));
+                if (grp[3] != PAD)
+                    out.write((byte)((grp[2] << 6) | grp[3]));
+                k = 0;
+            }
+        }
+
+    }
+
 }
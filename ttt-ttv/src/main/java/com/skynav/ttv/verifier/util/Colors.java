@@ -54,14 +54,24 @@ public class Colors {
     }
 
     public static boolean isColor(String value, Location location, VerifierContext context, Color[] outputColor) {
-        if (isRGBHash(value, context, outputColor))
-            return true;
-        else if (isRGBFunction(value, context, outputColor))
-            return true;
-        else if (isNamedColor(value, context, outputColor))
-            return true;
-        else
+        ValueCache cache = ValueCache.getCache(context, "Color");
+        Object parsed = (cache != null) ? cache.get(value) : null;
+        if (parsed == null) {
+            Color[] color = new Color[1];
+            if (isRGBHash(value, context, color) || isRGBFunction(value, context, color) || isNamedColor(value, context, color))
+                parsed = color[0];
+            else
+                parsed = ValueCache.INVALID;
+            if (cache != null)
+                cache.put(value, parsed);
+        }
+        if (parsed == ValueCache.INVALID)
             return false;
+        else {
+            if (outputColor != null)
+                outputColor[0] = (Color) parsed;
+            return true;
+        }
     }
 
     public static void badColor(String value, Location location, VerifierContext context) {
@@ -26,6 +26,7 @@
 package com.skynav.ttv.verifier.util;
 
 import java.net.URI;
+import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 
@@ -176,14 +177,25 @@ public class Fonts {
     }
 
     public static boolean isFontFamilies(String value, Location location, VerifierContext context, Object[] treatments, List<FontFamily> outputFamilies) {
-        List<FontFamily> families = new java.util.ArrayList<FontFamily>();
-        String [] familyItems = splitFontFamilies(value);
-        for (String item : familyItems) {
-            FontFamily[] family = new FontFamily[1];
-            if (isFontFamily(item, location, context, treatments, family))
-                families.add(family[0]);
-            else
-                return false;
+        ValueCache cache = ValueCache.getCache(context, "FontFamilies");
+        @SuppressWarnings("unchecked")
+        List<FontFamily> families = (cache != null) ? (List<FontFamily>) cache.get(value) : null;
+        if (families == null) {
+            families = new java.util.ArrayList<FontFamily>();
+            boolean cacheable = true;
+            String [] familyItems = splitFontFamilies(value);
+            for (String item : familyItems) {
+                FontFamily[] family = new FontFamily[1];
+                if (isFontFamily(item, location, context, treatments, family)) {
+                    families.add(family[0]);
+                    // quoted generic family names are subject to (context dependent) treatment, so must be re-verified
+                    if ((family[0].getType() == FontFamily.Type.Quoted) && GenericFontFamily.isToken((String) family[0].getValue()))
+                        cacheable = false;
+                } else
+                    return false;
+            }
+            if ((cache != null) && cacheable)
+                cache.put(value, Collections.unmodifiableList(families));
         }
         if (outputFamilies != null) {
             outputFamilies.clear();
@@ -25,12 +25,11 @@
 
 package com.skynav.ttv.verifier.util;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 
 import javax.xml.namespace.QName;
 
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.Location;
 import com.skynav.ttv.util.Reporter;
 import com.skynav.ttv.verifier.VerifierContext;
@@ -67,19 +66,9 @@ public class IdReferences {
 
     public static String getId(Object content) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod("getId", new Class<?>[]{});
-            return (String) m.invoke(content, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return (String) Accessors.get(content, "getId");
         } catch (NoSuchMethodException e) {
             return "";
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
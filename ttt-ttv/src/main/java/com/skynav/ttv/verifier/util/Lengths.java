@@ -76,26 +76,15 @@ public class Lengths {
             lengthPattern = lengthPattern1;
         else
             lengthPattern = lengthPattern2;
-        Matcher m = lengthPattern.matcher(value);
-        if (m.matches()) {
-            assert m.groupCount() > 0;
-            String number = m.group(1);
-            if (number.charAt(0) == '+')
-                number = number.substring(1);
-            double numberValue;
-            if (!Strings.containsDecimalSeparator(number)) {
-                try {
-                    numberValue = new BigInteger(number).doubleValue();
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            } else {
-                try {
-                    numberValue = new BigDecimal(number).doubleValue();
-                } catch (NumberFormatException e) {
-                    return false;
-                }
-            }
+        ValueCache cache = ValueCache.getCache(context, "Length");
+        Object parsed = (cache != null) ? cache.get(value) : null;
+        if (parsed == null) {
+            parsed = parseLength(value, lengthPattern);
+            if (cache != null)
+                cache.put(value, parsed);
+        }
+        if (parsed != ValueCache.INVALID) {
+            double numberValue = ((ParsedLength) parsed).number;
             if (treatments != null) {
                 if (numberValue < 0) {
                     NegativeTreatment negativeTreatment = (NegativeTreatment) treatments[0];
@@ -116,19 +105,17 @@ public class Lengths {
                 }
             }
             Length.Unit unitsValue = null;
-            if (m.groupCount() > 1) {
-                String units = m.group(2);
-                if (units != null) {
-                    try {
-                        unitsValue = Length.Unit.valueOfShorthand(units);
-                        int unitVersion = unitsValue.fromVersion();
-                        if (unitVersion > ttmlVersion) {
-                            return false;
-                        } else if (!isUnitsPermitted(unitsValue, location, context))
-                            return false;
-                    } catch (IllegalArgumentException e) {
+            String units = ((ParsedLength) parsed).units;
+            if (units != null) {
+                try {
+                    unitsValue = Length.Unit.valueOfShorthand(units);
+                    int unitVersion = unitsValue.fromVersion();
+                    if (unitVersion > ttmlVersion) {
                         return false;
-                    }
+                    } else if (!isUnitsPermitted(unitsValue, location, context))
+                        return false;
+                } catch (IllegalArgumentException e) {
+                    return false;
                 }
             }
             if (unitsValue == null) {
@@ -147,6 +134,41 @@ public class Lengths {
             return false;
     }
 
+    private static class ParsedLength {
+        private double number;
+        private String units;
+        ParsedLength(double number, String units) {
+            this.number = number;
+            this.units = units;
+        }
+    }
+
+    private static Object parseLength(String value, Pattern lengthPattern) {
+        Matcher m = lengthPattern.matcher(value);
+        if (m.matches()) {
+            assert m.groupCount() > 0;
+            String number = m.group(1);
+            if (number.charAt(0) == '+')
+                number = number.substring(1);
+            double numberValue;
+            if (!Strings.containsDecimalSeparator(number)) {
+                try {
+                    numberValue = new BigInteger(number).doubleValue();
+                } catch (NumberFormatException e) {
+                    return ValueCache.INVALID;
+                }
+            } else {
+                try {
+                    numberValue = new BigDecimal(number).doubleValue();
+                } catch (NumberFormatException e) {
+                    return ValueCache.INVALID;
+                }
+            }
+            return new ParsedLength(numberValue, (m.groupCount() > 1) ? m.group(2) : null);
+        } else
+            return ValueCache.INVALID;
+    }
+
     private static void updateUsage(VerifierContext context, Locator locator, Length.Unit unit) {
         String key = "usage" + unit.name();
         @SuppressWarnings("unchecked")
@@ -0,0 +1,253 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Node;
+
+import com.skynav.ttv.model.Model;
+import com.skynav.ttv.util.ExternalParameters;
+import com.skynav.ttv.util.NullReporter;
+import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.ItemVerifier;
+import com.skynav.ttv.verifier.ItemVerifier.ItemType;
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * Verifies media resources referenced by a document concurrently, on a bounded executor, in advance of
+ * their being verified by the (serial) semantic traversal of the document. A prefetch task performs the
+ * costly part of verifying a resource, i.e., reading its content and running the applicable validator,
+ * recording the outcome in the {@link MediaVerificationCache} while discarding its diagnostics. When the
+ * traversal subsequently verifies a reference, it waits for any pending prefetch of the referenced resource,
+ * then replays the cached outcome, so that diagnostics are reported in document order, exactly as when
+ * resources are verified serially. A resource whose prefetch failed to produce an outcome (e.g., due to
+ * an I/O error) is simply verified again by the traversal, as is a resource whose prefetch was cancelled
+ * by {@link #shutdown}.
+ */
+public class MediaPrefetcher {
+
+    public static final String RESOURCE_STATE_KEY = "mediaPrefetcher";
+
+    private static final String PENDING_STATE_KEY = "mediaPrefetcherPending";
+    private static final long IDLE_THREAD_TIMEOUT = 30;                         // seconds
+
+    private int threads;
+    private ThreadPoolExecutor executor;
+
+    /**
+     * Construct media prefetcher.
+     * @param threads maximum number of resources to verify concurrently
+     */
+    public MediaPrefetcher(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException();
+        this.threads = threads;
+    }
+
+    /**
+     * Obtain media prefetcher established in context.
+     * @param context verifier context or null
+     * @return media prefetcher or null if none
+     */
+    public static MediaPrefetcher getPrefetcher(VerifierContext context) {
+        Object prefetcher = (context != null) ? context.getResourceState(RESOURCE_STATE_KEY) : null;
+        if (prefetcher instanceof MediaPrefetcher)
+            return (MediaPrefetcher) prefetcher;
+        else
+            return null;
+    }
+
+    /**
+     * Prefetch (verify in advance) media resource referenced by current resource (document), unless
+     * already prefetched.
+     * @param context verifier context
+     * @param uri media resource URI
+     * @param item media item, e.g., an {@link com.skynav.ttv.model.value.Image} instance
+     * @param verifier media item verifier
+     */
+    public void prefetch(VerifierContext context, URI uri, final Object item, final ItemVerifier verifier) {
+        Map<URI,Future<?>> pending = getPending(context, true);
+        if (pending.containsKey(uri))
+            return;
+        MediaVerificationCache cache = MediaVerificationCache.getCache(context);
+        final VerifierContext prefetchContext = new PrefetchContext(context, cache, cache.getContents(context, true));
+        FutureTask<Object> task = new FutureTask<Object>(new Runnable() {
+            public void run() {
+                verifier.verify(item, null, prefetchContext, ItemType.Other);
+            }
+        }, null);
+        if (submit(task))
+            pending.put(uri, task);
+    }
+
+    /**
+     * Wait for pending prefetch of media resource, if any, to complete.
+     * @param context verifier context
+     * @param uri media resource URI
+     */
+    public static void await(VerifierContext context, URI uri) {
+        Map<URI,Future<?>> pending = getPending(context, false);
+        Future<?> f = (pending != null) ? pending.remove(uri) : null;
+        if (f != null) {
+            try {
+                f.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (CancellationException e) {
+                // ignore, since resource will be verified again by caller
+            } catch (ExecutionException e) {
+                // ignore, since resource will be verified again by caller
+            }
+        }
+    }
+
+    /**
+     * Shut down executor. Prefetches already running are allowed to complete, while those yet to run
+     * are cancelled, so that a caller awaiting them verifies the resource itself. A subsequent prefetch
+     * uses a new executor.
+     */
+    public synchronized void shutdown() {
+        if (executor != null) {
+            List<Runnable> queued = new java.util.ArrayList<Runnable>();
+            executor.getQueue().drainTo(queued);
+            executor.shutdown();
+            executor = null;
+            for (Runnable r : queued)
+                ((Future<?>) r).cancel(false);
+        }
+    }
+
+    private synchronized boolean submit(FutureTask<?> task) {
+        try {
+            getExecutor().execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            return false;
+        }
+    }
+
+    private synchronized ThreadPoolExecutor getExecutor() {
+        if (executor == null) {
+            ThreadPoolExecutor tpe = new ThreadPoolExecutor(threads, threads, IDLE_THREAD_TIMEOUT, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                private AtomicInteger count = new AtomicInteger();
+                public Thread newThread(Runnable r) {
+                    Thread t = new Thread(r, "media-prefetch-" + count.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                }
+            });
+            // let idle threads exit, so that an abandoned prefetcher does not retain threads
+            tpe.allowCoreThreadTimeOut(true);
+            executor = tpe;
+        }
+        return executor;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<URI,Future<?>> getPending(VerifierContext context, boolean create) {
+        if (context == null)
+            return null;
+        Map<URI,Future<?>> pending = (Map<URI,Future<?>>) context.getResourceState(PENDING_STATE_KEY);
+        if ((pending == null) && create) {
+            pending = new ConcurrentHashMap<URI,Future<?>>();
+            context.setResourceState(PENDING_STATE_KEY, pending);
+        }
+        return pending;
+    }
+
+    /**
+     * Context in which a prefetch task verifies a media item. Diagnostics are discarded, and resource
+     * state is limited to the media verification cache and the (shared, thread safe) per-resource map of
+     * content descriptors, which are captured when the task is created so that the task does not access
+     * the (non thread safe) resource state of the document's context.
+     */
+    private static class PrefetchContext implements VerifierContext {
+        private VerifierContext context;
+        private Reporter reporter;
+        private Map<String,Object> resourceState;
+        PrefetchContext(VerifierContext context, MediaVerificationCache cache, Object contents) {
+            this.context = context;
+            this.reporter = new NullReporter();
+            this.resourceState = new ConcurrentHashMap<String,Object>();
+            this.resourceState.put(MediaVerificationCache.RESOURCE_STATE_KEY, cache);
+            this.resourceState.put(MediaVerificationCache.CONTENTS_STATE_KEY, contents);
+        }
+        public ExternalParameters getExternalParameters() {
+            return context.getExternalParameters();
+        }
+        public Reporter getReporter() {
+            return reporter;
+        }
+        public Model getModel() {
+            return context.getModel();
+        }
+        public QName getBindingElementName(Object value) {
+            return null;
+        }
+        public Object getBindingElementParent(Object value) {
+            return null;
+        }
+        public Object getBindingElement(Node node) {
+            return null;
+        }
+        public Node getXMLNode(Object value) {
+            return null;
+        }
+        public void setResourceState(String key, Object value) {
+            if (value != null)
+                resourceState.put(key, value);
+            else
+                resourceState.remove(key);
+        }
+        public Object getResourceState(String key) {
+            return resourceState.get(key);
+        }
+        public Object extractResourceState(String key) {
+            return resourceState.remove(key);
+        }
+        public boolean isVerificationCancelled() {
+            return false;
+        }
+    }
+
+}
@@ -0,0 +1,414 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.skynav.ttv.util.IOUtil;
+import com.skynav.ttv.verifier.VerifierContext;
+
+import com.xfsi.xav.util.MimeType;
+
+/**
+ * A cache of the outcomes of validating media resources (images, fonts, audio) referenced by documents,
+ * keyed by a digest of a resource's content and by the validator applied to it, so that a resource
+ * shared by many documents is validated only once. Outcomes are held in a bounded, least recently used
+ * cache and, if a cache directory is specified, are also stored in that directory for use by subsequent runs.
+ *
+ * In addition, a per-resource (document) map from media URI to content digest and sniffed type is
+ * maintained, so that a media resource referenced more than once by a document is read at most once.
+ * Content is digested as it is streamed, so that only a resource's leading bytes, as needed for sniffing
+ * its type, are retained in memory.
+ */
+public class MediaVerificationCache {
+
+    public static final String RESOURCE_STATE_KEY = "mediaVerificationCache";
+    public static final int MAXIMUM_CACHED_OUTCOMES = 1024;
+
+    static final String CONTENTS_STATE_KEY = "mediaVerificationContents";
+    private static final String OUTCOME_SUFFIX = ".result";
+    private static final int READ_BUFFER_SIZE = 8192;
+
+    private static final MediaVerificationCache defaultCache = new MediaVerificationCache(null, null);
+
+    private File directory;
+    private String fingerprint;
+    // cache of validation outcomes, keyed by outcome key
+    private Map<String,Outcome> outcomes = Collections.synchronizedMap(new OutcomeMap());
+
+    /**
+     * Construct media verification cache.
+     * @param directory directory in which to store outcomes, or null if outcomes are not to be stored
+     * @param fingerprint fingerprint (e.g., version) of verifier, used to invalidate stored outcomes, or null
+     */
+    public MediaVerificationCache(File directory, String fingerprint) {
+        this.directory = directory;
+        this.fingerprint = (fingerprint != null) ? fingerprint : "";
+    }
+
+    /**
+     * Obtain media verification cache established in context, or, if none, a default cache that
+     * does not store outcomes.
+     * @param context verifier context or null
+     * @return media verification cache
+     */
+    public static MediaVerificationCache getCache(VerifierContext context) {
+        Object cache = (context != null) ? context.getResourceState(RESOURCE_STATE_KEY) : null;
+        if (cache instanceof MediaVerificationCache)
+            return (MediaVerificationCache) cache;
+        else
+            return defaultCache;
+    }
+
+    /**
+     * Read content of media resource as a stream, computing its digest, and retaining only its
+     * leading bytes (e.g., for sniffing its type).
+     * @param uri resource URI
+     * @param head buffer into which leading bytes of content are read; any bytes beyond the
+     * end of content are left unchanged
+     * @param outputHeadLength if not null, receives number of leading bytes read into head
+     * @return digest of resource content
+     * @throws IOException if resource cannot be read
+     */
+    public static String readDigest(URI uri, byte[] head, int[] outputHeadLength) throws IOException {
+        MessageDigest md = makeMessageDigest();
+        InputStream is = null;
+        try {
+            is = new DigestInputStream(uri.toURL().openStream(), md);
+            int nb = IOUtil.readCompletely(is, head);
+            if ((outputHeadLength != null) && (outputHeadLength.length > 0))
+                outputHeadLength[0] = nb;
+            byte[] buf = new byte[READ_BUFFER_SIZE];
+            while (is.read(buf) >= 0)
+                continue;
+        } finally {
+            IOUtil.closeSafely(is);
+        }
+        return toHexString(md.digest());
+    }
+
+    /**
+     * Map content of media resource for validation, if resource is a regular file, so that its
+     * content is not read into memory.
+     * @param uri resource URI
+     * @return mapped (read only) content, or null if resource is not a regular file, in which case
+     * the caller should read the resource as a stream
+     * @throws IOException if resource cannot be mapped
+     */
+    public static ByteBuffer mapContent(URI uri) throws IOException {
+        Path path;
+        try {
+            path = "file".equals(uri.getScheme()) ? Paths.get(uri) : null;
+        } catch (RuntimeException e) {
+            path = null;
+        }
+        if ((path == null) || !Files.isRegularFile(path))
+            return null;
+        FileChannel fc = null;
+        try {
+            fc = FileChannel.open(path, StandardOpenOption.READ);
+            long size = fc.size();
+            // N.B. mapping remains valid after channel is closed
+            return (size <= Integer.MAX_VALUE) ? fc.map(FileChannel.MapMode.READ_ONLY, 0, size) : null;
+        } finally {
+            IOUtil.closeSafely(fc);
+        }
+    }
+
+    /**
+     * Obtain content descriptor of media resource previously read while verifying current resource (document),
+     * waiting for any pending prefetch of the media resource to complete.
+     * @param context verifier context
+     * @param uri media resource URI
+     * @return content descriptor or null if not yet read
+     */
+    public Content getContent(VerifierContext context, URI uri) {
+        MediaPrefetcher.await(context, uri);
+        Map<URI,Content> contents = getContents(context, false);
+        return (contents != null) ? contents.get(uri) : null;
+    }
+
+    /**
+     * Record content descriptor of media resource read while verifying current resource (document).
+     * @param context verifier context
+     * @param uri media resource URI
+     * @param digest digest of media resource content, as returned by {@link #readDigest}
+     * @param type sniffed type of media resource content
+     * @return content descriptor
+     */
+    public Content putContent(VerifierContext context, URI uri, String digest, MimeType type) {
+        Content content = new Content(digest, type);
+        Map<URI,Content> contents = getContents(context, true);
+        if (contents != null)
+            contents.put(uri, content);
+        return content;
+    }
+
+    @SuppressWarnings("unchecked")
+    Map<URI,Content> getContents(VerifierContext context, boolean create) {
+        if (context == null)
+            return null;
+        Map<URI,Content> contents = (Map<URI,Content>) context.getResourceState(CONTENTS_STATE_KEY);
+        if ((contents == null) && create) {
+            contents = new ConcurrentHashMap<URI,Content>();
+            context.setResourceState(CONTENTS_STATE_KEY, contents);
+        }
+        return contents;
+    }
+
+    /**
+     * Obtain outcome of validating content with validator.
+     * @param content content descriptor
+     * @param validator validator name
+     * @return outcome or null if not cached
+     */
+    public Outcome getOutcome(Content content, String validator) {
+        String key = makeOutcomeKey(content, validator);
+        Outcome outcome = outcomes.get(key);
+        if ((outcome == null) && (directory != null)) {
+            outcome = readOutcome(key);
+            if (outcome != null)
+                cacheOutcome(key, outcome);
+        }
+        return outcome;
+    }
+
+    /**
+     * Record outcome of validating content with validator. Failure to store an outcome is
+     * ignored, since it only affects subsequent performance.
+     * @param content content descriptor
+     * @param validator validator name
+     * @param outcome validation outcome
+     */
+    public void putOutcome(Content content, String validator, Outcome outcome) {
+        String key = makeOutcomeKey(content, validator);
+        cacheOutcome(key, outcome);
+        if (directory != null)
+            writeOutcome(key, outcome);
+    }
+
+    private void cacheOutcome(String key, Outcome outcome) {
+        outcomes.put(key, outcome);
+    }
+
+    private Outcome readOutcome(String key) {
+        File file = new File(directory, key + OUTCOME_SUFFIX);
+        Outcome outcome = null;
+        if (file.isFile()) {
+            InputStream is = null;
+            try {
+                is = new FileInputStream(file);
+                Properties p = new Properties();
+                p.load(is);
+                if (fingerprint.equals(p.getProperty("fingerprint")))
+                    outcome = Outcome.fromProperties(p);
+            } catch (IOException e) {
+                outcome = null;
+            } catch (RuntimeException e) {
+                outcome = null;
+            } finally {
+                IOUtil.closeSafely(is);
+            }
+        }
+        return outcome;
+    }
+
+    private void writeOutcome(String key, Outcome outcome) {
+        File file = new File(directory, key + OUTCOME_SUFFIX);
+        File temp = null;
+        OutputStream os = null;
+        try {
+            if (!directory.isDirectory() && !directory.mkdirs())
+                return;
+            temp = File.createTempFile(key, ".tmp", directory);
+            os = new FileOutputStream(temp);
+            Properties p = outcome.toProperties();
+            p.setProperty("fingerprint", fingerprint);
+            p.store(os, null);
+            os.close();
+            os = null;
+            try {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+            temp = null;
+        } catch (IOException e) {
+        } finally {
+            IOUtil.closeSafely(os);
+            if (temp != null)
+                IOUtil.deleteSafely(temp);
+        }
+    }
+
+    private static String makeOutcomeKey(Content content, String validator) {
+        String name = validator;
+        int i = name.lastIndexOf('.');
+        if (i >= 0)
+            name = name.substring(i + 1);
+        return content.getDigest() + "-" + name;
+    }
+
+    private static MessageDigest makeMessageDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String toHexString(byte[] digest) {
+        StringBuffer sb = new StringBuffer(digest.length * 2);
+        for (byte b : digest) {
+            sb.append(Character.forDigit((b >> 4) & 0xF, 16));
+            sb.append(Character.forDigit(b & 0xF, 16));
+        }
+        return sb.toString();
+    }
+
+    private static class OutcomeMap extends java.util.LinkedHashMap<String,Outcome> {
+        private static final long serialVersionUID = 1L;
+        OutcomeMap() {
+            super(16, 0.75f, true);
+        }
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String,Outcome> eldest) {
+            return size() > MAXIMUM_CACHED_OUTCOMES;
+        }
+    }
+
+    /**
+     * Descriptor of media resource content, consisting of a digest of the content and its sniffed type.
+     */
+    public static class Content {
+
+        private String digest;
+        private MimeType type;
+
+        Content(String digest, MimeType type) {
+            this.digest = digest;
+            this.type = type;
+        }
+
+        public String getDigest() {
+            return digest;
+        }
+
+        public MimeType getType() {
+            return type;
+        }
+
+    }
+
+    /**
+     * Outcome of validating media resource content, consisting of whether validation failed, the
+     * (error) messages reported by the validator, and selected (integer valued) validator result state.
+     */
+    public static class Outcome {
+
+        private boolean failure;
+        private List<String> errors;
+        private Map<String,Integer> state;
+
+        public Outcome(boolean failure, List<String> errors) {
+            this.failure = failure;
+            this.errors = Collections.unmodifiableList(new java.util.ArrayList<String>(errors));
+            this.state = new java.util.HashMap<String,Integer>();
+        }
+
+        public boolean isFailure() {
+            return failure;
+        }
+
+        public List<String> getErrors() {
+            return errors;
+        }
+
+        public Integer getState(String key) {
+            return state.get(key);
+        }
+
+        public void setState(String key, Integer value) {
+            if (value != null)
+                state.put(key, value);
+        }
+
+        Properties toProperties() {
+            Properties p = new Properties();
+            p.setProperty("failure", Boolean.toString(failure));
+            p.setProperty("errors", Integer.toString(errors.size()));
+            for (int i = 0, n = errors.size(); i < n; ++i)
+                p.setProperty("error." + i, errors.get(i));
+            for (Map.Entry<String,Integer> e : state.entrySet())
+                p.setProperty("state." + e.getKey(), e.getValue().toString());
+            return p;
+        }
+
+        static Outcome fromProperties(Properties p) {
+            String failure = p.getProperty("failure");
+            String count = p.getProperty("errors");
+            if ((failure == null) || (count == null))
+                return null;
+            List<String> errors = new java.util.ArrayList<String>();
+            for (int i = 0, n = Integer.parseInt(count); i < n; ++i) {
+                String error = p.getProperty("error." + i);
+                if (error == null)
+                    return null;
+                errors.add(error);
+            }
+            Outcome outcome = new Outcome(Boolean.parseBoolean(failure), errors);
+            for (String name : p.stringPropertyNames()) {
+                if (name.startsWith("state."))
+                    outcome.setState(name.substring(6), Integer.valueOf(p.getProperty(name)));
+            }
+            return outcome;
+        }
+
+    }
+
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.UUID;
+
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * A per-resource store of large Base64 encoded element payloads (e.g., SMPTE image and data content)
+ * that are diverted while a resource is parsed, rather than being retained as text in the document tree
+ * and in bound content. The text of a diverted element is replaced by a short handle, by means of which
+ * the outcome of decoding its payload is subsequently obtained.
+ *
+ * Payloads are decoded incrementally as they are diverted, so that conformance to Base64 encoding is
+ * determined without retaining encoded text. Since no verifier currently examines decoded SMPTE image or
+ * data content, decoded bytes are discarded rather than written to storage.
+ *
+ * Handles incorporate a random token chosen per store, so that element content that merely resembles
+ * a handle is not mistaken for one.
+ */
+public class SpilledPayloads {
+
+    public static final String RESOURCE_STATE_KEY = "spilledPayloads";
+    public static final int SPILL_THRESHOLD = 65536;
+
+    private static final String HANDLE_PREFIX = "{ttva-spill:";
+    private static final String HANDLE_SEPARATOR = ":";
+    private static final String HANDLE_SUFFIX = "}";
+
+    private String handlePrefix = HANDLE_PREFIX + UUID.randomUUID().toString() + HANDLE_SEPARATOR;
+    private List<Payload> payloads = new java.util.ArrayList<Payload>();
+
+    /**
+     * Obtain spilled payload for element content established in context.
+     * @param context verifier context or null
+     * @param value element content, which may be a payload handle
+     * @return spilled payload or null if content is not a payload handle
+     */
+    public static Payload getPayload(VerifierContext context, String value) {
+        Object payloads = (context != null) ? context.getResourceState(RESOURCE_STATE_KEY) : null;
+        if (payloads instanceof SpilledPayloads)
+            return ((SpilledPayloads) payloads).getPayload(value);
+        else
+            return null;
+    }
+
+    /**
+     * Obtain spilled payload by handle.
+     * @param handle payload handle
+     * @return spilled payload or null if not a payload handle
+     */
+    public Payload getPayload(String handle) {
+        if ((handle != null) && handle.startsWith(handlePrefix) && handle.endsWith(HANDLE_SUFFIX)) {
+            try {
+                int index = Integer.parseInt(handle.substring(handlePrefix.length(), handle.length() - HANDLE_SUFFIX.length()));
+                if ((index >= 0) && (index < payloads.size()))
+                    return payloads.get(index);
+            } catch (NumberFormatException e) {
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Create payload.
+     * @return new payload
+     */
+    public Payload createPayload() {
+        Payload payload = new Payload(handlePrefix + payloads.size() + HANDLE_SUFFIX);
+        payloads.add(payload);
+        return payload;
+    }
+
+    public static class Payload {
+
+        private String handle;
+        private Base64.Decoder decoder;
+        private String encodingError;
+
+        Payload(String handle) {
+            this.handle = handle;
+            this.decoder = new Base64.Decoder(new DiscardingOutputStream());
+        }
+
+        public String getHandle() {
+            return handle;
+        }
+
+        /**
+         * Append encoded data, decoding it, unless an encoding error has already occurred.
+         * @param data encoded data
+         * @param offset offset of first character in data
+         * @param length number of characters
+         */
+        public void append(char[] data, int offset, int length) {
+            if (decoder != null) {
+                try {
+                    decoder.decode(data, offset, length);
+                } catch (IllegalArgumentException e) {
+                    encodingError = e.getMessage();
+                    decoder = null;
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+
+        public void append(CharSequence data) {
+            char[] chars = data.toString().toCharArray();
+            append(chars, 0, chars.length);
+        }
+
+        /**
+         * Complete payload once all encoded data has been appended.
+         */
+        public void finish() {
+            if (decoder != null) {
+                try {
+                    decoder.finish();
+                } catch (IllegalArgumentException e) {
+                    encodingError = e.getMessage();
+                }
+                decoder = null;
+            }
+        }
+
+        /**
+         * Verify that payload conforms to Base64 encoding.
+         * @throws IllegalArgumentException if payload does not conform
+         */
+        public void checkEncoding() {
+            if (encodingError != null)
+                throw new IllegalArgumentException(encodingError);
+        }
+
+    }
+
+    private static class DiscardingOutputStream extends OutputStream {
+        @Override
+        public void write(int b) {
+        }
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    }
+
+}
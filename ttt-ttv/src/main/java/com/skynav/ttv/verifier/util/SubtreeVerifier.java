@@ -0,0 +1,307 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Node;
+
+import com.skynav.ttv.model.Model;
+import com.skynav.ttv.util.DeferredReporter;
+import com.skynav.ttv.util.ExternalParameters;
+import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * Verifies sibling content subtrees (e.g., the divisions of a body or the blocks of a division) concurrently,
+ * on a fork-join pool, where a subtree may in turn fork its own child subtrees. Each subtree is verified in a
+ * context having its own deferred reporter and its own overlay of resource state, which are merged into the
+ * parent context in document order once all siblings have been verified, so that diagnostics are reported,
+ * and accumulated state is ordered, exactly as when subtrees are verified serially. If verifying a subtree throws
+ * an exception, all siblings are nonetheless merged before the first such exception, in document order, is rethrown.
+ *
+ * Resource state written by a subtree is local to its context until merged. A collection valued state object
+ * is treated as an accumulator: a subtree does not see the parent's collection, but creates its own, whose
+ * members are added to the parent's collection upon merging. Any other state object is visible to subtrees,
+ * and must therefore either be read-only or thread safe while subtrees are verified; a non-collection state
+ * object created by a subtree is adopted by the parent if the parent has no such state; otherwise, if both are
+ * maps, entries not already present in the parent's map are added to it, if the subtree's object is a {@link Cache},
+ * it is discarded, and if the objects are not equal, merging fails with an {@link IllegalStateException}.
+ */
+public class SubtreeVerifier {
+
+    public static final String RESOURCE_STATE_KEY = "subtreeVerifier";
+
+    public interface Verifier {
+        /**
+         * Verify subtree in context.
+         * @param subtree root of subtree
+         * @param context context in which to verify subtree
+         * @return true if verification succeeds
+         */
+        boolean verify(Object subtree, VerifierContext context);
+    }
+
+    /**
+     * Marker for resource state that merely caches derived values, such that a subtree's copy may be
+     * discarded when merging into a parent that has acquired its own copy.
+     */
+    public interface Cache {
+    }
+
+    private int threads;
+    private ForkJoinPool pool;
+
+    /**
+     * Construct subtree verifier.
+     * @param threads maximum number of subtrees to verify concurrently
+     */
+    public SubtreeVerifier(int threads) {
+        if (threads < 1)
+            throw new IllegalArgumentException();
+        this.threads = threads;
+    }
+
+    /**
+     * Obtain subtree verifier established in context.
+     * @param context verifier context or null
+     * @return subtree verifier or null if none
+     */
+    public static SubtreeVerifier getVerifier(VerifierContext context) {
+        Object verifier = (context != null) ? context.getResourceState(RESOURCE_STATE_KEY) : null;
+        if (verifier instanceof SubtreeVerifier)
+            return (SubtreeVerifier) verifier;
+        else
+            return null;
+    }
+
+    /**
+     * Verify sibling subtrees, concurrently if a subtree verifier is established in context and there is more than one subtree,
+     * otherwise serially.
+     * @param subtrees sibling subtrees in document order
+     * @param context verifier context
+     * @param verifier subtree verifier
+     * @return true if verification of all subtrees succeeds
+     */
+    public static boolean verify(Collection<? extends Object> subtrees, VerifierContext context, Verifier verifier) {
+        SubtreeVerifier subtreeVerifier = getVerifier(context);
+        if ((subtreeVerifier != null) && (subtrees.size() > 1))
+            return subtreeVerifier.verifyConcurrently(subtrees, context, verifier);
+        else {
+            boolean failed = false;
+            for (Object subtree : subtrees) {
+                if (!verifier.verify(subtree, context))
+                    failed = true;
+            }
+            return !failed;
+        }
+    }
+
+    private boolean verifyConcurrently(Collection<? extends Object> subtrees, VerifierContext context, Verifier verifier) {
+        final List<SubtreeTask> tasks = new java.util.ArrayList<SubtreeTask>();
+        for (Object subtree : subtrees)
+            tasks.add(new SubtreeTask(subtree, new SubtreeContext(context), verifier));
+        ForkJoinPool pool = getPool();
+        if (ForkJoinTask.getPool() == pool)
+            ForkJoinTask.invokeAll(tasks);
+        else {
+            pool.invoke(new RecursiveAction() {
+                private static final long serialVersionUID = 1L;
+                protected void compute() {
+                    invokeAll(tasks);
+                }
+            });
+        }
+        // all subtrees are merged, even if one failed with an exception, so that no buffered diagnostics are lost
+        boolean failed = false;
+        RuntimeException exception = null;
+        for (SubtreeTask task : tasks) {
+            try {
+                task.merge();
+            } catch (RuntimeException e) {
+                if (exception == null)
+                    exception = e;
+            }
+            if ((exception == null) && (task.getFailure() != null))
+                exception = task.getFailure();
+            if (!task.succeeded())
+                failed = true;
+        }
+        if (exception != null)
+            throw exception;
+        return !failed;
+    }
+
+    /**
+     * Shut down pool, abandoning any pending subtrees.
+     */
+    public synchronized void shutdown() {
+        if (pool != null) {
+            pool.shutdownNow();
+            pool = null;
+        }
+    }
+
+    private synchronized ForkJoinPool getPool() {
+        if (pool == null)
+            pool = new ForkJoinPool(threads);
+        return pool;
+    }
+
+    private static class SubtreeTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        private transient Object subtree;
+        private transient SubtreeContext context;
+        private transient Verifier verifier;
+        private boolean succeeded;
+        private RuntimeException exception;
+        SubtreeTask(Object subtree, SubtreeContext context, Verifier verifier) {
+            this.subtree = subtree;
+            this.context = context;
+            this.verifier = verifier;
+        }
+        protected void compute() {
+            // exceptions are recorded rather than thrown, so that they are raised in document order after merging
+            try {
+                succeeded = verifier.verify(subtree, context);
+            } catch (RuntimeException e) {
+                exception = e;
+            }
+        }
+        boolean succeeded() {
+            return succeeded;
+        }
+        RuntimeException getFailure() {
+            return exception;
+        }
+        void merge() {
+            context.merge();
+        }
+    }
+
+    /**
+     * Context in which a subtree is verified, delegating to the parent context except for reporting
+     * and resource state, which are deferred until merged.
+     */
+    private static class SubtreeContext implements VerifierContext {
+        private VerifierContext context;
+        private DeferredReporter reporter;
+        private Map<String,Object> resourceState;
+        private Set<String> clearedState;
+        SubtreeContext(VerifierContext context) {
+            this.context = context;
+            this.reporter = new DeferredReporter(context.getReporter());
+            this.resourceState = new java.util.LinkedHashMap<String,Object>();
+            this.clearedState = new java.util.HashSet<String>();
+        }
+        public ExternalParameters getExternalParameters() {
+            return context.getExternalParameters();
+        }
+        public Reporter getReporter() {
+            return reporter;
+        }
+        public Model getModel() {
+            return context.getModel();
+        }
+        public QName getBindingElementName(Object value) {
+            return context.getBindingElementName(value);
+        }
+        public Object getBindingElementParent(Object value) {
+            return context.getBindingElementParent(value);
+        }
+        public Object getBindingElement(Node node) {
+            return context.getBindingElement(node);
+        }
+        public Node getXMLNode(Object value) {
+            return context.getXMLNode(value);
+        }
+        public void setResourceState(String key, Object value) {
+            if (value != null) {
+                resourceState.put(key, value);
+                clearedState.remove(key);
+            } else {
+                resourceState.remove(key);
+                clearedState.add(key);
+            }
+        }
+        public Object getResourceState(String key) {
+            if (resourceState.containsKey(key))
+                return resourceState.get(key);
+            else if (clearedState.contains(key))
+                return null;
+            else {
+                Object value = context.getResourceState(key);
+                return (value instanceof Collection) ? null : value;
+            }
+        }
+        public Object extractResourceState(String key) {
+            if (resourceState.containsKey(key))
+                return resourceState.remove(key);
+            else
+                return getResourceState(key);
+        }
+        public boolean isVerificationCancelled() {
+            return context.isVerificationCancelled();
+        }
+        @SuppressWarnings("unchecked")
+        void merge() {
+            reporter.replay();
+            for (String key : clearedState)
+                context.setResourceState(key, null);
+            for (Map.Entry<String,Object> e : resourceState.entrySet()) {
+                String key = e.getKey();
+                Object value = e.getValue();
+                Object current = context.getResourceState(key);
+                if (current == null)
+                    context.setResourceState(key, value);
+                else if (current == value)
+                    continue;
+                else if ((current instanceof Collection) && (value instanceof Collection))
+                    ((Collection<Object>) current).addAll((Collection<Object>) value);
+                else if ((current instanceof Map) && (value instanceof Map))
+                    merge((Map<Object,Object>) current, (Map<Object,Object>) value);
+                else if (!(value instanceof Cache) && !current.equals(value))
+                    throw new IllegalStateException("Subtree resource state '" + key + "' conflicts with parent resource state.");
+            }
+        }
+        private static void merge(Map<Object,Object> current, Map<Object,Object> value) {
+            // entries present in parent were established by preceding subtrees, so take precedence as when verified serially
+            for (Map.Entry<Object,Object> e : value.entrySet()) {
+                if (!current.containsKey(e.getKey()))
+                    current.put(e.getKey(), e.getValue());
+            }
+        }
+    }
+
+}
@@ -25,6 +25,7 @@
 
 package com.skynav.ttv.verifier.util;
 
+import java.util.Map;
 import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -50,11 +51,17 @@ import com.skynav.ttv.verifier.VerifierContext;
 public class Timing {
 
     public static boolean isCoordinate(String value, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
-        if (isClockTime(value, location, context, timeParameters, outputTime))
-            return true;
-        else if (isOffsetTime(value, location, context, timeParameters, outputTime))
-            return true;
-        else if (isWallClockTime(value, location, context, timeParameters, outputTime)) {
+        return isCoordinate(value, location, context, timeParameters, outputTime, getMemo(context));
+    }
+
+    public static boolean isCoordinate(String value, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime, Memo memo) {
+        ParsedTime pt = parseTime(value, memo);
+        if (pt != null) {
+            if (pt.time instanceof ClockTime)
+                return checkClockTime(pt, location, context, timeParameters, outputTime);
+            else
+                return checkOffsetTime(pt, location, context, timeParameters, outputTime);
+        } else if (isWallClockTime(value, location, context, timeParameters, outputTime)) {
             if ((context == null) || context.getModel().isTTMLVersion(2))
                 return true;
             else
@@ -91,49 +98,33 @@ public class Timing {
         badCoordinate(value, location, context, timeParameters);
     }
 
-    private static final Pattern clockTimePattern = Pattern.compile("(\\d{2,}):(\\d{2}):(\\d{2})(\\.\\d+|:\\d{2,}(?:\\.\\d+)?)?");
     public static boolean isClockTime(String value, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
-        Matcher m = clockTimePattern.matcher(value);
-        if (m.matches()) {
-            assert m.groupCount() >= 3;
-            String hours = m.group(1);
-            String minutes = m.group(2);
-            String seconds = m.group(3);
-            String frames = null;
-            String subFrames = null;
-            if (m.groupCount() > 3) {
-                String remainder = m.group(4);
-                if (remainder != null) {
-                    if (remainder.indexOf(':') == 0) {
-                        String[] parts = remainder.substring(1).split("\\.", 3);
-                        if (parts.length > 0)
-                            frames = parts[0];
-                        if (parts.length > 1)
-                            subFrames = parts[1];
-                    } else
-                        seconds += remainder;
-                }
-            }
-            if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && ((frames != null) || (subFrames != null)))
-                return false;
-            ClockTime t = new ClockTimeImpl(hours, minutes, seconds, frames, subFrames);
-            if (t.getMinutes() > 59)
-                return false;
-            if (t.getSeconds() > 60.0)
-                return false;
-            if (t.getFrames() >= timeParameters.getFrameRate())
-                return false;
-            if (t.getSubFrames() >= timeParameters.getSubFrameRate())
-                return false;
-            if (outputTime != null)
-                outputTime[0] = t;
-            if (location != null) {
-                if (frames != null)
-                    updateUsage(context, location, OffsetTime.Metric.Frames);
-            }
-            return true;
-        } else
+        ParsedTime pt = parseTime(value, getMemo(context));
+        if ((pt != null) && (pt.time instanceof ClockTime))
+            return checkClockTime(pt, location, context, timeParameters, outputTime);
+        else
+            return false;
+    }
+
+    private static boolean checkClockTime(ParsedTime pt, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
+        if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && pt.hasFrames)
             return false;
+        ClockTime t = (ClockTime) pt.time;
+        if (t.getMinutes() > 59)
+            return false;
+        if (t.getSeconds() > 60.0)
+            return false;
+        if (t.getFrames() >= timeParameters.getFrameRate())
+            return false;
+        if (t.getSubFrames() >= timeParameters.getSubFrameRate())
+            return false;
+        if (outputTime != null)
+            outputTime[0] = t;
+        if (location != null) {
+            if (pt.hasFrames)
+                updateUsage(context, location, OffsetTime.Metric.Frames);
+        }
+        return true;
     }
 
     public static void badClockTime(String value, Location location, VerifierContext context, TimeParameters timeParameters) {
@@ -317,23 +308,23 @@ public class Timing {
         }
     }
 
-    private static final Pattern offsetTimePattern = Pattern.compile("(\\d+(?:\\.\\d+)?)(h|m|s|ms|f|t)");
     public static boolean isOffsetTime(String value, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
-        Matcher m = offsetTimePattern.matcher(value);
-        if (m.matches()) {
-            assert m.groupCount() == 2;
-            String offset = m.group(1);
-            String metric = m.group(2);
-            OffsetTime t = new OffsetTimeImpl(offset, metric);
-            if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && (t.getMetric() == OffsetTime.Metric.Frames))
-                return false;
-            if (outputTime != null)
-                outputTime[0] = t;
-            if (location != null)
-                updateUsage(context, location, t.getMetric());
-            return true;
-        } else
+        ParsedTime pt = parseTime(value, getMemo(context));
+        if ((pt != null) && (pt.time instanceof OffsetTime))
+            return checkOffsetTime(pt, location, context, timeParameters, outputTime);
+        else
+            return false;
+    }
+
+    private static boolean checkOffsetTime(ParsedTime pt, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
+        OffsetTime t = (OffsetTime) pt.time;
+        if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && (t.getMetric() == OffsetTime.Metric.Frames))
             return false;
+        if (outputTime != null)
+            outputTime[0] = t;
+        if (location != null)
+            updateUsage(context, location, t.getMetric());
+        return true;
     }
 
     private static void updateUsage(VerifierContext context, Location location, OffsetTime.Metric metric) {
@@ -482,10 +473,12 @@ public class Timing {
 
     private static final Pattern wallClockTimePattern = Pattern.compile("wallclock\\(\\s*([^\\)]*)\\s*\\)");
     private static boolean maybeWallClockTime(String value, Location location, VerifierContext context, TimeParameters timeParameters) {
-        return wallClockTimePattern.matcher(value).matches();
+        return value.startsWith("wallclock(") && wallClockTimePattern.matcher(value).matches();
     }
 
     public static boolean isWallClockTime(String value, Location location, VerifierContext context, TimeParameters timeParameters, Time[] outputTime) {
+        if (!value.startsWith("wallclock("))
+            return false;
         Matcher m = wallClockTimePattern.matcher(value);
         if (m.matches()) {
             assert m.groupCount() == 1;
@@ -615,4 +608,218 @@ public class Timing {
             return WallClockTimeImpl.utc();
     }
 
+    /**
+     * Memo of parsed clock and offset time expressions, used to avoid re-parsing identical expressions
+     * that recur in a document. Only the syntactic parse is memoized, i.e., constraints that depend on time
+     * parameters (such as frame rate) are checked on each use. Wall clock time expressions, which may depend
+     * on document state, are not memoized.
+     */
+    public static class Memo implements SubtreeVerifier.Cache {
+
+        public static final int MAXIMUM_ENTRIES = 8192;
+
+        // concurrent, since subtrees of a resource may be verified concurrently
+        private Map<String,ParsedTime> entries = new java.util.concurrent.ConcurrentHashMap<String,ParsedTime>();
+
+        private ParsedTime get(String value) {
+            return entries.get(value);
+        }
+
+        private void put(String value, ParsedTime pt) {
+            if (entries.size() < MAXIMUM_ENTRIES)
+                entries.put(value, pt);
+        }
+
+    }
+
+    /**
+     * Obtain per-resource time expression memo from context, creating it if necessary.
+     * @param context verifier context or null
+     * @return memo or null if no context
+     */
+    public static Memo getMemo(VerifierContext context) {
+        if (context == null)
+            return null;
+        Memo memo = (Memo) context.getResourceState("timeExpressionMemo");
+        if (memo == null) {
+            memo = new Memo();
+            context.setResourceState("timeExpressionMemo", memo);
+        }
+        return memo;
+    }
+
+    private static class ParsedTime {
+        private Time time;
+        private boolean hasFrames;
+        ParsedTime(Time time, boolean hasFrames) {
+            this.time = time;
+            this.hasFrames = hasFrames;
+        }
+    }
+
+    private static final ParsedTime notParsed = new ParsedTime(null, false);
+
+    private static ParsedTime parseTime(String value, Memo memo) {
+        ParsedTime pt = (memo != null) ? memo.get(value) : null;
+        if (pt == null) {
+            pt = scanClockTime(value);
+            if (pt == null)
+                pt = scanOffsetTime(value);
+            if (pt == null)
+                pt = notParsed;
+            if (memo != null)
+                memo.put(value, pt);
+        }
+        return (pt != notParsed) ? pt : null;
+    }
+
+    // scan clock time, equivalent to matching (\d{2,}):(\d{2}):(\d{2})(\.\d+|:\d{2,}(?:\.\d+)?)?
+    private static ParsedTime scanClockTime(String value) {
+        int n = value.length();
+        int hoursStart = 0;
+        int hoursEnd = scanDigits(value, hoursStart);
+        if ((hoursEnd - hoursStart) < 2)
+            return null;
+        if ((hoursEnd >= n) || (value.charAt(hoursEnd) != ':'))
+            return null;
+        int minutesStart = hoursEnd + 1;
+        int minutesEnd = scanDigits(value, minutesStart);
+        if ((minutesEnd - minutesStart) != 2)
+            return null;
+        if ((minutesEnd >= n) || (value.charAt(minutesEnd) != ':'))
+            return null;
+        int secondsStart = minutesEnd + 1;
+        int secondsEnd = scanDigits(value, secondsStart);
+        if ((secondsEnd - secondsStart) != 2)
+            return null;
+        int fractionStart = -1;
+        int fractionEnd = -1;
+        int framesStart = -1;
+        int framesEnd = -1;
+        int subFramesStart = -1;
+        int subFramesEnd = -1;
+        int i = secondsEnd;
+        if (i < n) {
+            char c = value.charAt(i);
+            if (c == '.') {
+                fractionStart = i + 1;
+                fractionEnd = scanDigits(value, fractionStart);
+                if (fractionEnd == fractionStart)
+                    return null;
+                i = fractionEnd;
+            } else if (c == ':') {
+                framesStart = i + 1;
+                framesEnd = scanDigits(value, framesStart);
+                if ((framesEnd - framesStart) < 2)
+                    return null;
+                i = framesEnd;
+                if ((i < n) && (value.charAt(i) == '.')) {
+                    subFramesStart = i + 1;
+                    subFramesEnd = scanDigits(value, subFramesStart);
+                    if (subFramesEnd == subFramesStart)
+                        return null;
+                    i = subFramesEnd;
+                }
+            } else
+                return null;
+        }
+        if (i != n)
+            return null;
+        boolean hasFrames = framesStart >= 0;
+        if (((hoursEnd - hoursStart) > 9) || ((subFramesEnd - subFramesStart) > 9)) {
+            // integer overflow is possible, so defer to string based construction
+            return new ParsedTime(new ClockTimeImpl(
+                value.substring(hoursStart, hoursEnd),
+                value.substring(minutesStart, minutesEnd),
+                value.substring(secondsStart, (fractionStart >= 0) ? fractionEnd : secondsEnd),
+                hasFrames ? value.substring(framesStart, framesEnd) : null,
+                (subFramesStart >= 0) ? value.substring(subFramesStart, subFramesEnd) : null), hasFrames);
+        }
+        int hours = parseInteger(value, hoursStart, hoursEnd);
+        int minutes = parseInteger(value, minutesStart, minutesEnd);
+        double seconds = parseDecimal(value, secondsStart, secondsEnd, fractionStart, fractionEnd);
+        double frames = hasFrames ? parseDecimal(value, framesStart, framesEnd, -1, -1) : 0;
+        int subFrames = (subFramesStart >= 0) ? parseInteger(value, subFramesStart, subFramesEnd) : 0;
+        return new ParsedTime(new ClockTimeImpl(hours, minutes, seconds, frames, subFrames), hasFrames);
+    }
+
+    // scan offset time, equivalent to matching (\d+(?:\.\d+)?)(h|m|s|ms|f|t)
+    private static ParsedTime scanOffsetTime(String value) {
+        int n = value.length();
+        int wholeStart = 0;
+        int wholeEnd = scanDigits(value, wholeStart);
+        if (wholeEnd == wholeStart)
+            return null;
+        int fractionStart = -1;
+        int fractionEnd = -1;
+        int i = wholeEnd;
+        if ((i < n) && (value.charAt(i) == '.')) {
+            fractionStart = i + 1;
+            fractionEnd = scanDigits(value, fractionStart);
+            if (fractionEnd == fractionStart)
+                return null;
+            i = fractionEnd;
+        }
+        OffsetTime.Metric metric;
+        int remaining = n - i;
+        char c = (remaining > 0) ? value.charAt(i) : 0;
+        if (remaining == 1) {
+            if (c == 'h')
+                metric = OffsetTime.Metric.Hours;
+            else if (c == 'm')
+                metric = OffsetTime.Metric.Minutes;
+            else if (c == 's')
+                metric = OffsetTime.Metric.Seconds;
+            else if (c == 'f')
+                metric = OffsetTime.Metric.Frames;
+            else if (c == 't')
+                metric = OffsetTime.Metric.Ticks;
+            else
+                return null;
+        } else if ((remaining == 2) && (c == 'm') && (value.charAt(i + 1) == 's'))
+            metric = OffsetTime.Metric.Milliseconds;
+        else
+            return null;
+        return new ParsedTime(new OffsetTimeImpl(parseDecimal(value, wholeStart, wholeEnd, fractionStart, fractionEnd), metric), false);
+    }
+
+    private static int scanDigits(String value, int start) {
+        int i = start;
+        for (int n = value.length(); i < n; ++i) {
+            if (!Characters.isDigit(value.charAt(i)))
+                break;
+        }
+        return i;
+    }
+
+    private static int parseInteger(String value, int start, int end) {
+        assert (end - start) <= 9;
+        int v = 0;
+        for (int i = start; i < end; ++i)
+            v = v * 10 + (value.charAt(i) - '0');
+        return v;
+    }
+
+    private static final double[] powersOfTen = new double[] {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11, 1e12, 1e13, 1e14, 1e15
+    };
+
+    private static double parseDecimal(String value, int wholeStart, int wholeEnd, int fractionStart, int fractionEnd) {
+        int numFractionDigits = (fractionStart >= 0) ? (fractionEnd - fractionStart) : 0;
+        if (((wholeEnd - wholeStart) + numFractionDigits) > 15) {
+            // mantissa may not be exactly representable, so defer to (correctly rounded) string based parse
+            return Double.parseDouble(value.substring(wholeStart, (fractionStart >= 0) ? fractionEnd : wholeEnd));
+        }
+        // N.B. both mantissa and power of ten are exact, so quotient is correctly rounded
+        long mantissa = 0;
+        for (int i = wholeStart; i < wholeEnd; ++i)
+            mantissa = mantissa * 10 + (value.charAt(i) - '0');
+        for (int i = fractionStart; i < fractionEnd; ++i)
+            mantissa = mantissa * 10 + (value.charAt(i) - '0');
+        if (numFractionDigits > 0)
+            return (double) mantissa / powersOfTen[numFractionDigits];
+        else
+            return (double) mantissa;
+    }
+
 }
@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Element;
+
+/**
+ * A verification rule that subscribes to element events of a fused traversal performed by {@link TraversalRules}.
+ *
+ * A rule is first notified of each subscribed element while the tree is traversed, at which time it may
+ * collect shared state; once traversal completes, the rule verifies each subscribed element, in document order,
+ * against the state collected by all rules, and is then finished.
+ */
+public abstract class TraversalRule {
+
+    private Set<QName> elementNames;
+
+    /**
+     * Construct rule subscribing to named elements.
+     * @param elementNames names of subscribed elements, or none to subscribe to all elements
+     */
+    protected TraversalRule(QName... elementNames) {
+        if (elementNames.length > 0)
+            this.elementNames = new java.util.HashSet<QName>(java.util.Arrays.asList(elementNames));
+    }
+
+    public boolean isSubscribed(QName name) {
+        return (elementNames == null) || elementNames.contains(name);
+    }
+
+    /**
+     * Collect shared state from subscribed element during traversal.
+     * @param elt subscribed element
+     * @param state traversal state
+     */
+    public void collect(Element elt, TraversalState state) {
+    }
+
+    /**
+     * Verify subscribed element after traversal.
+     * @param elt subscribed element
+     * @param state traversal state
+     * @return true if verification succeeds
+     */
+    public boolean verify(Element elt, TraversalState state) {
+        return true;
+    }
+
+    /**
+     * Finish rule after all subscribed elements have been verified.
+     * @param state traversal state
+     * @return true if verification succeeds
+     */
+    public boolean finish(TraversalState state) {
+        return true;
+    }
+
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.List;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+
+import com.skynav.ttv.util.Traverse;
+import com.skynav.ttv.util.Visitor;
+import com.skynav.ttv.verifier.VerifierContext;
+import com.skynav.xml.helpers.Documents;
+
+/**
+ * A set of rules that are verified by means of a single fused traversal of a document, so that adding
+ * a rule does not add a further traversal.
+ */
+public class TraversalRules {
+
+    private List<TraversalRule> rules = new java.util.ArrayList<TraversalRule>();
+
+    public void add(TraversalRule rule) {
+        rules.add(rule);
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * Verify rules by traversing document once, collecting shared state, then verifying subscribed elements in document order.
+     * @param document document to traverse
+     * @param context verifier context
+     * @return true if all rules are satisfied
+     */
+    public boolean verify(Document document, VerifierContext context) {
+        final TraversalState state = new TraversalState(document, context);
+        final List<Element> subscribed = new java.util.ArrayList<Element>();
+        final List<QName> subscribedNames = new java.util.ArrayList<QName>();
+        try {
+            Traverse.traverseElements(document, new Visitor(Visitor.Order.Pre) {
+                public boolean visit(Object content, Object parent, Visitor.Order order) {
+                    assert content instanceof Element;
+                    Element elt = (Element) content;
+                    QName name = Documents.getName(elt);
+                    boolean isSubscribed = false;
+                    state.enter(name);
+                    for (TraversalRule r : rules) {
+                        if (r.isSubscribed(name)) {
+                            r.collect(elt, state);
+                            isSubscribed = true;
+                        }
+                    }
+                    if (isSubscribed) {
+                        subscribed.add(elt);
+                        subscribedNames.add(name);
+                    }
+                    return true;
+                }
+            });
+        } catch (Exception e) {
+            return false;
+        }
+        boolean failed = false;
+        for (int i = 0, n = subscribed.size(); i < n; ++i) {
+            Element elt = subscribed.get(i);
+            QName name = subscribedNames.get(i);
+            for (TraversalRule r : rules) {
+                if (r.isSubscribed(name)) {
+                    if (!r.verify(elt, state))
+                        failed = true;
+                }
+            }
+        }
+        for (TraversalRule r : rules) {
+            if (!r.finish(state))
+                failed = true;
+        }
+        return !failed;
+    }
+
+}
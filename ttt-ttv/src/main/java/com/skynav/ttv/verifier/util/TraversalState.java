@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Document;
+
+import com.skynav.ttv.util.StyleSet;
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * Per-traversal state shared by the rules of a fused traversal, including element counts and style sets
+ * collected by rules.
+ */
+public class TraversalState {
+
+    private Document document;
+    private VerifierContext context;
+    private Map<QName,Integer> elementCounts = new java.util.HashMap<QName,Integer>();
+    private Map<String,StyleSet> styleSets = new java.util.HashMap<String,StyleSet>();
+
+    TraversalState(Document document, VerifierContext context) {
+        this.document = document;
+        this.context = context;
+    }
+
+    public Document getDocument() {
+        return document;
+    }
+
+    public VerifierContext getContext() {
+        return context;
+    }
+
+    /**
+     * Obtain number of elements with specified name in traversed tree.
+     * @param name element name
+     * @return element count
+     */
+    public int getElementCount(QName name) {
+        Integer count = elementCounts.get(name);
+        return (count != null) ? count : 0;
+    }
+
+    public void putStyleSet(StyleSet css) {
+        styleSets.put(css.getId(), css);
+    }
+
+    public StyleSet getStyleSet(String id) {
+        return styleSets.get(id);
+    }
+
+    public Map<String,StyleSet> getStyleSets() {
+        return styleSets;
+    }
+
+    void enter(QName name) {
+        Integer count = elementCounts.get(name);
+        elementCounts.put(name, (count != null) ? count + 1 : 1);
+    }
+
+}
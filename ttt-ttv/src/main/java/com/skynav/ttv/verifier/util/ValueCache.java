@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.Map;
+
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * Bounded per-resource cache of parsed (attribute) values of a given kind, keyed by raw value,
+ * used to avoid re-parsing values that recur in a document. A cache records only context independent
+ * results of parsing (including the fact that a value failed to parse); checks that depend upon location
+ * or other context, as well as any diagnostics, remain the responsibility of the caller and must be
+ * performed on each use of a cached result.
+ */
+public class ValueCache implements SubtreeVerifier.Cache {
+
+    public static final int MAXIMUM_ENTRIES = 1024;
+    public static final Object INVALID = new Object();
+
+    // concurrent, since subtrees of a resource may be verified concurrently
+    private Map<String,Object> entries = new java.util.concurrent.ConcurrentHashMap<String,Object>();
+
+    private ValueCache() {
+    }
+
+    /**
+     * Obtain per-resource value cache of specified kind from context, creating it if necessary.
+     * @param context verifier context or null
+     * @param kind kind of value, e.g., "Color"
+     * @return cache or null if no context
+     */
+    public static ValueCache getCache(VerifierContext context, String kind) {
+        if (context == null)
+            return null;
+        String key = "valueCache" + kind;
+        ValueCache cache = (ValueCache) context.getResourceState(key);
+        if (cache == null) {
+            cache = new ValueCache();
+            context.setResourceState(key, cache);
+        }
+        return cache;
+    }
+
+    /**
+     * Obtain cached result of parsing value.
+     * @param value raw value
+     * @return parsed value, {@link #INVALID} if value failed to parse, or null if not cached
+     */
+    public Object get(String value) {
+        return entries.get(value);
+    }
+
+    /**
+     * Record result of parsing value, unless cache is full.
+     * @param value raw value
+     * @param parsed parsed value or {@link #INVALID}
+     */
+    public void put(String value, Object parsed) {
+        if ((parsed != null) && (entries.size() < MAXIMUM_ENTRIES))
+            entries.put(value, parsed);
+    }
+
+}
@@ -32,6 +32,10 @@ import java.nio.charset.IllegalCharsetNameException;
 import java.nio.charset.UnsupportedCharsetException;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.AttributesImpl;
 
 public class Sniffer {
 
@@ -347,19 +351,14 @@ public class Sniffer {
         int restore = bb.position();
         if (findFrom(bb, 0, encoding8))
             encoding = parseXMLEncoding(bb, 1, true);
+        else if (bb.limit() < 4)
+            encoding = null;
         else {
-            byte[] bytes;
-            if (bb.hasArray())
-                bytes = bb.array();
-            else {
-                bytes = new byte[4];
-                bb.position(0);
-                bb.get(bytes);
-                bb.position(0);
-            }
-            if (bytes.length < 4) {
-                encoding = null;
-            } else if ((bytes[0] == '<') && (bytes[1] == 0) && (bytes[2] == 0) && (bytes[3] == 0)) {
+            // use absolute reads, since a (direct) mapped buffer has no accessible array
+            byte[] bytes = new byte[4];
+            for (int i = 0, n = bytes.length; i < n; ++i)
+                bytes[i] = bb.get(i);
+            if ((bytes[0] == '<') && (bytes[1] == 0) && (bytes[2] == 0) && (bytes[3] == 0)) {
                 if (findFrom(bb, 0, encoding32le))
                     encoding = parseXMLEncoding(bb, 4, false);
                 else
@@ -552,4 +551,208 @@ public class Sniffer {
         }
     }
 
+    /**
+     * Sniff attributes of root element by scanning the prefix of a decoded resource, where the scan
+     * skips an optional byte order mark, XML declaration, comments, processing instructions, a document
+     * type declaration, and white space, and then parses the start tag of the root element.
+     *
+     * Namespace prefixes of attributes are resolved by using only those namespace declarations that appear
+     * on the root element's start tag. Namespace declaration attributes are not included in the result.
+     *
+     * @param cs decoded characters of resource
+     * @return attributes of root element or null if root element start tag could not be scanned, e.g., due
+     * to being malformed, employing a general entity reference, or employing an undeclared prefix
+     */
+    public static Attributes sniffRootAttributes(CharSequence cs) {
+        int[] position = new int[] { 0 };
+        int limit = cs.length();
+        if ((limit > 0) && (cs.charAt(0) == '\uFEFF'))
+            position[0] = 1;
+        while (true) {
+            skipSpace(cs, position);
+            if (matchString(cs, position, "<?")) {
+                if (!findString(cs, position, "?>"))
+                    return null;
+            } else if (matchString(cs, position, "<!--")) {
+                if (!findString(cs, position, "-->"))
+                    return null;
+            } else if (matchString(cs, position, "<!DOCTYPE")) {
+                if (!skipDoctype(cs, position))
+                    return null;
+            } else if (matchString(cs, position, "<"))
+                break;
+            else
+                return null;
+        }
+        if (parseName(cs, position) == null)
+            return null;
+        List<String[]> specified = new java.util.ArrayList<String[]>();
+        Map<String,String> prefixes = new java.util.HashMap<String,String>();
+        prefixes.put(XML.xmlPrefix, XML.xmlNamespace);
+        while (true) {
+            int restore = position[0];
+            skipSpace(cs, position);
+            if (matchString(cs, position, ">") || matchString(cs, position, "/>"))
+                break;
+            else if (position[0] == restore)
+                return null;
+            String name = parseName(cs, position);
+            if (name == null)
+                return null;
+            skipSpace(cs, position);
+            if (!matchString(cs, position, "="))
+                return null;
+            skipSpace(cs, position);
+            String value = parseAttributeValue(cs, position);
+            if (value == null)
+                return null;
+            if (name.equals(XML.xmlnsPrefix))
+                prefixes.put("", value);
+            else if (name.startsWith(XML.xmlnsPrefix + ":"))
+                prefixes.put(name.substring(XML.xmlnsPrefix.length() + 1), value);
+            else
+                specified.add(new String[] { name, value });
+        }
+        AttributesImpl attributes = new AttributesImpl();
+        for (String[] a : specified) {
+            String qName = a[0];
+            int colon = qName.indexOf(':');
+            String uri;
+            String localName;
+            if (colon < 0) {
+                uri = "";
+                localName = qName;
+            } else {
+                uri = prefixes.get(qName.substring(0, colon));
+                if ((uri == null) || (uri.length() == 0))
+                    return null;
+                localName = qName.substring(colon + 1);
+            }
+            attributes.addAttribute(uri, localName, qName, "CDATA", a[1]);
+        }
+        return attributes;
+    }
+
+    private static boolean matchString(CharSequence cs, int[] position, String s) {
+        int p = position[0];
+        int n = s.length();
+        if ((p + n) > cs.length())
+            return false;
+        for (int i = 0; i < n; ++i) {
+            if (cs.charAt(p + i) != s.charAt(i))
+                return false;
+        }
+        position[0] = p + n;
+        return true;
+    }
+
+    private static boolean findString(CharSequence cs, int[] position, String s) {
+        for (int p = position[0], n = cs.length(); p < n; ++p) {
+            position[0] = p;
+            if (matchString(cs, position, s))
+                return true;
+        }
+        return false;
+    }
+
+    private static boolean skipDoctype(CharSequence cs, int[] position) {
+        int subsetDepth = 0;
+        char quote = 0;
+        for (int p = position[0], n = cs.length(); p < n; ++p) {
+            char c = cs.charAt(p);
+            if (quote != 0) {
+                if (c == quote)
+                    quote = 0;
+            } else if ((c == '"') || (c == '\''))
+                quote = c;
+            else if (c == '[')
+                ++subsetDepth;
+            else if (c == ']')
+                --subsetDepth;
+            else if ((c == '>') && (subsetDepth == 0)) {
+                position[0] = p + 1;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void skipSpace(CharSequence cs, int[] position) {
+        int p = position[0];
+        for (int n = cs.length(); p < n; ++p) {
+            if (!isXMLSpace(cs.charAt(p)))
+                break;
+        }
+        position[0] = p;
+    }
+
+    private static String parseName(CharSequence cs, int[] position) {
+        int start = position[0];
+        int p = start;
+        for (int n = cs.length(); p < n; ++p) {
+            char c = cs.charAt(p);
+            if (isXMLSpace(c) || (c == '=') || (c == '>') || (c == '/') || (c == '<') || (c == '"') || (c == '\''))
+                break;
+        }
+        if (p == start)
+            return null;
+        position[0] = p;
+        return cs.subSequence(start, p).toString();
+    }
+
+    private static String parseAttributeValue(CharSequence cs, int[] position) {
+        int p = position[0];
+        int n = cs.length();
+        if (p >= n)
+            return null;
+        char quote = cs.charAt(p++);
+        if ((quote != '"') && (quote != '\''))
+            return null;
+        StringBuffer sb = new StringBuffer();
+        while (p < n) {
+            char c = cs.charAt(p++);
+            if (c == quote) {
+                position[0] = p;
+                return sb.toString();
+            } else if (c == '<')
+                return null;
+            else if (c == '&') {
+                int end = p;
+                while ((end < n) && (cs.charAt(end) != ';') && (cs.charAt(end) != quote))
+                    ++end;
+                if ((end >= n) || (cs.charAt(end) != ';'))
+                    return null;
+                String reference = cs.subSequence(p, end).toString();
+                p = end + 1;
+                if (reference.equals("amp"))
+                    sb.append('&');
+                else if (reference.equals("lt"))
+                    sb.append('<');
+                else if (reference.equals("gt"))
+                    sb.append('>');
+                else if (reference.equals("quot"))
+                    sb.append('"');
+                else if (reference.equals("apos"))
+                    sb.append('\'');
+                else if (reference.startsWith("#")) {
+                    try {
+                        int codepoint;
+                        if (reference.startsWith("#x"))
+                            codepoint = Integer.parseInt(reference.substring(2), 16);
+                        else
+                            codepoint = Integer.parseInt(reference.substring(1), 10);
+                        sb.appendCodePoint(codepoint);
+                    } catch (IllegalArgumentException e) {
+                        return null;
+                    }
+                } else
+                    return null;
+            } else if (isXMLSpace(c))
+                sb.append(' ');
+            else
+                sb.append(c);
+        }
+        return null;
+    }
+
 }
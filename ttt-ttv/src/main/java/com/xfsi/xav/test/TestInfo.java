@@ -27,6 +27,7 @@
 package com.xfsi.xav.test;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import com.xfsi.xav.util.MimeType;
 
@@ -86,6 +87,21 @@ public interface TestInfo {
      */
     public void setResourceStream( InputStream stream );
 
+    /**
+     * return a buffer, positioned at zero, that contains the resource
+     * to be validated, or null if the resource is only available as a stream
+     *
+     * @return a byte buffer containing the resource to be validated
+     */
+    public ByteBuffer getResourceBuffer();
+
+    /**
+     * Set the buffer that contains the resource to be validated
+     *
+     * @param buffer a byte buffer (heap, direct, or memory mapped) containing the resource to be validated
+     */
+    public void setResourceBuffer( ByteBuffer buffer );
+
     /**
      * return the MIME type this test applies to
      *
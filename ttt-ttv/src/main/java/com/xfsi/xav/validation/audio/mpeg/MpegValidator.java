@@ -29,6 +29,7 @@ package com.xfsi.xav.validation.audio.mpeg;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 
 import com.xfsi.xav.test.TestInfo;
 import com.xfsi.xav.test.TestManager;
@@ -102,10 +103,11 @@ public final class MpegValidator extends AbstractLoggingValidator {
     {
         this.s = new State();
         try {
-            InputStream is = getTestInfo().getResourceStream();
-            assert(is != null) : this.msgFormatterNV(MsgCode.MPA01X002.toString());
+            ByteBuffer bb = getTestInfo().getResourceBuffer();
+            InputStream is = (bb == null) ? getTestInfo().getResourceStream() : null;
+            assert((bb != null) || (is != null)) : this.msgFormatterNV(MsgCode.MPA01X002.toString());
             logAll(MsgCode.MPA01I001);
-            this.bis = new BitInputStream(is);
+            this.bis = (bb != null) ? new BitInputStream(bb) : new BitInputStream(is);
             parseFrames();
             performOverallFinalCheck();
             assertEOF();
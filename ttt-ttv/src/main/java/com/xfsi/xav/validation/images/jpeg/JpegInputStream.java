@@ -30,26 +30,46 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.LinkedList;
 
 /**
  * Handles JPEG input stream. Tracks total bytes read and allows putting back of read data.
+ * Input may be obtained from a stream or, without copying, from a byte buffer.
  */
 class JpegInputStream {
         private int readByteCount = 0;
         private final DataInputStream inputStream;
+        private final ByteBuffer inputBuffer;
         private LinkedList<Byte> putBack = new LinkedList<Byte>();
 
         JpegInputStream(InputStream is)
         {
                 this.inputStream = new DataInputStream(is);
+                this.inputBuffer = null;
+        }
+
+        JpegInputStream(ByteBuffer bb)
+        {
+                this.inputStream = null;
+                this.inputBuffer = bb.slice().order(ByteOrder.BIG_ENDIAN);
         }
 
         byte readByte() throws EOFException, IOException
         {
                 if (this.putBack.size() == 0)
                 {
-                        byte b = this.inputStream.readByte();
+                        byte b;
+                        if (this.inputBuffer != null)
+                        {
+                                if (!this.inputBuffer.hasRemaining())
+                                        throw new EOFException();
+                                b = this.inputBuffer.get();
+                        }
+                        else
+                                b = this.inputStream.readByte();
                         this.readByteCount++;
                         return b;
                 }
@@ -60,7 +80,23 @@ class JpegInputStream {
         {
                 if (this.putBack.size() == 0)
                 {
-                        short s = this.inputStream.readShort();
+                        short s;
+                        if (this.inputBuffer != null)
+                        {
+                                try
+                                {
+                                        s = this.inputBuffer.getShort();
+                                }
+                                catch (BufferUnderflowException e)
+                                {
+                                        // consume remaining byte, if any, as would a stream
+                                        this.readByteCount += this.inputBuffer.remaining();
+                                        this.inputBuffer.position(this.inputBuffer.limit());
+                                        throw new EOFException();
+                                }
+                        }
+                        else
+                                s = this.inputStream.readShort();
                         this.readByteCount += 2;
                         return s;
                 }
@@ -73,7 +109,22 @@ class JpegInputStream {
         {
                 if (this.putBack.size() == 0)
                 {
-                        int i = this.inputStream.readInt();
+                        int i;
+                        if (this.inputBuffer != null)
+                        {
+                                try
+                                {
+                                        i = this.inputBuffer.getInt();
+                                }
+                                catch (BufferUnderflowException e)
+                                {
+                                        this.readByteCount += this.inputBuffer.remaining();
+                                        this.inputBuffer.position(this.inputBuffer.limit());
+                                        throw new EOFException();
+                                }
+                        }
+                        else
+                                i = this.inputStream.readInt();
                         this.readByteCount += 4;
                         return i;
                 }
@@ -86,6 +137,20 @@ class JpegInputStream {
         {
                 // DataInputStream skipBytes() in jpegInputStream does not throw EOFException() if EOF reached,
                 // which we are interested in, so read the bytes to skip them which WILL generate an EOFException().
+                if ((this.inputBuffer != null) && (this.putBack.size() == 0) && (count > 0))
+                {
+                        // skip by absolute positioning, rather than byte by byte
+                        int remaining = this.inputBuffer.remaining();
+                        if (count > remaining)
+                        {
+                                this.readByteCount += remaining;
+                                this.inputBuffer.position(this.inputBuffer.limit());
+                                throw new EOFException();
+                        }
+                        this.inputBuffer.position(this.inputBuffer.position() + count);
+                        this.readByteCount += count;
+                        return;
+                }
                 for (int i = 0; i < count; i++)
                         readByte();
         }
@@ -29,6 +29,7 @@ package com.xfsi.xav.validation.images.jpeg;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
 
 import com.xfsi.xav.test.TestInfo;
@@ -181,10 +182,11 @@ public final class JpegValidator extends AbstractLoggingValidator {
         this.state = new JpegState(resultState);
         try
             {
-                InputStream is = getTestInfo().getResourceStream();
-                assert(is != null) : msgFormatterNV(MsgCode.JPG01X002.toString());
+                ByteBuffer bb = getTestInfo().getResourceBuffer();
+                InputStream is = (bb == null) ? getTestInfo().getResourceStream() : null;
+                assert((bb != null) || (is != null)) : msgFormatterNV(MsgCode.JPG01X002.toString());
                 logAll(MsgCode.JPG01I001);
-                this.inputStream = new JpegInputStream(is);
+                this.inputStream = (bb != null) ? new JpegInputStream(bb) : new JpegInputStream(is);
                 if (dispatchSegmentParser())
                     assertEOF();
             }
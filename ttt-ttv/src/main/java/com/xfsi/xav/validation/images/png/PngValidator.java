@@ -26,8 +26,14 @@
 
 package com.xfsi.xav.validation.images.png;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.zip.CRC32;
 
 import com.xfsi.xav.test.TestInfo;
 import com.xfsi.xav.test.TestManager;
@@ -174,7 +180,12 @@ public final class PngValidator extends AbstractValidator
         }
     }
 
-    private InputStream data;
+    // process wide cache of chunk validator classes, keyed by chunk type, where non-standard chunk types map to null class
+    private static final ConcurrentMap<String,Class<?>> chunkValidatorClasses = new ConcurrentHashMap<String,Class<?>>();
+    private static final Class<?> nonStandardChunk = Void.class;
+
+    private ByteBuffer data;
+    private CRC32 crc;
     private byte[] currentChunkType;
     private int currentChunkIndex = -1;
     private int currentBytesRead = -1;
@@ -190,14 +201,17 @@ public final class PngValidator extends AbstractValidator
     public PngValidator() {
         chunkStates = new ChunkState[0];
         data = null;
+        crc = new CRC32();
     }
 
     public Result run(TestManager tm, TestInfo ti) {
         try {
             super.initState(tm, ti);
-            InputStream is = ti.getResourceStream();
+            ByteBuffer bb = ti.getResourceBuffer();
+            if (bb == null)
+                bb = readBuffer(ti.getResourceStream());
             Map<String,Object> resultState = new java.util.HashMap<String,Object>();
-            Result r = validate(is, tm, ti, resultState) ? Result.PASS : Result.FAIL;
+            Result r = validate(bb, tm, ti, resultState) ? Result.PASS : Result.FAIL;
             return new Result(r, resultState);
         } catch (PngValidationException e) {
             tm.reportProgress(ti, new Progress(Error.Severity.INFO, "Unable to continue PNG validation: " + e.getMessage() + " issues detected"));
@@ -217,9 +231,18 @@ public final class PngValidator extends AbstractValidator
     }
 
     public boolean validate(InputStream is, TestManager tm, TestInfo ti, Map<String,Object> resultState) throws PngValidationException {
+        return validate(readBuffer(is), tm, ti, resultState);
+    }
+
+    /**
+     * Validate PNG content from buffer, which may be a heap, direct or memory mapped buffer. Validation
+     * starts at the buffer's position and ends at its limit; the buffer's position and limit are not
+     * modified.
+     */
+    private boolean validate(ByteBuffer bb, TestManager tm, TestInfo ti, Map<String,Object> resultState) throws PngValidationException {
         this.tm = tm;
         this.ti = ti;
-        this.data = is;
+        this.data = (bb != null) ? bb.slice() : null;
         this.currentChunkType = null;
         this.currentChunkIndex = 0;
         this.currentBytesRead = 0;
@@ -379,19 +402,36 @@ public final class PngValidator extends AbstractValidator
         }
     }
 
+    private static ByteBuffer readBuffer(InputStream is) {
+        if (is == null)
+            return null;
+        try {
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            byte[] buf = new byte[8192];
+            int nb;
+            while ((nb = is.read(buf)) >= 0)
+                bos.write(buf, 0, nb);
+            return ByteBuffer.wrap(bos.toByteArray());
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     private byte[] readBytes(int numBytes) {
         byte[] s = null;
-        if (data != null) {
-            try {
-                s = new byte[numBytes];
-                int bytesRead = data.read(s, 0, s.length);
-                if (bytesRead != s.length)
+        if ((data != null) && (numBytes >= 0)) {
+            int bytesRead = Math.min(numBytes, data.remaining());
+            if (bytesRead == numBytes) {
+                try {
+                    s = new byte[numBytes];
+                    data.get(s);
+                } catch (OutOfMemoryError bounded) {
                     s = null;
-                if (bytesRead > 0)
-                    currentBytesRead += bytesRead;
-            } catch (OutOfMemoryError bounded) {
-            } catch (Exception e) {
-            }
+                }
+            } else
+                data.position(data.limit());
+            if (bytesRead > 0)
+                currentBytesRead += bytesRead;
         }
         return s;
     }
@@ -412,11 +452,13 @@ public final class PngValidator extends AbstractValidator
         boolean endFound = false;
         while (!endFound) {
             byte[] length = readChunkLength();
+            int typeStart = this.data.position();
             byte[] type = readChunkType();
             validateType(type);
             byte[] data = readChunkData(length);
+            int typeEnd = this.data.position();
             byte[] crc = readChunkCrc();
-            validateCrc(type, data, crc);
+            validateCrc(typeStart, typeEnd, crc);
             endFound = dispatchChunkValidator(type, data, resultState);
             currentChunkType = null;
         }
@@ -454,12 +496,13 @@ public final class PngValidator extends AbstractValidator
 
     private boolean dispatchChunkValidator(byte[] type, byte[] data, Map<String,Object> resultState) throws PngValidationException {
         try {
-            Class<?> c = Class.forName(ChunkValidator.class.getName() + new String(type, Utils.getCharset()));
-            ChunkValidator cv = (ChunkValidator) c.newInstance();
-            cv.initialize(this, data, resultState);
-            cv.validate();
-        } catch (ClassNotFoundException e) {
-            processNonStandardChunk(type);
+            Class<?> c = getChunkValidatorClass(new String(type, Utils.getCharset()));
+            if (c != null) {
+                ChunkValidator cv = (ChunkValidator) c.newInstance();
+                cv.initialize(this, data, resultState);
+                cv.validate();
+            } else
+                processNonStandardChunk(type);
         } catch (InstantiationException e) {
             logMsg(PngValidator.MsgCode.PNG01X002, null, new String(type, Utils.getCharset()));
             throw new PngValidationException(String.valueOf(this.totalMsgs));
@@ -472,6 +515,23 @@ public final class PngValidator extends AbstractValidator
         return Utils.compareEqual(type, ChunkValidatorIEND.Spec.header, ChunkValidator.Spec.Props.typeSize);
     }
 
+    private static Class<?> getChunkValidatorClass(String type) {
+        Class<?> c = chunkValidatorClasses.get(type);
+        if (c == null) {
+            try {
+                c = Class.forName(ChunkValidator.class.getName() + type);
+                if (!ChunkValidator.class.isAssignableFrom(c))
+                    c = nonStandardChunk;
+            } catch (ClassNotFoundException e) {
+                c = nonStandardChunk;
+            }
+            // non-standard chunk types are not cached, since their number is not bounded
+            if (c != nonStandardChunk)
+                chunkValidatorClasses.putIfAbsent(type, c);
+        }
+        return (c != nonStandardChunk) ? c : null;
+    }
+
     private void assertRequiredChunksFound() throws PngValidationException {
         for (int i = 0; i < chunkStates.length; i++) {
             ChunkState cs = chunkStates[i];
@@ -506,9 +566,14 @@ public final class PngValidator extends AbstractValidator
         }
     }
 
-    private void validateCrc(byte[] type, byte[] data, byte[] crc) throws PngValidationException {
-        int expected = Utils.updateCrc(0xffffffff, type, type.length);
-        expected = Utils.updateCrc(expected, data, data.length) ^ 0xffffffff;
+    private void validateCrc(int typeStart, int typeEnd, byte[] crc) throws PngValidationException {
+        // compute CRC over chunk type and data in place, using bulk update
+        ByteBuffer bb = this.data.duplicate();
+        bb.limit(typeEnd);
+        bb.position(typeStart);
+        this.crc.reset();
+        this.crc.update(bb);
+        int expected = (int) this.crc.getValue();
         int actual = Utils.convertToInt(crc, crc.length);
         if (actual != expected)
             logMsg(PngValidator.MsgCode.PNG01E019, null, expected, actual);
@@ -27,6 +27,7 @@
 package com.xfsi.xav.validation.util;
 
 import java.io.InputStream;
+import java.nio.ByteBuffer;
 import java.util.Arrays;
 
 import com.xfsi.xav.test.TestInfo;
@@ -39,6 +40,7 @@ public abstract class AbstractTestInfo implements TestInfo {
     private String[] arguments;
     private String resourceName;
     private InputStream resourceStream;
+    private ByteBuffer resourceBuffer;
     private MimeType mimeType;
 
     protected AbstractTestInfo() {
@@ -79,6 +81,14 @@ public abstract class AbstractTestInfo implements TestInfo {
         this.resourceStream = stream;
     }
 
+    public ByteBuffer getResourceBuffer() {
+        return (resourceBuffer != null) ? resourceBuffer.duplicate() : null;
+    }
+
+    public void setResourceBuffer( ByteBuffer buffer ) {
+        this.resourceBuffer = buffer;
+    }
+
     public MimeType getMimeType() {
         return mimeType;
     }
@@ -30,6 +30,8 @@ import java.io.DataInputStream;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 
 /**
  * Handles bit input streams, to allow bit granularity reading.
@@ -40,6 +42,7 @@ public class BitInputStream {
     private int traceReadBitsCount = 0;
     private boolean isTracingEnabled = false;
     private DataInputStream inputStream;
+    private ByteBuffer inputBuffer;
     private static final int bitBufferSize = 32;
     private int readByteCount = 0;
     private Integer bitBuffer = null;
@@ -52,6 +55,13 @@ public class BitInputStream {
         this.inputStream = new DataInputStream(is);
     }
 
+    /**
+     * Read bits from byte buffer, starting at its position, without copying.
+     */
+    public BitInputStream(ByteBuffer bb) {
+        this.inputBuffer = bb.slice().order(ByteOrder.BIG_ENDIAN);
+    }
+
     public void setTracing(boolean enable) {
         this.isTracingEnabled = enable;
     }
@@ -143,12 +153,19 @@ public class BitInputStream {
     }
 
     private void fillNextBuffer() throws IOException {
+        if ((this.inputBuffer != null) && (this.inputBuffer.remaining() >= BitInputStream.bitBufferSize / 8)) {
+            // fill whole bit buffer with a single (big endian) read
+            this.nextBitBuffer = this.inputBuffer.getInt();
+            this.nextBitBufferIndex = BitInputStream.bitBufferSize;
+            this.readByteCount += BitInputStream.bitBufferSize / 8;
+            return;
+        }
         try {
             this.nextBitBuffer = 0;
             this.nextBitBufferIndex = 0;
             for (int i = BitInputStream.bitBufferSize - 8; i >= 0; i -= 8)
             {
-                this.nextBitBuffer |= ((this.inputStream.readUnsignedByte() & 0xff) << i);
+                this.nextBitBuffer |= ((readUnsignedByte() & 0xff) << i);
                 this.nextBitBufferIndex += 8;
                 this.readByteCount++;
             }
@@ -159,4 +176,13 @@ public class BitInputStream {
             this.isEof = true;
         }
     }
+
+    private int readUnsignedByte() throws IOException {
+        if (this.inputBuffer != null) {
+            if (!this.inputBuffer.hasRemaining())
+                throw new EOFException();
+            return this.inputBuffer.get() & 0xff;
+        } else
+            return this.inputStream.readUnsignedByte();
+    }
 }
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.io.File;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.fail;
+
+/**
+ * Support for test cases that verify a corpus of test resources in a single run, under a variety of
+ * options, and that compare the results and reporter output of these runs.
+ */
+class CorpusRuns {
+
+    static final String TTML1_VALID_RESOURCE_PATH = "/com/skynav/ttv/w3c/ttml1/validation/valid/";
+    static final String TTML1_INVALID_RESOURCE_PATH = "/com/skynav/ttv/w3c/ttml1/validation/invalid/";
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private CorpusRuns() {
+    }
+
+    /**
+     * Obtain (sorted) URIs of XML resources in resource directories.
+     * @param resourcePaths paths of resource directories
+     * @return list of resource URI strings
+     */
+    static List<String> getResourceURIs(String... resourcePaths) throws Exception {
+        List<String> uris = new java.util.ArrayList<String>();
+        for (String resourcePath : resourcePaths) {
+            URL url = CorpusRuns.class.getResource(resourcePath);
+            if (url == null)
+                fail("Can't find test resource directory: " + resourcePath + ".");
+            File[] files = new File(url.toURI()).listFiles();
+            if (files == null)
+                fail("Can't list test resource directory: " + resourcePath + ".");
+            Arrays.sort(files);
+            for (File f : files) {
+                if (f.isFile() && f.getName().endsWith(".xml"))
+                    uris.add(f.toURI().toURL().toString());
+            }
+        }
+        return uris;
+    }
+
+    /**
+     * Verify resources, returning reporter output.
+     * @param ttv verifier
+     * @param options option arguments
+     * @param uris resource URI strings
+     * @return reporter output
+     */
+    static String run(TimedTextVerifier ttv, List<String> options, List<String> uris) throws Exception {
+        File output = File.createTempFile("ttv-corpus-run", ".txt");
+        try {
+            List<String> args = new java.util.ArrayList<String>();
+            args.add("-q");
+            args.addAll(options);
+            args.add("--reporter-file");
+            args.add(output.getPath());
+            args.add("--");
+            args.addAll(uris);
+            ttv.run(args.toArray(new String[args.size()]));
+            return new String(Files.readAllBytes(output.toPath()), UTF8);
+        } finally {
+            output.delete();
+        }
+    }
+
+    /**
+     * Obtain error and warning lines of reporter output.
+     * @param output reporter output
+     * @return error and warning lines
+     */
+    static List<String> getReportedLines(String output) {
+        List<String> lines = new java.util.ArrayList<String>();
+        for (String line : output.split("\n")) {
+            if (line.startsWith("[E]") || line.startsWith("[W]"))
+                lines.add(line);
+        }
+        return lines;
+    }
+
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import static com.skynav.ttv.app.CorpusRuns.*;
+
+public class ErrorLimitTestCases {
+
+    @Test
+    public void testMaxErrorsOne() throws Exception {
+        performErrorLimitTest("--max-errors", "1");
+    }
+
+    @Test
+    public void testFailFast() throws Exception {
+        performErrorLimitTest("--fail-fast", null);
+    }
+
+    @Test
+    public void testMaxErrorsOneStopsAtOneError() throws Exception {
+        List<String> uris = getResourceURIs(TTML1_INVALID_RESOURCE_PATH);
+        TimedTextVerifier ttvUnlimited = new TimedTextVerifier();
+        run(ttvUnlimited, new java.util.ArrayList<String>(), uris);
+        String uri = null;
+        for (String u : uris) {
+            if (ttvUnlimited.getResults(u).getErrors() > 1) {
+                uri = u;
+                break;
+            }
+        }
+        if (uri == null)
+            fail("Can't find test resource having more than one error.");
+        List<String> options = new java.util.ArrayList<String>();
+        options.add("--max-errors");
+        options.add("1");
+        TimedTextVerifier ttv = new TimedTextVerifier();
+        String output = run(ttv, options, java.util.Collections.singletonList(uri));
+        int numErrorLines = 0;
+        for (String line : getReportedLines(output)) {
+            if (line.startsWith("[E]"))
+                ++numErrorLines;
+        }
+        assertEquals(1, numErrorLines);
+        assertEquals(1, ttv.getResults(uri).getErrors());
+        assertEquals(TimedTextVerifier.RV_FAIL, ttv.getResultCode(uri));
+        assertTrue((ttv.getResultFlags(uri) & TimedTextVerifier.RV_FLAG_TRUNCATED) != 0);
+    }
+
+    private void performErrorLimitTest(String option, String optionArgument) throws Exception {
+        List<String> uris = getResourceURIs(TTML1_VALID_RESOURCE_PATH, TTML1_INVALID_RESOURCE_PATH);
+        List<String> options = new java.util.ArrayList<String>();
+        TimedTextVerifier ttvUnlimited = new TimedTextVerifier();
+        run(ttvUnlimited, options, uris);
+        options.add(option);
+        if (optionArgument != null)
+            options.add(optionArgument);
+        TimedTextVerifier ttvLimited = new TimedTextVerifier();
+        run(ttvLimited, options, uris);
+        int numTruncated = 0;
+        for (String uri : uris) {
+            TimedTextVerifier.Results unlimited = ttvUnlimited.getResults(uri);
+            TimedTextVerifier.Results limited = ttvLimited.getResults(uri);
+            assertTrue(uri, (unlimited != null) && (limited != null));
+            assertTrue(uri, limited.getErrors() <= 1);
+            if (unlimited.getErrors() == 0) {
+                // resources without errors are unaffected by an error limit
+                assertEquals(uri, unlimited.getCode(), limited.getCode());
+                assertEquals(uri, unlimited.getFlags(), limited.getFlags());
+            } else if (unlimited.getErrors() == 1) {
+                assertEquals(uri, unlimited.getCode(), limited.getCode());
+                assertEquals(uri, 1, limited.getErrors());
+            } else {
+                assertEquals(uri, 1, limited.getErrors());
+                assertTrue(uri, (limited.getFlags() & TimedTextVerifier.RV_FLAG_TRUNCATED) != 0);
+            }
+            if ((limited.getFlags() & TimedTextVerifier.RV_FLAG_TRUNCATED) != 0)
+                ++numTruncated;
+        }
+        assertTrue(numTruncated > 0);
+    }
+
+}
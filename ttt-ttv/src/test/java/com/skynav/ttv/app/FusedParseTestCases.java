@@ -0,0 +1,90 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static com.skynav.ttv.app.CorpusRuns.*;
+
+public class FusedParseTestCases {
+
+    @Test
+    public void testFusedAllPhases() throws Exception {
+        performFusedTest(null);
+    }
+
+    @Test
+    public void testFusedUntilSemantics() throws Exception {
+        performFusedTest("semantics");
+    }
+
+    @Test
+    public void testFusedUntilValidity() throws Exception {
+        performFusedTest("validity");
+    }
+
+    @Test
+    public void testFusedUntilWellFormedness() throws Exception {
+        performFusedTest("wellformedness");
+    }
+
+    @Test
+    public void testFusedUntilResource() throws Exception {
+        performFusedTest("resource");
+    }
+
+    private void performFusedTest(String untilPhase) throws Exception {
+        List<String> uris = getResourceURIs(TTML1_VALID_RESOURCE_PATH, TTML1_INVALID_RESOURCE_PATH);
+        List<String> options = new java.util.ArrayList<String>();
+        options.add("--warn-on");
+        options.add("all");
+        if (untilPhase != null) {
+            options.add("--until-phase");
+            options.add(untilPhase);
+        }
+        TimedTextVerifier ttvSeparate = new TimedTextVerifier();
+        String outputSeparate = run(ttvSeparate, options, uris);
+        options.add("--fused-parse");
+        TimedTextVerifier ttvFused = new TimedTextVerifier();
+        String outputFused = run(ttvFused, options, uris);
+        for (String uri : uris) {
+            TimedTextVerifier.Results separate = ttvSeparate.getResults(uri);
+            TimedTextVerifier.Results fused = ttvFused.getResults(uri);
+            assertTrue(uri, (separate != null) && (fused != null));
+            assertEquals(uri, separate.getCode(), fused.getCode());
+            assertEquals(uri, separate.getFlags(), fused.getFlags());
+            assertEquals(uri, separate.getErrors(), fused.getErrors());
+            assertEquals(uri, separate.getWarnings(), fused.getWarnings());
+        }
+        // errors and warnings are reported in the same order, and therefore attributed to the same phases
+        assertEquals(getReportedLines(outputSeparate), getReportedLines(outputFused));
+    }
+
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import static com.skynav.ttv.app.CorpusRuns.*;
+
+public class ParallelVerificationTestCases {
+
+    @Test
+    public void testParallelOutputMatchesSerial() throws Exception {
+        performParallelTest(getResourceURIs(TTML1_VALID_RESOURCE_PATH, TTML1_INVALID_RESOURCE_PATH), 4);
+    }
+
+    @Test
+    public void testParallelWorkersExceedResources() throws Exception {
+        performParallelTest(getResourceURIs(TTML1_VALID_RESOURCE_PATH).subList(0, 3), 8);
+    }
+
+    private void performParallelTest(List<String> uris, int workers) throws Exception {
+        List<String> options = new java.util.ArrayList<String>();
+        options.add("-v");
+        options.add("--warn-on");
+        options.add("all");
+        TimedTextVerifier ttvSerial = new TimedTextVerifier();
+        String outputSerial = run(ttvSerial, options, uris);
+        options.add("--parallel");
+        options.add(Integer.toString(workers));
+        TimedTextVerifier ttvParallel = new TimedTextVerifier();
+        String outputParallel = run(ttvParallel, options, uris);
+        // output, including per-resource output and summary, is identical, and, therefore, in input order
+        assertTrue(outputSerial.length() > 0);
+        assertEquals(outputSerial, outputParallel);
+        for (String uri : uris) {
+            TimedTextVerifier.Results serial = ttvSerial.getResults(uri);
+            TimedTextVerifier.Results parallel = ttvParallel.getResults(uri);
+            assertTrue(uri, (serial != null) && (parallel != null));
+            assertEquals(uri, serial.getCode(), parallel.getCode());
+            assertEquals(uri, serial.getFlags(), parallel.getFlags());
+            assertEquals(uri, serial.getErrors(), parallel.getErrors());
+            assertEquals(uri, serial.getWarnings(), parallel.getWarnings());
+        }
+    }
+
+}
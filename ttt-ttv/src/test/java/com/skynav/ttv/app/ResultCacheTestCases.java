@@ -0,0 +1,202 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.skynav.ttv.util.IOUtil;
+
+public class ResultCacheTestCases {
+
+    private static final String validResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/valid/";
+    private static final String invalidResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/invalid/";
+    private static final String validResourceName = "ttml1-valid-all-styles.xml";
+    private static final String invalidResourceName = "ttml1-invld-bad-color-unknown-named-color.xml";
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private File directory;
+    private File cacheDirectory;
+    private List<String> resources;
+
+    @Before
+    public void setUp() throws Exception {
+        directory = Files.createTempDirectory("ttv-result-cache-test").toFile();
+        cacheDirectory = new File(directory, "cache");
+        resources = new java.util.ArrayList<String>();
+        resources.add(copyResource(validResourcePath + validResourceName));
+        resources.add(copyResource(invalidResourcePath + invalidResourceName));
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        deleteRecursively(directory);
+    }
+
+    @Test
+    public void testHitsReplayOutputAndResults() throws Exception {
+        TimedTextVerifier ttv1 = new TimedTextVerifier();
+        String output1 = performCachedRun(ttv1, "run1.txt", null);
+        assertTrue(output1.indexOf("with 0 result cache hits and 2 misses") >= 0);
+        TimedTextVerifier ttv2 = new TimedTextVerifier();
+        String output2 = performCachedRun(ttv2, "run2.txt", null);
+        assertTrue(output2.indexOf("with 2 result cache hits and 0 misses") >= 0);
+        // per-resource output is replayed as recorded, and only the summary differs
+        assertEquals(withoutSummary(output1), withoutSummary(output2));
+        assertTrue(withoutSummary(output2).length() > 0);
+        for (String uri : resources) {
+            assertEquals(ttv1.getResultCode(uri), ttv2.getResultCode(uri));
+            assertEquals(ttv1.getResultFlags(uri), ttv2.getResultFlags(uri));
+        }
+        assertEquals(TimedTextVerifier.RV_PASS, ttv2.getResultCode(resources.get(0)));
+        assertTrue((ttv2.getResultFlags(resources.get(1)) & TimedTextVerifier.RV_FLAG_ERROR_EXPECTED_MATCH) != 0);
+    }
+
+    @Test
+    public void testResumeAfterInterruption() throws Exception {
+        performCachedRun(new TimedTextVerifier(), "run1.txt", null);
+        assertEquals(2, countEntries());
+        // simulate a run interrupted before the results of one of its resources were recorded
+        for (File f : cacheDirectory.listFiles()) {
+            if (f.getName().endsWith(".result")) {
+                assertTrue(f.delete());
+                break;
+            }
+        }
+        String output = performCachedRun(new TimedTextVerifier(), "run2.txt", null);
+        assertTrue(output.indexOf("with 1 result cache hit and 1 miss") >= 0);
+        assertEquals(2, countEntries());
+    }
+
+    @Test
+    public void testMissAfterResourceChange() throws Exception {
+        performCachedRun(new TimedTextVerifier(), "run1.txt", null);
+        File resource = new File(new URL(resources.get(0)).toURI());
+        Files.write(resource.toPath(), "\n".getBytes(UTF8), java.nio.file.StandardOpenOption.APPEND);
+        String output = performCachedRun(new TimedTextVerifier(), "run2.txt", null);
+        assertTrue(output.indexOf("with 1 result cache hit and 1 miss") >= 0);
+    }
+
+    @Test
+    public void testMissAfterConfigurationChange() throws Exception {
+        File config = new File(directory, "config.xml");
+        writeConfiguration(config, "<!-- first -->");
+        performCachedRun(new TimedTextVerifier(), "run1.txt", config);
+        String output2 = performCachedRun(new TimedTextVerifier(), "run2.txt", config);
+        assertTrue(output2.indexOf("with 2 result cache hits and 0 misses") >= 0);
+        writeConfiguration(config, "<option name=\"max-errors\">1</option>");
+        String output3 = performCachedRun(new TimedTextVerifier(), "run3.txt", config);
+        assertTrue(output3.indexOf("with 0 result cache hits and 2 misses") >= 0);
+        assertFalse(output3.indexOf("with 2 result cache hits") >= 0);
+    }
+
+    private String performCachedRun(TimedTextVerifier ttv, String outputName, File config) throws Exception {
+        File output = new File(directory, outputName);
+        List<String> args = new java.util.ArrayList<String>();
+        args.add("-q");
+        args.add("-v");
+        if (config != null) {
+            args.add("--config");
+            args.add(config.getPath());
+        }
+        args.add("--reporter-file");
+        args.add(output.getPath());
+        args.add("--result-cache");
+        args.add(cacheDirectory.getPath());
+        args.add("--");
+        args.addAll(resources);
+        ttv.run(args.toArray(new String[args.size()]));
+        return new String(Files.readAllBytes(output.toPath()), UTF8);
+    }
+
+    private int countEntries() {
+        int numEntries = 0;
+        File[] entries = cacheDirectory.listFiles();
+        if (entries != null) {
+            for (File f : entries) {
+                if (f.getName().endsWith(".result"))
+                    ++numEntries;
+            }
+        }
+        return numEntries;
+    }
+
+    private String copyResource(String resourceName) throws Exception {
+        URL url = getClass().getResource(resourceName);
+        if (url == null)
+            fail("Can't find test resource: " + resourceName + ".");
+        File f = new File(directory, resourceName.substring(resourceName.lastIndexOf('/') + 1));
+        InputStream is = null;
+        try {
+            is = url.openStream();
+            Files.copy(is, f.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            IOUtil.closeSafely(is);
+        }
+        return f.toURI().toString();
+    }
+
+    private static void writeConfiguration(File config, String content) throws Exception {
+        StringBuffer sb = new StringBuffer();
+        sb.append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n");
+        sb.append("<config version=\"1\" xmlns=\"http://skynav.com/ns/ttv\">\n");
+        sb.append(content);
+        sb.append("\n</config>\n");
+        Files.write(config.toPath(), sb.toString().getBytes(UTF8));
+    }
+
+    private static String withoutSummary(String output) {
+        StringBuffer sb = new StringBuffer();
+        for (String line : output.split("\n")) {
+            if (line.indexOf("result cache") < 0)
+                sb.append(line).append('\n');
+        }
+        return sb.toString();
+    }
+
+    private static void deleteRecursively(File f) {
+        File[] children = f.listFiles();
+        if (children != null) {
+            for (File c : children)
+                deleteRecursively(c);
+        }
+        IOUtil.deleteSafely(f);
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.net.URL;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class StreamingSemanticsTestCases {
+
+    private static final String validResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/valid/";
+    private static final String invalidResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/invalid/";
+
+    @Test
+    public void testStreamedValidAllTiming() throws Exception {
+        // frame values in this resource are valid only when using root ttp:frameRate and ttp:subFrameRate
+        performValidityTest("ttml1-valid-all-timing.xml");
+    }
+
+    @Test
+    public void testStreamedValidAllStyles() throws Exception {
+        performValidityTest("ttml1-valid-all-styles.xml");
+    }
+
+    @Test
+    public void testStreamedValidAllParameters() throws Exception {
+        performValidityTest("ttml1-valid-all-parameters.xml");
+    }
+
+    @Test
+    public void testStreamedInvalidTimingFramesExceedsFrameRate() throws Exception {
+        performInvalidityTest("ttml1-invld-bad-begin-clock-time-frames-exceeds-frame-rate.xml");
+    }
+
+    @Test
+    public void testStreamedInvalidTimingFramesInClockMode() throws Exception {
+        performInvalidityTest("ttml1-invld-bad-begin-clock-time-frames-in-clock-mode.xml");
+    }
+
+    @Test
+    public void testStreamedInvalidStyleColor() throws Exception {
+        performInvalidityTest("ttml1-invld-bad-color-unknown-named-color.xml");
+    }
+
+    @Test
+    public void testStreamedInvalidParameterCellResolution() throws Exception {
+        performInvalidityTest("ttml1-invld-bad-cell-resolution-zero.xml");
+    }
+
+    @Test
+    public void testStreamedInvalidStyleIdrefWrongElementType() throws Exception {
+        performInvalidityTest("ttml1-invld-bad-style-idref-wrong-eltype.xml");
+    }
+
+    private void performValidityTest(String resourceName) {
+        TimedTextVerifier ttv = new TimedTextVerifier();
+        String urlString = performStreamingTest(ttv, validResourcePath + resourceName);
+        assertEquals(TimedTextVerifier.RV_PASS, ttv.getResultCode(urlString));
+        assertTrue((ttv.getResultFlags(urlString) & TimedTextVerifier.RV_FLAG_ERROR_UNEXPECTED) == 0);
+    }
+
+    private void performInvalidityTest(String resourceName) {
+        TimedTextVerifier ttv = new TimedTextVerifier();
+        String urlString = performStreamingTest(ttv, invalidResourcePath + resourceName);
+        assertTrue((ttv.getResultFlags(urlString) & TimedTextVerifier.RV_FLAG_ERROR_EXPECTED_MATCH) != 0);
+    }
+
+    private String performStreamingTest(TimedTextVerifier ttv, String resourceName) {
+        URL url = getClass().getResource(resourceName);
+        if (url == null)
+            fail("Can't find test resource: " + resourceName + ".");
+        String urlString = url.toString();
+        List<String> args = new java.util.ArrayList<String>();
+        args.add("-q");
+        args.add("--streaming-semantics");
+        args.add("--");
+        args.add(urlString);
+        ttv.run(args.toArray(new String[args.size()]));
+        assertTrue((ttv.getResultFlags(urlString) & TimedTextVerifier.RV_FLAG_STREAMED) != 0);
+        return urlString;
+    }
+
+}
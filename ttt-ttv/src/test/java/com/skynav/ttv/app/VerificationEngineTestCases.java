@@ -0,0 +1,180 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.app;
+
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.skynav.ttv.util.IOUtil;
+import com.skynav.ttv.util.Reporter.ReportType;
+
+public class VerificationEngineTestCases {
+
+    private static final String validResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/valid/";
+    private static final String invalidResourcePath = "/com/skynav/ttv/w3c/ttml1/validation/invalid/";
+    private static final String[] resourceNames = new String[] {
+        validResourcePath + "ttml1-valid-all-styles.xml",
+        validResourcePath + "ttml1-valid-all-timing.xml",
+        invalidResourcePath + "ttml1-invld-bad-color-unknown-named-color.xml",
+        invalidResourcePath + "ttml1-invld-bad-cell-resolution-zero.xml",
+    };
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    @Test
+    public void testOutcomeShape() throws Exception {
+        VerificationEngine engine = new VerificationEngine(new String[0]);
+        VerificationEngine.Outcome valid = engine.verify(getResourceURI(resourceNames[0]));
+        assertEquals(TimedTextVerifier.RV_PASS, valid.getResults().getCode());
+        assertEquals(0, countMessages(valid, ReportType.Error));
+        VerificationEngine.Outcome invalid = engine.verify(getResourceURI(resourceNames[2]));
+        assertEquals(TimedTextVerifier.RV_FAIL, invalid.getResults().getCode());
+        assertEquals(invalid.getResults().getErrors(), countMessages(invalid, ReportType.Error));
+        assertTrue(invalid.getResults().getErrors() > 0);
+        try {
+            invalid.getMessages().clear();
+            fail("Expected messages to be unmodifiable.");
+        } catch (UnsupportedOperationException e) {
+        }
+    }
+
+    @Test
+    public void testBufferMatchesURI() throws Exception {
+        VerificationEngine engine = new VerificationEngine(new String[0]);
+        for (String resourceName : resourceNames) {
+            URI uri = getResourceURI(resourceName);
+            byte[] bytes = readResource(resourceName);
+            // place resource after a prefix, so that verification must honor the buffer's position
+            ByteBuffer bb = ByteBuffer.allocate(bytes.length + 16);
+            bb.position(16);
+            bb.put(bytes);
+            bb.position(16);
+            VerificationEngine.Outcome expected = engine.verify(uri);
+            VerificationEngine.Outcome actual = engine.verify(bb, uri);
+            assertEquals(16, bb.position());
+            assertEquals(bytes.length + 16, bb.limit());
+            assertOutcomesEqual(expected, actual);
+        }
+    }
+
+    @Test
+    public void testConcurrentVerify() throws Exception {
+        final VerificationEngine engine = new VerificationEngine(new String[0]);
+        final List<VerificationEngine.Outcome> expected = new java.util.ArrayList<VerificationEngine.Outcome>();
+        for (String resourceName : resourceNames)
+            expected.add(engine.verify(getResourceURI(resourceName)));
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<VerificationEngine.Outcome>> futures = new java.util.ArrayList<Future<VerificationEngine.Outcome>>();
+            for (int i = 0; i < 32; ++i) {
+                final URI uri = getResourceURI(resourceNames[i % resourceNames.length]);
+                futures.add(executor.submit(new Callable<VerificationEngine.Outcome>() {
+                    public VerificationEngine.Outcome call() {
+                        return engine.verify(uri);
+                    }
+                }));
+            }
+            for (int i = 0, n = futures.size(); i < n; ++i)
+                assertOutcomesEqual(expected.get(i % resourceNames.length), futures.get(i).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testProcessingOptionsReported() throws Exception {
+        VerificationEngine engine = new VerificationEngine(new String[] { "-v" });
+        StringBuffer sb = new StringBuffer();
+        sb.append("<tt xml:lang=\"en\" xmlns=\"http://www.w3.org/ns/ttml\" xmlns:ttva=\"http://skynav.com/ns/ttv/annotations\"");
+        sb.append(" ttva:processingOptions=\"ttpe { forced-display; }\"><body/></tt>\n");
+        VerificationEngine.Outcome outcome = engine.verify(ByteBuffer.wrap(sb.toString().getBytes(UTF8)));
+        assertEquals(TimedTextVerifier.RV_PASS, outcome.getResults().getCode());
+        // processing options are not silently ignored, but reported as not requiring a restart, as when verifying from command line
+        boolean found = false;
+        for (VerificationEngine.ReportedMessage m : outcome.getMessages()) {
+            if (m.toString().indexOf("continuing without restart") >= 0)
+                found = true;
+        }
+        assertTrue(found);
+    }
+
+    private static void assertOutcomesEqual(VerificationEngine.Outcome expected, VerificationEngine.Outcome actual) {
+        assertEquals(expected.getResults().getCode(), actual.getResults().getCode());
+        assertEquals(expected.getResults().getFlags(), actual.getResults().getFlags());
+        assertEquals(expected.getResults().getErrors(), actual.getResults().getErrors());
+        assertEquals(expected.getResults().getWarnings(), actual.getResults().getWarnings());
+        assertEquals(getMessageTexts(expected), getMessageTexts(actual));
+    }
+
+    private static List<String> getMessageTexts(VerificationEngine.Outcome outcome) {
+        List<String> texts = new java.util.ArrayList<String>();
+        for (VerificationEngine.ReportedMessage m : outcome.getMessages())
+            texts.add(m.toString());
+        return texts;
+    }
+
+    private static int countMessages(VerificationEngine.Outcome outcome, ReportType type) {
+        int count = 0;
+        for (VerificationEngine.ReportedMessage m : outcome.getMessages()) {
+            if (m.getType() == type)
+                ++count;
+        }
+        return count;
+    }
+
+    private URI getResourceURI(String resourceName) throws Exception {
+        URL url = getClass().getResource(resourceName);
+        if (url == null)
+            fail("Can't find test resource: " + resourceName + ".");
+        return url.toURI();
+    }
+
+    private byte[] readResource(String resourceName) throws Exception {
+        InputStream is = null;
+        try {
+            is = getResourceURI(resourceName).toURL().openStream();
+            ByteArrayOutputStream bos = new ByteArrayOutputStream();
+            IOUtil.copy(is, bos);
+            return bos.toByteArray();
+        } finally {
+            IOUtil.closeSafely(is);
+        }
+    }
+
+}
@@ -33,6 +33,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -182,20 +183,7 @@ public class ConditionTestCases {
         
     @Test
     public void testEvaluatedConditions() throws Exception {
-        Map<String,Object> mp = new java.util.HashMap<String,Object>();
-        Map<String,Object> bp = new java.util.HashMap<String,Object>();
-        for (Object[] spec : boundParameterBindings) {
-            String name = (String) spec[0];
-            Object value = spec[1];
-            bp.put(name, value);
-        }
-        Set<String> sf = new java.util.HashSet<String>();
-        Condition.EvaluatorState state = Condition.makeEvaluatorState(mp, bp, sf);
-        for (Object[] spec : evaluatedConditionBindings) {
-            String identifier = (String) spec[0];
-            Object value = spec[1];
-            state.setBinding(identifier, value);
-        }
+        Condition.EvaluatorState state = makeEvaluatorState();
         for (Object[] spec : evaluatedConditions) {
             String condition = (String) spec[0];
             Boolean expected = (Boolean) spec[1];
@@ -212,6 +200,88 @@ public class ConditionTestCases {
         }
     }
 
+    private static final String[] comparedConditions = {
+        "x*y+z",
+        "x + y * z",
+        "i - j - k",
+        "i / ZERO",
+        "ZERO / ZERO",
+        "k % j",
+        "-x",
+        "+x",
+        "-(x + y)",
+        "!p",
+        "!q",
+        "p && q",
+        "p || q",
+        "!(p || q) && q",
+        "q && i",
+        "s == 'S'",
+        "s < u",
+        "s + u",
+        "i < s",
+        "p < q",
+        "-s",
+        "!s",
+        "unbound",
+        "unbound(1)",
+        "i(1)",
+        "log10()",
+        "log10(s)",
+        "log10(1000, 1)",
+        "pow10(2) - 100",
+        "media('width')",
+        "parameter('forced')",
+        "parameter('unknown')",
+        "parameter()",
+        "supports('#animation')",
+    };
+
+    @Test
+    public void testCompiledConditions() throws Exception {
+        Condition.EvaluatorState state = makeEvaluatorState();
+        List<String> conditions = new java.util.ArrayList<String>();
+        for (String[] spec : validConditions)
+            conditions.add(spec[0]);
+        for (Object[] spec : evaluatedConditions)
+            conditions.add((String) spec[0]);
+        for (String condition : comparedConditions)
+            conditions.add(condition);
+        for (String condition : conditions) {
+            Condition c = Condition.valueOf(condition);
+            assertNotNull(c);
+            assertSame(condition, c, Condition.valueOf(" " + condition + " "));
+            assertEquals(condition, evaluate(c, state, true), evaluate(c, state, false));
+        }
+    }
+
+    private static String evaluate(Condition c, Condition.EvaluatorState state, boolean interpreted) {
+        try {
+            Object o = c.evaluateExpression(state, interpreted);
+            return (o != null) ? o.getClass().getName() + "(" + o + ")" : null;
+        } catch (RuntimeException e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    private static Condition.EvaluatorState makeEvaluatorState() {
+        Map<String,Object> mp = new java.util.HashMap<String,Object>();
+        Map<String,Object> bp = new java.util.HashMap<String,Object>();
+        for (Object[] spec : boundParameterBindings) {
+            String name = (String) spec[0];
+            Object value = spec[1];
+            bp.put(name, value);
+        }
+        Set<String> sf = new java.util.HashSet<String>();
+        Condition.EvaluatorState state = Condition.makeEvaluatorState(mp, bp, sf);
+        for (Object[] spec : evaluatedConditionBindings) {
+            String identifier = (String) spec[0];
+            Object value = spec[1];
+            state.setBinding(identifier, value);
+        }
+        return state;
+    }
+
     private static final String[][] invalidConditions = {
         { "~",                                  "remaining input \"~\"" },
         { "00",                                 "expected #E, got #N(0), remaining input \"0\"" },
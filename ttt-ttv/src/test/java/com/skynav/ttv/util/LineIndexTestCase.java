@@ -0,0 +1,69 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.nio.CharBuffer;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+
+public class LineIndexTestCase {
+
+    @Test
+    public void testEmpty() {
+        assertEquals(0, new LineIndex("").getLineCount());
+    }
+
+    @Test
+    public void testTerminators() {
+        LineIndex li = new LineIndex("a\nbc\r\nd\re\n\nf");
+        String[] expected = new String[] { "a", "bc", "d", "e", "", "f" };
+        assertEquals(expected.length, li.getLineCount());
+        for (int i = 0; i < expected.length; ++i)
+            assertEquals(expected[i], li.getLine(i));
+    }
+
+    @Test
+    public void testFinalTerminator() {
+        LineIndex li = new LineIndex(CharBuffer.wrap("a\r\nb\r\n"));
+        assertEquals(2, li.getLineCount());
+        assertEquals("a", li.getLine(0));
+        assertEquals("b", li.getLine(1));
+    }
+
+    @Test
+    public void testManyLines() {
+        StringBuffer sb = new StringBuffer();
+        for (int i = 0; i < 1000; ++i) {
+            sb.append(i);
+            sb.append('\n');
+        }
+        LineIndex li = new LineIndex(sb);
+        assertEquals(1000, li.getLineCount());
+        assertEquals("999", li.getLine(999));
+    }
+
+}
@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.io.StringReader;
+
+import javax.xml.parsers.SAXParserFactory;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMResult;
+import javax.xml.transform.sax.SAXSource;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.Locator;
+import org.xml.sax.SAXException;
+import org.xml.sax.helpers.XMLFilterImpl;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class LocationTableTestCase {
+
+    private static final String document =
+        "<a>\n" +
+        "  <b>text</b>\n" +
+        "  <c>\n" +
+        "    <d/>\n" +
+        "  </c>\n" +
+        "</a>\n";
+
+    @Test
+    public void testElementLocations() throws Exception {
+        Document doc = parse(document, "test.xml");
+        LocationTable table = LocationTable.getTable(doc);
+        assertNotNull(table);
+        assertEquals(4, table.size());
+        String[] names = new String[] { "a", "b", "c", "d" };
+        int[] lines = new int[] { 1, 2, 3, 4 };
+        for (int i = 0; i < names.length; ++i) {
+            NodeList nodes = doc.getElementsByTagName(names[i]);
+            Locator locator = table.getLocator(nodes.item(0));
+            assertNotNull(locator);
+            assertEquals("test.xml", locator.getSystemId());
+            assertEquals(lines[i], locator.getLineNumber());
+        }
+    }
+
+    @Test
+    public void testUnrecordedNode() throws Exception {
+        Document doc = parse(document, "test.xml");
+        Element e = doc.createElement("e");
+        doc.getDocumentElement().appendChild(e);
+        assertNull(LocationTable.getTable(e).getLocator(e));
+    }
+
+    @Test
+    public void testGrowth() throws Exception {
+        StringBuffer sb = new StringBuffer();
+        sb.append("<a>\n");
+        for (int i = 0; i < 1000; ++i)
+            sb.append("<b/>\n");
+        sb.append("</a>\n");
+        Document doc = parse(sb.toString(), "test.xml");
+        LocationTable table = LocationTable.getTable(doc);
+        assertEquals(1001, table.size());
+        NodeList nodes = doc.getElementsByTagName("b");
+        assertEquals(1001, table.getLocator(nodes.item(999)).getLineNumber());
+    }
+
+    private static Document parse(String content, String systemId) throws Exception {
+        SAXParserFactory pf = SAXParserFactory.newInstance();
+        pf.setNamespaceAware(true);
+        final LocationTable table = new LocationTable(systemId);
+        XMLFilterImpl filter = new XMLFilterImpl(pf.newSAXParser().getXMLReader()) {
+            private Locator locator;
+            @Override
+            public void setDocumentLocator(Locator locator) {
+                super.setDocumentLocator(locator);
+                this.locator = locator;
+            }
+            @Override
+            public void startElement(String nsUri, String localName, String qualName, Attributes attrs) throws SAXException {
+                table.add(locator.getLineNumber(), locator.getColumnNumber());
+                super.startElement(nsUri, localName, qualName, attrs);
+            }
+        };
+        InputSource is = new InputSource(new StringReader(content));
+        is.setSystemId(systemId);
+        DOMResult result = new DOMResult();
+        TransformerFactory.newInstance().newTransformer().transform(new SAXSource(filter, is), result);
+        Document doc = (Document) result.getNode();
+        table.bind(doc);
+        return doc;
+    }
+
+}
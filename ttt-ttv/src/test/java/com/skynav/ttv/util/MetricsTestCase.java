@@ -0,0 +1,164 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.List;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class MetricsTestCase {
+
+    @Test
+    public void testBeginEndAccumulation() throws Exception {
+        Metrics metrics = new Metrics();
+        metrics.addBytesRead(100);
+        metrics.addElement(100);
+        Metrics.Phase a = metrics.begin("a");
+        assertSame(a, metrics.begin("a"));
+        metrics.addBytesRead(10);
+        metrics.addElement(2);
+        Metrics.Phase b = metrics.begin("b");
+        metrics.addElement(1);
+        assertSame(a, metrics.begin("a"));
+        metrics.addBytesRead(5);
+        metrics.end();
+        metrics.addBytesRead(100);
+        metrics.addElement(100);
+        assertEquals(15, a.getBytesRead());
+        assertEquals(1, a.getElements());
+        assertEquals(2, a.getAttributes());
+        assertEquals(0, b.getBytesRead());
+        assertEquals(1, b.getElements());
+        assertEquals(1, b.getAttributes());
+        assertTrue(a.getWallTime() >= 0);
+        assertTrue(b.getWallTime() >= 0);
+        assertPhaseNames(metrics, "a", "b");
+        assertNull(metrics.getPhase("c"));
+    }
+
+    @Test
+    public void testAdd() throws Exception {
+        Metrics m1 = new Metrics();
+        m1.begin("a");
+        m1.addBytesRead(10);
+        m1.addElement(3);
+        m1.begin("b");
+        m1.addElement(0);
+        m1.end();
+        Metrics m2 = new Metrics();
+        m2.begin("c");
+        m2.addBytesRead(7);
+        m2.begin("a");
+        m2.addBytesRead(20);
+        m2.addElement(1);
+        m2.end();
+        Metrics metrics = new Metrics();
+        metrics.add(m1);
+        metrics.add(m2);
+        assertPhaseNames(metrics, "a", "b", "c");
+        Metrics.Phase a = metrics.getPhase("a");
+        assertEquals(30, a.getBytesRead());
+        assertEquals(2, a.getElements());
+        assertEquals(4, a.getAttributes());
+        assertEquals(m1.getPhase("a").getWallTime() + m2.getPhase("a").getWallTime(), a.getWallTime());
+        assertEquals(1, metrics.getPhase("b").getElements());
+        assertEquals(7, metrics.getPhase("c").getBytesRead());
+        // adding does not alter added metrics
+        assertEquals(10, m1.getPhase("a").getBytesRead());
+        assertEquals(20, m2.getPhase("a").getBytesRead());
+    }
+
+    @Test
+    public void testUnavailableMeasures() throws Exception {
+        ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        com.sun.management.ThreadMXBean allocationBean =
+            (threadBean instanceof com.sun.management.ThreadMXBean) ? (com.sun.management.ThreadMXBean) threadBean : null;
+        boolean cpuTimeEnabled = threadBean.isThreadCpuTimeSupported() && threadBean.isThreadCpuTimeEnabled();
+        boolean allocatedMemoryEnabled = (allocationBean != null) && allocationBean.isThreadAllocatedMemorySupported() && allocationBean.isThreadAllocatedMemoryEnabled();
+        Metrics metrics = new Metrics();
+        try {
+            if (cpuTimeEnabled)
+                threadBean.setThreadCpuTimeEnabled(false);
+            if (allocatedMemoryEnabled)
+                allocationBean.setThreadAllocatedMemoryEnabled(false);
+            metrics.begin("a");
+            metrics.end();
+        } finally {
+            if (cpuTimeEnabled)
+                threadBean.setThreadCpuTimeEnabled(true);
+            if (allocatedMemoryEnabled)
+                allocationBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        Metrics.Phase a = metrics.getPhase("a");
+        assertEquals(-1, a.getCpuTime());
+        assertEquals(-1, a.getAllocatedBytes());
+        // an unavailable measure remains unavailable when accumulated with an available measure
+        Metrics other = new Metrics();
+        other.begin("a");
+        other.end();
+        other.add(metrics);
+        assertEquals(-1, other.getPhase("a").getCpuTime());
+        assertEquals(-1, other.getPhase("a").getAllocatedBytes());
+        MetricsMessage message = new MetricsMessage("*KEY*", "resource", a);
+        String text = message.toText();
+        assertTrue(text, text.contains("CPU time unavailable"));
+        assertTrue(text, text.contains("bytes allocated unavailable"));
+        assertFalse(text, text.contains("-1"));
+        String xml = message.toXML(null, false, false, false);
+        assertFalse(xml, xml.contains("<cpuTime>"));
+        assertFalse(xml, xml.contains("<allocatedBytes>"));
+        assertTrue(xml, xml.contains("<wallTime>"));
+    }
+
+    @Test
+    public void testAvailableMeasures() throws Exception {
+        Metrics metrics = new Metrics();
+        metrics.begin("a");
+        metrics.end();
+        Metrics.Phase a = metrics.getPhase("a");
+        String text = new MetricsMessage("*KEY*", "resource", a).toText();
+        if (a.getCpuTime() >= 0)
+            assertTrue(text, text.contains(" ms CPU time"));
+        if (a.getAllocatedBytes() >= 0)
+            assertTrue(text, text.contains(" bytes allocated"));
+        assertFalse(text, text.contains("unavailable"));
+    }
+
+    private static void assertPhaseNames(Metrics metrics, String... names) {
+        List<Metrics.Phase> phases = metrics.getPhases();
+        assertEquals(names.length, phases.size());
+        for (int i = 0; i < names.length; ++i)
+            assertEquals(names[i], phases.get(i).getName());
+    }
+
+}
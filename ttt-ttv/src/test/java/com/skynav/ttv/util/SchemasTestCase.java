@@ -0,0 +1,100 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.util.Set;
+
+import javax.xml.XMLConstants;
+import javax.xml.validation.Schema;
+import javax.xml.validation.SchemaFactory;
+import javax.xml.validation.Validator;
+
+import org.junit.Test;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SchemasTestCase {
+
+    @Test
+    public void testValidatorReused() throws Exception {
+        Schema schema = newSchema();
+        Validator v = Schemas.acquireValidator(schema);
+        Schemas.releaseValidator(schema, v);
+        assertSame(v, Schemas.acquireValidator(schema));
+    }
+
+    @Test
+    public void testValidatorReusedAcrossThreads() throws Exception {
+        final Schema schema = newSchema();
+        final Validator[] released = new Validator[1];
+        Thread t = new Thread(new Runnable() {
+            public void run() {
+                released[0] = Schemas.acquireValidator(schema);
+                Schemas.releaseValidator(schema, released[0]);
+            }
+        });
+        t.start();
+        t.join();
+        // pool is process wide, so an instance released by a thread is not retained by that thread
+        assertSame(released[0], Schemas.acquireValidator(schema));
+    }
+
+    @Test
+    public void testPoolBounded() throws Exception {
+        Schema schema = newSchema();
+        int numValidators = 1024;
+        Set<Validator> released = java.util.Collections.newSetFromMap(new java.util.IdentityHashMap<Validator,Boolean>());
+        Validator[] validators = new Validator[numValidators];
+        for (int i = 0; i < numValidators; ++i)
+            validators[i] = Schemas.acquireValidator(schema);
+        for (Validator v : validators) {
+            released.add(v);
+            Schemas.releaseValidator(schema, v);
+        }
+        int numReused = 0;
+        for (int i = 0; i < numValidators; ++i) {
+            if (released.contains(Schemas.acquireValidator(schema)))
+                ++numReused;
+        }
+        assertTrue(numReused > 0);
+        assertTrue(numReused < numValidators);
+    }
+
+    @Test
+    public void testClear() throws Exception {
+        Schema schema = newSchema();
+        Validator v = Schemas.acquireValidator(schema);
+        Schemas.releaseValidator(schema, v);
+        Schemas.clear();
+        assertNotSame(v, Schemas.acquireValidator(schema));
+    }
+
+    private static Schema newSchema() throws Exception {
+        return SchemaFactory.newInstance(XMLConstants.W3C_XML_SCHEMA_NS_URI).newSchema();
+    }
+
+}
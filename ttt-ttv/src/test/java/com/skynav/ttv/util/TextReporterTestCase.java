@@ -0,0 +1,108 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.util;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import org.xml.sax.helpers.LocatorImpl;
+
+public class TextReporterTestCase {
+
+    @Test
+    public void testAsynchronousOutput() throws Exception {
+        String expected = report(false);
+        assertTrue(expected.length() > 0);
+        assertEquals(expected, report(true));
+    }
+
+    @Test(timeout = 30000)
+    public void testAsynchronousOutputAfterWriterInterrupted() throws Exception {
+        StringWriter sw = new StringWriter();
+        TextReporter reporter = newReporter(sw);
+        reporter.setAsynchronous(true);
+        reporter.logError(reporter.message("*KEY*", "Before interrupt."));
+        Thread thread = reporter.getAsynchronousWriterThread();
+        assertNotNull(thread);
+        thread.interrupt();
+        thread.join();
+        assertTrue(reporter.isAsynchronous());
+        reporter.logError(reporter.message("*KEY*", "After interrupt."));
+        reporter.flush();
+        assertEquals("[E]:Before interrupt.\n[E]:After interrupt.\n", sw.toString());
+        reporter.close();
+    }
+
+    @Test
+    public void testSynchronousOutput() throws Exception {
+        TextReporter reporter = newReporter(new StringWriter());
+        assertFalse(reporter.isAsynchronous());
+        reporter.setAsynchronous(true);
+        assertTrue(reporter.isAsynchronous());
+        reporter.setAsynchronous(false);
+        assertFalse(reporter.isAsynchronous());
+        reporter.close();
+    }
+
+    private String report(boolean asynchronous) throws Exception {
+        StringWriter sw = new StringWriter();
+        TextReporter reporter = newReporter(sw);
+        reporter.setAsynchronous(asynchronous);
+        reporter.setVerbosityLevel(1);
+        reporter.setResourceURI("test.ttml");
+        for (int i = 0; i < 1000; ++i) {
+            LocatorImpl locator = new LocatorImpl();
+            locator.setSystemId("test.ttml");
+            locator.setLineNumber(i + 1);
+            locator.setColumnNumber(1);
+            if ((i % 3) == 0)
+                reporter.logError(reporter.message(locator, "*KEY*", "Error {0}.", i));
+            else if ((i % 3) == 1)
+                reporter.logWarning(reporter.message(locator, "*KEY*", "Warning {0}.", i));
+            else
+                reporter.logInfo(reporter.message(locator, "*KEY*", "Info {0}.", i));
+            if ((i % 100) == 0)
+                reporter.getOutput().print("direct " + i + "\n");
+        }
+        reporter.flush();
+        String output = sw.toString();
+        reporter.close();
+        return output;
+    }
+
+    private static TextReporter newReporter(StringWriter sw) throws Exception {
+        TextReporter reporter = new TextReporter();
+        reporter.open(new Object[0][], new PrintWriter(sw), null);
+        return reporter;
+    }
+
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.net.URI;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.xml.sax.Locator;
+
+import com.skynav.ttv.verifier.ItemVerifier;
+import com.skynav.ttv.verifier.VerifierContext;
+
+public class MediaPrefetcherTestCase {
+
+    @Test(timeout = 30000)
+    public void testAwaitAfterShutdown() throws Exception {
+        MediaPrefetcher prefetcher = new MediaPrefetcher(1);
+        TestContext context = new TestContext();
+        BlockingVerifier verifier = new BlockingVerifier();
+        URI uri1 = URI.create("file:/one.png");
+        URI uri2 = URI.create("file:/two.png");
+        prefetcher.prefetch(context, uri1, uri1, verifier);
+        prefetcher.prefetch(context, uri2, uri2, verifier);
+        verifier.started.await();
+        // first prefetch is running, second is queued behind it
+        prefetcher.shutdown();
+        verifier.release.countDown();
+        MediaPrefetcher.await(context, uri1);
+        MediaPrefetcher.await(context, uri2);
+        assertEquals(java.util.Arrays.asList(new Object[] { uri1 }), verifier.getVerified());
+    }
+
+    @Test(timeout = 30000)
+    public void testPrefetchAfterShutdown() throws Exception {
+        MediaPrefetcher prefetcher = new MediaPrefetcher(2);
+        TestContext context = new TestContext();
+        BlockingVerifier verifier = new BlockingVerifier();
+        verifier.release.countDown();
+        prefetcher.shutdown();
+        URI uri = URI.create("file:/three.png");
+        prefetcher.prefetch(context, uri, uri, verifier);
+        MediaPrefetcher.await(context, uri);
+        assertEquals(java.util.Arrays.asList(new Object[] { uri }), verifier.getVerified());
+        prefetcher.shutdown();
+    }
+
+    @Test(timeout = 30000)
+    public void testPrefetchOnce() throws Exception {
+        MediaPrefetcher prefetcher = new MediaPrefetcher(2);
+        TestContext context = new TestContext();
+        BlockingVerifier verifier = new BlockingVerifier();
+        verifier.release.countDown();
+        URI uri = URI.create("file:/four.png");
+        prefetcher.prefetch(context, uri, uri, verifier);
+        prefetcher.prefetch(context, uri, uri, verifier);
+        MediaPrefetcher.await(context, uri);
+        // awaiting a resource that is not pending returns immediately
+        MediaPrefetcher.await(context, uri);
+        assertEquals(1, verifier.getVerified().size());
+        assertTrue(MediaPrefetcher.getPrefetcher(context) == null);
+        prefetcher.shutdown();
+    }
+
+    private static class BlockingVerifier implements ItemVerifier {
+        private CountDownLatch started = new CountDownLatch(1);
+        private CountDownLatch release = new CountDownLatch(1);
+        private List<Object> verified = new java.util.ArrayList<Object>();
+        public boolean verify(Object content, Locator locator, VerifierContext context, ItemType type) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            synchronized (verified) {
+                verified.add(content);
+            }
+            return true;
+        }
+        List<Object> getVerified() {
+            synchronized (verified) {
+                return new java.util.ArrayList<Object>(verified);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+
+import org.junit.Test;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import com.xfsi.xav.util.MimeType;
+
+public class MediaVerificationCacheTestCase {
+
+    @Test
+    public void testReadDigest() throws Exception {
+        int[] sizes = new int[] { 0, 1, 11, 8191, 8192, 8193, 100000 };
+        for (int size : sizes) {
+            byte[] data = new byte[size];
+            for (int i = 0; i < size; ++i)
+                data[i] = (byte) (i * 31);
+            File file = File.createTempFile("media", ".dat");
+            try {
+                FileOutputStream os = new FileOutputStream(file);
+                try {
+                    os.write(data);
+                } finally {
+                    os.close();
+                }
+                byte[] head = new byte[12];
+                int[] headLength = new int[1];
+                String digest = MediaVerificationCache.readDigest(file.toURI(), head, headLength);
+                assertEquals(toHexString(MessageDigest.getInstance("SHA-256").digest(data)), digest);
+                assertEquals(Math.min(size, head.length), headLength[0]);
+                for (int i = 0; i < headLength[0]; ++i)
+                    assertEquals(data[i], head[i]);
+                ByteBuffer bb = MediaVerificationCache.mapContent(file.toURI());
+                assertNotNull(bb);
+                byte[] mapped = new byte[bb.remaining()];
+                bb.get(mapped);
+                assertArrayEquals(data, mapped);
+            } finally {
+                file.delete();
+            }
+        }
+    }
+
+    @Test
+    public void testMapContentNotFile() throws Exception {
+        assertNull(MediaVerificationCache.mapContent(new java.net.URI("http://example.com/image.png")));
+        assertNull(MediaVerificationCache.mapContent(new File(System.getProperty("java.io.tmpdir")).toURI()));
+    }
+
+    @Test
+    public void testOutcomeEviction() throws Exception {
+        MediaVerificationCache cache = new MediaVerificationCache(null, null);
+        MimeType type = new MimeType(MimeType.IMAGE_PNG_TYPE);
+        int n = MediaVerificationCache.MAXIMUM_CACHED_OUTCOMES;
+        MediaVerificationCache.Content[] contents = new MediaVerificationCache.Content[n + 1];
+        for (int i = 0; i <= n; ++i)
+            contents[i] = new MediaVerificationCache.Content(Integer.toString(i), type);
+        for (int i = 0; i < n; ++i)
+            cache.putOutcome(contents[i], "Validator", new MediaVerificationCache.Outcome(false, new java.util.ArrayList<String>()));
+        // use first outcome, so that second is least recently used
+        assertNotNull(cache.getOutcome(contents[0], "Validator"));
+        cache.putOutcome(contents[n], "Validator", new MediaVerificationCache.Outcome(true, new java.util.ArrayList<String>()));
+        assertNotNull(cache.getOutcome(contents[0], "Validator"));
+        assertNull(cache.getOutcome(contents[1], "Validator"));
+        assertNotNull(cache.getOutcome(contents[2], "Validator"));
+        assertNotNull(cache.getOutcome(contents[n], "Validator"));
+        // other caches are unaffected
+        assertNull(new MediaVerificationCache(null, null).getOutcome(contents[0], "Validator"));
+    }
+
+    private static String toHexString(byte[] bytes) {
+        StringBuffer sb = new StringBuffer();
+        for (byte b : bytes)
+            sb.append(String.format("%02x", b & 0xFF));
+        return sb.toString();
+    }
+
+}
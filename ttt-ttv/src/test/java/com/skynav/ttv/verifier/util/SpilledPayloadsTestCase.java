@@ -0,0 +1,84 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import org.junit.Test;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+
+public class SpilledPayloadsTestCase {
+
+    @Test
+    public void testPayloadByHandle() throws Exception {
+        SpilledPayloads payloads = new SpilledPayloads();
+        SpilledPayloads.Payload payload = payloads.createPayload();
+        payload.append("AAECAwQFBgcICQ==");
+        payload.finish();
+        payload.checkEncoding();
+        assertSame(payload, payloads.getPayload(payload.getHandle()));
+    }
+
+    @Test
+    public void testSpoofedHandle() throws Exception {
+        SpilledPayloads payloads = new SpilledPayloads();
+        SpilledPayloads otherPayloads = new SpilledPayloads();
+        SpilledPayloads.Payload payload = payloads.createPayload();
+        payload.finish();
+        // content that resembles a handle, but lacks this store's token, must not resolve to a payload
+        assertNull(payloads.getPayload("{ttva-spill:0}"));
+        assertNull(otherPayloads.getPayload(payload.getHandle()));
+        String handle = payload.getHandle();
+        assertNull(payloads.getPayload(handle.substring(0, handle.lastIndexOf(':') + 1) + "1}"));
+    }
+
+    @Test
+    public void testBadEncoding() throws Exception {
+        SpilledPayloads payloads = new SpilledPayloads();
+        SpilledPayloads.Payload payload = payloads.createPayload();
+        payload.append("AAEC*wQF");
+        payload.finish();
+        try {
+            payload.checkEncoding();
+            fail("Expected encoding error.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+    @Test
+    public void testIncompleteEncoding() throws Exception {
+        SpilledPayloads payloads = new SpilledPayloads();
+        SpilledPayloads.Payload payload = payloads.createPayload();
+        payload.append("AAECAwQ");
+        payload.finish();
+        try {
+            payload.checkEncoding();
+            fail("Expected encoding error.");
+        } catch (IllegalArgumentException e) {
+        }
+    }
+
+}
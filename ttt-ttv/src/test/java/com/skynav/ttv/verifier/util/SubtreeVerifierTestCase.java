@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import com.skynav.ttv.util.Message;
+import com.skynav.ttv.util.NullReporter;
+import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.VerifierContext;
+
+public class SubtreeVerifierTestCase {
+
+    private static final String VISITED_KEY = "visited";
+
+    @Test(timeout = 30000)
+    public void testParallelMatchesSerial() throws Exception {
+        Subtree root = makeTree("", 3, 4);
+        RecordingContext serialContext = new RecordingContext(null);
+        boolean serialResult = SubtreeVerifier.verify(root.children, serialContext, new TestVerifier());
+        RecordingContext parallelContext = new RecordingContext(new SubtreeVerifier(4));
+        try {
+            boolean parallelResult = SubtreeVerifier.verify(root.children, parallelContext, new TestVerifier());
+            assertEquals(serialResult, parallelResult);
+        } finally {
+            SubtreeVerifier.getVerifier(parallelContext).shutdown();
+        }
+        assertTrue(!serialContext.reporter.getRecords().isEmpty());
+        assertEquals(serialContext.reporter.getRecords(), parallelContext.reporter.getRecords());
+        assertEquals(serialContext.getResourceState(VISITED_KEY), parallelContext.getResourceState(VISITED_KEY));
+    }
+
+    @Test(timeout = 30000)
+    public void testExceptionAfterMerge() throws Exception {
+        Subtree root = makeTree("", 1, 3);
+        root.children.get(1).exception = true;
+        RecordingContext context = new RecordingContext(new SubtreeVerifier(3));
+        try {
+            SubtreeVerifier.verify(root.children, context, new TestVerifier());
+            fail("Expected exception.");
+        } catch (IllegalStateException e) {
+            assertEquals("1", e.getMessage());
+        } finally {
+            SubtreeVerifier.getVerifier(context).shutdown();
+        }
+        // diagnostics of siblings that follow the failed subtree are not discarded
+        List<String> records = context.reporter.getRecords();
+        assertTrue(records.contains("info enter 0"));
+        assertTrue(records.contains("info enter 1"));
+        assertTrue(records.contains("info enter 2"));
+        assertTrue(records.indexOf("info enter 1") < records.indexOf("info enter 2"));
+    }
+
+    @Test(timeout = 30000)
+    public void testMergeMapState() throws Exception {
+        Subtree root = makeTree("", 1, 3);
+        RecordingContext context = new RecordingContext(new SubtreeVerifier(3));
+        try {
+            assertTrue(SubtreeVerifier.verify(root.children, context, new SubtreeVerifier.Verifier() {
+                @SuppressWarnings("unchecked")
+                public boolean verify(Object content, VerifierContext context) {
+                    String name = ((Subtree) content).name;
+                    Map<String,String> names = (Map<String,String>) context.getResourceState("names");
+                    if (names == null) {
+                        names = new java.util.HashMap<String,String>();
+                        context.setResourceState("names", names);
+                    }
+                    names.put(name, name);
+                    return true;
+                }
+            }));
+        } finally {
+            SubtreeVerifier.getVerifier(context).shutdown();
+        }
+        assertEquals(3, ((Map<?,?>) context.getResourceState("names")).size());
+    }
+
+    @Test(timeout = 30000)
+    public void testMergeCacheState() throws Exception {
+        Subtree root = makeTree("", 1, 3);
+        RecordingContext context = new RecordingContext(new SubtreeVerifier(3));
+        try {
+            assertTrue(SubtreeVerifier.verify(root.children, context, new SubtreeVerifier.Verifier() {
+                public boolean verify(Object content, VerifierContext context) {
+                    if (context.getResourceState("cache") == null)
+                        context.setResourceState("cache", new SubtreeVerifier.Cache() {});
+                    return true;
+                }
+            }));
+        } finally {
+            SubtreeVerifier.getVerifier(context).shutdown();
+        }
+        assertTrue(context.getResourceState("cache") instanceof SubtreeVerifier.Cache);
+    }
+
+    @Test(timeout = 30000)
+    public void testMergeConflictingState() throws Exception {
+        Subtree root = makeTree("", 1, 3);
+        RecordingContext context = new RecordingContext(new SubtreeVerifier(3));
+        try {
+            SubtreeVerifier.verify(root.children, context, new SubtreeVerifier.Verifier() {
+                public boolean verify(Object content, VerifierContext context) {
+                    context.setResourceState("name", ((Subtree) content).name);
+                    return true;
+                }
+            });
+            fail("Expected exception.");
+        } catch (IllegalStateException e) {
+            assertEquals("0", context.getResourceState("name"));
+        } finally {
+            SubtreeVerifier.getVerifier(context).shutdown();
+        }
+    }
+
+    private static Subtree makeTree(String name, int depth, int breadth) {
+        Subtree subtree = new Subtree(name);
+        if (depth > 0) {
+            for (int i = 0; i < breadth; ++i)
+                subtree.children.add(makeTree(name.length() > 0 ? name + "." + i : Integer.toString(i), depth - 1, breadth));
+        }
+        return subtree;
+    }
+
+    private static class Subtree {
+        private String name;
+        private List<Subtree> children = new java.util.ArrayList<Subtree>();
+        private boolean exception;
+        Subtree(String name) {
+            this.name = name;
+        }
+    }
+
+    private static class TestVerifier implements SubtreeVerifier.Verifier {
+        @SuppressWarnings("unchecked")
+        public boolean verify(Object content, VerifierContext context) {
+            assert content instanceof Subtree;
+            Subtree subtree = (Subtree) content;
+            Reporter reporter = context.getReporter();
+            reporter.logInfo(reporter.message("*KEY*", "enter {0}", subtree.name));
+            List<String> visited = (List<String>) context.getResourceState(VISITED_KEY);
+            if (visited == null) {
+                visited = new java.util.ArrayList<String>();
+                context.setResourceState(VISITED_KEY, visited);
+            }
+            visited.add(subtree.name);
+            // vary completion order of siblings
+            try {
+                Thread.sleep((subtree.name.hashCode() & 0x7) + 1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (subtree.exception)
+                throw new IllegalStateException(subtree.name);
+            boolean failed = false;
+            if (subtree.name.endsWith("1")) {
+                reporter.logError(reporter.message("*KEY*", "bad {0}", subtree.name));
+                failed = true;
+            } else if (subtree.name.endsWith("2"))
+                reporter.logWarning(reporter.message("*KEY*", "suspect {0}", subtree.name));
+            if (!SubtreeVerifier.verify(subtree.children, context, this))
+                failed = true;
+            reporter.logInfo(reporter.message("*KEY*", "exit {0}", subtree.name));
+            return !failed;
+        }
+    }
+
+    private static class RecordingReporter extends NullReporter {
+        private List<String> records = new java.util.ArrayList<String>();
+        public List<String> getRecords() {
+            return records;
+        }
+        @Override
+        public void logError(Message message) {
+            records.add("error " + message.toText());
+        }
+        @Override
+        public boolean logWarning(Message message) {
+            records.add("warning " + message.toText());
+            return false;
+        }
+        @Override
+        public void logInfo(Message message) {
+            records.add("info " + message.toText());
+        }
+    }
+
+    private static class RecordingContext extends TestContext {
+        private RecordingReporter reporter;
+        RecordingContext(SubtreeVerifier subtreeVerifier) {
+            super(new RecordingReporter());
+            this.reporter = (RecordingReporter) getReporter();
+            if (subtreeVerifier != null)
+                setResourceState(SubtreeVerifier.RESOURCE_STATE_KEY, subtreeVerifier);
+        }
+    }
+
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.Map;
+
+import javax.xml.namespace.QName;
+
+import org.w3c.dom.Node;
+
+import com.skynav.ttv.model.Model;
+import com.skynav.ttv.util.ExternalParameters;
+import com.skynav.ttv.util.NullReporter;
+import com.skynav.ttv.util.Reporter;
+import com.skynav.ttv.verifier.VerifierContext;
+
+/**
+ * Verifier context for testing verifier utilities outside of a verified document, i.e., having no model,
+ * bindings, or infoset, and keeping resource state in a map.
+ */
+class TestContext implements VerifierContext {
+
+    private Reporter reporter;
+    private Map<String,Object> resourceState = new java.util.HashMap<String,Object>();
+
+    TestContext() {
+        this(new NullReporter());
+    }
+
+    TestContext(Reporter reporter) {
+        this.reporter = reporter;
+    }
+
+    public ExternalParameters getExternalParameters() {
+        return null;
+    }
+
+    public Reporter getReporter() {
+        return reporter;
+    }
+
+    public Model getModel() {
+        return null;
+    }
+
+    public QName getBindingElementName(Object value) {
+        return null;
+    }
+
+    public Object getBindingElementParent(Object value) {
+        return null;
+    }
+
+    public Object getBindingElement(Node node) {
+        return null;
+    }
+
+    public Node getXMLNode(Object value) {
+        return null;
+    }
+
+    public void setResourceState(String key, Object value) {
+        resourceState.put(key, value);
+    }
+
+    public Object getResourceState(String key) {
+        return resourceState.get(key);
+    }
+
+    public Object extractResourceState(String key) {
+        return resourceState.remove(key);
+    }
+
+    public boolean isVerificationCancelled() {
+        return false;
+    }
+
+}
@@ -0,0 +1,289 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import com.skynav.ttv.model.value.ClockMode;
+import com.skynav.ttv.model.value.ClockTime;
+import com.skynav.ttv.model.value.DropMode;
+import com.skynav.ttv.model.value.OffsetTime;
+import com.skynav.ttv.model.value.Time;
+import com.skynav.ttv.model.value.TimeBase;
+import com.skynav.ttv.model.value.TimeParameters;
+import com.skynav.ttv.model.value.impl.ClockTimeImpl;
+import com.skynav.ttv.model.value.impl.OffsetTimeImpl;
+
+public class TimingTestCase {
+
+    // frame rate 30, sub-frame rate 2
+    private static final TimeParameters mediaParameters =
+        new TimeParameters(TimeBase.MEDIA, ClockMode.UTC, DropMode.NON_DROP, 30, 2, 30, 1, Double.NaN);
+    private static final TimeParameters clockParameters =
+        new TimeParameters(TimeBase.CLOCK, ClockMode.UTC, DropMode.NON_DROP, 30, 2, 30, 1, Double.NaN);
+
+    private static final String[] timeExpressions = new String[] {
+        // clock time
+        "00:00:00",
+        "01:02:03",
+        "100:00:00",
+        "00:59:59",
+        "00:60:00",
+        "00:00:60",
+        "00:00:60.5",
+        "0:00:00",
+        "00:0:00",
+        "00:00:0",
+        "00:000:00",
+        "00:00:000",
+        // clock time fractions
+        "00:00:00.5",
+        "00:00:00.000",
+        "00:00:59.999999",
+        "00:00:00.",
+        "00:00:00..5",
+        "00:00:00.5.5",
+        "00:00:00.1234567890123456789",
+        // clock time frames and sub-frames
+        "00:00:00:00",
+        "00:00:00:29",
+        "00:00:00:30",
+        "00:00:00:029",
+        "00:00:00:1",
+        "00:00:00:",
+        "00:00:00:10.0",
+        "00:00:00:10.1",
+        "00:00:00:10.2",
+        "00:00:00:10.",
+        "00:00:00:10.1.1",
+        "00:00:00:10:10",
+        // offset time
+        "0h",
+        "1.5h",
+        "10m",
+        "10s",
+        "0.0s",
+        "10ms",
+        "10f",
+        "29.5f",
+        "10t",
+        "1000000t",
+        "0.25t",
+        ".5s",
+        "5.s",
+        "5",
+        "s",
+        "ms",
+        "5mss",
+        "5sm",
+        "5S",
+        "5 s",
+        "-5s",
+        "+5s",
+        // leading and trailing junk
+        "",
+        " ",
+        " 00:00:00",
+        "00:00:00 ",
+        "x00:00:00",
+        "00:00:00x",
+        "00:00:00:10.1x",
+        " 5s",
+        "5s ",
+        "x5s",
+        "5sx",
+        "٠١:00:00",
+        "٥s",
+        // overflow
+        "999999999:00:00",
+        "9999999999:00:00",
+        "99999999999999999999:00:00",
+        "00:00:00:00.999999999",
+        "00:00:00:00.9999999999",
+        "00:00:00:999999999999999999",
+        "999999999999999.5s",
+        "1234567890123456789.25s",
+        "99999999999999999999999999999999999999t",
+    };
+
+    @Test
+    public void testEquivalentToPatternMatching() {
+        for (String value : timeExpressions) {
+            for (TimeParameters parameters : new TimeParameters[] { mediaParameters, clockParameters }) {
+                Time[] expected = new Time[1];
+                boolean expectedResult = isPatternCoordinate(value, parameters, expected);
+                for (Timing.Memo memo : new Timing.Memo[] { null, new Timing.Memo() }) {
+                    // second iteration of memo loop reuses memoized parse
+                    for (int i = 0; i < 2; ++i) {
+                        Time[] actual = new Time[1];
+                        boolean actualResult = Timing.isCoordinate(value, null, null, parameters, actual, memo);
+                        assertEquals("'" + value + "'", expectedResult, actualResult);
+                        assertEqualTimes("'" + value + "'", expected[0], actual[0]);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testClockTime() {
+        ClockTime t = (ClockTime) parse("100:02:03.25");
+        assertEquals(100, t.getHours());
+        assertEquals(2, t.getMinutes());
+        assertEquals(3.25, t.getSeconds(), 0);
+        assertEquals(0, t.getFrames(), 0);
+        assertEquals(0, t.getSubFrames());
+        t = (ClockTime) parse("00:00:01:29.1");
+        assertEquals(1, t.getSeconds(), 0);
+        assertEquals(29, t.getFrames(), 0);
+        assertEquals(1, t.getSubFrames());
+        assertNull(parse("00:00:00:30"));
+        assertNull(parse("00:00:00:10.2"));
+        assertNull(parse("00:60:00"));
+        assertNull(parse("00:00:60.5"));
+        assertFalse(Timing.isCoordinate("00:00:00:10", null, null, clockParameters, null, null));
+    }
+
+    @Test
+    public void testOffsetTime() {
+        OffsetTime t = (OffsetTime) parse("12.5ms");
+        assertEquals(12.5, t.getOffset(), 0);
+        assertEquals(OffsetTime.Metric.Milliseconds, t.getMetric());
+        t = (OffsetTime) parse("90000t");
+        assertEquals(90000, t.getOffset(), 0);
+        assertEquals(OffsetTime.Metric.Ticks, t.getMetric());
+        assertEquals(OffsetTime.Metric.Frames, ((OffsetTime) parse("10f")).getMetric());
+        assertNull(parse("5sm"));
+        assertNull(parse(" 5s"));
+        assertNull(parse("5s "));
+        assertFalse(Timing.isCoordinate("10f", null, null, clockParameters, null, null));
+    }
+
+    @Test
+    public void testFractionRounding() {
+        // fractions are correctly rounded, both when parsed exactly and when deferred to string parse
+        assertEquals(Double.parseDouble("0.1"), ((ClockTime) parse("00:00:00.1")).getSeconds(), 0);
+        assertEquals(Double.parseDouble("59.999999"), ((ClockTime) parse("00:00:59.999999")).getSeconds(), 0);
+        assertEquals(Double.parseDouble("00.1234567890123456789"), ((ClockTime) parse("00:00:00.1234567890123456789")).getSeconds(), 0);
+        assertEquals(Double.parseDouble("1234567890123456789.25"), ((OffsetTime) parse("1234567890123456789.25s")).getOffset(), 0);
+    }
+
+    @Test
+    public void testMemoIgnoresTimeParameters() {
+        // memo retains only syntactic parse, so constraints that depend on time parameters are checked on each use
+        Timing.Memo memo = new Timing.Memo();
+        TimeParameters lowFrameRate = new TimeParameters(TimeBase.MEDIA, ClockMode.UTC, DropMode.NON_DROP, 24, 1, 24, 1, Double.NaN);
+        assertTrue(Timing.isCoordinate("00:00:00:25", null, null, mediaParameters, null, memo));
+        assertFalse(Timing.isCoordinate("00:00:00:25", null, null, lowFrameRate, null, memo));
+        assertTrue(Timing.isCoordinate("00:00:00:25", null, null, mediaParameters, null, memo));
+    }
+
+    private static Time parse(String value) {
+        Time[] outputTime = new Time[1];
+        if (Timing.isCoordinate(value, null, null, mediaParameters, outputTime, null)) {
+            assertNotNull(outputTime[0]);
+            return outputTime[0];
+        } else
+            return null;
+    }
+
+    private static void assertEqualTimes(String message, Time expected, Time actual) {
+        if (expected == null)
+            assertNull(message, actual);
+        else if (expected instanceof ClockTime) {
+            assertTrue(message, actual instanceof ClockTime);
+            ClockTime e = (ClockTime) expected;
+            ClockTime a = (ClockTime) actual;
+            assertEquals(message, e.getHours(), a.getHours());
+            assertEquals(message, e.getMinutes(), a.getMinutes());
+            assertEquals(message, e.getSeconds(), a.getSeconds(), 0);
+            assertEquals(message, e.getFrames(), a.getFrames(), 0);
+            assertEquals(message, e.getSubFrames(), a.getSubFrames());
+        } else {
+            assertTrue(message, actual instanceof OffsetTime);
+            OffsetTime e = (OffsetTime) expected;
+            OffsetTime a = (OffsetTime) actual;
+            assertEquals(message, e.getOffset(), a.getOffset(), 0);
+            assertEquals(message, e.getMetric(), a.getMetric());
+        }
+    }
+
+    // reference implementation using regular expressions, as replaced by scanning
+
+    private static final Pattern clockTimePattern = Pattern.compile("(\\d{2,}):(\\d{2}):(\\d{2})(\\.\\d+|:\\d{2,}(?:\\.\\d+)?)?");
+    private static final Pattern offsetTimePattern = Pattern.compile("(\\d+(?:\\.\\d+)?)(h|m|s|ms|f|t)");
+
+    private static boolean isPatternCoordinate(String value, TimeParameters timeParameters, Time[] outputTime) {
+        Matcher m = clockTimePattern.matcher(value);
+        if (m.matches()) {
+            String seconds = m.group(3);
+            String frames = null;
+            String subFrames = null;
+            String remainder = m.group(4);
+            if (remainder != null) {
+                if (remainder.indexOf(':') == 0) {
+                    String[] parts = remainder.substring(1).split("\\.", 3);
+                    if (parts.length > 0)
+                        frames = parts[0];
+                    if (parts.length > 1)
+                        subFrames = parts[1];
+                } else
+                    seconds += remainder;
+            }
+            if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && ((frames != null) || (subFrames != null)))
+                return false;
+            ClockTime t = new ClockTimeImpl(m.group(1), m.group(2), seconds, frames, subFrames);
+            if (t.getMinutes() > 59)
+                return false;
+            if (t.getSeconds() > 60.0)
+                return false;
+            if (t.getFrames() >= timeParameters.getFrameRate())
+                return false;
+            if (t.getSubFrames() >= timeParameters.getSubFrameRate())
+                return false;
+            outputTime[0] = t;
+            return true;
+        }
+        m = offsetTimePattern.matcher(value);
+        if (m.matches()) {
+            OffsetTime t = new OffsetTimeImpl(m.group(1), m.group(2));
+            if ((timeParameters.getTimeBase() == TimeBase.CLOCK) && (t.getMetric() == OffsetTime.Metric.Frames))
+                return false;
+            outputTime[0] = t;
+            return true;
+        }
+        return false;
+    }
+
+}
@@ -0,0 +1,270 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.skynav.ttv.verifier.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.List;
+import java.util.Set;
+
+import javax.xml.namespace.QName;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import org.xml.sax.Locator;
+import org.xml.sax.helpers.LocatorImpl;
+
+import com.skynav.ttv.model.Model;
+import com.skynav.ttv.model.value.Color;
+import com.skynav.ttv.model.value.FontFamily;
+import com.skynav.ttv.model.value.Length;
+import com.skynav.ttv.util.Location;
+import com.skynav.ttv.util.Message;
+import com.skynav.ttv.util.NullReporter;
+import com.skynav.ttv.verifier.StyleVerifier;
+
+public class ValueCacheTestCase {
+
+    private static final String[] colorValues = new String[] {
+        "#ff0000", "#FF000080", "#ff00", "rgb(255,0,0)", "rgba(255,0,0,128)", "rgb(256,0,0)", "rgba(1,2,3)",
+        "red", "transparent", "Red", "notacolor", "#", "rgb()", "  blue  ", "1blue"
+    };
+
+    private static final String[] lengthValues = new String[] {
+        "10px", "-1px", "1.5em", "-.5c", "5%", "-5%", "1c", "2rh", "3rw", "10", "-10", "1.px",
+        "abc", "1xx", "+2px", "px", "", " 1px"
+    };
+
+    private static final String[] fontFamilyValues = new String[] {
+        "serif", "Arial, sans-serif", "'serif'", "\"monospace\", Times", "'unterminated", "'x' y",
+        "''", "a,,b", "1abc", "a b c", "monospaceSansSerif", "\"a\\\"b\", serif", ","
+    };
+
+    private static final QName elementName = new QName("", "span");
+    private static final QName unitsOptionalAttribute = new QName("", "fontSize");
+    private static final QName unitsRequiredAttribute = new QName("", "extent");
+
+    @Test
+    public void testCachedColors() throws Exception {
+        for (int version = 1; version <= 2; ++version) {
+            ValueCacheContext cached = new ValueCacheContext(version, true);
+            List<String> cachedResults = verifyColors(cached);
+            List<String> uncachedResults = verifyColors(new ValueCacheContext(version, false));
+            assertEquals(uncachedResults, cachedResults);
+            for (String value : colorValues)
+                assertNotNull(value, ValueCache.getCache(cached, "Color").get(value));
+        }
+    }
+
+    @Test
+    public void testCachedLengths() throws Exception {
+        for (int version = 1; version <= 2; ++version) {
+            for (Object treatment : NegativeTreatment.values()) {
+                ValueCacheContext cached = new ValueCacheContext(version, true);
+                List<String> cachedResults = verifyLengths(cached, treatment);
+                ValueCacheContext uncached = new ValueCacheContext(version, false);
+                List<String> uncachedResults = verifyLengths(uncached, treatment);
+                assertEquals(uncachedResults, cachedResults);
+                for (Length.Unit unit : Length.Unit.values())
+                    assertEquals(unit.name(), uncached.getUsage(unit), cached.getUsage(unit));
+                for (String value : lengthValues)
+                    assertNotNull(value, ValueCache.getCache(cached, "Length").get(value));
+            }
+        }
+    }
+
+    @Test
+    public void testCachedFontFamilies() throws Exception {
+        for (Object treatment : QuotedGenericFontFamilyTreatment.values()) {
+            ValueCacheContext cached = new ValueCacheContext(2, true);
+            List<String> cachedResults = verifyFontFamilies(cached, treatment);
+            List<String> uncachedResults = verifyFontFamilies(new ValueCacheContext(2, false), treatment);
+            assertEquals(uncachedResults, cachedResults);
+            assertNotNull(ValueCache.getCache(cached, "FontFamilies").get("Arial, sans-serif"));
+            // quoted generic family names are subject to treatment, so are never cached
+            assertNull(ValueCache.getCache(cached, "FontFamilies").get("'serif'"));
+        }
+    }
+
+    @Test
+    public void testUncachedContext() throws Exception {
+        ValueCacheContext uncached = new ValueCacheContext(2, false);
+        verifyColors(uncached);
+        assertNull(ValueCache.getCache(uncached, "Color").get(colorValues[0]));
+        assertFalse(Colors.isColor("notacolor", new Location(null, elementName, unitsOptionalAttribute, null), null, null));
+    }
+
+    private List<String> verifyColors(ValueCacheContext context) {
+        RecordingReporter reporter = context.getRecordingReporter();
+        int line = 0;
+        for (int pass = 0; pass < 2; ++pass) {
+            for (String value : colorValues) {
+                Location location = new Location(null, elementName, unitsOptionalAttribute, newLocator(++line));
+                Color[] color = new Color[1];
+                if (Colors.isColor(value, location, context, color))
+                    reporter.record("valid " + value + " " + color[0]);
+                else
+                    Colors.badColor(value, location, context);
+            }
+        }
+        return reporter.getRecords();
+    }
+
+    private List<String> verifyLengths(ValueCacheContext context, Object treatment) {
+        RecordingReporter reporter = context.getRecordingReporter();
+        int line = 0;
+        for (int pass = 0; pass < 2; ++pass) {
+            for (QName attributeName : new QName[] { unitsOptionalAttribute, unitsRequiredAttribute }) {
+                for (String value : lengthValues) {
+                    Location location = new Location(null, elementName, attributeName, newLocator(++line));
+                    Object[] treatments = new Object[] { treatment };
+                    Length[] length = new Length[1];
+                    if (Lengths.isLength(value, location, context, treatments, length))
+                        reporter.record("valid " + value + " " + length[0]);
+                    else
+                        Lengths.badLength(value, location, context, treatments);
+                }
+            }
+        }
+        return reporter.getRecords();
+    }
+
+    private List<String> verifyFontFamilies(ValueCacheContext context, Object treatment) {
+        RecordingReporter reporter = context.getRecordingReporter();
+        int line = 0;
+        for (int pass = 0; pass < 2; ++pass) {
+            for (String value : fontFamilyValues) {
+                Location location = new Location(null, elementName, unitsOptionalAttribute, newLocator(++line));
+                Object[] treatments = new Object[] { treatment };
+                List<FontFamily> families = new java.util.ArrayList<FontFamily>();
+                if (Fonts.isFontFamilies(value, location, context, treatments, families))
+                    reporter.record("valid " + value + " " + families);
+                else
+                    Fonts.badFontFamilies(value, location, context, treatments);
+            }
+        }
+        return reporter.getRecords();
+    }
+
+    private static Locator newLocator(int line) {
+        LocatorImpl locator = new LocatorImpl();
+        locator.setSystemId("test.ttml");
+        locator.setLineNumber(line);
+        locator.setColumnNumber(1);
+        return locator;
+    }
+
+    private static class RecordingReporter extends NullReporter {
+        private List<String> records = new java.util.ArrayList<String>();
+        public void record(String text) {
+            records.add(text);
+        }
+        public List<String> getRecords() {
+            return records;
+        }
+        @Override
+        public void logError(Message message) {
+            record("error " + message.toText());
+        }
+        @Override
+        public boolean logWarning(Message message) {
+            record("warning " + message.toText());
+            return true;
+        }
+        @Override
+        public void logInfo(Message message) {
+            record("info " + message.toText());
+        }
+    }
+
+    private static class ValueCacheContext extends TestContext {
+        private int ttmlVersion;
+        private boolean caching;
+        private RecordingReporter reporter;
+        private Model model;
+        ValueCacheContext(int ttmlVersion, boolean caching) {
+            super(new RecordingReporter());
+            this.ttmlVersion = ttmlVersion;
+            this.caching = caching;
+            this.reporter = (RecordingReporter) getReporter();
+            this.model = (Model) Proxy.newProxyInstance(Model.class.getClassLoader(), new Class<?>[] { Model.class }, new ModelHandler());
+        }
+        RecordingReporter getRecordingReporter() {
+            return reporter;
+        }
+        List<Integer> getUsage(Length.Unit unit) {
+            List<Integer> lines = new java.util.ArrayList<Integer>();
+            @SuppressWarnings("unchecked")
+            Set<Locator> usage = (Set<Locator>) getResourceState("usage" + unit.name());
+            if (usage != null) {
+                for (Locator locator : usage)
+                    lines.add(locator.getLineNumber());
+            }
+            java.util.Collections.sort(lines);
+            return lines;
+        }
+        @Override
+        public Model getModel() {
+            return model;
+        }
+        @Override
+        public void setResourceState(String key, Object value) {
+            // an uncached context discards value caches, so that every value is parsed afresh
+            if (caching || !key.startsWith("valueCache"))
+                super.setResourceState(key, value);
+        }
+        private class ModelHandler implements InvocationHandler {
+            private StyleVerifier styleVerifier =
+                (StyleVerifier) Proxy.newProxyInstance(StyleVerifier.class.getClassLoader(), new Class<?>[] { StyleVerifier.class }, new StyleVerifierHandler());
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("getTTMLVersion"))
+                    return Integer.valueOf(ttmlVersion);
+                else if (name.equals("getStyleVerifier"))
+                    return styleVerifier;
+                else
+                    throw new UnsupportedOperationException(name);
+            }
+        }
+        private class StyleVerifierHandler implements InvocationHandler {
+            public Object invoke(Object proxy, Method method, Object[] args) {
+                String name = method.getName();
+                if (name.equals("isLengthUnitsRequired"))
+                    return Boolean.valueOf(unitsRequiredAttribute.equals(args[1]));
+                else if (name.equals("isLengthUnitsPermitted"))
+                    return Boolean.valueOf(!(unitsRequiredAttribute.equals(args[1]) && (args[2] == Length.Unit.Percentage)));
+                else
+                    throw new UnsupportedOperationException(name);
+            }
+        }
+    }
+
+}
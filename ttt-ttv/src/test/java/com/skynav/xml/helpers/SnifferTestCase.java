@@ -338,6 +338,32 @@ public class SnifferTestCase {
         }
     }
 
+    static private final int[][] shortResourceTests = new int[][] {
+        {},                         // empty resource
+        { '<' },                    // single byte
+        { '<', 0x00 },              // possible utf-16le prefix
+        { 0x00, '<' },              // possible utf-16be prefix
+        { '<', 0x00, 0x00 },        // possible utf-32le prefix
+        { 0x00, 0x00, 0x00 },       // possible utf-32be prefix
+        { '<', '?', 'x' },          // xml declaration prefix
+    };
+
+    @Test
+    public void testSniffShortResource() throws Exception {
+        int testIndex = 0;
+        for (int[] test : shortResourceTests) {
+            // exercise both array backed and direct (e.g., mapped file) buffers
+            for (boolean direct : new boolean[] { false, true }) {
+                ByteBuffer bb = direct ? ByteBuffer.allocateDirect(test.length) : ByteBuffer.allocate(test.length);
+                for (int i = 0; i < test.length; ++i)
+                    bb.put(i, (byte) test[i]);
+                assertNull("Test Index " + testIndex, Sniffer.sniff(bb, null));
+                assertEquals("Test Index " + testIndex, asciiCharset, Sniffer.sniff(bb, asciiCharset));
+            }
+            ++testIndex;
+        }
+    }
+
     private static void addSpaceAroundEquals(StringBuffer sb, SpaceAroundEquals spaceAround, boolean beforeEquals) {
         if (spaceAround == SpaceAroundEquals.One)
             sb.append(' ');
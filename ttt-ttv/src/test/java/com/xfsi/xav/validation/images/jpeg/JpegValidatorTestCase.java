@@ -0,0 +1,138 @@
+/*
+ * Copyright 2021 Skynav, Inc. All rights reserved.
+ *
+ * Redistribution and use in source and binary forms, with or without
+ * modification, are permitted provided that the following conditions are met:
+ *
+ * 1. Redistributions of source code must retain the above copyright notice,
+ * this list of conditions and the following disclaimer.
+ *
+ * 2. Redistributions in binary form must reproduce the above copyright notice,
+ * this list of conditions and the following disclaimer in the documentation
+ * and/or other materials provided with the distribution.
+ *
+ * THIS SOFTWARE IS PROVIDED BY SKYNAV, INC. AND ITS CONTRIBUTORS “AS IS” AND ANY
+ * EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ * WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ * DISCLAIMED. IN NO EVENT SHALL SKYNAV, INC. OR ITS CONTRIBUTORS BE LIABLE FOR
+ * ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL
+ * DAMAGES (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR
+ * SERVICES; LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER
+ * CAUSED AND ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY,
+ * OR TORT (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE
+ * OF THIS SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+ */
+
+package com.xfsi.xav.validation.images.jpeg;
+
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.util.List;
+
+import javax.imageio.ImageIO;
+
+import org.junit.Test;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.xfsi.xav.test.TestInfo;
+import com.xfsi.xav.util.Error;
+import com.xfsi.xav.util.MimeType;
+import com.xfsi.xav.util.Result;
+import com.xfsi.xav.validation.util.AbstractTestInfo;
+import com.xfsi.xav.validation.util.AbstractTestManager;
+
+public class JpegValidatorTestCase {
+
+    @Test
+    public void testWellFormedBuffer() throws Exception {
+        byte[] data = makeJpeg(7, 5);
+        String expected = validate(data, Mode.Stream);
+        assertEquals(expected, validate(data, Mode.HeapBuffer));
+        assertEquals(expected, validate(data, Mode.DirectBuffer));
+        assertEquals(expected, validate(data, Mode.SlicedBuffer));
+    }
+
+    @Test
+    public void testBadMarkerBuffer() throws Exception {
+        byte[] data = makeJpeg(7, 5);
+        // corrupt marker following SOI and APP0 segment
+        int offset = 2 + 2 + (((data[4] & 0xFF) << 8) | (data[5] & 0xFF));
+        assertEquals((byte) 0xFF, data[offset]);
+        data[offset] = 0x00;
+        String expected = validate(data, Mode.Stream);
+        assertTrue(expected.startsWith("FAIL"));
+        assertEquals(expected, validate(data, Mode.HeapBuffer));
+        assertEquals(expected, validate(data, Mode.DirectBuffer));
+        assertEquals(expected, validate(data, Mode.SlicedBuffer));
+    }
+
+    @Test
+    public void testTruncatedBuffer() throws Exception {
+        byte[] full = makeJpeg(7, 5);
+        for (int length : new int[] { 0, 4, 8, 20, full.length - 1 }) {
+            byte[] data = java.util.Arrays.copyOf(full, length);
+            String expected = validate(data, Mode.Stream);
+            assertFalse(expected.startsWith("PASS"));
+            assertEquals(expected, validate(data, Mode.HeapBuffer));
+            assertEquals(expected, validate(data, Mode.DirectBuffer));
+        }
+    }
+
+    private enum Mode {
+        Stream,
+        HeapBuffer,
+        DirectBuffer,
+        SlicedBuffer;
+    }
+
+    private static String validate(byte[] data, Mode mode) throws Exception {
+        TestInfo ti = new AbstractTestInfo() {};
+        ti.setMimeType(new MimeType(MimeType.IMAGE_JPG_TYPE));
+        if (mode == Mode.Stream)
+            ti.setResourceStream(new ByteArrayInputStream(data));
+        else if (mode == Mode.HeapBuffer)
+            ti.setResourceBuffer(ByteBuffer.wrap(data));
+        else if (mode == Mode.DirectBuffer) {
+            ByteBuffer bb = ByteBuffer.allocateDirect(data.length);
+            bb.put(data);
+            bb.flip();
+            ti.setResourceBuffer(bb);
+        } else {
+            // content at non-zero position, followed by trailing bytes beyond limit
+            ByteBuffer bb = ByteBuffer.allocate(data.length + 6);
+            bb.position(3);
+            bb.put(data);
+            bb.position(3);
+            bb.limit(3 + data.length);
+            ti.setResourceBuffer(bb);
+        }
+        RecordingTestManager tm = new RecordingTestManager();
+        Result r = new JpegValidator().run(tm, ti);
+        String extent = r.isFailure() ? "" : (" " + r.getState("width") + "x" + r.getState("height"));
+        return (r.isFailure() ? "FAIL" : "PASS") + extent + " " + tm.errors;
+    }
+
+    private static byte[] makeJpeg(int width, int height) throws Exception {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        for (int y = 0; y < height; ++y) {
+            for (int x = 0; x < width; ++x)
+                image.setRGB(x, y, (x * 40) << 16 | (y * 50) << 8);
+        }
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        ImageIO.write(image, "jpg", bos);
+        return bos.toByteArray();
+    }
+
+    private static class RecordingTestManager extends AbstractTestManager {
+        private List<String> errors = new java.util.ArrayList<String>();
+        public void reportError(TestInfo ti, Error error) {
+            if (error.getSeverity().isSevereAs(Error.Severity.ERROR_SEVERITY))
+                errors.add(error.getMessage());
+        }
+    }
+
+}
@@ -52,6 +52,7 @@ import com.skynav.ttv.app.UnknownOptionException;
 import com.skynav.ttv.model.Model;
 import com.skynav.ttv.util.Condition;
 import com.skynav.ttv.util.ExternalParameters;
+import com.skynav.ttv.util.Metrics;
 import com.skynav.ttv.util.Reporter;
 
 import com.skynav.ttx.transformer.Transformer;
@@ -178,6 +179,7 @@ public class TimedTextTransformer implements ResultProcessor, TransformerContext
                 preTransformMemory = getUsedMemory();
                 reporter.logInfo(reporter.message("*KEY*", "Pre-transform memory usage: {0}", preTransformMemory));
             }
+            beginMetricsPhase("Transform");
             transformer.transform(args, root, null);
             if (showMemory) {
                 postTransformMemory = getUsedMemory();
@@ -186,6 +188,13 @@ public class TimedTextTransformer implements ResultProcessor, TransformerContext
         }
     }
 
+    protected void beginMetricsPhase(String name) {
+        // phase ends when verifier completes processing of resource or when a subsequent phase begins
+        Object metrics = getResourceState(Metrics.RESOURCE_STATE_KEY);
+        if (metrics instanceof Metrics)
+            ((Metrics) metrics).begin(name);
+    }
+
     protected void initializeResourceState(URI uri, Model model) {
         this  .initializeResourceState(uri);
         model .initializeResourceState(uri, verifier.getResourceState());
@@ -265,6 +274,10 @@ public class TimedTextTransformer implements ResultProcessor, TransformerContext
         return verifier.extractResourceState(key);
     }
 
+    public boolean isVerificationCancelled() {
+        return verifier.isVerificationCancelled();
+    }
+
     public Condition.EvaluatorState getConditionEvaluatorState() {
         return (Condition.EvaluatorState) getResourceState(ResourceState.ttxConditionEvaluatorState.name());
     }
@@ -44,7 +44,6 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.Set;
 
-import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
 import javax.xml.bind.Marshaller;
 import javax.xml.namespace.QName;
@@ -65,6 +64,8 @@ import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.w3c.dom.Text;
 
+import org.xml.sax.Locator;
+
 import com.skynav.ttv.app.InvalidOptionUsageException;
 import com.skynav.ttv.app.MissingOptionArgumentException;
 import com.skynav.ttv.app.OptionSpecification;
@@ -75,6 +76,8 @@ import com.skynav.ttv.util.Annotations;
 import com.skynav.ttv.util.ComparableQName;
 import com.skynav.ttv.util.Condition;
 import com.skynav.ttv.util.IOUtil;
+import com.skynav.ttv.util.JAXBContexts;
+import com.skynav.ttv.util.Locators;
 import com.skynav.ttv.util.Namespaces;
 import com.skynav.ttv.util.PostVisitor;
 import com.skynav.ttv.util.PreVisitor;
@@ -438,13 +441,19 @@ public class ISD {
                 cleanOutputDirectory(outputDirectory, context);
             try {
                 Model model = context.getModel();
-                JAXBContext jc = JAXBContext.newInstance(model.getJAXBContextPath());
                 DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
                 dbf.setNamespaceAware(true);
                 DocumentBuilder db = dbf.newDocumentBuilder();
                 Document doc = db.newDocument();
-                Marshaller m = jc.createMarshaller();
-                m.marshal(context.getBindingElement(context.getXMLNode(root)), doc);
+                boolean retainLocations = (Boolean) context.getResourceState(TransformerContext.ResourceState.ttxRetainLocations.name());
+                if (retainLocations)
+                    annotateLocations(root, context);
+                Marshaller m = JAXBContexts.acquireMarshaller(model.getJAXBContextPath());
+                try {
+                    m.marshal(context.getBindingElement(context.getXMLNode(root)), doc);
+                } finally {
+                    JAXBContexts.releaseMarshaller(model.getJAXBContextPath(), m);
+                }
                 List<Object> isdSequence = new java.util.ArrayList<Object>();
                 for (TimeInterval interval : intervals) {
                     Document docCopy = copyDocument(doc, db);
@@ -473,6 +482,26 @@ public class ISD {
             }
         }
 
+        private static void annotateLocations(Object root, final TransformerContext context) {
+            // locations are recorded in a side table of the source document, so carry them into the output as attributes
+            try {
+                getHelper(context).traverse(root, new PreVisitor() {
+                    public boolean visit(Object content, Object parent, Visitor.Order order) {
+                        Map<QName,String> attributes = Annotations.getOtherAttributes(content);
+                        if (attributes != null) {
+                            Node node = context.getXMLNode(content);
+                            Locator locator = (node != null) ? Locators.getLocator(node, null) : null;
+                            if (locator != null)
+                                attributes.put(Locators.getLocatorAttributeQName(), Locators.getLocatorAttributeValue(locator));
+                        }
+                        return true;
+                    }
+                });
+            } catch (Exception e) {
+                context.getReporter().logError(e);
+            }
+        }
+
         private static Document copyDocument(Document doc, DocumentBuilder db) {
             Document docCopy = db.newDocument();
             Node rootCopy = doc.getDocumentElement().cloneNode(true);
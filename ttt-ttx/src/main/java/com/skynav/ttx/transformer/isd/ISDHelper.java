@@ -25,8 +25,6 @@
 
 package com.skynav.ttx.transformer.isd;
 
-import java.lang.reflect.InvocationTargetException;
-import java.lang.reflect.Method;
 import java.util.List;
 import java.util.Map;
 
@@ -37,6 +35,7 @@ import org.w3c.dom.Element;
 
 import com.skynav.ttv.model.Model;
 import com.skynav.ttv.model.ttml.TTML;
+import com.skynav.ttv.util.Accessors;
 import com.skynav.ttv.util.StyleSet;
 import com.skynav.ttv.util.StyleSpecification;
 import com.skynav.ttv.util.Visitor;
@@ -182,19 +181,9 @@ public abstract class ISDHelper {
 
     public static String getStringValuedAttribute(Object content, String attributeName) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod(makeGetterName(attributeName), new Class<?>[]{});
-            return (String) m.invoke(content, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return (String) Accessors.get(content, makeGetterName(attributeName));
         } catch (NoSuchMethodException e) {
             return null;
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -210,19 +199,9 @@ public abstract class ISDHelper {
     @SuppressWarnings("unchecked")
     public static Map<QName,String> getOtherAttributes(Object content) {
         try {
-            Class<?> contentClass = content.getClass();
-            Method m = contentClass.getMethod("getOtherAttributes", new Class<?>[]{});
-            return (Map<QName,String>) m.invoke(content, new Object[]{});
-        } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
-        } catch (IllegalArgumentException e) {
-            throw new RuntimeException(e);
-        } catch (InvocationTargetException e) {
-            throw new RuntimeException(e);
+            return (Map<QName,String>) Accessors.get(content, "getOtherAttributes");
         } catch (NoSuchMethodException e) {
             return null;
-        } catch (SecurityException e) {
-            throw new RuntimeException(e);
         }
     }
 
@@ -173,7 +173,7 @@ public class TimingState {
     }
 
     private void resolveExplicitDuration() {
-        TimeCoordinate durExplicit = getDurationAttribute(content, timeParameters);
+        TimeCoordinate durExplicit = getDurationAttribute(content, timeParameters, Timing.getMemo(context));
         if (durExplicit.isInvalid())
             durExplicit = TimeCoordinate.UNSPECIFIED;
         this.durExplicit = durExplicit;
@@ -182,7 +182,7 @@ public class TimingState {
     }
 
     private void resolveExplicitBegin() {
-        TimeCoordinate beginExplicit = getBeginAttribute(content, timeParameters);
+        TimeCoordinate beginExplicit = getBeginAttribute(content, timeParameters, Timing.getMemo(context));
         if (beginExplicit.isInvalid())
             beginExplicit = TimeCoordinate.UNSPECIFIED;
         this.beginExplicit = beginExplicit;
@@ -191,7 +191,7 @@ public class TimingState {
     }
 
     private void resolveExplicitEnd() {
-        TimeCoordinate endExplicit = getEndAttribute(content, timeParameters);
+        TimeCoordinate endExplicit = getEndAttribute(content, timeParameters, Timing.getMemo(context));
         if (endExplicit.isInvalid())
             endExplicit = TimeCoordinate.UNSPECIFIED;
         this.endExplicit = endExplicit;
@@ -344,10 +344,14 @@ public class TimingState {
     }
 
     public static TimeCoordinate getTimeCoordinateAttribute(Object content, String name, TimeParameters timeParameters) {
+        return getTimeCoordinateAttribute(content, name, timeParameters, null);
+    }
+
+    public static TimeCoordinate getTimeCoordinateAttribute(Object content, String name, TimeParameters timeParameters, Timing.Memo memo) {
         String value = ISDHelper.getStringValuedAttribute(content, name);
         if (value != null) {
             Time[] times = new Time[1];
-            if (Timing.isCoordinate(value, null, null, timeParameters, times)) {
+            if (Timing.isCoordinate(value, null, null, timeParameters, times, memo)) {
                 assert times.length > 0;
                 return TimeCoordinate.fromValue(times[0].getTime(timeParameters));
             } else {
@@ -361,12 +365,24 @@ public class TimingState {
         return getTimeCoordinateAttribute(content, "dur", timeParameters);
     }
 
+    public static TimeCoordinate getDurationAttribute(Object content, TimeParameters timeParameters, Timing.Memo memo) {
+        return getTimeCoordinateAttribute(content, "dur", timeParameters, memo);
+    }
+
     public static TimeCoordinate getBeginAttribute(Object content, TimeParameters timeParameters) {
         return getTimeCoordinateAttribute(content, "begin", timeParameters);
     }
 
+    public static TimeCoordinate getBeginAttribute(Object content, TimeParameters timeParameters, Timing.Memo memo) {
+        return getTimeCoordinateAttribute(content, "begin", timeParameters, memo);
+    }
+
     public static TimeCoordinate getEndAttribute(Object content, TimeParameters timeParameters) {
         return getTimeCoordinateAttribute(content, "end", timeParameters);
     }
 
+    public static TimeCoordinate getEndAttribute(Object content, TimeParameters timeParameters, Timing.Memo memo) {
+        return getTimeCoordinateAttribute(content, "end", timeParameters, memo);
+    }
+
 }